@@ -32,3 +32,64 @@ create table ACT_RE_DECISION_DEF (
 alter table ACT_RE_DECISION_DEF
     add constraint ACT_UNIQ_DECISION_DEF
     unique (KEY_,VERSION_);
+
+-- message correlation key --
+
+ALTER TABLE ACT_RU_EVENT_SUBSCR
+  ADD CORRELATION_KEY_ NVARCHAR2(255);
+
+create index ACT_IDX_EVENT_SUBSCR_EVT_NAME on ACT_RU_EVENT_SUBSCR(EVENT_NAME_);
+create index ACT_IDX_EVENT_SUBSCR_CORR_KEY on ACT_RU_EVENT_SUBSCR(CORRELATION_KEY_);
+
+-- authorization revisions per resource type --
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.0', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.1', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.2', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.3', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.4', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.5', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.6', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.7', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.8', '0', 1);
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('authorization.revision.9', '0', 1);
+
+-- statistics counters --
+
+INSERT INTO ACT_GE_PROPERTY
+  VALUES ('statistics.counter.rebuild', '0', 1);
+
+create table ACT_RU_STATS_COUNTER (
+  ID_ NVARCHAR2(64) not null,
+  PROC_DEF_ID_ NVARCHAR2(64) not null,
+  TYPE_ NVARCHAR2(64) not null,
+  INCIDENT_TYPE_ NVARCHAR2(255) not null,
+  VALUE_ NUMBER(19,0),
+  primary key (ID_)
+);
+
+create unique index ACT_UNIQ_STATS_COUNTER on ACT_RU_STATS_COUNTER(PROC_DEF_ID_,TYPE_,INCIDENT_TYPE_);
+
+-- resource checksum --
+
+ALTER TABLE ACT_GE_BYTEARRAY
+  ADD CHECKSUM_ NVARCHAR2(64);
@@ -37,6 +37,7 @@ import javax.ws.rs.core.UriInfo;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 import static org.camunda.bpm.engine.authorization.Authorization.ANY;
 import static org.camunda.bpm.engine.authorization.Permissions.CREATE;
@@ -62,11 +63,16 @@ public class FilterRestServiceImpl extends AbstractAuthorizedRestResource implem
 
     List<Filter> matchingFilters = executeFilterQuery(query, firstResult, maxResults);
 
+    Map<String, Long> itemCounts = null;
+    if (itemCount != null && itemCount) {
+      itemCounts = countFilterItems(filterService, matchingFilters);
+    }
+
     List<FilterDto> filters = new ArrayList<FilterDto>();
     for (Filter filter : matchingFilters) {
       FilterDto dto = FilterDto.fromFilter(filter);
-      if (itemCount != null && itemCount) {
-        dto.setItemCount(filterService.count(filter.getId()));
+      if (itemCounts != null) {
+        dto.setItemCount(itemCounts.get(filter.getId()));
       }
       filters.add(dto);
     }
@@ -74,6 +80,14 @@ public class FilterRestServiceImpl extends AbstractAuthorizedRestResource implem
     return filters;
   }
 
+  protected Map<String, Long> countFilterItems(FilterService filterService, List<Filter> filters) {
+    List<String> filterIds = new ArrayList<String>();
+    for (Filter filter : filters) {
+      filterIds.add(filter.getId());
+    }
+    return filterService.countAll(filterIds);
+  }
+
   public List<Filter> executeFilterQuery(FilterQuery query, Integer firstResult, Integer maxResults) {
     if (firstResult != null || maxResults != null) {
       return executePaginatedQuery(query, firstResult, maxResults);
@@ -27,7 +27,9 @@ import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -73,6 +75,11 @@ public abstract class AbstractFilterRestServiceQueryTest extends AbstractRestSer
     when(filterService.count(eq(MockProvider.EXAMPLE_FILTER_ID))).thenReturn((long) mockedFilterItemCount);
     when(filterService.getFilter(eq(MockProvider.ANOTHER_EXAMPLE_FILTER_ID))).thenReturn(anotherMockedFilter);
     when(filterService.count(eq(MockProvider.ANOTHER_EXAMPLE_FILTER_ID))).thenReturn((long) anotherMockedFilterItemCount);
+
+    Map<String, Long> itemCounts = new LinkedHashMap<String, Long>();
+    itemCounts.put(MockProvider.EXAMPLE_FILTER_ID, (long) mockedFilterItemCount);
+    itemCounts.put(MockProvider.ANOTHER_EXAMPLE_FILTER_ID, (long) anotherMockedFilterItemCount);
+    when(filterService.countAll(eq(Arrays.asList(MockProvider.EXAMPLE_FILTER_ID, MockProvider.ANOTHER_EXAMPLE_FILTER_ID)))).thenReturn(itemCounts);
   }
 
   @Test
@@ -213,6 +220,10 @@ public abstract class AbstractFilterRestServiceQueryTest extends AbstractRestSer
       .body("[1].itemCount", equalTo(anotherMockedFilterItemCount))
     .when()
       .get(FILTER_QUERY_URL);
+
+    // the filters are counted with a single command
+    FilterService filterService = processEngine.getFilterService();
+    verify(filterService).countAll(eq(Arrays.asList(MockProvider.EXAMPLE_FILTER_ID, MockProvider.ANOTHER_EXAMPLE_FILTER_ID)));
   }
 
   @Test
@@ -55,6 +55,9 @@ public class DeployProcessArchiveStep extends DeploymentOperationStep {
   protected URL metaFileUrl;
   protected ProcessApplicationDeployment deployment;
 
+  /** the resources of the process archive if they were read before the step is performed */
+  protected Map<String, byte[]> deploymentResources;
+
   public DeployProcessArchiveStep(ProcessArchiveXml parsedProcessArchive, URL url) {
     processArchive = parsedProcessArchive;
     this.metaFileUrl = url;
@@ -64,6 +67,10 @@ public class DeployProcessArchiveStep extends DeploymentOperationStep {
     return "Deployment of process archive '" + processArchive.getName();
   }
 
+  public ProcessArchiveXml getProcessArchive() {
+    return processArchive;
+  }
+
   public void performOperationStep(DeploymentOperation operationContext) {
 
     final PlatformServiceContainer serviceContainer = operationContext.getServiceContainer();
@@ -72,27 +79,9 @@ public class DeployProcessArchiveStep extends DeploymentOperationStep {
 
     ProcessEngine processEngine = getProcessEngine(serviceContainer);
 
-    // start building deployment map
-    Map<String, byte[]> deploymentMap = new HashMap<String, byte[]>();
-
-    // add all processes listed in the processes.xml
-    List<String> listedProcessResources = processArchive.getProcessResourceNames();
-    for (String processResource : listedProcessResources) {
-      InputStream resourceAsStream = null;
-      try {
-        resourceAsStream = processApplicationClassloader.getResourceAsStream(processResource);
-        byte[] bytes = IoUtil.readInputStream(resourceAsStream, processResource);
-        deploymentMap.put(processResource, bytes);
-      } finally {
-        IoUtil.closeSilently(resourceAsStream);
-      }
-    }
-
-    // scan for additional process definitions if not turned off
-    if(PropertyHelper.getBooleanProperty(processArchive.getProperties(), ProcessArchiveXml.PROP_IS_SCAN_FOR_PROCESS_DEFINITIONS, true)) {
-      String paResourceRoot = processArchive.getProperties().get(ProcessArchiveXml.PROP_RESOURCE_ROOT_PATH);
-      String[] additionalResourceSuffixes = StringUtil.split(processArchive.getProperties().get(ProcessArchiveXml.PROP_ADDITIONAL_RESOURCE_SUFFIXES), ProcessArchiveXml.PROP_ADDITIONAL_RESOURCE_SUFFIXES_SEPARATOR);
-      deploymentMap.putAll(findResources(processApplicationClassloader, paResourceRoot, additionalResourceSuffixes));
+    Map<String, byte[]> deploymentMap = deploymentResources;
+    if (deploymentMap == null) {
+      deploymentMap = findDeploymentResources(processApplicationClassloader);
     }
 
     // perform process engine deployment
@@ -142,6 +131,46 @@ public class DeployProcessArchiveStep extends DeploymentOperationStep {
     }
   }
 
+  /**
+   * Reads the resources listed in the processes.xml file and the resources found by
+   * scanning the process application. The process engine is not accessed, so the
+   * resources of different process archives can be read concurrently.
+   */
+  public Map<String, byte[]> findDeploymentResources(ClassLoader processApplicationClassloader) {
+    // start building deployment map
+    Map<String, byte[]> deploymentMap = new HashMap<String, byte[]>();
+
+    // add all processes listed in the processes.xml
+    List<String> listedProcessResources = processArchive.getProcessResourceNames();
+    for (String processResource : listedProcessResources) {
+      InputStream resourceAsStream = null;
+      try {
+        resourceAsStream = processApplicationClassloader.getResourceAsStream(processResource);
+        byte[] bytes = IoUtil.readInputStream(resourceAsStream, processResource);
+        deploymentMap.put(processResource, bytes);
+      } finally {
+        IoUtil.closeSilently(resourceAsStream);
+      }
+    }
+
+    // scan for additional process definitions if not turned off
+    if(PropertyHelper.getBooleanProperty(processArchive.getProperties(), ProcessArchiveXml.PROP_IS_SCAN_FOR_PROCESS_DEFINITIONS, true)) {
+      String paResourceRoot = processArchive.getProperties().get(ProcessArchiveXml.PROP_RESOURCE_ROOT_PATH);
+      String[] additionalResourceSuffixes = StringUtil.split(processArchive.getProperties().get(ProcessArchiveXml.PROP_ADDITIONAL_RESOURCE_SUFFIXES), ProcessArchiveXml.PROP_ADDITIONAL_RESOURCE_SUFFIXES_SEPARATOR);
+      deploymentMap.putAll(findResources(processApplicationClassloader, paResourceRoot, additionalResourceSuffixes));
+    }
+
+    return deploymentMap;
+  }
+
+  public Map<String, byte[]> getDeploymentResources() {
+    return deploymentResources;
+  }
+
+  public void setDeploymentResources(Map<String, byte[]> deploymentResources) {
+    this.deploymentResources = deploymentResources;
+  }
+
   protected void enableResumingOfPreviousVersions(ProcessApplicationDeploymentBuilder deploymentBuilder) throws IllegalArgumentException {
     deploymentBuilder.resumePreviousVersions();
     String resumePreviousBy = processArchive.getProperties().get(ProcessArchiveXml.PROP_RESUME_PREVIOUS_BY);
@@ -15,13 +15,24 @@ package org.camunda.bpm.container.impl.deployment;
 import static org.camunda.bpm.container.impl.deployment.Attachments.PROCESSES_XML_RESOURCES;
 
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.logging.Level;
 
+import org.camunda.bpm.application.AbstractProcessApplication;
 import org.camunda.bpm.application.impl.metadata.spi.ProcessArchiveXml;
 import org.camunda.bpm.application.impl.metadata.spi.ProcessesXml;
+import org.camunda.bpm.container.ExecutorService;
+import org.camunda.bpm.container.impl.RuntimeContainerDelegateImpl;
 import org.camunda.bpm.container.impl.spi.DeploymentOperation;
 import org.camunda.bpm.container.impl.spi.DeploymentOperationStep;
+import org.camunda.bpm.container.impl.spi.ServiceTypes;
 
 /**
  * <p>
@@ -43,10 +54,70 @@ public class DeployProcessArchivesStep extends DeploymentOperationStep {
 
     Map<URL, ProcessesXml> processesXmls = operationContext.getAttachment(PROCESSES_XML_RESOURCES);
 
+    List<DeployProcessArchiveStep> deploymentSteps = new ArrayList<DeployProcessArchiveStep>();
     for (Entry<URL, ProcessesXml> processesXml : processesXmls.entrySet()) {
       for (ProcessArchiveXml processArchive : processesXml.getValue().getProcessArchives()) {
-        // for each process archive add an individual operation step
-        operationContext.addStep(createDeployProcessArchiveStep(processArchive, processesXml.getKey()));
+        deploymentSteps.add(createDeployProcessArchiveStep(processArchive, processesXml.getKey()));
+      }
+    }
+
+    if (deploymentSteps.size() > 1) {
+      ExecutorService executorService = operationContext.getServiceContainer()
+          .getServiceValue(ServiceTypes.BPM_PLATFORM, RuntimeContainerDelegateImpl.SERVICE_NAME_EXECUTOR);
+
+      // without a managed executor service each step reads its resources itself
+      if (executorService != null) {
+        AbstractProcessApplication processApplication = operationContext.getAttachment(Attachments.PROCESS_APPLICATION);
+        readResourcesConcurrently(deploymentSteps, processApplication.getProcessApplicationClassloader(), executorService);
+      }
+    }
+
+    // for each process archive add an individual operation step,
+    // the deployments to the process engine are still performed one after another
+    for (DeployProcessArchiveStep deploymentStep : deploymentSteps) {
+      operationContext.addStep(deploymentStep);
+    }
+  }
+
+  /**
+   * Scans the process application and reads the resources of the process archives
+   * on the executor service of the container. If the resources of a process archive
+   * can not be read there, they are read again by its deployment step, which then
+   * fails as usual.
+   *
+   * <p>The executor service is shared with the job executor, so its threads may all be
+   * busy. Tasks which have not been started yet when their resources are needed are
+   * therefore run by the calling thread instead of waiting for a free thread.</p>
+   */
+  protected void readResourcesConcurrently(List<DeployProcessArchiveStep> deploymentSteps, final ClassLoader processApplicationClassloader, ExecutorService executorService) {
+    Map<DeployProcessArchiveStep, FutureTask<Map<String, byte[]>>> resourceTasks = new LinkedHashMap<DeployProcessArchiveStep, FutureTask<Map<String, byte[]>>>();
+
+    for (final DeployProcessArchiveStep deploymentStep : deploymentSteps) {
+      FutureTask<Map<String, byte[]>> resourceTask = new FutureTask<Map<String, byte[]>>(new Callable<Map<String, byte[]>>() {
+        public Map<String, byte[]> call() throws Exception {
+          return deploymentStep.findDeploymentResources(processApplicationClassloader);
+        }
+      });
+
+      if (executorService.schedule(resourceTask, false)) {
+        resourceTasks.put(deploymentStep, resourceTask);
+      }
+    }
+
+    for (Entry<DeployProcessArchiveStep, FutureTask<Map<String, byte[]>>> resourceTask : resourceTasks.entrySet()) {
+      try {
+        // does nothing if the task was already started by the executor service
+        resourceTask.getValue().run();
+        resourceTask.getKey().setDeploymentResources(resourceTask.getValue().get());
+
+      } catch (ExecutionException e) {
+        LOGGER.log(Level.WARNING, "Could not read the resources of process archive '" + resourceTask.getKey().getProcessArchive().getName()
+            + "' concurrently, they are read again when the process archive is deployed", e.getCause());
+
+      } catch (InterruptedException e) {
+        // the steps which did not get their resources read them themselves
+        Thread.currentThread().interrupt();
+        return;
       }
     }
   }
@@ -54,4 +125,5 @@ public class DeployProcessArchivesStep extends DeploymentOperationStep {
   protected DeployProcessArchiveStep createDeployProcessArchiveStep(ProcessArchiveXml parsedProcessArchive, URL url) {
     return new DeployProcessArchiveStep(parsedProcessArchive, url);
   }
+
 }
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine;
 
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.authorization.Permissions;
 import org.camunda.bpm.engine.authorization.Resources;
@@ -164,4 +165,15 @@ public interface FilterService {
    */
   Long count(String filterId, Query<?, ?> extendingQuery);
 
+  /**
+   * Executes the queries of the filters and returns the result counts. Filters with
+   * the same query are only executed once. If a filter count cache time to live is
+   * configured, the counts of the authenticated user are cached.
+   *
+   * @param filterIds the ids of the filters
+   * @return the result counts by filter id in the order of the given ids
+   * @throws AuthorizationException if the user has no {@link Permissions#READ} permissions on {@link Resources#FILTER}.
+   */
+  Map<String, Long> countAll(List<String> filterIds);
+
 }
@@ -831,6 +831,18 @@ public interface ManagementService {
    */
   ActivityStatisticsQuery createActivityStatisticsQuery(String processDefinitionId);
 
+  /**
+   * Schedules a job which rebuilds the runtime statistics counters from the numbers of
+   * running process instances and open incidents. The counters are only maintained if
+   * they are enabled in the process engine configuration. Rebuilding them also compacts
+   * the counters, which grow with every started and ended process instance.
+   *
+   * @throws AuthorizationException
+   *          If the user is not a member of the group {@link Groups#CAMUNDA_ADMIN}.
+   * @since 7.4
+   */
+  void rebuildStatisticsCounters();
+
   /**
    * Get the deployments that are registered the engine's job executor.
    * This set is only relevant, if the engine configuration property <code>jobExecutorDeploymentAware</code> is set.
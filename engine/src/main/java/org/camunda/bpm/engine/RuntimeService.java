@@ -1350,6 +1350,27 @@ public interface RuntimeService {
    */
   void signalEventReceived(String signalName, Map<String, Object> processVariables);
 
+  /**
+   * Notifies the process engine that a signal event of name 'signalName' has
+   * been received. Delivers the signal to all executions waiting on
+   * the signal and to all process definitions that can started by this signal. <p/>
+   *
+   * <strong>NOTE:</strong> Notification and instantiation happen asynchronously.
+   * This method only creates a job which delivers the signal to a chunk of receivers
+   * and then continues with the next chunk in a new job. Only receivers which are waiting
+   * for the signal when this method is called are notified.
+   *
+   * @param signalName
+   *          the name of the signal event
+   *
+   * @throws AuthorizationException
+   *          <li>if notify an execution and the user has no {@link Permissions#UPDATE} permission on {@link Resources#PROCESS_INSTANCE}
+   *          or no {@link Permissions#UPDATE_INSTANCE} permission on {@link Resources#PROCESS_DEFINITION}.</li>
+   *          <li>if start a new process instance and the user has no {@link Permissions#CREATE} permission on {@link Resources#PROCESS_INSTANCE}
+   *          and no {@link Permissions#CREATE_INSTANCE} permission on {@link Resources#PROCESS_DEFINITION}.</li>
+   */
+  void signalEventReceivedAsync(String signalName);
+
   /**
    * Notifies the process engine that a signal event of name 'signalName' has
    * been received. This method delivers the signal to a single execution, being the
@@ -275,10 +275,14 @@ public abstract class AbstractQuery<T extends Query<?,?>, U> extends ListQueryPa
   }
 
   protected void mergeOrdering(AbstractQuery<?, ?> extendedQuery, AbstractQuery<?, ?> extendingQuery) {
-    extendedQuery.orderingProperties = this.orderingProperties;
+    // the ordering properties are copied, so that this query is not changed by extending it
+    extendedQuery.orderingProperties = null;
+    if (this.orderingProperties != null) {
+      extendedQuery.orderingProperties = new ArrayList<QueryOrderingProperty>(this.orderingProperties);
+    }
     if (extendingQuery.orderingProperties != null) {
        if (extendedQuery.orderingProperties == null) {
-         extendedQuery.orderingProperties = extendingQuery.orderingProperties;
+         extendedQuery.orderingProperties = new ArrayList<QueryOrderingProperty>(extendingQuery.orderingProperties);
        }
        else {
          extendedQuery.orderingProperties.addAll(extendingQuery.orderingProperties);
@@ -25,6 +25,7 @@ public class EventSubscriptionQueryValue implements Serializable {
   
   protected String eventType;
   protected String eventName;
+  protected String excludedCorrelationKeyPattern;
   
   public EventSubscriptionQueryValue(String eventName, String eventType) {
     this.eventName = eventName;
@@ -46,7 +47,14 @@ public class EventSubscriptionQueryValue implements Serializable {
   public void setEventName(String eventName) {
     this.eventName = eventName;
   }
-  
-    
+
+  public String getExcludedCorrelationKeyPattern() {
+    return excludedCorrelationKeyPattern;
+  }
+
+  public void setExcludedCorrelationKeyPattern(String excludedCorrelationKeyPattern) {
+    this.excludedCorrelationKeyPattern = excludedCorrelationKeyPattern;
+  }
+
 
 }
@@ -120,6 +120,17 @@ public class ExecutionQueryImpl extends AbstractVariableQueryImpl<ExecutionQuery
     return eventSubscription("message", null);
   }
 
+  /**
+   * Restricts to executions with a subscription for the given message which has no
+   * {@link org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey correlation key}
+   * or a correlation key which does not match the given pattern.
+   */
+  public ExecutionQuery messageEventSubscriptionNameWithoutCorrelationKeyLike(String messageName, String correlationKeyPattern) {
+    eventSubscription("message", messageName);
+    eventSubscriptions.get(eventSubscriptions.size() - 1).setExcludedCorrelationKeyPattern(correlationKeyPattern);
+    return this;
+  }
+
   public ExecutionQuery eventSubscription(String eventType, String eventName) {
     ensureNotNull("event type", eventType);
     if (!"message".equals(eventType)) {
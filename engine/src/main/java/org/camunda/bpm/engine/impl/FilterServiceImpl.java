@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl;
 
 import java.util.List;
+import java.util.Map;
 
 import org.camunda.bpm.engine.EntityTypes;
 import org.camunda.bpm.engine.FilterService;
@@ -21,6 +22,7 @@ import org.camunda.bpm.engine.filter.FilterQuery;
 import org.camunda.bpm.engine.impl.cmd.CreateFilterCmd;
 import org.camunda.bpm.engine.impl.cmd.DeleteFilterCmd;
 import org.camunda.bpm.engine.impl.cmd.ExecuteFilterCountCmd;
+import org.camunda.bpm.engine.impl.cmd.ExecuteFilterCountsCmd;
 import org.camunda.bpm.engine.impl.cmd.ExecuteFilterListCmd;
 import org.camunda.bpm.engine.impl.cmd.ExecuteFilterListPageCmd;
 import org.camunda.bpm.engine.impl.cmd.ExecuteFilterSingleResultCmd;
@@ -101,4 +103,8 @@ public class FilterServiceImpl extends ServiceImpl implements FilterService {
     return commandExecutor.execute(new ExecuteFilterCountCmd(filterId, extendingQuery));
   }
 
+  public Map<String, Long> countAll(List<String> filterIds) {
+    return commandExecutor.execute(new ExecuteFilterCountsCmd(filterIds));
+  }
+
 }
@@ -34,6 +34,7 @@ import org.camunda.bpm.engine.impl.cmd.GetPropertiesCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTableCountCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTableMetaDataCmd;
 import org.camunda.bpm.engine.impl.cmd.GetTableNameCmd;
+import org.camunda.bpm.engine.impl.cmd.RebuildStatisticsCountersCmd;
 import org.camunda.bpm.engine.impl.cmd.RegisterDeploymentCmd;
 import org.camunda.bpm.engine.impl.cmd.RegisterProcessApplicationCmd;
 import org.camunda.bpm.engine.impl.cmd.ReportDbMetricsCmd;
@@ -176,6 +177,10 @@ public class ManagementServiceImpl extends ServiceImpl implements ManagementServ
     return new DeploymentStatisticsQueryImpl(commandExecutor);
   }
 
+  public void rebuildStatisticsCounters() {
+    commandExecutor.execute(new RebuildStatisticsCountersCmd());
+  }
+
   public Set<String> getRegisteredDeployments() {
     return commandExecutor.execute(new Command<Set<String>>() {
       public Set<String> execute(CommandContext commandContext) {
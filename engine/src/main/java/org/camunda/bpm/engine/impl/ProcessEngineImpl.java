@@ -31,6 +31,8 @@ import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionContextFactory;
 import org.camunda.bpm.engine.impl.el.ExpressionManager;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.handler.AsyncDbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
@@ -111,6 +113,11 @@ public class ProcessEngineImpl implements ProcessEngine {
       }
     }
 
+    HistoryEventHandler historyEventHandler = processEngineConfiguration.getHistoryEventHandler();
+    if (historyEventHandler instanceof AsyncDbHistoryEventHandler) {
+      ((AsyncDbHistoryEventHandler) historyEventHandler).start(processEngineConfiguration.getCommandExecutorTxRequiresNew());
+    }
+
   }
 
   protected void executeSchemaOperations() {
@@ -130,6 +137,12 @@ public class ProcessEngineImpl implements ProcessEngine {
       jobExecutor.unregisterProcessEngine(this);
     }
 
+    HistoryEventHandler historyEventHandler = processEngineConfiguration.getHistoryEventHandler();
+    if (historyEventHandler instanceof AsyncDbHistoryEventHandler) {
+      // write the queued history events before the schema is dropped
+      ((AsyncDbHistoryEventHandler) historyEventHandler).stop();
+    }
+
     commandExecutorSchemaOperations.execute(new SchemaOperationProcessEngineClose());
 
     processEngineConfiguration.close();
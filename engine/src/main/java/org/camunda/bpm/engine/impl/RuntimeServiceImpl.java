@@ -350,6 +350,10 @@ public class RuntimeServiceImpl extends ServiceImpl implements RuntimeService {
     commandExecutor.execute(new SignalEventReceivedCmd(signalName, null, processVariables));
   }
 
+  public void signalEventReceivedAsync(String signalName) {
+    commandExecutor.execute(new SignalEventReceivedCmd(signalName, null, null, true));
+  }
+
   public void signalEventReceived(String signalName, String executionId) {
     commandExecutor.execute(new SignalEventReceivedCmd(signalName, executionId, null));
   }
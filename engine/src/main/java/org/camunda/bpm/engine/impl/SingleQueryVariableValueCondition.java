@@ -16,6 +16,7 @@ import java.util.Collections;
 import java.util.List;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
 import org.camunda.bpm.engine.impl.core.variable.value.UntypedValueImpl;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 import org.camunda.bpm.engine.impl.variable.serializer.TypedValueSerializer;
@@ -126,6 +127,9 @@ public class SingleQueryVariableValueCondition extends AbstractQueryVariableValu
   public void setByteArrayValue(byte[] bytes) {
   }
 
+  public void setByteArrayContent(InputStreamSource contentSource) {
+  }
+
   public String getType() {
     return type;
   }
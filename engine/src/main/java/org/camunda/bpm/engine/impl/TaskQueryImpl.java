@@ -1542,18 +1542,26 @@ public class TaskQueryImpl extends AbstractQuery<TaskQuery, Task> implements Tas
 
     // set extending variables and save names for comparison of original variables
     for (TaskQueryVariableValue extendingVariable : extendingVariables) {
-      extendedQuery.addVariable(extendingVariable);
+      extendedQuery.addVariable(copyVariable(extendingVariable));
       extendingVariablesComparable.add(new TaskQueryVariableValueComparable(extendingVariable));
     }
 
     for (TaskQueryVariableValue originalVariable : this.getVariables()) {
       if (!extendingVariablesComparable.contains(new TaskQueryVariableValueComparable(originalVariable))) {
-        extendedQuery.addVariable(originalVariable);
+        extendedQuery.addVariable(copyVariable(originalVariable));
       }
     }
 
   }
 
+  /**
+   * Variable values are initialized when a query is executed, so the extended query gets its own copies.
+   */
+  protected TaskQueryVariableValue copyVariable(TaskQueryVariableValue variable) {
+    return new TaskQueryVariableValue(variable.getName(), variable.getTypedValue(), variable.getOperator(),
+        variable.isLocal(), variable.isProcessInstanceVariable());
+  }
+
   protected class TaskQueryVariableValueComparable {
 
     protected TaskQueryVariableValue variableValue;
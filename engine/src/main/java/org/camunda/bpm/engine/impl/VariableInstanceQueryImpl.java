@@ -165,6 +165,16 @@ public class VariableInstanceQueryImpl extends AbstractVariableQueryImpl<Variabl
       return result;
     }
 
+    // load the byte arrays of all variables which need them at once
+    List<VariableInstanceEntity> variablesToFetch = new ArrayList<VariableInstanceEntity>();
+    for (VariableInstance variableInstance : result) {
+      VariableInstanceEntity variableInstanceEntity = (VariableInstanceEntity) variableInstance;
+      if (shouldFetchValue(variableInstanceEntity)) {
+        variablesToFetch.add(variableInstanceEntity);
+      }
+    }
+    commandContext.getVariableInstanceManager().fetchByteArrayValues(variablesToFetch);
+
     // iterate over the result array to initialize the value and serialized value of the variable
     for (VariableInstance variableInstance : result) {
       VariableInstanceEntity variableInstanceEntity = (VariableInstanceEntity) variableInstance;
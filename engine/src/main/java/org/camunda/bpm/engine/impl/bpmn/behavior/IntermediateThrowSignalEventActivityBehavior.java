@@ -20,6 +20,7 @@ import java.util.List;
 import org.camunda.bpm.engine.impl.ProcessEngineLogger;
 import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.jobexecutor.SignalEventDeliveryJobHandler;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
@@ -45,14 +46,20 @@ public class IntermediateThrowSignalEventActivityBehavior extends AbstractBpmnAc
 
   @Override
   public void execute(ActivityExecution execution) throws Exception {
-    final EventSubscriptionManager eventSubscriptionManager = Context.getCommandContext().getEventSubscriptionManager();
-
-    // trigger all event subscriptions for the signal (start and intermediate)
-    List<SignalEventSubscriptionEntity> catchSignalEventSubscription = eventSubscriptionManager
-      .findSignalEventSubscriptionsByEventName(signalDefinition.getEventName());
-    for (SignalEventSubscriptionEntity signalEventSubscriptionEntity : catchSignalEventSubscription) {
-      if(isActiveEventSubscription(signalEventSubscriptionEntity)){
-        signalEventSubscriptionEntity.eventReceived(null, signalDefinition.isAsync());
+    if (signalDefinition.isAsyncDelivery()) {
+      // the subscriptions are triggered by jobs
+      SignalEventDeliveryJobHandler.scheduleDelivery(Context.getCommandContext(), signalDefinition.getEventName());
+
+    } else {
+      final EventSubscriptionManager eventSubscriptionManager = Context.getCommandContext().getEventSubscriptionManager();
+
+      // trigger all event subscriptions for the signal (start and intermediate)
+      List<SignalEventSubscriptionEntity> catchSignalEventSubscription = eventSubscriptionManager
+        .findSignalEventSubscriptionsByEventName(signalDefinition.getEventName());
+      for (SignalEventSubscriptionEntity signalEventSubscriptionEntity : catchSignalEventSubscription) {
+        if(isActiveEventSubscription(signalEventSubscriptionEntity)){
+          signalEventSubscriptionEntity.eventReceived(null, signalDefinition.isAsync());
+        }
       }
     }
 
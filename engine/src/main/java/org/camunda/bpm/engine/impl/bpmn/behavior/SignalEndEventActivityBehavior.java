@@ -17,6 +17,7 @@ import java.util.List;
 import org.camunda.bpm.engine.impl.bpmn.parser.EventSubscriptionDeclaration;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.SignalEventDeliveryJobHandler;
 import org.camunda.bpm.engine.impl.persistence.entity.SignalEventSubscriptionEntity;
 import org.camunda.bpm.engine.impl.pvm.delegate.ActivityExecution;
 
@@ -35,14 +36,19 @@ public class SignalEndEventActivityBehavior extends FlowNodeActivityBehavior {
   public void execute(ActivityExecution execution) throws Exception {
     
     CommandContext commandContext = Context.getCommandContext();
-    
-    List<SignalEventSubscriptionEntity> findSignalEventSubscriptionsByEventName = commandContext
-        .getEventSubscriptionManager()
-        .findSignalEventSubscriptionsByEventName(signalDefinition.getEventName());
-      
+
+    if (signalDefinition.isAsyncDelivery()) {
+      SignalEventDeliveryJobHandler.scheduleDelivery(commandContext, signalDefinition.getEventName());
+
+    } else {
+      List<SignalEventSubscriptionEntity> findSignalEventSubscriptionsByEventName = commandContext
+          .getEventSubscriptionManager()
+          .findSignalEventSubscriptionsByEventName(signalDefinition.getEventName());
+
       for (SignalEventSubscriptionEntity signalEventSubscriptionEntity : findSignalEventSubscriptionsByEventName) {
         signalEventSubscriptionEntity.eventReceived(null, signalDefinition.isAsync());
       }
+    }
 
     leave(execution);
   }
@@ -94,7 +94,9 @@ public class BpmnDeployer extends AbstractDefinitionDeployer<ProcessDefinitionEn
         .deployment(deployment)
         .name(resource.getName());
 
-    if (!deployment.isValidatingSchema()) {
+    // the resources of an existing deployment were validated when they were deployed,
+    // so they are not validated again when the deployment cache is rebuilt
+    if (!deployment.isValidatingSchema() || !deployment.isNew()) {
       bpmnParse.setSchemaResource(null);
     }
 
@@ -27,6 +27,7 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.BpmnParseException;
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -182,6 +183,7 @@ public class BpmnParse extends Parse {
   public static final String PROPERTYNAME_THROWS_COMPENSATION = "throwsCompensation";
   public static final String PROPERTYNAME_CONSUMES_COMPENSATION = "consumesCompensation";
   public static final String PROPERTYNAME_JOB_PRIORITY = "jobPriority";
+  public static final String PROPERTYNAME_CORRELATION_VARIABLES = "correlationVariables";
 
   /* process start authorization specific finals */
   protected static final String POTENTIAL_STARTER = "potentialStarter";
@@ -388,6 +390,12 @@ public class BpmnParse extends Parse {
       String name = messageElement.attribute("name");
 
       MessageDefinition messageDefinition = new MessageDefinition(this.targetNamespace + ":" + id, name);
+
+      String correlationVariables = messageElement.attributeNS(CAMUNDA_BPMN_EXTENSIONS_NS, "correlationVariables");
+      if (correlationVariables != null) {
+        messageDefinition.setCorrelationVariables(parseCommaSeparatedList(correlationVariables));
+      }
+
       this.messages.put(messageDefinition.getId(), messageDefinition);
     }
   }
@@ -417,6 +425,7 @@ public class BpmnParse extends Parse {
         SignalDefinition signal = new SignalDefinition();
         signal.setId(this.targetNamespace + ":" + id);
         signal.setName(signalName);
+        signal.setAsyncDelivery("true".equals(signalElement.attributeNS(CAMUNDA_BPMN_EXTENSIONS_NS, "asyncDelivery", "false")));
         this.signals.put(signal.getId(), signal);
       }
     }
@@ -518,6 +527,7 @@ public class BpmnParse extends Parse {
     processDefinition.setTaskDefinitions(new HashMap<String, TaskDefinition>());
     processDefinition.setDeploymentId(deployment.getId());
     processDefinition.setProperty(PROPERTYNAME_JOB_PRIORITY, parseJobPriority(processElement));
+    processDefinition.setProperty(PROPERTYNAME_CORRELATION_VARIABLES, collectCorrelationVariables());
 
     LOG.logElementParsing("process", processDefinition.getKey());
 
@@ -536,6 +546,17 @@ public class BpmnParse extends Parse {
     return processDefinition;
   }
 
+  /**
+   * @return the names of the correlation variables declared by the messages of the definitions
+   */
+  protected Set<String> collectCorrelationVariables() {
+    Set<String> correlationVariables = new HashSet<String>();
+    for (MessageDefinition messageDefinition : messages.values()) {
+      correlationVariables.addAll(messageDefinition.getCorrelationVariables());
+    }
+    return correlationVariables;
+  }
+
   protected void parseLaneSets(Element parentElement, ProcessDefinitionEntity processDefinition) {
     List<Element> laneSets = parentElement.elements("laneSet");
 
@@ -1060,7 +1081,9 @@ public class BpmnParse extends Parse {
       addError("Invalid 'messageRef': no message with id '" + messageRef + "' found.", messageEventDefinition);
     }
 
-    return new EventSubscriptionDeclaration(messageDefinition.getName(), MessageEventHandler.EVENT_HANDLER_TYPE);
+    EventSubscriptionDeclaration declaration = new EventSubscriptionDeclaration(messageDefinition.getName(), MessageEventHandler.EVENT_HANDLER_TYPE);
+    declaration.setCorrelationVariables(messageDefinition.getCorrelationVariables());
+    return declaration;
   }
 
   @SuppressWarnings("unchecked")
@@ -2949,6 +2972,7 @@ public class BpmnParse extends Parse {
 
       boolean throwingAsynch = "true".equals(signalEventDefinitionElement.attributeNS(CAMUNDA_BPMN_EXTENSIONS_NS, "async", "false"));
       signalEventDefinition.setAsync(throwingAsynch);
+      signalEventDefinition.setAsyncDelivery(signalDefinition.isAsyncDelivery());
 
       return signalEventDefinition;
     }
@@ -28,6 +28,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.SignalEventSubscriptionEnt
 import org.camunda.bpm.engine.impl.pvm.PvmScope;
 import org.camunda.bpm.engine.impl.pvm.process.ActivityImpl;
 import org.camunda.bpm.engine.impl.pvm.runtime.LegacyBehavior;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey;
 
 
 /**
@@ -43,10 +44,12 @@ public class EventSubscriptionDeclaration implements Serializable {
   protected final String eventType;
 
   protected boolean async;
+  protected boolean asyncDelivery;
   protected String activityId = null;
   protected String eventScopeActivityId = null;
   protected boolean isStartEvent;
   protected Boolean isParallelMultiInstance = null;
+  protected List<String> correlationVariables = Collections.emptyList();
 
   protected EventSubscriptionJobDeclaration jobDeclaration = null;
 
@@ -67,6 +70,18 @@ public class EventSubscriptionDeclaration implements Serializable {
     this.async = async;
   }
 
+  /**
+   * @return true if a thrown signal is delivered to its subscriptions by jobs,
+   * see {@link org.camunda.bpm.engine.impl.jobexecutor.SignalEventDeliveryJobHandler}
+   */
+  public boolean isAsyncDelivery() {
+    return asyncDelivery;
+  }
+
+  public void setAsyncDelivery(boolean asyncDelivery) {
+    this.asyncDelivery = asyncDelivery;
+  }
+
   public void setActivityId(String activityId) {
     this.activityId = activityId;
   }
@@ -95,6 +110,14 @@ public class EventSubscriptionDeclaration implements Serializable {
     return eventType;
   }
 
+  public List<String> getCorrelationVariables() {
+    return correlationVariables;
+  }
+
+  public void setCorrelationVariables(List<String> correlationVariables) {
+    this.correlationVariables = correlationVariables;
+  }
+
   public void setJobDeclaration(EventSubscriptionJobDeclaration jobDeclaration) {
     this.jobDeclaration = jobDeclaration;
   }
@@ -115,7 +138,9 @@ public class EventSubscriptionDeclaration implements Serializable {
   private EventSubscriptionEntity createEventSubscription(ExecutionEntity execution) {
     EventSubscriptionEntity eventSubscriptionEntity = null;
     if (eventType.equals(MessageEventHandler.EVENT_HANDLER_TYPE)) {
-      eventSubscriptionEntity = new MessageEventSubscriptionEntity(execution);
+      MessageEventSubscriptionEntity messageEventSubscription = new MessageEventSubscriptionEntity(execution);
+      messageEventSubscription.setCorrelationKey(MessageCorrelationKey.fromProcessInstance(correlationVariables, execution.getProcessInstance()));
+      eventSubscriptionEntity = messageEventSubscription;
     } else if (eventType.equals(SignalEventHandler.EVENT_HANDLER_TYPE)) {
       eventSubscriptionEntity = new SignalEventSubscriptionEntity(execution);
     } else {
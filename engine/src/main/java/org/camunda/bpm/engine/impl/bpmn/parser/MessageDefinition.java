@@ -12,6 +12,8 @@
  */
 package org.camunda.bpm.engine.impl.bpmn.parser;
 
+import java.util.Collections;
+import java.util.List;
 
 /**
  * Implementation of the BPMN 2.0 'message'
@@ -23,6 +25,8 @@ public class MessageDefinition {
   protected String id;
   
   protected String name;
+
+  protected List<String> correlationVariables = Collections.emptyList();
   
   public MessageDefinition(String id, String name) {
     this.id = id;
@@ -40,4 +44,15 @@ public class MessageDefinition {
   public void setName(String name) {
     this.name = name;
   }
+
+  /**
+   * @return the names of the variables declared with <code>camunda:correlationVariables</code>
+   */
+  public List<String> getCorrelationVariables() {
+    return correlationVariables;
+  }
+
+  public void setCorrelationVariables(List<String> correlationVariables) {
+    this.correlationVariables = correlationVariables;
+  }
 }
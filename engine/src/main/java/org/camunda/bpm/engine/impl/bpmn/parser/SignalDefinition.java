@@ -26,6 +26,7 @@ public class SignalDefinition implements Serializable {
     
   private String id;
   private String name;
+  private boolean asyncDelivery;
 
     
   public String getId() {
@@ -43,5 +44,17 @@ public class SignalDefinition implements Serializable {
   public void setName(String name) {
     this.name = name;
   }
-  
+
+  /**
+   * @return true if the signal is delivered to its subscriptions by jobs instead of
+   * in the transaction of the thrower (<code>camunda:asyncDelivery</code>)
+   */
+  public boolean isAsyncDelivery() {
+    return asyncDelivery;
+  }
+
+  public void setAsyncDelivery(boolean asyncDelivery) {
+    this.asyncDelivery = asyncDelivery;
+  }
+
 }
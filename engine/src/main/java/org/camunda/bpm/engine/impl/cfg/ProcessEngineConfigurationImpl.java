@@ -18,11 +18,13 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
+import java.lang.ref.SoftReference;
 import java.nio.charset.Charset;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
@@ -30,6 +32,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -40,6 +43,7 @@ import javax.sql.DataSource;
 import org.apache.ibatis.builder.xml.XMLConfigBuilder;
 import org.apache.ibatis.datasource.pooled.PooledDataSource;
 import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.mapping.MappedStatement;
 import org.apache.ibatis.session.Configuration;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.ibatis.session.defaults.DefaultSqlSessionFactory;
@@ -97,7 +101,9 @@ import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformFactory;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformListener;
 import org.camunda.bpm.engine.impl.cmmn.transformer.CmmnTransformer;
 import org.camunda.bpm.engine.impl.cmmn.transformer.DefaultCmmnTransformFactory;
+import org.camunda.bpm.engine.impl.db.AuthorizationDecisionCache;
 import org.camunda.bpm.engine.impl.db.DbIdGenerator;
+import org.camunda.bpm.engine.impl.db.PrefetchingDbIdGenerator;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManagerFactory;
 import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCacheKeyMapping;
 import org.camunda.bpm.engine.impl.db.sql.DbSqlPersistenceProviderFactory;
@@ -115,6 +121,8 @@ import org.camunda.bpm.engine.impl.event.CompensationEventHandler;
 import org.camunda.bpm.engine.impl.event.EventHandler;
 import org.camunda.bpm.engine.impl.event.MessageEventHandler;
 import org.camunda.bpm.engine.impl.event.SignalEventHandler;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
+import org.camunda.bpm.engine.impl.filter.FilterQueryCache;
 import org.camunda.bpm.engine.impl.form.engine.FormEngine;
 import org.camunda.bpm.engine.impl.form.engine.HtmlFormEngine;
 import org.camunda.bpm.engine.impl.form.engine.JuelFormEngine;
@@ -134,6 +142,7 @@ import org.camunda.bpm.engine.impl.form.validator.ReadOnlyValidator;
 import org.camunda.bpm.engine.impl.form.validator.RequiredValidator;
 import org.camunda.bpm.engine.impl.history.HistoryLevel;
 import org.camunda.bpm.engine.impl.history.handler.DbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventBuffer;
 import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
 import org.camunda.bpm.engine.impl.history.parser.HistoryParseListener;
 import org.camunda.bpm.engine.impl.history.producer.CacheAwareCmmnHistoryEventProducer;
@@ -155,6 +164,7 @@ import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.CallerRunsRejectedJobsHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.DefaultFailedJobCommandFactory;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobRegistry;
 import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
 import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobPriorityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobCommandFactory;
@@ -163,6 +173,8 @@ import org.camunda.bpm.engine.impl.jobexecutor.JobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.JobPriorityProvider;
 import org.camunda.bpm.engine.impl.jobexecutor.ProcessEventJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.RejectedJobsHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.SignalEventDeliveryJobHandler;
+import org.camunda.bpm.engine.impl.jobexecutor.StatisticsCounterRebuildJobHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerActivateJobDefinitionHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerActivateProcessDefinitionHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerCatchIntermediateEventJobHandler;
@@ -180,6 +192,8 @@ import org.camunda.bpm.engine.impl.metrics.reporter.DbMetricsReporter;
 import org.camunda.bpm.engine.impl.persistence.GenericManagerFactory;
 import org.camunda.bpm.engine.impl.persistence.deploy.Deployer;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
 import org.camunda.bpm.engine.impl.persistence.entity.AttachmentManager;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager;
@@ -214,6 +228,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
 import org.camunda.bpm.engine.impl.runtime.CorrelationHandler;
 import org.camunda.bpm.engine.impl.runtime.DefaultCorrelationHandler;
+import org.camunda.bpm.engine.impl.scripting.CompiledScriptCache;
 import org.camunda.bpm.engine.impl.scripting.ScriptFactory;
 import org.camunda.bpm.engine.impl.scripting.engine.BeansResolverFactory;
 import org.camunda.bpm.engine.impl.scripting.engine.ResolverFactory;
@@ -317,6 +332,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<Deployer> deployers;
   protected DeploymentCache deploymentCache;
 
+  // DEPLOYMENT CACHE /////////////////////////////////////////////////////////
+
+  /** creates the caches of the {@link DeploymentCache}, by default LRU caches */
+  protected CacheFactory cacheFactory;
+
+  /** maximum number of entries per cache, {@link CacheFactory#UNBOUNDED} disables eviction */
+  protected int processDefinitionCacheCapacity = 1000;
+  protected int caseDefinitionCacheCapacity = 1000;
+  protected int decisionDefinitionCacheCapacity = 1000;
+  protected int bpmnModelInstanceCacheCapacity = 1000;
+  protected int cmmnModelInstanceCacheCapacity = 1000;
+  protected int dmnModelInstanceCacheCapacity = 1000;
+
   // JOB EXECUTOR /////////////////////////////////////////////////////////////
 
   protected List<JobHandler> customJobHandlers;
@@ -325,16 +353,50 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected JobPriorityProvider jobPriorityProvider;
 
+  /** if true, the state of acquired jobs is handed over to job execution instead of selecting the jobs again */
+  protected boolean isJobExecutorAcquiredJobHandOverEnabled = false;
+  protected AcquiredJobRegistry acquiredJobRegistry;
+
+  /** the number of signal event subscriptions which are triggered by one job of an asynchronous signal delivery */
+  protected int signalEventDeliveryChunkSize = 100;
+
   // MYBATIS SQL SESSION FACTORY //////////////////////////////////////////////
 
   protected SqlSessionFactory sqlSessionFactory;
   protected TransactionFactory transactionFactory;
 
+  /**
+   * If true, the parsed MyBatis mappings are reused by the process engines which load them
+   * with the same class loader, configuration class, database type and table prefix. They
+   * are kept as long as the class loader is alive, so that an engine which is started after
+   * another one was closed reuses them, too.
+   */
+  protected boolean isMyBatisConfigurationCacheEnabled = false;
+
+  /**
+   * The parsed MyBatis mappings by class loader, see {@link #isMyBatisConfigurationCacheEnabled}.
+   * The mappings reference classes of their class loader, so they are softly referenced to not
+   * keep the class loader from being collected.
+   */
+  protected static final Map<ClassLoader, Map<List<Object>, SoftReference<Configuration>>> cachedMyBatisConfigurations =
+      new WeakHashMap<ClassLoader, Map<List<Object>, SoftReference<Configuration>>>();
+
 
   // ID GENERATOR /////////////////////////////////////////////////////////////
   protected IdGenerator idGenerator;
   protected DataSource idGeneratorDataSource;
   protected String idGeneratorDataSourceJndiName;
+  /** if true, a {@link PrefetchingDbIdGenerator} is used which does not block
+   * concurrent threads while fetching a new id block */
+  protected boolean isIdGeneratorPrefetchEnabled = false;
+  /** share of an id block after which the {@link PrefetchingDbIdGenerator} fetches the next block */
+  protected double idGeneratorPrefetchThreshold = 0.8;
+  /** upper bound of the id block size to which the {@link PrefetchingDbIdGenerator} grows
+   * the blocks under a high id consumption; the lower bound is the {@link #idBlockSize} */
+  protected int idGeneratorMaxIdBlockSize = 10000;
+  /** if an id block is used up in less time, the {@link PrefetchingDbIdGenerator} doubles
+   * the size of the next block */
+  protected long idGeneratorTargetBlockDurationMillis = 10000;
 
   // INCIDENT HANDLER /////////////////////////////////////////////////////////
 
@@ -355,6 +417,19 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected List<TypedValueSerializer> customPostVariableSerializers;
   protected VariableSerializers variableSerializers;
   protected String defaultSerializationFormat = Variables.SerializationDataFormats.JAVA.getName();
+
+  /** If true, the content of file variables is not loaded together with the variable but
+   * streamed from the database when it is accessed. The content can only be read as long as
+   * the variable is not changed or deleted. Outside of a command, the content is copied into
+   * a temporary file first, so that the stream does not hold a database connection.
+   *
+   * <p>File values which are streamed or created from a {@link java.io.File} are always
+   * streamed into the database when they are written. Serialized object values are not
+   * streamed: their serialized form is exposed as a whole by the
+   * {@link org.camunda.bpm.engine.variable.value.ObjectValue} API and the data formats
+   * deserialize it from a byte array.</p>
+   */
+  protected boolean isFileValueStreamingEnabled = false;
   protected String defaultCharsetName = null;
   protected Charset defaultCharset = null;
 
@@ -367,6 +442,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected ScriptFactory scriptFactory;
   protected boolean autoStoreScriptVariables = false;
   protected boolean enableScriptCompilation = true;
+  /** maximum number of cached scripts which are loaded from dynamically determined resources, 0 disables the cache */
+  protected int compiledScriptCacheCapacity = 1000;
+  protected CompiledScriptCache compiledScriptCache;
   protected boolean cmmnEnabled = true;
   protected boolean dmnEnabled = true;
 
@@ -442,6 +520,31 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected ResourceAuthorizationProvider resourceAuthorizationProvider;
 
+  /** If true, the results of authorization checks are cached across commands. Modifications
+   * of authorizations change a revision in the database which invalidates the cached results,
+   * so the cache must be enabled on all process engines sharing a database.
+   */
+  protected boolean isAuthorizationDecisionCacheEnabled = false;
+
+  /** maximum number of cached authorization decisions */
+  protected int authorizationDecisionCacheCapacity = 1000;
+
+  protected AuthorizationDecisionCache authorizationDecisionCache;
+
+  /** The time in milliseconds the counts of {@link org.camunda.bpm.engine.FilterService#countAll(List)}
+   * are cached per user. The cached counts are invalidated if this process engine creates, completes,
+   * deletes or assigns a task. Changes by other process engines sharing the database are only visible
+   * after the time to live. A value of 0 disables the cache.
+   */
+  protected long filterCountCacheTimeToLive = 0;
+
+  protected FilterCountCache filterCountCache;
+
+  /** If true, the parsed queries of loaded filters are cached by filter id and revision */
+  protected boolean isFilterQueryCacheEnabled = true;
+
+  protected FilterQueryCache filterQueryCache;
+
   protected List<ProcessEnginePlugin> processEnginePlugins = new ArrayList<ProcessEnginePlugin>();
 
   protected HistoryEventProducer historyEventProducer;
@@ -452,6 +555,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected boolean isExecutionTreePrefetchEnabled = true;
 
+  /** if true, the variables of all executions are fetched with a single query when the execution tree is prefetched */
+  protected boolean isExecutionTreePrefetchVariablesEnabled = false;
+
+  /** if true, the event subscriptions of all executions are fetched with a single query when the execution tree is prefetched */
+  protected boolean isExecutionTreePrefetchEventSubscriptionsEnabled = false;
+
+  /** if true, the jobs of all executions are fetched with a single query when the execution tree is prefetched */
+  protected boolean isExecutionTreePrefetchJobsEnabled = false;
+
   /** If true the process engine will attempt to acquire an exclusive lock before
    * creating a deployment.
    */
@@ -462,6 +574,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
    */
   protected boolean isDbEntityCacheReuseEnabled = false;
 
+  /** If true the job executor fetches the exclusive jobs of all process instances
+   * contained in an acquisition page with a single query instead of one query per
+   * exclusive job.
+   */
+  protected boolean isJobExecutorBatchExclusiveJobAcquisitionEnabled = true;
+
+  /** If true the INSERT, UPDATE and DELETE statements of a flush are sent to
+   * the database as JDBC batches instead of one statement at a time. Batching is
+   * disabled for JDBC drivers which do not report the update counts of batched
+   * statements, since optimistic locking relies on them.
+   */
+  protected boolean isJdbcBatchProcessing = false;
+
+  /** If true, entities which track changes of their persistent state themselves
+   * (executions, tasks, jobs and variable instances) are not snapshotted when they are
+   * loaded into the entity cache. Dirty checking then only costs for modified entities.
+   */
+  protected boolean isDbEntityChangeTrackingEnabled = false;
+
+  /** If true, the number of running process instances and open incidents per process definition
+   * is maintained in counters, which are read by process definition statistics queries that neither
+   * include failed jobs nor check authorizations. The counters must be rebuilt with
+   * {@link org.camunda.bpm.engine.ManagementService#rebuildStatisticsCounters()} after enabling them
+   * and should be rebuilt regularly to compact them.
+   */
+  protected boolean isStatisticsCounterEnabled = false;
+
   protected boolean isInvokeCustomVariableListeners = true;
 
   /**
@@ -482,6 +621,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   protected boolean isMetricsEnabled = true;
   protected boolean isDbMetricsReporterActivate = true;
 
+  /** if true, the durations of commands and job executions are recorded in histograms of the metrics registry */
+  protected boolean isDurationMetricsEnabled = false;
+
   protected MetricsReporterIdProvider metricsReporterIdProvider;
 
   // buildProcessEngine ///////////////////////////////////////////////////////
@@ -537,6 +679,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     initPasswordDigest();
     initDeploymentRegistration();
     initResourceAuthorizationProvider();
+    initAuthorizationDecisionCache();
+    initFilterCountCache();
+    initFilterQueryCache();
     initMetrics();
 
     invokePostInit();
@@ -786,6 +931,14 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       ensureNotNull("couldn't deduct database type from database product name '" + databaseProductName + "'", "databaseType", databaseType);
       log.fine("using database type: " + databaseType);
 
+      if (isJdbcBatchProcessing && "oracle".equals(databaseType) && databaseMetaData.getDriverMajorVersion() < 12) {
+        // these drivers report SUCCESS_NO_INFO instead of update counts for batched statements,
+        // so optimistic locking failures cannot be detected
+        log.warning("JDBC batch processing is disabled since the Oracle JDBC driver "
+            + databaseMetaData.getDriverVersion() + " does not report batch update counts");
+        isJdbcBatchProcessing = false;
+      }
+
     } catch (SQLException e) {
       e.printStackTrace();
     } finally {
@@ -813,56 +966,217 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
   protected void initSqlSessionFactory() {
     if (sqlSessionFactory==null) {
-      InputStream inputStream = null;
-      try {
-        inputStream = getMyBatisXmlConfigurationSteam();
-
-        // update the jdbc parameters to the configured ones...
-        Environment environment = new Environment("default", transactionFactory, dataSource);
-        Reader reader = new InputStreamReader(inputStream);
-        Properties properties = new Properties();
-        properties.put("prefix", databaseTablePrefix);
-        if(databaseType != null) {
-          properties.put("limitBefore" , DbSqlSessionFactory.databaseSpecificLimitBeforeStatements.get(databaseType));
-          properties.put("limitAfter" , DbSqlSessionFactory.databaseSpecificLimitAfterStatements.get(databaseType));
-          properties.put("innerLimitAfter" , DbSqlSessionFactory.databaseSpecificInnerLimitAfterStatements.get(databaseType));
-          properties.put("limitBetween" , DbSqlSessionFactory.databaseSpecificLimitBetweenStatements.get(databaseType));
-          properties.put("limitBetweenClob" , DbSqlSessionFactory.databaseSpecificLimitBetweenClobStatements.get(databaseType));
-          properties.put("orderBy" , DbSqlSessionFactory.databaseSpecificOrderByStatements.get(databaseType));
-          properties.put("limitBeforeNativeQuery" , DbSqlSessionFactory.databaseSpecificLimitBeforeNativeQueryStatements.get(databaseType));
-
-          properties.put("bitand1" , DbSqlSessionFactory.databaseSpecificBitAnd1.get(databaseType));
-          properties.put("bitand2" , DbSqlSessionFactory.databaseSpecificBitAnd2.get(databaseType));
-          properties.put("bitand3" , DbSqlSessionFactory.databaseSpecificBitAnd3.get(databaseType));
-
-          properties.put("trueConstant", DbSqlSessionFactory.databaseSpecificTrueConstant.get(databaseType));
-          properties.put("falseConstant", DbSqlSessionFactory.databaseSpecificFalseConstant.get(databaseType));
-
-          properties.put("dbSpecificDummyTable" , DbSqlSessionFactory.databaseSpecificDummyTable.get(databaseType));
-
-          Map<String, String> constants = DbSqlSessionFactory.dbSpecificConstants.get(databaseType);
-          for (Entry<String, String> entry : constants.entrySet()) {
-            properties.put(entry.getKey(), entry.getValue());
-          }
+      // update the jdbc parameters to the configured ones...
+      Environment environment = new Environment("default", transactionFactory, dataSource);
+
+      Configuration configuration;
+      if (isMyBatisConfigurationCacheEnabled) {
+        configuration = createMyBatisConfigurationFromCache(environment);
+      } else {
+        configuration = parseMyBatisConfiguration(environment);
+      }
+
+      sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+    }
+  }
 
+  protected Configuration parseMyBatisConfiguration(Environment environment) {
+    InputStream inputStream = null;
+    try {
+      inputStream = getMyBatisXmlConfigurationSteam();
+
+      Reader reader = new InputStreamReader(inputStream);
+      Properties properties = new Properties();
+      properties.put("prefix", databaseTablePrefix);
+      if(databaseType != null) {
+        properties.put("limitBefore" , DbSqlSessionFactory.databaseSpecificLimitBeforeStatements.get(databaseType));
+        properties.put("limitAfter" , DbSqlSessionFactory.databaseSpecificLimitAfterStatements.get(databaseType));
+        properties.put("innerLimitAfter" , DbSqlSessionFactory.databaseSpecificInnerLimitAfterStatements.get(databaseType));
+        properties.put("limitBetween" , DbSqlSessionFactory.databaseSpecificLimitBetweenStatements.get(databaseType));
+        properties.put("limitBetweenClob" , DbSqlSessionFactory.databaseSpecificLimitBetweenClobStatements.get(databaseType));
+        properties.put("orderBy" , DbSqlSessionFactory.databaseSpecificOrderByStatements.get(databaseType));
+        properties.put("limitBeforeNativeQuery" , DbSqlSessionFactory.databaseSpecificLimitBeforeNativeQueryStatements.get(databaseType));
+
+        properties.put("bitand1" , DbSqlSessionFactory.databaseSpecificBitAnd1.get(databaseType));
+        properties.put("bitand2" , DbSqlSessionFactory.databaseSpecificBitAnd2.get(databaseType));
+        properties.put("bitand3" , DbSqlSessionFactory.databaseSpecificBitAnd3.get(databaseType));
+
+        properties.put("trueConstant", DbSqlSessionFactory.databaseSpecificTrueConstant.get(databaseType));
+        properties.put("falseConstant", DbSqlSessionFactory.databaseSpecificFalseConstant.get(databaseType));
+
+        properties.put("dbSpecificDummyTable" , DbSqlSessionFactory.databaseSpecificDummyTable.get(databaseType));
+
+        Map<String, String> constants = DbSqlSessionFactory.dbSpecificConstants.get(databaseType);
+        for (Entry<String, String> entry : constants.entrySet()) {
+          properties.put(entry.getKey(), entry.getValue());
         }
-        XMLConfigBuilder parser = new XMLConfigBuilder(reader,"", properties);
-        Configuration configuration = parser.getConfiguration();
-        configuration.setEnvironment(environment);
-        configuration = parser.parse();
 
-        configuration.setDefaultStatementTimeout(jdbcStatementTimeout);
+      }
+      XMLConfigBuilder parser = new XMLConfigBuilder(reader,"", properties);
+      Configuration configuration = parser.getConfiguration();
+      configuration.setEnvironment(environment);
+      configuration = parser.parse();
 
-        sqlSessionFactory = new DefaultSqlSessionFactory(configuration);
+      configuration.setDefaultStatementTimeout(jdbcStatementTimeout);
 
-      } catch (Exception e) {
-        throw new ProcessEngineException("Error while building ibatis SqlSessionFactory: " + e.getMessage(), e);
-      } finally {
-        IoUtil.closeSilently(inputStream);
+      return configuration;
+
+    } catch (Exception e) {
+      throw new ProcessEngineException("Error while building ibatis SqlSessionFactory: " + e.getMessage(), e);
+    } finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  /**
+   * Creates a configuration with the given environment which contains the settings and
+   * mappings of a cached configuration. The cached configuration is parsed without an
+   * environment, so that it does not keep the data source of a closed process engine.
+   */
+  protected Configuration createMyBatisConfigurationFromCache(Environment environment) {
+    ClassLoader classLoader = ReflectUtil.getClassLoader();
+    List<Object> cacheKey = getMyBatisConfigurationCacheKey();
+
+    synchronized (cachedMyBatisConfigurations) {
+      Map<List<Object>, SoftReference<Configuration>> configurations = cachedMyBatisConfigurations.get(classLoader);
+      if (configurations == null) {
+        configurations = new HashMap<List<Object>, SoftReference<Configuration>>();
+        cachedMyBatisConfigurations.put(classLoader, configurations);
       }
+
+      SoftReference<Configuration> cachedReference = configurations.get(cacheKey);
+      Configuration cachedConfiguration = cachedReference != null ? cachedReference.get() : null;
+
+      if (cachedConfiguration == null) {
+        cachedConfiguration = parseMyBatisConfiguration(null);
+
+        // type handlers are registered by java type, so they can not be copied
+        if (hasCustomTypeHandlers(cachedConfiguration)) {
+          cachedConfiguration.setEnvironment(environment);
+          return cachedConfiguration;
+        }
+
+        configurations.put(cacheKey, new SoftReference<Configuration>(cachedConfiguration));
+      }
+
+      return copyMyBatisConfiguration(cachedConfiguration, environment);
     }
   }
 
+  protected boolean hasCustomTypeHandlers(Configuration configuration) {
+    int defaultTypeHandlers = new Configuration().getTypeHandlerRegistry().getTypeHandlers().size();
+    return configuration.getTypeHandlerRegistry().getTypeHandlers().size() != defaultTypeHandlers;
+  }
+
+  protected Configuration copyMyBatisConfiguration(Configuration cachedConfiguration, Environment environment) {
+    Configuration configuration = new Configuration(environment);
+
+    configuration.setVariables(cachedConfiguration.getVariables());
+    configuration.setLazyLoadingEnabled(cachedConfiguration.isLazyLoadingEnabled());
+    configuration.setAggressiveLazyLoading(cachedConfiguration.isAggressiveLazyLoading());
+    configuration.setLazyLoadTriggerMethods(cachedConfiguration.getLazyLoadTriggerMethods());
+    configuration.setMultipleResultSetsEnabled(cachedConfiguration.isMultipleResultSetsEnabled());
+    configuration.setUseColumnLabel(cachedConfiguration.isUseColumnLabel());
+    configuration.setUseGeneratedKeys(cachedConfiguration.isUseGeneratedKeys());
+    configuration.setAutoMappingBehavior(cachedConfiguration.getAutoMappingBehavior());
+    configuration.setDefaultExecutorType(cachedConfiguration.getDefaultExecutorType());
+    configuration.setSafeRowBoundsEnabled(cachedConfiguration.isSafeRowBoundsEnabled());
+    configuration.setSafeResultHandlerEnabled(cachedConfiguration.isSafeResultHandlerEnabled());
+    configuration.setMapUnderscoreToCamelCase(cachedConfiguration.isMapUnderscoreToCamelCase());
+    configuration.setLocalCacheScope(cachedConfiguration.getLocalCacheScope());
+    configuration.setJdbcTypeForNull(cachedConfiguration.getJdbcTypeForNull());
+    configuration.setCallSettersOnNulls(cachedConfiguration.isCallSettersOnNulls());
+    configuration.setCacheEnabled(cachedConfiguration.isCacheEnabled());
+    configuration.setObjectFactory(cachedConfiguration.getObjectFactory());
+    configuration.setObjectWrapperFactory(cachedConfiguration.getObjectWrapperFactory());
+    configuration.setDefaultStatementTimeout(jdbcStatementTimeout);
+
+    for (Entry<String, Class<?>> typeAlias : cachedConfiguration.getTypeAliasRegistry().getTypeAliases().entrySet()) {
+      configuration.getTypeAliasRegistry().registerAlias(typeAlias.getKey(), typeAlias.getValue());
+    }
+
+    // every mapping is registered with its short and its fully qualified name,
+    // adding it with its fully qualified name registers both names
+    for (String cacheName : cachedConfiguration.getCacheNames()) {
+      if (cacheName.indexOf('.') != -1) {
+        configuration.addCache(cachedConfiguration.getCache(cacheName));
+      }
+    }
+    for (String parameterMapName : cachedConfiguration.getParameterMapNames()) {
+      if (parameterMapName.indexOf('.') != -1) {
+        configuration.addParameterMap(cachedConfiguration.getParameterMap(parameterMapName));
+      }
+    }
+    for (String resultMapName : cachedConfiguration.getResultMapNames()) {
+      if (resultMapName.indexOf('.') != -1) {
+        configuration.addResultMap(cachedConfiguration.getResultMap(resultMapName));
+      }
+    }
+    for (String keyGeneratorName : cachedConfiguration.getKeyGeneratorNames()) {
+      if (keyGeneratorName.indexOf('.') != -1) {
+        configuration.addKeyGenerator(keyGeneratorName, cachedConfiguration.getKeyGenerator(keyGeneratorName));
+      }
+    }
+    for (String statementName : cachedConfiguration.getMappedStatementNames()) {
+      if (statementName.indexOf('.') != -1) {
+        configuration.addMappedStatement(copyMappedStatement(cachedConfiguration.getMappedStatement(statementName), configuration));
+      }
+    }
+
+    return configuration;
+  }
+
+  /**
+   * The statement handlers read the default statement timeout, the parameter handler and the
+   * result set handler from the configuration of the mapped statement. The statement is
+   * therefore rebuilt for the given configuration while the parsed parts are reused.
+   */
+  protected MappedStatement copyMappedStatement(MappedStatement statement, Configuration configuration) {
+    return new MappedStatement.Builder(configuration, statement.getId(), statement.getSqlSource(), statement.getSqlCommandType())
+      .resource(statement.getResource())
+      .fetchSize(statement.getFetchSize())
+      .timeout(statement.getTimeout())
+      .statementType(statement.getStatementType())
+      .resultSetType(statement.getResultSetType())
+      .parameterMap(statement.getParameterMap())
+      .resultMaps(statement.getResultMaps())
+      .cache(statement.getCache())
+      .flushCacheRequired(statement.isFlushCacheRequired())
+      .useCache(statement.isUseCache())
+      .resultOrdered(statement.isResultOrdered())
+      .keyGenerator(statement.getKeyGenerator())
+      .keyProperty(joinMyBatisNames(statement.getKeyProperties()))
+      .keyColumn(joinMyBatisNames(statement.getKeyColumns()))
+      .resulSets(joinMyBatisNames(statement.getResulSets()))
+      .databaseId(statement.getDatabaseId())
+      .lang(statement.getLang())
+      .build();
+  }
+
+  protected String joinMyBatisNames(String[] names) {
+    if (names == null) {
+      return null;
+    }
+    StringBuilder joinedNames = new StringBuilder();
+    for (String name : names) {
+      if (joinedNames.length() > 0) {
+        joinedNames.append(',');
+      }
+      joinedNames.append(name);
+    }
+    return joinedNames.toString();
+  }
+
+  /**
+   * The properties which are applied while the mappings are parsed depend on the database type and
+   * the table prefix. The configuration class may provide other mapping files. It is referenced by
+   * name, so that the key does not keep its class loader alive. The statement timeout is not part
+   * of the key, because the copied statements use the default timeout of their engine.
+   */
+  protected List<Object> getMyBatisConfigurationCacheKey() {
+    return Arrays.<Object>asList(getClass().getName(), databaseType, databaseTablePrefix);
+  }
+
   protected InputStream getMyBatisXmlConfigurationSteam() {
     return ReflectUtil.getResourceAsStream(DEFAULT_MYBATIS_MAPPING_FILE);
   }
@@ -898,6 +1212,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
       addSessionFactory(new GenericManagerFactory(HistoricVariableInstanceManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricIncidentManager.class));
       addSessionFactory(new GenericManagerFactory(HistoricJobLogManager.class));
+      addSessionFactory(new GenericManagerFactory(HistoryEventBuffer.class));
       addSessionFactory(new GenericManagerFactory(IdentityInfoManager.class));
       addSessionFactory(new GenericManagerFactory(IdentityLinkManager.class));
       addSessionFactory(new GenericManagerFactory(JobManager.class));
@@ -949,6 +1264,7 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     dbSqlSessionFactory.setCmmnEnabled(cmmnEnabled);
     dbSqlSessionFactory.setDatabaseTablePrefix(databaseTablePrefix);
     dbSqlSessionFactory.setDatabaseSchema(databaseSchema);
+    dbSqlSessionFactory.setJdbcBatchProcessing(isJdbcBatchProcessing);
     addSessionFactory(dbSqlSessionFactory);
     addSessionFactory(new DbSqlPersistenceProviderFactory());
   }
@@ -991,7 +1307,13 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         deployers.addAll(customPostDeployers);
       }
 
-      deploymentCache = new DeploymentCache();
+      if (cacheFactory == null) {
+        cacheFactory = new DefaultCacheFactory();
+      }
+
+      deploymentCache = new DeploymentCache(cacheFactory,
+          processDefinitionCacheCapacity, caseDefinitionCacheCapacity, decisionDefinitionCacheCapacity,
+          bpmnModelInstanceCacheCapacity, cmmnModelInstanceCacheCapacity, dmnModelInstanceCacheCapacity);
       deploymentCache.setDeployers(deployers);
     }
   }
@@ -1122,6 +1444,12 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     ProcessEventJobHandler processEventJobHandler = new ProcessEventJobHandler();
     jobHandlers.put(processEventJobHandler.getType(), processEventJobHandler);
 
+    SignalEventDeliveryJobHandler signalEventDeliveryJobHandler = new SignalEventDeliveryJobHandler();
+    jobHandlers.put(signalEventDeliveryJobHandler.getType(), signalEventDeliveryJobHandler);
+
+    StatisticsCounterRebuildJobHandler statisticsCounterRebuildJobHandler = new StatisticsCounterRebuildJobHandler();
+    jobHandlers.put(statisticsCounterRebuildJobHandler.getType(), statisticsCounterRebuildJobHandler);
+
     TimerSuspendProcessDefinitionHandler suspendProcessDefinitionHandler = new TimerSuspendProcessDefinitionHandler();
     jobHandlers.put(suspendProcessDefinitionHandler.getType(), suspendProcessDefinitionHandler);
 
@@ -1143,6 +1471,10 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
 
     jobExecutor.setAutoActivate(jobExecutorActivate);
 
+    if (isJobExecutorAcquiredJobHandOverEnabled && acquiredJobRegistry == null) {
+      acquiredJobRegistry = new AcquiredJobRegistry();
+    }
+
     if(jobExecutor.getRejectedJobsHandler() == null) {
       if(customRejectedJobsHandler != null) {
         jobExecutor.setRejectedJobsHandler(customRejectedJobsHandler);
@@ -1218,7 +1550,16 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
         idGeneratorCommandExecutor = commandExecutorTxRequiresNew;
       }
 
-      DbIdGenerator dbIdGenerator = new DbIdGenerator();
+      DbIdGenerator dbIdGenerator = null;
+      if (isIdGeneratorPrefetchEnabled) {
+        PrefetchingDbIdGenerator prefetchingDbIdGenerator = new PrefetchingDbIdGenerator();
+        prefetchingDbIdGenerator.setPrefetchThreshold(idGeneratorPrefetchThreshold);
+        prefetchingDbIdGenerator.setMaxIdBlockSize(idGeneratorMaxIdBlockSize);
+        prefetchingDbIdGenerator.setTargetBlockDurationMillis(idGeneratorTargetBlockDurationMillis);
+        dbIdGenerator = prefetchingDbIdGenerator;
+      } else {
+        dbIdGenerator = new DbIdGenerator();
+      }
       dbIdGenerator.setIdBlockSize(idBlockSize);
       dbIdGenerator.setCommandExecutor(idGeneratorCommandExecutor);
       idGenerator = dbIdGenerator;
@@ -1386,6 +1727,9 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     if(scriptingEnvironment == null) {
       scriptingEnvironment = new ScriptingEnvironment(scriptFactory, scriptEnvResolvers, scriptingEngines);
     }
+    if(compiledScriptCache == null && compiledScriptCacheCapacity > 0) {
+      compiledScriptCache = new CompiledScriptCache(compiledScriptCacheCapacity);
+    }
   }
 
   protected void initDmnEngine() {
@@ -1542,6 +1886,26 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     }
   }
 
+  // authorization decision cache /////////////////////////////////////////////
+
+  protected void initAuthorizationDecisionCache() {
+    if(isAuthorizationDecisionCacheEnabled && authorizationDecisionCache == null) {
+      authorizationDecisionCache = new AuthorizationDecisionCache(authorizationDecisionCacheCapacity);
+    }
+  }
+
+  protected void initFilterCountCache() {
+    if(filterCountCacheTimeToLive > 0 && filterCountCache == null) {
+      filterCountCache = new FilterCountCache(filterCountCacheTimeToLive);
+    }
+  }
+
+  protected void initFilterQueryCache() {
+    if(isFilterQueryCacheEnabled && filterQueryCache == null) {
+      filterQueryCache = new FilterQueryCache();
+    }
+  }
+
   // getters and setters //////////////////////////////////////////////////////
 
   @Override
@@ -1900,6 +2264,21 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
   }
 
 
+  public boolean isMyBatisConfigurationCacheEnabled() {
+    return isMyBatisConfigurationCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setMyBatisConfigurationCacheEnabled(boolean isMyBatisConfigurationCacheEnabled) {
+    this.isMyBatisConfigurationCacheEnabled = isMyBatisConfigurationCacheEnabled;
+    return this;
+  }
+
+  public static void clearMyBatisConfigurationCache() {
+    synchronized (cachedMyBatisConfigurations) {
+      cachedMyBatisConfigurations.clear();
+    }
+  }
+
   public DbSqlSessionFactory getDbSqlSessionFactory() {
     return dbSqlSessionFactory;
   }
@@ -2260,6 +2639,69 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.deploymentCache = deploymentCache;
   }
 
+  public CacheFactory getCacheFactory() {
+    return cacheFactory;
+  }
+
+  public ProcessEngineConfigurationImpl setCacheFactory(CacheFactory cacheFactory) {
+    this.cacheFactory = cacheFactory;
+    return this;
+  }
+
+  public int getProcessDefinitionCacheCapacity() {
+    return processDefinitionCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setProcessDefinitionCacheCapacity(int processDefinitionCacheCapacity) {
+    this.processDefinitionCacheCapacity = processDefinitionCacheCapacity;
+    return this;
+  }
+
+  public int getCaseDefinitionCacheCapacity() {
+    return caseDefinitionCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setCaseDefinitionCacheCapacity(int caseDefinitionCacheCapacity) {
+    this.caseDefinitionCacheCapacity = caseDefinitionCacheCapacity;
+    return this;
+  }
+
+  public int getDecisionDefinitionCacheCapacity() {
+    return decisionDefinitionCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setDecisionDefinitionCacheCapacity(int decisionDefinitionCacheCapacity) {
+    this.decisionDefinitionCacheCapacity = decisionDefinitionCacheCapacity;
+    return this;
+  }
+
+  public int getBpmnModelInstanceCacheCapacity() {
+    return bpmnModelInstanceCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setBpmnModelInstanceCacheCapacity(int bpmnModelInstanceCacheCapacity) {
+    this.bpmnModelInstanceCacheCapacity = bpmnModelInstanceCacheCapacity;
+    return this;
+  }
+
+  public int getCmmnModelInstanceCacheCapacity() {
+    return cmmnModelInstanceCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setCmmnModelInstanceCacheCapacity(int cmmnModelInstanceCacheCapacity) {
+    this.cmmnModelInstanceCacheCapacity = cmmnModelInstanceCacheCapacity;
+    return this;
+  }
+
+  public int getDmnModelInstanceCacheCapacity() {
+    return dmnModelInstanceCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setDmnModelInstanceCacheCapacity(int dmnModelInstanceCacheCapacity) {
+    this.dmnModelInstanceCacheCapacity = dmnModelInstanceCacheCapacity;
+    return this;
+  }
+
   public ProcessEngineConfigurationImpl setDelegateInterceptor(DelegateInterceptor delegateInterceptor) {
     this.delegateInterceptor = delegateInterceptor;
     return this;
@@ -2354,6 +2796,42 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.idGeneratorDataSource = idGeneratorDataSource;
   }
 
+  public boolean isIdGeneratorPrefetchEnabled() {
+    return isIdGeneratorPrefetchEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setIdGeneratorPrefetchEnabled(boolean isIdGeneratorPrefetchEnabled) {
+    this.isIdGeneratorPrefetchEnabled = isIdGeneratorPrefetchEnabled;
+    return this;
+  }
+
+  public double getIdGeneratorPrefetchThreshold() {
+    return idGeneratorPrefetchThreshold;
+  }
+
+  public ProcessEngineConfigurationImpl setIdGeneratorPrefetchThreshold(double idGeneratorPrefetchThreshold) {
+    this.idGeneratorPrefetchThreshold = idGeneratorPrefetchThreshold;
+    return this;
+  }
+
+  public int getIdGeneratorMaxIdBlockSize() {
+    return idGeneratorMaxIdBlockSize;
+  }
+
+  public ProcessEngineConfigurationImpl setIdGeneratorMaxIdBlockSize(int idGeneratorMaxIdBlockSize) {
+    this.idGeneratorMaxIdBlockSize = idGeneratorMaxIdBlockSize;
+    return this;
+  }
+
+  public long getIdGeneratorTargetBlockDurationMillis() {
+    return idGeneratorTargetBlockDurationMillis;
+  }
+
+  public ProcessEngineConfigurationImpl setIdGeneratorTargetBlockDurationMillis(long idGeneratorTargetBlockDurationMillis) {
+    this.idGeneratorTargetBlockDurationMillis = idGeneratorTargetBlockDurationMillis;
+    return this;
+  }
+
   public String getIdGeneratorDataSourceJndiName() {
     return idGeneratorDataSourceJndiName;
   }
@@ -2447,6 +2925,69 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.resourceAuthorizationProvider = resourceAuthorizationProvider;
   }
 
+  public boolean isAuthorizationDecisionCacheEnabled() {
+    return isAuthorizationDecisionCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheEnabled(boolean isAuthorizationDecisionCacheEnabled) {
+    this.isAuthorizationDecisionCacheEnabled = isAuthorizationDecisionCacheEnabled;
+    return this;
+  }
+
+  public int getAuthorizationDecisionCacheCapacity() {
+    return authorizationDecisionCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCacheCapacity(int authorizationDecisionCacheCapacity) {
+    this.authorizationDecisionCacheCapacity = authorizationDecisionCacheCapacity;
+    return this;
+  }
+
+  public AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    return authorizationDecisionCache;
+  }
+
+  public ProcessEngineConfigurationImpl setAuthorizationDecisionCache(AuthorizationDecisionCache authorizationDecisionCache) {
+    this.authorizationDecisionCache = authorizationDecisionCache;
+    return this;
+  }
+
+  public long getFilterCountCacheTimeToLive() {
+    return filterCountCacheTimeToLive;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterCountCacheTimeToLive(long filterCountCacheTimeToLive) {
+    this.filterCountCacheTimeToLive = filterCountCacheTimeToLive;
+    return this;
+  }
+
+  public FilterCountCache getFilterCountCache() {
+    return filterCountCache;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterCountCache(FilterCountCache filterCountCache) {
+    this.filterCountCache = filterCountCache;
+    return this;
+  }
+
+  public boolean isFilterQueryCacheEnabled() {
+    return isFilterQueryCacheEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterQueryCacheEnabled(boolean isFilterQueryCacheEnabled) {
+    this.isFilterQueryCacheEnabled = isFilterQueryCacheEnabled;
+    return this;
+  }
+
+  public FilterQueryCache getFilterQueryCache() {
+    return filterQueryCache;
+  }
+
+  public ProcessEngineConfigurationImpl setFilterQueryCache(FilterQueryCache filterQueryCache) {
+    this.filterQueryCache = filterQueryCache;
+    return this;
+  }
+
   public List<ProcessEnginePlugin> getProcessEnginePlugins() {
     return processEnginePlugins;
   }
@@ -2497,6 +3038,33 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     this.isExecutionTreePrefetchEnabled = isExecutionTreePrefetchingEnabled;
   }
 
+  public boolean isExecutionTreePrefetchVariablesEnabled() {
+    return isExecutionTreePrefetchVariablesEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExecutionTreePrefetchVariablesEnabled(boolean isExecutionTreePrefetchVariablesEnabled) {
+    this.isExecutionTreePrefetchVariablesEnabled = isExecutionTreePrefetchVariablesEnabled;
+    return this;
+  }
+
+  public boolean isExecutionTreePrefetchEventSubscriptionsEnabled() {
+    return isExecutionTreePrefetchEventSubscriptionsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExecutionTreePrefetchEventSubscriptionsEnabled(boolean isExecutionTreePrefetchEventSubscriptionsEnabled) {
+    this.isExecutionTreePrefetchEventSubscriptionsEnabled = isExecutionTreePrefetchEventSubscriptionsEnabled;
+    return this;
+  }
+
+  public boolean isExecutionTreePrefetchJobsEnabled() {
+    return isExecutionTreePrefetchJobsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setExecutionTreePrefetchJobsEnabled(boolean isExecutionTreePrefetchJobsEnabled) {
+    this.isExecutionTreePrefetchJobsEnabled = isExecutionTreePrefetchJobsEnabled;
+    return this;
+  }
+
   public ProcessEngineImpl getProcessEngine() {
     return processEngine;
   }
@@ -2532,6 +3100,24 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return enableScriptCompilation;
   }
 
+  public int getCompiledScriptCacheCapacity() {
+    return compiledScriptCacheCapacity;
+  }
+
+  public ProcessEngineConfigurationImpl setCompiledScriptCacheCapacity(int compiledScriptCacheCapacity) {
+    this.compiledScriptCacheCapacity = compiledScriptCacheCapacity;
+    return this;
+  }
+
+  public CompiledScriptCache getCompiledScriptCache() {
+    return compiledScriptCache;
+  }
+
+  public ProcessEngineConfigurationImpl setCompiledScriptCache(CompiledScriptCache compiledScriptCache) {
+    this.compiledScriptCache = compiledScriptCache;
+    return this;
+  }
+
   public boolean isEnableGracefulDegradationOnContextSwitchFailure() {
     return enableGracefulDegradationOnContextSwitchFailure;
   }
@@ -2623,6 +3209,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isFileValueStreamingEnabled() {
+    return isFileValueStreamingEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setFileValueStreamingEnabled(boolean isFileValueStreamingEnabled) {
+    this.isFileValueStreamingEnabled = isFileValueStreamingEnabled;
+    return this;
+  }
+
   public ProcessEngineConfigurationImpl setDefaultCharsetName(String defaultCharsetName) {
     this.defaultCharsetName = defaultCharsetName;
     return this;
@@ -2646,6 +3241,69 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isJobExecutorAcquiredJobHandOverEnabled() {
+    return isJobExecutorAcquiredJobHandOverEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorAcquiredJobHandOverEnabled(boolean isJobExecutorAcquiredJobHandOverEnabled) {
+    this.isJobExecutorAcquiredJobHandOverEnabled = isJobExecutorAcquiredJobHandOverEnabled;
+    return this;
+  }
+
+  public int getSignalEventDeliveryChunkSize() {
+    return signalEventDeliveryChunkSize;
+  }
+
+  public ProcessEngineConfigurationImpl setSignalEventDeliveryChunkSize(int signalEventDeliveryChunkSize) {
+    this.signalEventDeliveryChunkSize = signalEventDeliveryChunkSize;
+    return this;
+  }
+
+  public AcquiredJobRegistry getAcquiredJobRegistry() {
+    return acquiredJobRegistry;
+  }
+
+  public ProcessEngineConfigurationImpl setAcquiredJobRegistry(AcquiredJobRegistry acquiredJobRegistry) {
+    this.acquiredJobRegistry = acquiredJobRegistry;
+    return this;
+  }
+
+  public boolean isJobExecutorBatchExclusiveJobAcquisitionEnabled() {
+    return isJobExecutorBatchExclusiveJobAcquisitionEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setJobExecutorBatchExclusiveJobAcquisitionEnabled(boolean isJobExecutorBatchExclusiveJobAcquisitionEnabled) {
+    this.isJobExecutorBatchExclusiveJobAcquisitionEnabled = isJobExecutorBatchExclusiveJobAcquisitionEnabled;
+    return this;
+  }
+
+  public boolean isJdbcBatchProcessing() {
+    return isJdbcBatchProcessing;
+  }
+
+  public ProcessEngineConfigurationImpl setJdbcBatchProcessing(boolean isJdbcBatchProcessing) {
+    this.isJdbcBatchProcessing = isJdbcBatchProcessing;
+    return this;
+  }
+
+  public boolean isDbEntityChangeTrackingEnabled() {
+    return isDbEntityChangeTrackingEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDbEntityChangeTrackingEnabled(boolean isDbEntityChangeTrackingEnabled) {
+    this.isDbEntityChangeTrackingEnabled = isDbEntityChangeTrackingEnabled;
+    return this;
+  }
+
+  public boolean isStatisticsCounterEnabled() {
+    return isStatisticsCounterEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setStatisticsCounterEnabled(boolean isStatisticsCounterEnabled) {
+    this.isStatisticsCounterEnabled = isStatisticsCounterEnabled;
+    return this;
+  }
+
   public DbEntityCacheKeyMapping getDbEntityCacheKeyMapping() {
     return dbEntityCacheKeyMapping;
   }
@@ -2720,6 +3378,15 @@ public abstract class ProcessEngineConfigurationImpl extends ProcessEngineConfig
     return this;
   }
 
+  public boolean isDurationMetricsEnabled() {
+    return isDurationMetricsEnabled;
+  }
+
+  public ProcessEngineConfigurationImpl setDurationMetricsEnabled(boolean isDurationMetricsEnabled) {
+    this.isDurationMetricsEnabled = isDurationMetricsEnabled;
+    return this;
+  }
+
   public MetricsReporterIdProvider getMetricsReporterIdProvider() {
     return metricsReporterIdProvider;
   }
@@ -15,7 +15,11 @@ package org.camunda.bpm.engine.impl.cmd;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.GregorianCalendar;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
@@ -41,23 +45,36 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
 
   private final JobExecutor jobExecutor;
 
+  /** the maximum number of jobs to acquire; {@link JobExecutor#getMaxJobsPerAcquisition()} is never exceeded */
+  protected final int numJobsToAcquire;
+
   protected AcquiredJobs acquiredJobs;
 
   public AcquireJobsCmd(JobExecutor jobExecutor) {
+    this(jobExecutor, Integer.MAX_VALUE);
+  }
+
+  public AcquireJobsCmd(JobExecutor jobExecutor, int numJobsToAcquire) {
     this.jobExecutor = jobExecutor;
+    this.numJobsToAcquire = numJobsToAcquire;
   }
 
   public AcquiredJobs execute(CommandContext commandContext) {
 
     String lockOwner = jobExecutor.getLockOwner();
     int lockTimeInMillis = jobExecutor.getLockTimeInMillis();
-    int maxNonExclusiveJobsPerAcquisition = jobExecutor.getMaxJobsPerAcquisition();
+    int maxNonExclusiveJobsPerAcquisition = Math.min(jobExecutor.getMaxJobsPerAcquisition(), numJobsToAcquire);
 
     acquiredJobs = new AcquiredJobs();
     List<JobEntity> jobs = commandContext
       .getJobManager()
       .findNextJobsToExecute(new Page(0, maxNonExclusiveJobsPerAcquisition));
 
+    Map<String, List<JobEntity>> exclusiveJobsByProcessInstance = null;
+    if (Context.getProcessEngineConfiguration().isJobExecutorBatchExclusiveJobAcquisitionEnabled()) {
+      exclusiveJobsByProcessInstance = findExclusiveJobsByProcessInstance(commandContext, jobs);
+    }
+
     for (JobEntity job: jobs) {
       List<String> jobIds = new ArrayList<String>();
 
@@ -65,17 +82,28 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
         if (job.isExclusive() && job.getProcessInstanceId() != null) {
           // acquire all exclusive jobs in the same process instance
           // (includes the current job)
-          List<JobEntity> exclusiveJobs = commandContext.getJobManager()
-            .findExclusiveJobsToExecute(job.getProcessInstanceId());
-          for (JobEntity exclusiveJob : exclusiveJobs) {
-            if(exclusiveJob != null) {
-              lockJob(exclusiveJob, lockOwner, lockTimeInMillis);
-              jobIds.add(exclusiveJob.getId());
+          List<JobEntity> exclusiveJobs = null;
+          if (exclusiveJobsByProcessInstance != null) {
+            exclusiveJobs = exclusiveJobsByProcessInstance.remove(job.getProcessInstanceId());
+          }
+          else {
+            exclusiveJobs = commandContext.getJobManager()
+              .findExclusiveJobsToExecute(job.getProcessInstanceId());
+          }
+
+          if (exclusiveJobs != null) {
+            for (JobEntity exclusiveJob : exclusiveJobs) {
+              if(exclusiveJob != null) {
+                lockJob(exclusiveJob, lockOwner, lockTimeInMillis);
+                jobIds.add(exclusiveJob.getId());
+                acquiredJobs.addJobEntity(exclusiveJob);
+              }
             }
           }
         } else {
           lockJob(job, lockOwner, lockTimeInMillis);
           jobIds.add(job.getId());
+          acquiredJobs.addJobEntity(job);
         }
 
       }
@@ -92,6 +120,40 @@ public class AcquireJobsCmd implements Command<AcquiredJobs>, OptimisticLockingL
     return acquiredJobs;
   }
 
+  /**
+   * Fetches the exclusive jobs of all process instances referenced by exclusive jobs
+   * in the given page with a single query and groups them by process instance id.
+   */
+  protected Map<String, List<JobEntity>> findExclusiveJobsByProcessInstance(CommandContext commandContext, List<JobEntity> jobs) {
+    Set<String> processInstanceIds = new HashSet<String>();
+    for (JobEntity job : jobs) {
+      if (job != null && job.isExclusive() && job.getProcessInstanceId() != null) {
+        processInstanceIds.add(job.getProcessInstanceId());
+      }
+    }
+
+    Map<String, List<JobEntity>> exclusiveJobsByProcessInstance = new HashMap<String, List<JobEntity>>();
+    if (processInstanceIds.isEmpty()) {
+      return exclusiveJobsByProcessInstance;
+    }
+
+    List<JobEntity> exclusiveJobs = commandContext.getJobManager()
+      .findExclusiveJobsToExecute(processInstanceIds);
+
+    for (JobEntity exclusiveJob : exclusiveJobs) {
+      if (exclusiveJob != null) {
+        List<JobEntity> processInstanceJobs = exclusiveJobsByProcessInstance.get(exclusiveJob.getProcessInstanceId());
+        if (processInstanceJobs == null) {
+          processInstanceJobs = new ArrayList<JobEntity>();
+          exclusiveJobsByProcessInstance.put(exclusiveJob.getProcessInstanceId(), processInstanceJobs);
+        }
+        processInstanceJobs.add(exclusiveJob);
+      }
+    }
+
+    return exclusiveJobsByProcessInstance;
+  }
+
   protected void lockJob(JobEntity job, String lockOwner, int lockTimeInMillis) {
     job.setLockOwner(lockOwner);
     GregorianCalendar gregorianCalendar = new GregorianCalendar();
@@ -0,0 +1,78 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+
+/**
+ * Copies the content of a byte array into a new temporary file without loading it
+ * into memory. The caller is responsible for deleting the file.
+ */
+public class CopyByteArrayToTemporaryFileCmd implements Command<File> {
+
+  protected String byteArrayId;
+
+  public CopyByteArrayToTemporaryFileCmd(String byteArrayId) {
+    this.byteArrayId = byteArrayId;
+  }
+
+  public File execute(CommandContext commandContext) {
+    File file = createTemporaryFile();
+    InputStream inputStream = null;
+    OutputStream outputStream = null;
+    try {
+      inputStream = commandContext.getByteArrayManager().openByteArrayStream(byteArrayId);
+      outputStream = new FileOutputStream(file);
+
+      byte[] buffer = new byte[16 * 1024];
+      int bytesRead = inputStream.read(buffer);
+      while (bytesRead != -1) {
+        outputStream.write(buffer, 0, bytesRead);
+        bytesRead = inputStream.read(buffer);
+      }
+      outputStream.close();
+
+      return file;
+
+    } catch (IOException e) {
+      file.delete();
+      throw new ProcessEngineException("Cannot copy byte array with id '" + byteArrayId + "' to file " + file + ": " + e.getMessage(), e);
+
+    } catch (RuntimeException e) {
+      file.delete();
+      throw e;
+
+    } finally {
+      IoUtil.closeSilently(inputStream);
+      IoUtil.closeSilently(outputStream);
+    }
+  }
+
+  protected File createTemporaryFile() {
+    try {
+      return File.createTempFile("camunda-bytearray-", ".tmp");
+    } catch (IOException e) {
+      throw new ProcessEngineException("Cannot create temporary file for byte array with id '" + byteArrayId + "': " + e.getMessage(), e);
+    }
+  }
+
+}
@@ -0,0 +1,48 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.StatisticsCounterEntity;
+
+/**
+ * Inserts a runtime statistics counter with the value 0 if it does not exist yet.
+ * Returns the id of the counter.
+ */
+public class CreateStatisticsCounterCmd implements Command<String> {
+
+  protected String processDefinitionId;
+  protected String type;
+  protected String incidentType;
+
+  public CreateStatisticsCounterCmd(String processDefinitionId, String type, String incidentType) {
+    this.processDefinitionId = processDefinitionId;
+    this.type = type;
+    this.incidentType = incidentType;
+  }
+
+  public String execute(CommandContext commandContext) {
+    StatisticsCounterEntity counter = commandContext
+      .getStatisticsManager()
+      .findStatisticsCounter(processDefinitionId, type, incidentType);
+
+    if (counter == null) {
+      counter = new StatisticsCounterEntity(processDefinitionId, type, incidentType, 0);
+      commandContext.getDbEntityManager().insert(counter);
+    }
+
+    return counter.getId();
+  }
+
+}
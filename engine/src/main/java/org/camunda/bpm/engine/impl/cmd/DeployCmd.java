@@ -12,7 +12,6 @@
  */
 package org.camunda.bpm.engine.impl.cmd;
 
-import java.io.ByteArrayInputStream;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collections;
@@ -47,16 +46,11 @@ import org.camunda.bpm.engine.impl.repository.DeploymentBuilderImpl;
 import org.camunda.bpm.engine.impl.repository.ProcessApplicationDeploymentBuilderImpl;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.impl.util.StringUtil;
+import org.camunda.bpm.engine.repository.CaseDefinition;
 import org.camunda.bpm.engine.repository.Deployment;
 import org.camunda.bpm.engine.repository.ProcessApplicationDeploymentBuilder;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
 import org.camunda.bpm.engine.repository.ResumePreviousBy;
-import org.camunda.bpm.model.bpmn.Bpmn;
-import org.camunda.bpm.model.bpmn.BpmnModelInstance;
-import org.camunda.bpm.model.bpmn.instance.Process;
-import org.camunda.bpm.model.cmmn.Cmmn;
-import org.camunda.bpm.model.cmmn.CmmnModelInstance;
-import org.camunda.bpm.model.cmmn.instance.Case;
 
 /**
  * @author Tom Baeyens
@@ -111,7 +105,7 @@ public class DeployCmd<T> implements Command<Deployment>, Serializable {
         if(deploymentBuilder instanceof ProcessApplicationDeploymentBuilder) {
           // for process application deployments, job executor registration is managed by
           // process application manager
-          Set<String> processesToRegisterFor = retrieveProcessKeysFromResources(resourcesToIgnore);
+          Set<String> processesToRegisterFor = retrieveProcessKeysFromResources(commandContext, deployment.getName(), resourcesToIgnore);
           ProcessApplicationRegistration registration = registerProcessApplication(commandContext, deployment, processesToRegisterFor);
           return new ProcessApplicationDeploymentImpl(deployment, registration);
         } else {
@@ -148,7 +142,7 @@ public class DeployCmd<T> implements Command<Deployment>, Serializable {
 
       Map<String, ResourceEntity> existingResources = commandContext
           .getResourceManager()
-          .findLatestResourcesByDeploymentName(deployment.getName(), containedResources.keySet());
+          .findLatestResourceChecksumsByDeploymentName(deployment.getName(), containedResources.keySet());
 
       for (ResourceEntity deployedResource : containedResources.values()) {
         String resourceName = deployedResource.getName();
@@ -177,9 +171,21 @@ public class DeployCmd<T> implements Command<Deployment>, Serializable {
   }
 
   protected boolean resourcesDiffer(ResourceEntity resource, ResourceEntity existing) {
-    byte[] bytes = resource.getBytes();
-    byte[] savedBytes = existing.getBytes();
-    return !Arrays.equals(bytes, savedBytes);
+    String existingChecksum = existing.getChecksum();
+
+    if (existingChecksum != null) {
+      return !existingChecksum.equals(resource.getChecksum());
+
+    } else {
+      // the resource was deployed before checksums were stored
+      ResourceEntity existingWithBytes = Context.getCommandContext()
+          .getResourceManager()
+          .findResourceByDeploymentIdAndResourceId(existing.getDeploymentId(), existing.getId());
+
+      byte[] bytes = resource.getBytes();
+      byte[] savedBytes = existingWithBytes != null ? existingWithBytes.getBytes() : null;
+      return !Arrays.equals(bytes, savedBytes);
+    }
   }
 
   protected void deploy(DeploymentEntity deployment) {
@@ -286,23 +292,52 @@ public class DeployCmd<T> implements Command<Deployment>, Serializable {
     return deployedProcessDefinitions;
   }
 
-  protected Set<String> retrieveProcessKeysFromResources(Map<String, ResourceEntity> resources) {
+  /**
+   * The ignored resources are unchanged, so the keys are taken from the definitions of the
+   * deployments which contain these resources instead of parsing the resources again.
+   */
+  protected Set<String> retrieveProcessKeysFromResources(CommandContext commandContext, String deploymentName, Map<String, ResourceEntity> resources) {
     Set<String> keys = new HashSet<String>();
 
-    for (ResourceEntity resource : resources.values()) {
-      if (isBpmnResource(resource)) {
+    if (resources.isEmpty()) {
+      return keys;
+    }
 
-        ByteArrayInputStream byteStream = new ByteArrayInputStream(resource.getBytes());
-        BpmnModelInstance model = Bpmn.readModelFromStream(byteStream);
-        for (Process process : model.getDefinitions().getChildElementsByType(Process.class)) {
-          keys.add(process.getId());
+    Map<String, ResourceEntity> existingResources = commandContext
+        .getResourceManager()
+        .findLatestResourceChecksumsByDeploymentName(deploymentName, resources.keySet());
+
+    Map<String, Set<String>> resourceNamesByDeploymentId = new HashMap<String, Set<String>>();
+    for (ResourceEntity existingResource : existingResources.values()) {
+      if (isBpmnResource(existingResource) || isCmmnResource(existingResource)) {
+        Set<String> resourceNames = resourceNamesByDeploymentId.get(existingResource.getDeploymentId());
+        if (resourceNames == null) {
+          resourceNames = new HashSet<String>();
+          resourceNamesByDeploymentId.put(existingResource.getDeploymentId(), resourceNames);
         }
-      } else if (isCmmnResource(resource)) {
+        resourceNames.add(existingResource.getName());
+      }
+    }
+
+    for (Map.Entry<String, Set<String>> deploymentResourceNames : resourceNamesByDeploymentId.entrySet()) {
+      String deploymentId = deploymentResourceNames.getKey();
+      Set<String> resourceNames = deploymentResourceNames.getValue();
+
+      List<ProcessDefinition> processDefinitions = commandContext
+          .getProcessDefinitionManager()
+          .findProcessDefinitionsByDeploymentId(deploymentId);
+      for (ProcessDefinition processDefinition : processDefinitions) {
+        if (resourceNames.contains(processDefinition.getResourceName())) {
+          keys.add(processDefinition.getKey());
+        }
+      }
 
-        ByteArrayInputStream byteStream = new ByteArrayInputStream(resource.getBytes());
-        CmmnModelInstance model = Cmmn.readModelFromStream(byteStream);
-        for (Case cmmnCase : model.getDefinitions().getCases()) {
-          keys.add(cmmnCase.getId());
+      List<CaseDefinition> caseDefinitions = commandContext
+          .getCaseDefinitionManager()
+          .findCaseDefinitionByDeploymentId(deploymentId);
+      for (CaseDefinition caseDefinition : caseDefinitions) {
+        if (resourceNames.contains(caseDefinition.getResourceName())) {
+          keys.add(caseDefinition.getKey());
         }
       }
     }
@@ -0,0 +1,110 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.cmd;
+
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.FilterEntity;
+
+/**
+ * Counts the results of multiple filters. Filters with the same resource type and
+ * query are counted only once. If a {@link FilterCountCache} is configured, the counts
+ * of the current user are taken from it.
+ */
+public class ExecuteFilterCountsCmd implements Command<Map<String, Long>>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  protected List<String> filterIds;
+
+  public ExecuteFilterCountsCmd(List<String> filterIds) {
+    this.filterIds = filterIds;
+  }
+
+  public Map<String, Long> execute(CommandContext commandContext) {
+    ensureNotNull("filterIds", filterIds);
+
+    FilterCountCache filterCountCache = Context.getProcessEngineConfiguration().getFilterCountCache();
+    String userKey = getUserKey(commandContext);
+
+    Map<String, Long> countsByQuery = new HashMap<String, Long>();
+    Map<String, Long> counts = new LinkedHashMap<String, Long>();
+
+    for (String filterId : filterIds) {
+      ensureNotNull("No filter id given to execute", "filterId", filterId);
+      FilterEntity filter = (FilterEntity) commandContext
+        .getFilterManager()
+        .findFilterById(filterId);
+
+      ensureNotNull("No filter found for id '" + filterId + "'", "filter", filter);
+
+      String queryKey = filter.getResourceType() + ":" + filter.getQueryInternal();
+      Long count = countsByQuery.get(queryKey);
+
+      if (count == null) {
+        count = count(filter, userKey + queryKey, filterCountCache);
+        countsByQuery.put(queryKey, count);
+      }
+
+      counts.put(filterId, count);
+    }
+
+    return counts;
+  }
+
+  protected Long count(FilterEntity filter, String cacheKey, FilterCountCache filterCountCache) {
+    if (filterCountCache == null) {
+      return filter.getQuery().count();
+    }
+
+    Long count = filterCountCache.get(cacheKey);
+    if (count == null) {
+      long generation = filterCountCache.getGeneration();
+      count = filter.getQuery().count();
+      filterCountCache.put(cacheKey, count, generation);
+    }
+
+    return count;
+  }
+
+  /**
+   * The count of a filter depends on the authorizations of the current user and
+   * the query may refer to the current user and its groups.
+   */
+  protected String getUserKey(CommandContext commandContext) {
+    String userId = commandContext.getAuthenticatedUserId();
+    List<String> groupIds = commandContext.getAuthenticatedGroupIds();
+
+    StringBuilder userKey = new StringBuilder();
+    userKey.append(userId).append(":");
+    if (groupIds != null) {
+      List<String> sortedGroupIds = new ArrayList<String>(groupIds);
+      Collections.sort(sortedGroupIds);
+      userKey.append(sortedGroupIds);
+    }
+    return userKey.append(":").toString();
+  }
+
+}
@@ -19,16 +19,21 @@ import java.util.logging.Level;
 import java.util.logging.Logger;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.cfg.TransactionState;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobRegistry;
 import org.camunda.bpm.engine.impl.jobexecutor.FailedJobListener;
 import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
 import org.camunda.bpm.engine.impl.jobexecutor.SuccessfulJobListener;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  * @author Tom Baeyens
@@ -52,11 +57,11 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
     if (log.isLoggable(Level.FINE)) {
       log.fine("Executing job " + jobId);
     }
-    JobEntity job = commandContext.getDbEntityManager().selectById(JobEntity.class, jobId);
-
     final CommandExecutor commandExecutor = Context.getProcessEngineConfiguration().getCommandExecutorTxRequiresNew();
     final JobExecutorContext jobExecutorContext = Context.getJobExecutorContext();
 
+    JobEntity job = findJob(commandContext, jobExecutorContext);
+
     if (job == null) {
 
       if (jobExecutorContext != null) {
@@ -103,8 +108,10 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
       jobExecutorContext.setCurrentJob(job);
     }
 
+    long startTime = System.nanoTime();
     try {
       job.execute(commandContext);
+      recordJobExecutionDuration(job, startTime);
       return null;
 
     } catch (RuntimeException exception) {
@@ -124,6 +131,44 @@ public class ExecuteJobsCmd implements Command<Object>, Serializable {
 
   }
 
+  protected JobEntity findJob(CommandContext commandContext, JobExecutorContext jobExecutorContext) {
+    DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+    AcquiredJobRegistry acquiredJobRegistry = Context.getProcessEngineConfiguration().getAcquiredJobRegistry();
+
+    if (jobExecutorContext != null
+        && acquiredJobRegistry != null
+        && dbEntityManager.getCachedEntity(JobEntity.class, jobId) == null) {
+
+      JobEntity acquiredJob = acquiredJobRegistry.take(jobId);
+      if (acquiredJob != null) {
+        // if the job was changed since the acquisition, the revision check fails when it is flushed
+        dbEntityManager.getDbEntityCache().putPersistent(acquiredJob);
+
+        // the execution is loaded into the entity cache for the job anyway
+        String executionId = acquiredJob.getExecutionId();
+        if (executionId != null && commandContext.getExecutionManager().findExecutionById(executionId) == null) {
+          // the job was deleted together with its execution after it was acquired
+          return null;
+        }
+        return acquiredJob;
+      }
+    }
+
+    return dbEntityManager.selectById(JobEntity.class, jobId);
+  }
+
+  protected void recordJobExecutionDuration(JobEntity job, long startTime) {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+
+    if (processEngineConfiguration.isMetricsEnabled()
+        && processEngineConfiguration.isDurationMetricsEnabled()
+        && metricsRegistry != null) {
+      long durationInMillis = (System.nanoTime() - startTime) / 1000000;
+      metricsRegistry.recordValue(Metrics.JOB_EXECUTION_DURATION + "." + job.getJobHandlerType(), durationInMillis);
+    }
+  }
+
   protected FailedJobListener createFailedJobListener(CommandExecutor commandExecutor) {
     return new FailedJobListener(commandExecutor, jobId);
   }
@@ -63,7 +63,7 @@ public class GetDeploymentBpmnModelInstanceCmd implements Command<BpmnModelInsta
     ProcessEngineConfigurationImpl configuration = Context.getProcessEngineConfiguration();
     final DeploymentCache deploymentCache = configuration.getDeploymentCache();
 
-    ProcessDefinitionEntity processDefinition = deploymentCache.findDeployedProcessDefinitionById(processDefinitionId);
+    ProcessDefinitionEntity processDefinition = deploymentCache.findProcessDefinitionById(processDefinitionId);
 
     AuthorizationManager authorizationManager = commandContext.getAuthorizationManager();
     authorizationManager.checkReadProcessDefinition(processDefinition);
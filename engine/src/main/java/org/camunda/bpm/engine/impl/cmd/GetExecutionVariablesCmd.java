@@ -58,6 +58,10 @@ public class GetExecutionVariablesCmd implements Command<VariableMap>, Serializa
 
     VariableMapImpl executionVariables = new VariableMapImpl();
 
+    commandContext
+      .getVariableInstanceManager()
+      .fetchByteArrayValues(execution, variableNames, isLocal);
+
     // collect variables from execution
     execution.collectVariables(executionVariables, variableNames, isLocal, deserializeValues);
 
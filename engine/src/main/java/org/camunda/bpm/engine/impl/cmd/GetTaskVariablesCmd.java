@@ -60,6 +60,10 @@ public class GetTaskVariablesCmd implements Command<VariableMap>, Serializable {
 
     VariableMapImpl variables = new VariableMapImpl();
 
+    commandContext
+      .getVariableInstanceManager()
+      .fetchByteArrayValues(task, variableNames, isLocal);
+
     // collect variables from task
     task.collectVariables(variables, variableNames, isLocal, deserializeValues);
 
@@ -15,6 +15,7 @@ package org.camunda.bpm.engine.impl.cmd;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotEmpty;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
+import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNull;
 
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -23,9 +24,11 @@ import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.camunda.bpm.engine.BadUserRequestException;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.SignalEventDeliveryJobHandler;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
 import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationManager;
 import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionManager;
@@ -48,11 +51,21 @@ public class SignalEventReceivedCmd implements Command<Void> {
   protected final String eventName;
   protected final String executionId;
   protected final Map<String, Object> variables;
+  protected final boolean async;
 
   public SignalEventReceivedCmd(String eventName, String executionId, Map<String, Object> variables) {
+    this(eventName, executionId, variables, false);
+  }
+
+  /**
+   * @param async if true, the signal is delivered to all subscriptions by jobs,
+   *   see {@link SignalEventDeliveryJobHandler}. Can not be combined with an execution id or variables.
+   */
+  public SignalEventReceivedCmd(String eventName, String executionId, Map<String, Object> variables, boolean async) {
     this.eventName = eventName;
     this.executionId = executionId;
     this.variables = variables;
+    this.async = async;
   }
 
   @Override
@@ -60,7 +73,21 @@ public class SignalEventReceivedCmd implements Command<Void> {
     final EventSubscriptionManager eventSubscriptionManager = commandContext.getEventSubscriptionManager();
     final AuthorizationManager authorizationManager = commandContext.getAuthorizationManager();
 
-    if(executionId == null) {
+    if (async) {
+      ensureNull(BadUserRequestException.class, "Cannot deliver a signal asynchronously to a single execution", "executionId", executionId);
+      ensureNull(BadUserRequestException.class, "Cannot deliver a signal asynchronously with variables", "variables", variables);
+
+      if (isAuthorizationCheckRequired(commandContext)) {
+        List<SignalEventSubscriptionEntity> signalEventSubscriptions = eventSubscriptionManager.findSignalEventSubscriptionsByEventName(eventName);
+        List<SignalEventSubscriptionEntity> startSignalEventSubscriptions = filterStartSubscriptions(signalEventSubscriptions);
+
+        checkAuthorizationOfCatchSignals(authorizationManager, filterIntermediateSubscriptions(signalEventSubscriptions));
+        checkAuthorizationOfStartSignals(authorizationManager, startSignalEventSubscriptions, getProcessDefinitionsOfSubscriptions(startSignalEventSubscriptions));
+      }
+
+      SignalEventDeliveryJobHandler.scheduleDelivery(commandContext, eventName);
+
+    } else if(executionId == null) {
 
       List<SignalEventSubscriptionEntity> signalEventSubscriptions = eventSubscriptionManager.findSignalEventSubscriptionsByEventName(eventName);
 
@@ -90,6 +117,15 @@ public class SignalEventReceivedCmd implements Command<Void> {
     return null;
   }
 
+  /**
+   * The subscriptions only have to be loaded upfront for asynchronous delivery if authorizations are checked.
+   */
+  protected boolean isAuthorizationCheckRequired(CommandContext commandContext) {
+    return Context.getProcessEngineConfiguration().isAuthorizationEnabled()
+        && commandContext.getAuthentication() != null
+        && commandContext.isAuthorizationCheckEnabled();
+  }
+
   protected Map<String, ProcessDefinitionEntity> getProcessDefinitionsOfSubscriptions(List<SignalEventSubscriptionEntity> startSignalEventSubscriptions) {
     DeploymentCache deploymentCache = Context.getProcessEngineConfiguration().getDeploymentCache();
 
@@ -53,6 +53,10 @@ public class GetCaseExecutionVariablesCmd implements Command<VariableMap>, Seria
     ensureNotNull(CaseExecutionNotFoundException.class, "case execution " + caseExecutionId + " doesn't exist", "caseExecution", caseExecution);
 
     VariableMapImpl result = new VariableMapImpl();
+    commandContext
+      .getVariableInstanceManager()
+      .fetchByteArrayValues(caseExecution, variableNames, isLocal);
+
     // collect variables
     caseExecution.collectVariables(result, variableNames, isLocal, deserializeValues);
 
@@ -102,6 +102,28 @@ public abstract class AbstractVariableScope implements Serializable, VariableSco
     }
   }
 
+  /**
+   * Collects the variable instances which {@link #collectVariables(VariableMapImpl, Collection, boolean, boolean)}
+   * would read the values of, without reading them.
+   */
+  public void collectVariableInstances(Map<String, CoreVariableInstance> resultVariableInstances, Collection<String> variableNames, boolean isLocal) {
+    boolean collectAll = (variableNames == null);
+
+    Map<String, CoreVariableInstance> localVariables = getVariableInstancesLocal();
+    for (Entry<String, CoreVariableInstance> var : localVariables.entrySet()) {
+      if(!resultVariableInstances.containsKey(var.getKey())
+         && (collectAll || variableNames.contains(var.getKey()))) {
+        resultVariableInstances.put(var.getKey(), var.getValue());
+      }
+    }
+    if(!isLocal) {
+      AbstractVariableScope parentScope = getParentVariableScope();
+      if(parentScope != null && (collectAll || !resultVariableInstances.keySet().equals(variableNames))) {
+        parentScope.collectVariableInstances(resultVariableInstances, variableNames, isLocal);
+      }
+    }
+  }
+
   // get single variable /////////////////////////////////////
 
   public Object getVariable(String variableName) {
@@ -0,0 +1,45 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.core.variable.value;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+
+/**
+ * Reads the content of a value from a file each time it is accessed.
+ */
+public class FileInputStreamSource implements InputStreamSource {
+
+  protected File file;
+
+  public FileInputStreamSource(File file) {
+    this.file = file;
+  }
+
+  public InputStream getInputStream() {
+    try {
+      return new FileInputStream(file);
+    } catch (FileNotFoundException e) {
+      throw new ProcessEngineException(e);
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+}
@@ -13,9 +13,12 @@
 package org.camunda.bpm.engine.impl.core.variable.value;
 
 import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.io.ObjectOutputStream;
 import java.nio.charset.Charset;
 
+import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.variable.type.FileValueType;
 import org.camunda.bpm.engine.variable.type.ValueType;
 import org.camunda.bpm.engine.variable.value.FileValue;
@@ -33,6 +36,8 @@ public class FileValueImpl implements FileValue {
   protected byte[] value;
   protected FileValueType type;
   protected String encoding;
+  /** provides the content if it is not held in {@link #value} */
+  protected transient InputStreamSource contentSource;
 
   public FileValueImpl(byte[] value, FileValueType type, String filename, String mimeType, String encoding) {
     this.value = value;
@@ -62,11 +67,28 @@ public class FileValueImpl implements FileValue {
 
   public void setValue(byte[] bytes) {
     this.value = bytes;
+    this.contentSource = null;
+  }
+
+  public InputStreamSource getContentSource() {
+    return contentSource;
+  }
+
+  /**
+   * Sets a source the content is read from on each call of {@link #getValue()}
+   * instead of holding it in memory.
+   */
+  public void setContentSource(InputStreamSource contentSource) {
+    this.contentSource = contentSource;
+    this.value = null;
   }
 
   @Override
   public InputStream getValue() {
     if (value == null) {
+      if (contentSource != null) {
+        return contentSource.getInputStream();
+      }
       return null;
     }
     return new ByteArrayInputStream(value);
@@ -104,9 +126,26 @@ public class FileValueImpl implements FileValue {
    * needs the byte array anyways.
    */
   public byte[] getByteArray() {
+    if (value == null && contentSource != null) {
+      InputStream inputStream = contentSource.getInputStream();
+      try {
+        return IoUtil.readInputStream(inputStream, filename);
+      }
+      finally {
+        IoUtil.closeSilently(inputStream);
+      }
+    }
     return value;
   }
 
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    // the content source cannot be serialized => transfer the content itself
+    if (value == null && contentSource != null) {
+      value = getByteArray();
+    }
+    out.defaultWriteObject();
+  }
+
   @Override
   public String toString() {
     return "FileValueImpl [mimeType=" + mimeType + ", filename=" + filename + ", type=" + type + "]";
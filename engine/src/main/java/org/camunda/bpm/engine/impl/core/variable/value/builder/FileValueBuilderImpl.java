@@ -13,12 +13,12 @@
 package org.camunda.bpm.engine.impl.core.variable.value.builder;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.nio.charset.Charset;
 
 import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.core.variable.value.FileInputStreamSource;
 import org.camunda.bpm.engine.impl.core.variable.value.FileValueImpl;
 import org.camunda.bpm.engine.impl.util.EnsureUtil;
 import org.camunda.bpm.engine.impl.util.IoUtil;
@@ -53,11 +53,11 @@ public class FileValueBuilderImpl implements FileValueBuilder {
 
   @Override
   public FileValueBuilder file(File file) {
-    try {
-      this.file(new FileInputStream(file));
-    } catch (FileNotFoundException e) {
-      throw new ProcessEngineException(e);
+    if (!file.isFile()) {
+      throw new ProcessEngineException(new FileNotFoundException(file.getPath()));
     }
+    // the file is read when the value is accessed or written to the database
+    fileValue.setContentSource(new FileInputStreamSource(file));
     return this;
   }
 
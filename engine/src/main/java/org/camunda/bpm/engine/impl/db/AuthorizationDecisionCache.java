@@ -0,0 +1,143 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ConcurrentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruEvictionPolicy;
+
+/**
+ * Caches the results of authorization checks across commands.
+ *
+ * <p>Each resource type has its own authorization revision. It is the <code>REV_</code>
+ * of the {@link #getRevisionPropertyName(int) revision property} of the resource type in
+ * the <code>ACT_GE_PROPERTY</code> table and is incremented by every command which modifies
+ * authorizations of the resource type. A cached decision is only valid for the revisions
+ * of the resource types it was resolved for. This also invalidates the decisions cached
+ * by other process engines sharing the same database. Modifying authorizations of one
+ * resource type (e.g. the default authorizations of a new task) does not invalidate the
+ * decisions for other resource types.</p>
+ *
+ * <p>Resource types without a revision property (i.e. custom resource types) are not cached.</p>
+ */
+public class AuthorizationDecisionCache {
+
+  public static final String REVISION_PROPERTY_PREFIX = "authorization.revision.";
+
+  protected ConcurrentCache<List<Object>, CachedDecision> decisions;
+
+  public AuthorizationDecisionCache(int capacity) {
+    decisions = new ConcurrentCache<List<Object>, CachedDecision>(capacity, new LruEvictionPolicy());
+  }
+
+  /**
+   * @param revisions the authorization revisions of the resource types of the check
+   * @return the cached decision for the given key or null if no decision
+   * is cached for the given revisions.
+   */
+  public Boolean getDecision(List<Long> revisions, List<Object> key) {
+    CachedDecision decision = decisions.get(key);
+    if (decision != null && decision.revisions.equals(revisions)) {
+      return decision.isAuthorized;
+    }
+    else {
+      return null;
+    }
+  }
+
+  /**
+   * Caches a decision unless a decision resolved for a newer revision is cached already.
+   */
+  public void putDecision(List<Long> revisions, List<Object> key, boolean isAuthorized) {
+    synchronized (this) {
+      CachedDecision cachedDecision = decisions.get(key);
+      if (cachedDecision == null || !cachedDecision.isNewerThan(revisions)) {
+        decisions.put(key, new CachedDecision(revisions, isAuthorized));
+      }
+    }
+  }
+
+  public void invalidate() {
+    decisions.clear();
+  }
+
+  public int size() {
+    return decisions.size();
+  }
+
+  public int getCapacity() {
+    return decisions.getCapacity();
+  }
+
+  /**
+   * @return the name of the property holding the authorization revision of the given resource type
+   */
+  public static String getRevisionPropertyName(int resourceType) {
+    return REVISION_PROPERTY_PREFIX + resourceType;
+  }
+
+  /**
+   * @return the key identifying the decision of the given authorization check or null
+   * if the check can not be cached because it depends on a query parameter.
+   */
+  public static List<Object> createKey(String userId, List<String> groupIds, List<PermissionCheck> permissionChecks) {
+    List<Object> key = new ArrayList<Object>();
+    key.add(userId);
+
+    List<String> sortedGroupIds = new ArrayList<String>();
+    if (groupIds != null) {
+      sortedGroupIds.addAll(groupIds);
+      Collections.sort(sortedGroupIds);
+    }
+    key.add(sortedGroupIds);
+
+    for (PermissionCheck permissionCheck : permissionChecks) {
+      if (permissionCheck.getResourceIdQueryParam() != null) {
+        return null;
+      }
+      key.add(permissionCheck.getResourceType());
+      key.add(permissionCheck.getResourceId());
+      key.add(permissionCheck.getPerms());
+      key.add(permissionCheck.getAuthorizationNotFoundReturnValue());
+    }
+
+    return key;
+  }
+
+  protected static class CachedDecision {
+
+    protected final List<Long> revisions;
+    protected final boolean isAuthorized;
+
+    public CachedDecision(List<Long> revisions, boolean isAuthorized) {
+      this.revisions = revisions;
+      this.isAuthorized = isAuthorized;
+    }
+
+    /**
+     * @return true if this decision was resolved after any of the given revisions changed
+     */
+    public boolean isNewerThan(List<Long> revisions) {
+      for (int i = 0; i < this.revisions.size(); i++) {
+        if (this.revisions.get(i) > revisions.get(i)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+}
@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+/**
+ * <p>Tracks changes of the persistent state of a {@link HasDbChangeTracking} entity.</p>
+ *
+ * <p>The persistent state is only snapshotted when the entity is about to be modified
+ * for the first time after {@link #reset()}. Entities which are only read therefore
+ * never compute their persistent state for dirty checking. Since the snapshot is
+ * compared with the persistent state at flush time, modifications which restore the
+ * original value do not cause an update.</p>
+ */
+public class DbEntityChangeTracker {
+
+  protected final DbEntity entity;
+
+  protected Object persistentStateBeforeChange;
+
+  public DbEntityChangeTracker(DbEntity entity) {
+    this.entity = entity;
+  }
+
+  /**
+   * Must be called before a property which is part of the persistent state is modified.
+   */
+  public void beforeChange() {
+    if (persistentStateBeforeChange == null) {
+      persistentStateBeforeChange = entity.getPersistentState();
+    }
+  }
+
+  public boolean hasChanges() {
+    return persistentStateBeforeChange != null
+        && !persistentStateBeforeChange.equals(entity.getPersistentState());
+  }
+
+  public void reset() {
+    persistentStateBeforeChange = null;
+  }
+
+}
@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+/**
+ * <p>Entities which keep track of changes of their persistent state themselves.</p>
+ *
+ * <p>If change tracking is enabled, the entity cache does not snapshot the
+ * {@link DbEntity#getPersistentState() persistent state} of such entities when they are
+ * loaded but asks the entity at flush time whether its state changed. Implementations
+ * must call {@link DbEntityChangeTracker#beforeChange()} before any modification of a
+ * property which is part of the persistent state.</p>
+ *
+ * @see DbEntityChangeTracker
+ */
+public interface HasDbChangeTracking {
+
+  /**
+   * Starts tracking changes: the current persistent state is considered to be the one
+   * stored in the database.
+   */
+  void resetPersistentStateChanges();
+
+  /**
+   * @return true if the persistent state changed since the last call of
+   *   {@link #resetPersistentStateChanges()} or if changes are not tracked
+   */
+  boolean hasPersistentStateChanges();
+
+}
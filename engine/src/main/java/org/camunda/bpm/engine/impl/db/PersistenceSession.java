@@ -28,6 +28,14 @@ public interface PersistenceSession extends Session {
 
   void executeDbOperation(DbOperation operation);
 
+  /**
+   * Executes operations which were deferred by {@link #executeDbOperation(DbOperation)},
+   * e.g. because they were added to a JDBC batch.
+   *
+   * @return the deferred operations which failed due to optimistic locking
+   */
+  List<DbOperation> flushOperations();
+
   List<?> selectList(String statement, Object parameter);
 
   <T extends DbEntity> T selectById(Class<T> type, String id);
@@ -0,0 +1,184 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.impl.cmd.GetNextIdBlockCmd;
+
+/**
+ * <p>{@link DbIdGenerator} which hands out ids without synchronizing the
+ * calling threads.</p>
+ *
+ * <p>Ids are taken from the current block using an atomic counter. Once a
+ * configurable share of the block is used ({@link #setPrefetchThreshold(double)}),
+ * the first thread crossing the threshold fetches the next block while all
+ * other threads continue to use the remaining ids of the current block.
+ * Threads only wait for the database if the current block is exhausted
+ * before the next one is available.</p>
+ *
+ * <p>The size of the fetched blocks adapts to the observed id consumption:
+ * if a block is used up faster than {@link #setTargetBlockDurationMillis(long)},
+ * the size of the next block is doubled (up to {@link #setMaxIdBlockSize(int)}).
+ * If a block lasts much longer, the size is halved again (down to
+ * {@link #getIdBlockSize()}).</p>
+ *
+ * <p>The prefetch is performed by the thread crossing the threshold rather than
+ * by a separate background thread, so that the id generator does not start
+ * unmanaged threads inside a container.</p>
+ */
+public class PrefetchingDbIdGenerator extends DbIdGenerator {
+
+  private static Logger log = Logger.getLogger(PrefetchingDbIdGenerator.class.getName());
+
+  protected double prefetchThreshold = 0.8;
+  protected int maxIdBlockSize = 10000;
+  protected long targetBlockDurationMillis = 10000;
+
+  protected volatile IdBlockCounter currentBlock;
+  protected volatile int currentIdBlockSize = -1;
+
+  protected final Queue<IdBlock> prefetchedBlocks = new ConcurrentLinkedQueue<IdBlock>();
+  protected final Object blockSwitchLock = new Object();
+
+  public String getNextId() {
+    while (true) {
+      IdBlockCounter block = currentBlock;
+
+      if (block != null) {
+        long id = block.nextId.getAndIncrement();
+        if (id <= block.lastId) {
+          if (id >= block.prefetchId) {
+            prefetchNextBlock(block);
+          }
+          return Long.toString(id);
+        }
+      }
+
+      switchToNextBlock(block);
+    }
+  }
+
+  protected void prefetchNextBlock(IdBlockCounter block) {
+    if (block.prefetchTriggered.compareAndSet(false, true)) {
+      try {
+        prefetchedBlocks.add(fetchBlock(getCurrentIdBlockSize()));
+      }
+      catch (RuntimeException e) {
+        // the next block is fetched synchronously once the current block is exhausted
+        log.log(Level.WARNING, "Could not prefetch next id block", e);
+      }
+    }
+  }
+
+  protected void switchToNextBlock(IdBlockCounter exhaustedBlock) {
+    synchronized (blockSwitchLock) {
+      if (currentBlock != exhaustedBlock) {
+        // another thread already switched the block
+        return;
+      }
+
+      int blockSize = adaptIdBlockSize(exhaustedBlock);
+
+      IdBlock idBlock = prefetchedBlocks.poll();
+      if (idBlock == null) {
+        idBlock = fetchBlock(blockSize);
+      }
+
+      currentBlock = new IdBlockCounter(idBlock, prefetchThreshold);
+    }
+  }
+
+  protected int adaptIdBlockSize(IdBlockCounter exhaustedBlock) {
+    int blockSize = getCurrentIdBlockSize();
+
+    if (exhaustedBlock != null) {
+      long blockDuration = System.currentTimeMillis() - exhaustedBlock.creationTime;
+
+      if (blockDuration < targetBlockDurationMillis) {
+        blockSize = (int) Math.min((long) blockSize * 2, maxIdBlockSize);
+      }
+      else if (blockDuration > 4 * targetBlockDurationMillis) {
+        blockSize = Math.max(blockSize / 2, idBlockSize);
+      }
+    }
+
+    currentIdBlockSize = blockSize;
+    return blockSize;
+  }
+
+  protected IdBlock fetchBlock(int blockSize) {
+    return commandExecutor.execute(new GetNextIdBlockCmd(blockSize));
+  }
+
+  protected int getCurrentIdBlockSize() {
+    int blockSize = currentIdBlockSize;
+    if (blockSize < idBlockSize) {
+      blockSize = idBlockSize;
+    }
+    return blockSize;
+  }
+
+  // getters / setters ///////////////////////////////////
+
+  public double getPrefetchThreshold() {
+    return prefetchThreshold;
+  }
+
+  public void setPrefetchThreshold(double prefetchThreshold) {
+    this.prefetchThreshold = prefetchThreshold;
+  }
+
+  public int getMaxIdBlockSize() {
+    return maxIdBlockSize;
+  }
+
+  public void setMaxIdBlockSize(int maxIdBlockSize) {
+    this.maxIdBlockSize = maxIdBlockSize;
+  }
+
+  public long getTargetBlockDurationMillis() {
+    return targetBlockDurationMillis;
+  }
+
+  public void setTargetBlockDurationMillis(long targetBlockDurationMillis) {
+    this.targetBlockDurationMillis = targetBlockDurationMillis;
+  }
+
+  /**
+   * An {@link IdBlock} from which ids are handed out concurrently.
+   */
+  protected static class IdBlockCounter {
+
+    protected final AtomicLong nextId;
+    protected final long lastId;
+    protected final long prefetchId;
+    protected final long creationTime = System.currentTimeMillis();
+    protected final AtomicBoolean prefetchTriggered = new AtomicBoolean(false);
+
+    public IdBlockCounter(IdBlock idBlock, double prefetchThreshold) {
+      this.nextId = new AtomicLong(idBlock.getNextId());
+      this.lastId = idBlock.getLastId();
+
+      long blockSize = lastId - idBlock.getNextId() + 1;
+      this.prefetchId = idBlock.getNextId() + (long) (blockSize * prefetchThreshold);
+    }
+
+  }
+
+}
@@ -128,6 +128,10 @@ public class DbEntityManager implements Session, EntityLoadListener {
       }
     }
 
+    if (processEngineConfiguration != null) {
+      dbEntityCache.setChangeTrackingEnabled(processEngineConfiguration.isDbEntityChangeTrackingEnabled());
+    }
+
   }
 
   // selects /////////////////////////////////////////////////
@@ -297,6 +301,18 @@ public class DbEntityManager implements Session, EntityLoadListener {
         handleOptimisticLockingException(dbOperation);
       }
     }
+
+    // execute operations deferred by the persistence session (JDBC batching)
+    List<DbOperation> failedOperations;
+    try {
+      failedOperations = persistenceSession.flushOperations();
+    }
+    catch(Exception e) {
+      throw new ProcessEngineException(formatExceptionMessage(e, operationsToFlush), e);
+    }
+    for (DbOperation failedOperation : failedOperations) {
+      handleOptimisticLockingException(failedOperation);
+    }
   }
 
   public void flushEntity(DbEntity entity) {
@@ -324,6 +340,20 @@ public class DbEntityManager implements Session, EntityLoadListener {
     return exceptionMessage.toString();
   }
 
+  protected String formatExceptionMessage(Exception e, List<DbOperation> operationsToFlush) {
+    StringBuilder exceptionMessage = new StringBuilder();
+    exceptionMessage.append("Exception while executing batched Database Operations: ");
+    exceptionMessage.append(e.getMessage());
+    exceptionMessage.append("\nFlush summary:\n[\n");
+    for (DbOperation op : operationsToFlush) {
+      exceptionMessage.append("  ");
+      exceptionMessage.append(op.toString());
+      exceptionMessage.append("\n");
+    }
+    exceptionMessage.append("]");
+    return exceptionMessage.toString();
+  }
+
   protected void handleOptimisticLockingException(DbOperation dbOperation) {
     boolean isHandled = false;
 
@@ -13,6 +13,7 @@
 package org.camunda.bpm.engine.impl.db.entitymanager.cache;
 
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.entitymanager.Recyclable;
 
 /**
@@ -29,11 +30,15 @@ public class CachedDbEntity implements Recyclable {
 
   protected DbEntityState entityState;
 
+  /** if true, the entity tracks its changes itself and no copy is made */
+  protected boolean isChangeTracked = false;
+
   public void recycle() {
     // clean out state
     dbEntity = null;
     copy = null;
     entityState = null;
+    isChangeTracked = false;
   }
 
   /**
@@ -41,7 +46,13 @@ public class CachedDbEntity implements Recyclable {
    * @return true if the entity is dirty (state has changed since it was put into the cache)
    */
   public boolean isDirty() {
-    return !dbEntity.getPersistentState().equals(copy);
+    if (isChangeTracked) {
+      // a copy is only set if the entity was forced dirty
+      return copy != null || ((HasDbChangeTracking) dbEntity).hasPersistentStateChanges();
+    }
+    else {
+      return !dbEntity.getPersistentState().equals(copy);
+    }
   }
 
   public void forceSetDirty() {
@@ -50,7 +61,13 @@ public class CachedDbEntity implements Recyclable {
   }
 
   public void makeCopy() {
-    copy = dbEntity.getPersistentState();
+    if (isChangeTracked) {
+      copy = null;
+      ((HasDbChangeTracking) dbEntity).resetPersistentStateChanges();
+    }
+    else {
+      copy = dbEntity.getPersistentState();
+    }
   }
 
   public String toString() {
@@ -75,4 +92,12 @@ public class CachedDbEntity implements Recyclable {
     this.entityState = entityState;
   }
 
+  public boolean isChangeTracked() {
+    return isChangeTracked;
+  }
+
+  public void setChangeTracked(boolean isChangeTracked) {
+    this.isChangeTracked = isChangeTracked;
+  }
+
 }
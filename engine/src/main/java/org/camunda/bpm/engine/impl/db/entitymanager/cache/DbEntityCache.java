@@ -27,6 +27,7 @@ import java.util.Map;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 
 
 /**
@@ -51,6 +52,9 @@ public class DbEntityCache {
 
   protected DbEntityCacheKeyMapping cacheKeyMapping;
 
+  /** if true, entities implementing {@link HasDbChangeTracking} are not copied for dirty checking */
+  protected boolean isChangeTrackingEnabled = false;
+
   public DbEntityCache() {
     this.cacheKeyMapping = DbEntityCacheKeyMapping.emptyMapping();
   }
@@ -143,6 +147,7 @@ public class DbEntityCache {
     CachedDbEntity cachedDbEntity = new CachedDbEntity();
     cachedDbEntity.setEntity(e);
     cachedDbEntity.setEntityState(TRANSIENT);
+    cachedDbEntity.setChangeTracked(isChangeTracked(e));
     putInternal(cachedDbEntity);
   }
 
@@ -155,6 +160,7 @@ public class DbEntityCache {
     CachedDbEntity cachedDbEntity = new CachedDbEntity();
     cachedDbEntity.setEntity(e);
     cachedDbEntity.setEntityState(PERSISTENT);
+    cachedDbEntity.setChangeTracked(isChangeTracked(e));
     cachedDbEntity.makeCopy();
 
     putInternal(cachedDbEntity);
@@ -169,11 +175,16 @@ public class DbEntityCache {
     CachedDbEntity cachedDbEntity = new CachedDbEntity();
     cachedDbEntity.setEntity(e);
     cachedDbEntity.setEntityState(MERGED);
+    cachedDbEntity.setChangeTracked(isChangeTracked(e));
     // no copy required
 
     putInternal(cachedDbEntity);
   }
 
+  protected boolean isChangeTracked(DbEntity e) {
+    return isChangeTrackingEnabled && e instanceof HasDbChangeTracking;
+  }
+
   protected void putInternal(CachedDbEntity entityToAdd) {
     Class<? extends DbEntity> type = entityToAdd.getEntity().getClass();
     Class<?> cacheKey = cacheKeyMapping.getEntityCacheKey(type);
@@ -369,4 +380,12 @@ public class DbEntityCache {
     }
   }
 
+  public boolean isChangeTrackingEnabled() {
+    return isChangeTrackingEnabled;
+  }
+
+  public void setChangeTrackingEnabled(boolean isChangeTrackingEnabled) {
+    this.isChangeTrackingEnabled = isChangeTrackingEnabled;
+  }
+
 }
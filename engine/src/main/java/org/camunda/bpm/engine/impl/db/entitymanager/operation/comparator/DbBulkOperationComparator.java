@@ -17,7 +17,9 @@ import java.util.Comparator;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 
 /**
- * Orders bulk operations according to the lexicographical ordering of their statement names
+ * Orders bulk operations according to the lexicographical ordering of their statement names.
+ * Operations with the same statement are ordered by their parameters if these are comparable,
+ * so that concurrent transactions lock the affected rows in the same order.
  *
  * @author Daniel Meyer
  *
@@ -34,6 +36,10 @@ public class DbBulkOperationComparator implements Comparator<DbBulkOperation> {
     int statementOrder = firstOperation.getStatement().compareTo(secondOperation.getStatement());
 
     if(statementOrder == 0) {
+      int parameterOrder = compareParameters(firstOperation.getParameter(), secondOperation.getParameter());
+      if(parameterOrder != 0) {
+        return parameterOrder;
+      }
       return firstOperation.hashCode() < secondOperation.hashCode() ? -1 : 1;
 
     } else {
@@ -43,4 +49,14 @@ public class DbBulkOperationComparator implements Comparator<DbBulkOperation> {
 
   }
 
+  @SuppressWarnings("unchecked")
+  protected int compareParameters(Object firstParameter, Object secondParameter) {
+    if(firstParameter instanceof Comparable
+        && secondParameter != null
+        && firstParameter.getClass().equals(secondParameter.getClass())) {
+      return ((Comparable<Object>) firstParameter).compareTo(secondParameter);
+    }
+    return 0;
+  }
+
 }
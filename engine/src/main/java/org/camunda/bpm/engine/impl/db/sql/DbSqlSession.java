@@ -29,10 +29,13 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
 import org.apache.ibatis.session.SqlSession;
 import org.camunda.bpm.engine.ProcessEngine;
 import org.camunda.bpm.engine.ProcessEngineException;
@@ -43,6 +46,8 @@ import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
 import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
 import org.camunda.bpm.engine.impl.util.ClassNameUtil;
 import org.camunda.bpm.engine.impl.util.IoUtil;
 import org.camunda.bpm.engine.impl.util.ReflectUtil;
@@ -67,18 +72,34 @@ public class DbSqlSession extends AbstractPersistenceSession {
   protected String connectionMetadataDefaultCatalog = null;
   protected String connectionMetadataDefaultSchema = null;
 
+  /** the executor type the MyBatis session was opened with */
+  protected ExecutorType executorType;
+
+  /** operations which were added to a JDBC batch and are not executed yet */
+  protected List<DbOperation> batchedOperations = new ArrayList<DbOperation>();
+
+  /** batched operations which failed when the batch was executed before {@link #flushOperations()} was called */
+  protected List<DbOperation> failedBatchedOperations = new ArrayList<DbOperation>();
+
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
+    if (dbSqlSessionFactory.isJdbcBatchProcessing()) {
+      this.executorType = ExecutorType.BATCH;
+    }
+    else {
+      this.executorType = dbSqlSessionFactory.getSqlSessionFactory().getConfiguration().getDefaultExecutorType();
+    }
     this.sqlSession = dbSqlSessionFactory
       .getSqlSessionFactory()
-      .openSession();
+      .openSession(executorType);
   }
 
   public DbSqlSession(DbSqlSessionFactory dbSqlSessionFactory, Connection connection, String catalog, String schema) {
     this.dbSqlSessionFactory = dbSqlSessionFactory;
+    this.executorType = dbSqlSessionFactory.getSqlSessionFactory().getConfiguration().getDefaultExecutorType();
     this.sqlSession = dbSqlSessionFactory
       .getSqlSessionFactory()
-      .openSession(connection);
+      .openSession(executorType, connection);
     this.connectionMetadataDefaultCatalog = catalog;
     this.connectionMetadataDefaultSchema = schema;
   }
@@ -87,6 +108,7 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
   public List<?> selectList(String statement, Object parameter){
     statement = dbSqlSessionFactory.mapStatement(statement);
+    executeBatchedOperations();
     List<Object> resultList = sqlSession.selectList(statement, parameter);
     for (Object object : resultList) {
       fireEntityLoaded(object);
@@ -100,6 +122,7 @@ public class DbSqlSession extends AbstractPersistenceSession {
     selectStatement = dbSqlSessionFactory.mapStatement(selectStatement);
     ensureNotNull("no select statement for " + type + " in the ibatis mapping files", "selectStatement", selectStatement);
 
+    executeBatchedOperations();
     Object result = sqlSession.selectOne(selectStatement, id);
     fireEntityLoaded(result);
     return (T) result;
@@ -107,6 +130,7 @@ public class DbSqlSession extends AbstractPersistenceSession {
 
   public Object selectOne(String statement, Object parameter) {
     statement = dbSqlSessionFactory.mapStatement(statement);
+    executeBatchedOperations();
     Object result = sqlSession.selectOne(statement, parameter);
     fireEntityLoaded(result);
     return result;
@@ -120,7 +144,14 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // Id using the DbIdGenerator while performing a deployment.
     if (!DbSqlSessionFactory.H2.equals(dbSqlSessionFactory.getDatabaseType())) {
       String mappedStatement = dbSqlSessionFactory.mapStatement(statement);
+      executeBatchedOperations();
       sqlSession.update(mappedStatement, parameter);
+
+      if (isBatchProcessing()) {
+        // the lock must be acquired right away and not when the batch is flushed.
+        // The batch contains the lock statement only, so its result can be ignored.
+        sqlSession.flushStatements();
+      }
     }
   }
 
@@ -138,6 +169,11 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute the insert
     executeInsertEntity(insertStatement, dbEntity);
 
+    if (isBatchProcessing()) {
+      batchedOperations.add(operation);
+      return;
+    }
+
     // perform post insert actions on entity
     entityInserted(dbEntity);
   }
@@ -176,6 +212,18 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute the delete
     int nrOfRowsDeleted = executeDelete(deleteStatement, dbEntity);
 
+    if (isBatchProcessing()) {
+      // the number of deleted rows is known after the batch is flushed
+      batchedOperations.add(operation);
+      return;
+    }
+
+    entityDeleted(operation, nrOfRowsDeleted);
+  }
+
+  protected void entityDeleted(DbEntityOperation operation, int nrOfRowsDeleted) {
+    DbEntity dbEntity = operation.getEntity();
+
     // It only makes sense to check for optimistic locking exceptions for objects that actually have a revision
     if (dbEntity instanceof HasDbRevision && nrOfRowsDeleted == 0) {
       operation.setFailed(true);
@@ -205,6 +253,10 @@ public class DbSqlSession extends AbstractPersistenceSession {
     }
 
     executeDelete(statement, parameter);
+
+    if (isBatchProcessing()) {
+      batchedOperations.add(operation);
+    }
   }
 
   // update ////////////////////////////////////////
@@ -223,6 +275,18 @@ public class DbSqlSession extends AbstractPersistenceSession {
     // execute update
     int numOfRowsUpdated = executeUpdate(updateStatement, dbEntity);
 
+    if (isBatchProcessing()) {
+      // the number of updated rows is known after the batch is flushed
+      batchedOperations.add(operation);
+      return;
+    }
+
+    entityUpdated(operation, numOfRowsUpdated);
+  }
+
+  protected void entityUpdated(DbEntityOperation operation, int numOfRowsUpdated) {
+    DbEntity dbEntity = operation.getEntity();
+
     if (dbEntity instanceof HasDbRevision) {
       if(numOfRowsUpdated != 1) {
         // failed with optimistic locking
@@ -257,6 +321,106 @@ public class DbSqlSession extends AbstractPersistenceSession {
     }
 
     executeUpdate(statement, parameter);
+
+    if (isBatchProcessing()) {
+      batchedOperations.add(operation);
+    }
+  }
+
+  // batch processing //////////////////////////////
+
+  public boolean isBatchProcessing() {
+    return executorType == ExecutorType.BATCH;
+  }
+
+  public List<DbOperation> flushOperations() {
+    executeBatchedOperations();
+
+    List<DbOperation> failedOperations = failedBatchedOperations;
+    failedBatchedOperations = new ArrayList<DbOperation>();
+    return failedOperations;
+  }
+
+  /**
+   * Executes the current JDBC batch and remembers the operations which failed, so that
+   * they are reported by the next invocation of {@link #flushOperations()}. MyBatis executes
+   * the batch implicitly before a select, so it must be executed before every statement
+   * which is not batched to check the update counts of the batched operations.
+   */
+  protected void executeBatchedOperations() {
+    if (batchedOperations.isEmpty()) {
+      return;
+    }
+
+    List<DbOperation> operations = batchedOperations;
+    batchedOperations = new ArrayList<DbOperation>();
+
+    // the batch executor creates a new statement whenever the sql changes, so the
+    // update counts of the batch results are in the same order as the operations
+    List<BatchResult> batchResults = flushStatements();
+    Iterator<DbOperation> operationIterator = operations.iterator();
+
+    for (BatchResult batchResult : batchResults) {
+      for (int updateCount : batchResult.getUpdateCounts()) {
+        if (!operationIterator.hasNext()) {
+          throw new ProcessEngineException("JDBC batch returned more update counts than operations were batched");
+        }
+        DbOperation operation = operationIterator.next();
+
+        if (updateCount == Statement.SUCCESS_NO_INFO) {
+          if (isRevisionChecked(operation)) {
+            // some drivers (e.g. Oracle before 12c) do not report the number of affected rows for
+            // batched statements, so an optimistic locking failure cannot be detected. Subsequent
+            // sessions execute their statements one at a time.
+            dbSqlSessionFactory.setJdbcBatchProcessing(false);
+            throw new ProcessEngineException("The JDBC driver did not report the number of rows affected by "
+                + operation + ", so optimistic locking cannot be checked. JDBC batch processing is disabled.");
+          }
+          updateCount = 1;
+        }
+
+        batchedOperationExecuted(operation, updateCount);
+
+        if (operation.isFailed()) {
+          failedBatchedOperations.add(operation);
+        }
+      }
+    }
+  }
+
+  protected List<BatchResult> flushStatements() {
+    return sqlSession.flushStatements();
+  }
+
+  /**
+   * @return true if the operation fails if it affects no rows because the entity was
+   * concurrently updated or deleted
+   */
+  protected boolean isRevisionChecked(DbOperation operation) {
+    DbOperationType operationType = operation.getOperationType();
+    return (operationType == DbOperationType.UPDATE || operationType == DbOperationType.DELETE)
+        && ((DbEntityOperation) operation).getEntity() instanceof HasDbRevision;
+  }
+
+  protected void batchedOperationExecuted(DbOperation operation, int updateCount) {
+    switch (operation.getOperationType()) {
+
+      case INSERT:
+        entityInserted(((DbEntityOperation) operation).getEntity());
+        break;
+
+      case DELETE:
+        entityDeleted((DbEntityOperation) operation, updateCount);
+        break;
+
+      case UPDATE:
+        entityUpdated((DbEntityOperation) operation, updateCount);
+        break;
+
+      default:
+        // nothing to do for bulk operations
+        break;
+    }
   }
 
   // utils /////////////////////////////////////////
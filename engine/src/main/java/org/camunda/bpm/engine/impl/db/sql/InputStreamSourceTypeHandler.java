@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.db.sql;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
+
+/**
+ * Binds the content of an {@link InputStreamSource} as a stream of unknown length
+ * (see {@link PreparedStatement#setBinaryStream(int, java.io.InputStream)}), so that
+ * the content is not loaded into memory when it is written. The stream is opened
+ * through the {@link org.camunda.bpm.engine.impl.persistence.entity.ByteArrayManager}
+ * of the current command, which closes it when the transaction ends.
+ *
+ * <p>Content sources can only be written, reading them is not supported.</p>
+ */
+public class InputStreamSourceTypeHandler extends BaseTypeHandler<InputStreamSource> {
+
+  public void setNonNullParameter(PreparedStatement ps, int i, InputStreamSource parameter, JdbcType jdbcType) throws SQLException {
+    ps.setBinaryStream(i, Context.getCommandContext().getByteArrayManager().openContentStream(parameter));
+  }
+
+  public InputStreamSource getNullableResult(ResultSet rs, String columnName) throws SQLException {
+    throw new UnsupportedOperationException("Content sources can not be read from a result set");
+  }
+
+  public InputStreamSource getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+    throw new UnsupportedOperationException("Content sources can not be read from a result set");
+  }
+
+  public InputStreamSource getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+    throw new UnsupportedOperationException("Content sources can not be read from a result set");
+  }
+
+}
@@ -0,0 +1,126 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * Keeps the results of filter counts for a limited time. The cached counts are
+ * invalidated after a transaction which created, completed, deleted, assigned or saved
+ * a task has been committed.
+ *
+ * <p>The cache is only consulted for counts of multiple filters, see
+ * {@link org.camunda.bpm.engine.FilterService#countAll(java.util.List)}.</p>
+ */
+public class FilterCountCache {
+
+  protected final long timeToLive;
+
+  protected final Map<String, CachedCount> counts = new ConcurrentHashMap<String, CachedCount>();
+
+  /** incremented on every invalidation, so that counts which were queried before are not cached afterwards */
+  protected final AtomicLong generation = new AtomicLong();
+
+  protected final TransactionListener invalidationListener = new TransactionListener() {
+    public void execute(CommandContext commandContext) {
+      invalidate();
+    }
+  };
+
+  /**
+   * @param timeToLive the time in milliseconds a count is kept
+   */
+  public FilterCountCache(long timeToLive) {
+    this.timeToLive = timeToLive;
+  }
+
+  /**
+   * @return the cached count or null if no count is cached or the cached count is expired
+   */
+  public Long get(String key) {
+    CachedCount cachedCount = counts.get(key);
+    if (cachedCount == null) {
+      return null;
+    }
+    else if (cachedCount.expirationTime <= ClockUtil.getCurrentTime().getTime()) {
+      counts.remove(key);
+      return null;
+    }
+    else {
+      return cachedCount.count;
+    }
+  }
+
+  /**
+   * Caches the count if the cache was not invalidated since the given generation.
+   */
+  public void put(String key, Long count, long generation) {
+    if (this.generation.get() == generation) {
+      long expirationTime = ClockUtil.getCurrentTime().getTime() + timeToLive;
+      counts.put(key, new CachedCount(count, expirationTime));
+
+      if (this.generation.get() != generation) {
+        // the cache was invalidated concurrently
+        counts.remove(key);
+      }
+    }
+  }
+
+  /**
+   * @return the current generation which has to be passed to {@link #put(String, Long, long)}
+   */
+  public long getGeneration() {
+    return generation.get();
+  }
+
+  public void invalidate() {
+    generation.incrementAndGet();
+    counts.clear();
+  }
+
+  /**
+   * Invalidates the cache after the current transaction is committed. A change of a task can
+   * change the counts of all users, e.g. by candidate groups, so all counts are invalidated.
+   */
+  public void invalidateOnCommit(CommandContext commandContext) {
+    commandContext.getTransactionContext()
+      .addTransactionListener(TransactionState.COMMITTED, invalidationListener);
+  }
+
+  public int size() {
+    return counts.size();
+  }
+
+  public long getTimeToLive() {
+    return timeToLive;
+  }
+
+  protected static class CachedCount {
+
+    protected final Long count;
+    protected final long expirationTime;
+
+    public CachedCount(Long count, long expirationTime) {
+      this.count = count;
+      this.expirationTime = expirationTime;
+    }
+  }
+
+}
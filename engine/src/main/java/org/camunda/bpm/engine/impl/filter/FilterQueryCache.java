@@ -0,0 +1,80 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.filter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.camunda.bpm.engine.impl.AbstractQuery;
+import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+import org.camunda.bpm.engine.query.Query;
+
+/**
+ * Keeps the converted queries of filters, so that the query JSON of a filter
+ * is not parsed and converted again every time the filter is loaded. A cached
+ * query is only used for the same JSON of a filter.
+ *
+ * <p>Queries are changed when they are executed, for example when their
+ * expressions are evaluated. The cached queries are therefore never handed out.
+ * Every loaded filter gets its own copy, which is created by extending the
+ * cached query with an empty query.</p>
+ */
+public class FilterQueryCache {
+
+  protected Map<String, CachedQuery> queries = new ConcurrentHashMap<String, CachedQuery>();
+
+  /**
+   * @return a copy of the converted query of the filter with the given id
+   */
+  public AbstractQuery<?, ?> getQuery(String filterId, String query, JsonObjectConverter<Object> converter) {
+    CachedQuery cachedQuery = queries.get(filterId);
+    if (cachedQuery == null || !cachedQuery.query.equals(query)) {
+      AbstractQuery<?, ?> convertedQuery = (AbstractQuery<?, ?>) converter.toObject(new JSONObject(query));
+      cachedQuery = new CachedQuery(query, convertedQuery);
+      queries.put(filterId, cachedQuery);
+    }
+
+    return copyQuery(cachedQuery.convertedQuery, converter);
+  }
+
+  @SuppressWarnings({ "unchecked", "rawtypes" })
+  protected AbstractQuery<?, ?> copyQuery(AbstractQuery query, JsonObjectConverter<Object> converter) {
+    Object emptyQuery = converter.toObject(new JSONObject());
+    return (AbstractQuery<?, ?>) query.extend((Query) emptyQuery);
+  }
+
+  public void remove(String filterId) {
+    queries.remove(filterId);
+  }
+
+  public void clear() {
+    queries.clear();
+  }
+
+  public int size() {
+    return queries.size();
+  }
+
+  protected static class CachedQuery {
+
+    protected final String query;
+    protected final AbstractQuery<?, ?> convertedQuery;
+
+    public CachedQuery(String query, AbstractQuery<?, ?> convertedQuery) {
+      this.query = query;
+      this.convertedQuery = convertedQuery;
+    }
+  }
+
+}
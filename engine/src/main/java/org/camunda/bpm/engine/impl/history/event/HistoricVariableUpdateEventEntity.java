@@ -12,7 +12,12 @@
  */
 package org.camunda.bpm.engine.impl.history.event;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
 
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
+import org.camunda.bpm.engine.impl.util.IoUtil;
 
 /**
  * @author Daniel Meyer
@@ -35,6 +40,8 @@ public class HistoricVariableUpdateEventEntity extends HistoricDetailEventEntity
   protected String textValue;
   protected String textValue2;
   protected byte[] byteValue;
+  /** if set, the byte value is streamed from this source when it is written */
+  protected transient InputStreamSource byteValueSource;
 
   protected String byteArrayId;
 
@@ -77,10 +84,49 @@ public class HistoricVariableUpdateEventEntity extends HistoricDetailEventEntity
     this.textValue2 = textValue2;
   }
   public byte[] getByteValue() {
+    if (byteValue == null && byteValueSource != null) {
+      // e.g. for history event handlers which do not stream the value
+      byteValue = readByteValueSource();
+    }
     return byteValue;
   }
   public void setByteValue(byte[] byteValue) {
     this.byteValue = byteValue;
+    this.byteValueSource = null;
+  }
+  public InputStreamSource getByteValueSource() {
+    return byteValueSource;
+  }
+  public void setByteValueSource(InputStreamSource byteValueSource) {
+    this.byteValueSource = byteValueSource;
+    this.byteValue = null;
+  }
+
+  /**
+   * Reads the byte value from its source. This is required if the event is
+   * written by another transaction, which may not be able to read the source.
+   */
+  public void loadByteValue() {
+    if (byteValueSource != null) {
+      getByteValue();
+      byteValueSource = null;
+    }
+  }
+
+  protected byte[] readByteValueSource() {
+    InputStream inputStream = byteValueSource.getInputStream();
+    try {
+      return IoUtil.readInputStream(inputStream, variableName);
+    }
+    finally {
+      IoUtil.closeSilently(inputStream);
+    }
+  }
+
+  private void writeObject(ObjectOutputStream out) throws IOException {
+    // the source cannot be serialized => transfer the value itself
+    loadByteValue();
+    out.defaultWriteObject();
   }
   public int getRevision() {
     return revision;
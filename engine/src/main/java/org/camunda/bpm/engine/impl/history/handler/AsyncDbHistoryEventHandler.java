@@ -0,0 +1,629 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.container.ExecutorService;
+import org.camunda.bpm.container.RuntimeContainerDelegate;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventBatch.State;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+
+/**
+ * <p>History event handler that writes history events to the process engine
+ * database asynchronously, in batches spanning multiple transactions.</p>
+ *
+ * <p>The events produced by a transaction are collected in a {@link HistoryEventBatch}.
+ * When the transaction commits, the batch is queued and the queued batches are written
+ * in a separate transaction using a {@link BatchDbHistoryEventHandler}. Batches are queued
+ * when the transaction starts committing and written only after it committed; this
+ * preserves the order of events of dependent transactions. Events of transactions which
+ * roll back are dropped.</p>
+ *
+ * <p>The batches are written by a task which is scheduled on the {@link ExecutorService}
+ * of the runtime container, or on the one {@link #setExecutorService(ExecutorService) set}
+ * on this handler. If no executor service is available or it rejects the task, the thread
+ * committing a transaction writes the queued batches after the commit. At most one task
+ * writes at a time.</p>
+ *
+ * <p>The number of queued events is limited by {@link #getMaxBufferedEvents()}. If the
+ * limit is reached, transactions wait for the writer before they produce their first
+ * event; committing transactions never wait. If a {@link #setSpoolFilePath(String) spool file}
+ * is configured, the batch of a transaction is recorded in that file before the transaction
+ * commits and the transaction fails if it cannot be recorded. Batches remain in the spool
+ * file until they are written and are recovered when the handler is started again.</p>
+ *
+ * <p>The handler is started and stopped with the process engine. While it is not
+ * started, events are written synchronously like by the {@link DbHistoryEventHandler}.
+ * Note that history queries do not see the events of a transaction before they are
+ * written; {@link #flush()} waits for all queued events.</p>
+ */
+public class AsyncDbHistoryEventHandler implements HistoryEventHandler {
+
+  private final static Logger log = Logger.getLogger(AsyncDbHistoryEventHandler.class.getName());
+
+  protected int maxBufferedEvents = 10000;
+  protected int maxBatchSize = 500;
+  protected int maxWriteAttempts = 3;
+  protected long writeRetryWaitTimeInMillis = 1000;
+  protected long stopTimeoutInMillis = 60000;
+  protected String spoolFilePath;
+  protected ExecutorService executorService;
+
+  protected HistoryEventHandler synchronousHistoryEventHandler = new DbHistoryEventHandler();
+  protected HistoryEventHandler batchHistoryEventHandler = new BatchDbHistoryEventHandler();
+
+  protected CommandExecutor commandExecutor;
+  protected ExecutorService writerExecutorService;
+  protected HistoryEventSpool spool;
+  protected volatile boolean isActive = false;
+
+  // guarded by this
+  protected final LinkedList<HistoryEventBatch> queue = new LinkedList<HistoryEventBatch>();
+  protected int numberOfBufferedEvents = 0;
+  protected long nextSequence = 0;
+  protected boolean isWriting = false;
+  protected boolean hasUnwrittenSpooledBatches = false;
+
+  public void handleEvent(HistoryEvent historyEvent) {
+    CommandContext commandContext = Context.getCommandContext();
+
+    if (!isActive || !commandContext.getSessionFactories().containsKey(HistoryEventBuffer.class)) {
+      synchronousHistoryEventHandler.handleEvent(historyEvent);
+      return;
+    }
+
+    if (historyEvent instanceof HistoricVariableUpdateEventEntity) {
+      // the source of a streamed value may not be readable when the event is written
+      ((HistoricVariableUpdateEventEntity) historyEvent).loadByteValue();
+    }
+
+    HistoryEventBuffer buffer = commandContext.getSession(HistoryEventBuffer.class);
+    HistoryEventBatch batch = buffer.getBatch();
+    if (batch == null) {
+      awaitBufferCapacity();
+      batch = new HistoryEventBatch();
+      buffer.setBatch(batch);
+      registerTransactionListeners(commandContext, batch);
+    }
+
+    if (batch.getState() == State.OPEN) {
+      // the batch is only accessed by the thread executing the transaction
+      batch.add(historyEvent);
+    }
+    else {
+      addToQueuedBatch(batch, historyEvent);
+    }
+  }
+
+  public void handleEvents(List<HistoryEvent> historyEvents) {
+    for (HistoryEvent historyEvent : historyEvents) {
+      handleEvent(historyEvent);
+    }
+  }
+
+  protected void registerTransactionListeners(CommandContext commandContext, final HistoryEventBatch batch) {
+    commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTING, new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        enqueue(batch);
+      }
+    });
+    commandContext.getTransactionContext().addTransactionListener(TransactionState.COMMITTED, new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        commit(batch);
+      }
+    });
+    commandContext.getTransactionContext().addTransactionListener(TransactionState.ROLLED_BACK, new TransactionListener() {
+      public void execute(CommandContext commandContext) {
+        discard(batch);
+      }
+    });
+  }
+
+  /**
+   * Handles events which are produced by transaction listeners while or after the
+   * transaction commits.
+   */
+  protected void addToQueuedBatch(HistoryEventBatch batch, HistoryEvent historyEvent) {
+    synchronized (this) {
+      if (batch.getState() == State.PENDING) {
+        batch.add(historyEvent);
+        numberOfBufferedEvents++;
+        return;
+      }
+      else if (batch.getState() == State.DISCARDED) {
+        return;
+      }
+    }
+
+    // the transaction is committed already
+    HistoryEventBatch lateBatch = new HistoryEventBatch();
+    lateBatch.add(historyEvent);
+    try {
+      enqueue(lateBatch);
+    }
+    catch (ProcessEngineException e) {
+      log.log(Level.SEVERE, "Could not record a history event produced after the commit of a transaction; the event is lost", e);
+      return;
+    }
+    commit(lateBatch);
+  }
+
+  // writer queue /////////////////////////////////////////////////////////////
+
+  /**
+   * Waits while the buffer is full. Invoked before a transaction produces its first
+   * event so that committing transactions never wait for the writer.
+   */
+  protected synchronized void awaitBufferCapacity() {
+    boolean isInterrupted = false;
+
+    while (isActive && numberOfBufferedEvents >= maxBufferedEvents) {
+      try {
+        wait();
+      }
+      catch (InterruptedException e) {
+        isInterrupted = true;
+      }
+    }
+
+    if (isInterrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Queues the batch of a committing transaction and records it in the spool file.
+   *
+   * @throws ProcessEngineException if the batch cannot be recorded in the spool file,
+   *   which rolls back the transaction
+   */
+  protected void enqueue(HistoryEventBatch batch) {
+    synchronized (this) {
+      batch.setSequence(nextSequence++);
+      batch.setState(State.PENDING);
+      queue.add(batch);
+      numberOfBufferedEvents += batch.size();
+    }
+
+    if (spool != null) {
+      try {
+        spool.append(batch);
+      }
+      catch (RuntimeException e) {
+        discard(batch);
+        throw e;
+      }
+    }
+  }
+
+  protected void commit(HistoryEventBatch batch) {
+    synchronized (this) {
+      if (batch.getState() != State.PENDING) {
+        return;
+      }
+      batch.setState(State.COMMITTED);
+      notifyAll();
+    }
+
+    scheduleWriter();
+  }
+
+  protected void discard(HistoryEventBatch batch) {
+    boolean isSpooled;
+    synchronized (this) {
+      isSpooled = batch.getState() == State.PENDING && queue.remove(batch);
+      if (isSpooled) {
+        numberOfBufferedEvents -= batch.size();
+      }
+      batch.setState(State.DISCARDED);
+      notifyAll();
+    }
+
+    if (isSpooled && spool != null) {
+      // the batch may be recorded in the spool file; it must not be recovered
+      try {
+        spool.markWritten(Collections.singletonList(batch));
+      }
+      catch (Exception e) {
+        log.log(Level.WARNING, "Could not mark history events of a rolled back transaction as discarded in spool file", e);
+      }
+    }
+  }
+
+  /**
+   * Takes the committed batches at the head of the queue, at most {@link #maxBatchSize}
+   * events unless a single batch is larger. If the head of the queue is not committed,
+   * the writer finishes.
+   *
+   * @return the batches to write, or null if there is no committed batch to write
+   */
+  protected synchronized List<HistoryEventBatch> takeCommittedBatches() {
+    if (!isHeadOfQueueCommitted()) {
+      isWriting = false;
+      notifyAll();
+      return null;
+    }
+
+    List<HistoryEventBatch> batches = new ArrayList<HistoryEventBatch>();
+    int numberOfEvents = 0;
+
+    Iterator<HistoryEventBatch> iterator = queue.iterator();
+    while (iterator.hasNext()) {
+      HistoryEventBatch batch = iterator.next();
+      if (batch.getState() != State.COMMITTED
+          || (!batches.isEmpty() && numberOfEvents + batch.size() > maxBatchSize)) {
+        break;
+      }
+      batches.add(batch);
+      numberOfEvents += batch.size();
+      iterator.remove();
+    }
+
+    return batches;
+  }
+
+  protected boolean isHeadOfQueueCommitted() {
+    return !queue.isEmpty() && queue.getFirst().getState() == State.COMMITTED;
+  }
+
+  /**
+   * @param batches the batches taken from the queue
+   * @param writtenBatches the batches which were written successfully; the others remain
+   *   in the spool file and are written again when the handler is started the next time
+   */
+  protected void batchesWritten(List<HistoryEventBatch> batches, List<HistoryEventBatch> writtenBatches) {
+    try {
+      if (spool != null && !writtenBatches.isEmpty()) {
+        spool.markWritten(writtenBatches);
+      }
+    }
+    catch (Exception e) {
+      log.log(Level.WARNING, "Could not mark history events as written in spool file; they are written again on recovery", e);
+    }
+    finally {
+      synchronized (this) {
+        for (HistoryEventBatch batch : batches) {
+          numberOfBufferedEvents -= batch.size();
+        }
+        if (writtenBatches.size() < batches.size()) {
+          hasUnwrittenSpooledBatches = true;
+        }
+
+        if (spool != null && queue.isEmpty() && !hasUnwrittenSpooledBatches) {
+          try {
+            spool.clear();
+          }
+          catch (Exception e) {
+            log.log(Level.WARNING, "Could not truncate history event spool file", e);
+          }
+        }
+
+        notifyAll();
+      }
+    }
+  }
+
+  // writer ///////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts writing the committed batches at the head of the queue unless a writer is
+   * already running. The writer is scheduled on the executor service; if there is none
+   * or it rejects the writer, the batches are written by the current thread.
+   */
+  protected void scheduleWriter() {
+    if (!startWriting()) {
+      return;
+    }
+
+    Runnable writer = new Runnable() {
+      public void run() {
+        writeQueuedBatches();
+      }
+    };
+
+    boolean isScheduled = false;
+    if (writerExecutorService != null) {
+      try {
+        isScheduled = writerExecutorService.schedule(writer, false);
+      }
+      catch (RuntimeException e) {
+        log.log(Level.WARNING, "Could not schedule history event writer; writing history events in the current thread", e);
+      }
+    }
+
+    if (!isScheduled) {
+      writer.run();
+    }
+  }
+
+  /**
+   * @return true if the caller has to write the committed batches at the head of the queue
+   */
+  protected synchronized boolean startWriting() {
+    if (isWriting || !isHeadOfQueueCommitted()) {
+      return false;
+    }
+    isWriting = true;
+    return true;
+  }
+
+  protected void writeQueuedBatches() {
+    List<HistoryEventBatch> batches;
+    while ((batches = takeCommittedBatches()) != null) {
+      List<HistoryEventBatch> writtenBatches = new ArrayList<HistoryEventBatch>();
+      try {
+        writtenBatches = write(batches);
+      }
+      catch (RuntimeException e) {
+        log.log(Level.SEVERE, "Could not write " + batches.size() + " batches of history events", e);
+      }
+      finally {
+        batchesWritten(batches, writtenBatches);
+      }
+    }
+  }
+
+  /**
+   * @return the batches which were written successfully
+   */
+  protected List<HistoryEventBatch> write(List<HistoryEventBatch> batches) {
+    List<HistoryEvent> events = new ArrayList<HistoryEvent>();
+    for (HistoryEventBatch batch : batches) {
+      events.addAll(batch.getEvents());
+    }
+
+    for (int attempt = 1; attempt <= maxWriteAttempts; attempt++) {
+      try {
+        commandExecutor.execute(new WriteHistoryEventsCmd(events, batchHistoryEventHandler));
+        return batches;
+      }
+      catch (Exception e) {
+        log.log(Level.WARNING, "Could not write " + events.size() + " history events (attempt " + attempt + " of " + maxWriteAttempts + ")", e);
+        waitBeforeRetry();
+      }
+    }
+
+    // write the batches of the transactions separately so that a single failing transaction
+    // does not prevent the events of the others from being written
+    List<HistoryEventBatch> writtenBatches = new ArrayList<HistoryEventBatch>();
+    for (HistoryEventBatch batch : batches) {
+      try {
+        commandExecutor.execute(new WriteHistoryEventsCmd(batch.getEvents(), batchHistoryEventHandler));
+        writtenBatches.add(batch);
+      }
+      catch (Exception e) {
+        if (spool != null) {
+          log.log(Level.SEVERE, "Could not write " + batch.size() + " history events of a transaction; "
+              + "the events remain in spool file " + spool.getFile() + " until the handler is started again", e);
+        }
+        else {
+          log.log(Level.SEVERE, "Could not write " + batch.size() + " history events of a transaction; the events are lost", e);
+        }
+      }
+    }
+    return writtenBatches;
+  }
+
+  protected void waitBeforeRetry() {
+    try {
+      Thread.sleep(writeRetryWaitTimeInMillis);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  // lifecycle ////////////////////////////////////////////////////////////////
+
+  /**
+   * Starts queueing history events. Batches recorded in the spool file which were not
+   * written before are queued again.
+   *
+   * @param commandExecutor the command executor used to write the events; it must open
+   *   a new command context, since batches may be written by a thread which is
+   *   completing a command
+   */
+  public void start(CommandExecutor commandExecutor) {
+    synchronized (this) {
+      if (isActive) {
+        return;
+      }
+
+      this.commandExecutor = commandExecutor;
+      writerExecutorService = executorService != null
+          ? executorService
+          : RuntimeContainerDelegate.INSTANCE.get().getExecutorService();
+      hasUnwrittenSpooledBatches = false;
+
+      if (spoolFilePath != null) {
+        spool = new HistoryEventSpool(new File(spoolFilePath));
+        recoverSpooledBatches();
+      }
+
+      isActive = true;
+    }
+
+    scheduleWriter();
+  }
+
+  protected void recoverSpooledBatches() {
+    List<List<HistoryEvent>> recoveredEvents = spool.recover();
+
+    // record the recovered batches again with the sequence numbers of this run
+    spool.clear();
+
+    for (List<HistoryEvent> events : recoveredEvents) {
+      HistoryEventBatch batch = new HistoryEventBatch(events);
+      batch.setSequence(nextSequence++);
+      batch.setState(State.COMMITTED);
+      queue.add(batch);
+      numberOfBufferedEvents += batch.size();
+      spool.append(batch);
+    }
+
+    if (!recoveredEvents.isEmpty()) {
+      log.info("Recovered " + recoveredEvents.size() + " batches of history events from spool file " + spool.getFile());
+    }
+  }
+
+  /**
+   * Stops queueing history events and waits until the queued events are written.
+   * Batches which are not written within {@link #getStopTimeoutInMillis()} remain in
+   * the spool file, if one is configured.
+   */
+  public void stop() {
+    synchronized (this) {
+      if (!isActive) {
+        return;
+      }
+      isActive = false;
+      notifyAll();
+    }
+
+    boolean isDrained = false;
+    try {
+      isDrained = awaitQueueDrained(System.currentTimeMillis() + stopTimeoutInMillis);
+    }
+    catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    if (!isDrained) {
+      log.warning("History events were not written within " + stopTimeoutInMillis + " ms");
+    }
+    else if (spool != null) {
+      spool.close();
+    }
+  }
+
+  protected boolean awaitQueueDrained(long deadline) throws InterruptedException {
+    while (true) {
+      synchronized (this) {
+        if (queue.isEmpty() && !isWriting) {
+          return true;
+        }
+        long remainingTime = deadline - System.currentTimeMillis();
+        if (remainingTime <= 0) {
+          return false;
+        }
+        if (isWriting || !isHeadOfQueueCommitted()) {
+          wait(Math.min(remainingTime, 1000));
+          continue;
+        }
+      }
+      // the executor service may already be shut down; write in this thread
+      if (startWriting()) {
+        writeQueuedBatches();
+      }
+    }
+  }
+
+  /**
+   * Waits until all events which are queued when this method is invoked are written.
+   */
+  public synchronized void flush() throws InterruptedException {
+    long lastQueuedSequence = nextSequence - 1;
+    while (isActive && (isWriting || hasQueuedBatchUpTo(lastQueuedSequence))) {
+      wait(1000);
+    }
+  }
+
+  protected boolean hasQueuedBatchUpTo(long sequence) {
+    return !queue.isEmpty() && queue.getFirst().getSequence() <= sequence;
+  }
+
+  public synchronized int getNumberOfBufferedEvents() {
+    return numberOfBufferedEvents;
+  }
+
+  public boolean isActive() {
+    return isActive;
+  }
+
+  // getters / setters ////////////////////////////////////////////////////////
+  public int getMaxBufferedEvents() {
+    return maxBufferedEvents;
+  }
+
+  public void setMaxBufferedEvents(int maxBufferedEvents) {
+    this.maxBufferedEvents = maxBufferedEvents;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public void setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+  }
+
+  public int getMaxWriteAttempts() {
+    return maxWriteAttempts;
+  }
+
+  public void setMaxWriteAttempts(int maxWriteAttempts) {
+    this.maxWriteAttempts = maxWriteAttempts;
+  }
+
+  public long getWriteRetryWaitTimeInMillis() {
+    return writeRetryWaitTimeInMillis;
+  }
+
+  public void setWriteRetryWaitTimeInMillis(long writeRetryWaitTimeInMillis) {
+    this.writeRetryWaitTimeInMillis = writeRetryWaitTimeInMillis;
+  }
+
+  public long getStopTimeoutInMillis() {
+    return stopTimeoutInMillis;
+  }
+
+  public void setStopTimeoutInMillis(long stopTimeoutInMillis) {
+    this.stopTimeoutInMillis = stopTimeoutInMillis;
+  }
+
+  public String getSpoolFilePath() {
+    return spoolFilePath;
+  }
+
+  public void setSpoolFilePath(String spoolFilePath) {
+    this.spoolFilePath = spoolFilePath;
+  }
+
+  public ExecutorService getExecutorService() {
+    return executorService;
+  }
+
+  /**
+   * Sets the executor service on which the history events are written. By default, the
+   * executor service of the runtime container is used.
+   */
+  public void setExecutorService(ExecutorService executorService) {
+    this.executorService = executorService;
+  }
+
+}
@@ -0,0 +1,75 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.CachedDbEntity;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityCache;
+import org.camunda.bpm.engine.impl.db.entitymanager.cache.DbEntityState;
+import org.camunda.bpm.engine.impl.history.event.HistoricScopeInstanceEvent;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+
+/**
+ * <p>Writes the history events of multiple transactions in a single command.</p>
+ *
+ * <p>When events are written in the transaction producing them, the history event
+ * producer updates the event in the entity cache if the historic instance was created
+ * in the same transaction. When written in a batch, the start and end events of an
+ * instance arrive as separate objects instead. A later event therefore replaces the
+ * event with the same id which was inserted or merged earlier in the batch.</p>
+ */
+public class BatchDbHistoryEventHandler extends DbHistoryEventHandler {
+
+  protected void insertOrUpdate(HistoryEvent historyEvent) {
+    String eventType = historyEvent.getEventType();
+
+    if (eventType != null && !isInitialEvent(eventType) && historyEvent.getId() != null) {
+      DbEntityCache dbEntityCache = getDbEntityManager().getDbEntityCache();
+      CachedDbEntity cachedEntity = dbEntityCache.getCachedEntity(historyEvent.getClass(), historyEvent.getId());
+
+      if (cachedEntity != null && cachedEntity.getEntity() != historyEvent) {
+        replaceCachedEvent(dbEntityCache, cachedEntity, historyEvent);
+        return;
+      }
+    }
+
+    super.insertOrUpdate(historyEvent);
+  }
+
+  protected void replaceCachedEvent(DbEntityCache dbEntityCache, CachedDbEntity cachedEntity, HistoryEvent historyEvent) {
+    HistoryEvent cachedEvent = (HistoryEvent) cachedEntity.getEntity();
+
+    if (historyEvent instanceof HistoricScopeInstanceEvent && cachedEvent instanceof HistoricScopeInstanceEvent) {
+      HistoricScopeInstanceEvent scopeInstanceEvent = (HistoricScopeInstanceEvent) historyEvent;
+      scopeInstanceEvent.setStartTime(((HistoricScopeInstanceEvent) cachedEvent).getStartTime());
+
+      // the producer computes the duration only if the start time is known
+      if (scopeInstanceEvent.getDurationInMillis() == null
+          && scopeInstanceEvent.getStartTime() != null
+          && scopeInstanceEvent.getEndTime() != null) {
+        scopeInstanceEvent.setDurationInMillis(scopeInstanceEvent.getEndTime().getTime() - scopeInstanceEvent.getStartTime().getTime());
+      }
+    }
+
+    DbEntityState entityState = cachedEntity.getEntityState();
+    dbEntityCache.remove(cachedEntity);
+
+    if (entityState == DbEntityState.TRANSIENT) {
+      // the instance is created in this batch
+      dbEntityCache.putTransient(historyEvent);
+    }
+    else {
+      dbEntityCache.putMerged(historyEvent);
+    }
+  }
+
+}
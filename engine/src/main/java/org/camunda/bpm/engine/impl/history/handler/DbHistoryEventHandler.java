@@ -85,12 +85,17 @@ public class DbHistoryEventHandler implements HistoryEventHandler {
         .isHistoryEventProduced(HistoryEventTypes.VARIABLE_INSTANCE_UPDATE_DETAIL, historyEvent)) {
 
       // insert byte array entity (if applicable)
-      byte[] byteValue = historyEvent.getByteValue();
-      if(byteValue != null) {
-        ByteArrayEntity byteArrayEntity = new ByteArrayEntity(historyEvent.getVariableName(), byteValue);
+      ByteArrayEntity byteArrayEntity = null;
+      if(historyEvent.getByteValueSource() != null) {
+        byteArrayEntity = new ByteArrayEntity(historyEvent.getVariableName(), historyEvent.getByteValueSource());
+      }
+      else if(historyEvent.getByteValue() != null) {
+        byteArrayEntity = new ByteArrayEntity(historyEvent.getVariableName(), historyEvent.getByteValue());
+      }
+      if(byteArrayEntity != null) {
         Context
         .getCommandContext()
-        .getDbEntityManager()
+        .getByteArrayManager()
         .insert(byteArrayEntity);
         historyEvent.setByteArrayId(byteArrayEntity.getId());
 
@@ -0,0 +1,78 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+
+/**
+ * The history events produced by a single transaction which are written
+ * by the {@link AsyncDbHistoryEventHandler}.
+ */
+public class HistoryEventBatch {
+
+  public enum State {
+    /** the transaction producing the events is running */
+    OPEN,
+    /** the transaction is committing; the batch is queued but must not be written yet */
+    PENDING,
+    /** the transaction is committed; the batch can be written */
+    COMMITTED,
+    /** the transaction is rolled back; the events are dropped */
+    DISCARDED
+  }
+
+  protected final List<HistoryEvent> events = new ArrayList<HistoryEvent>();
+
+  protected volatile State state = State.OPEN;
+
+  protected long sequence = -1;
+
+  public HistoryEventBatch() {
+  }
+
+  public HistoryEventBatch(List<HistoryEvent> events) {
+    this.events.addAll(events);
+  }
+
+  public void add(HistoryEvent historyEvent) {
+    events.add(historyEvent);
+  }
+
+  public List<HistoryEvent> getEvents() {
+    return events;
+  }
+
+  public int size() {
+    return events.size();
+  }
+
+  public State getState() {
+    return state;
+  }
+
+  public void setState(State state) {
+    this.state = state;
+  }
+
+  public long getSequence() {
+    return sequence;
+  }
+
+  public void setSequence(long sequence) {
+    this.sequence = sequence;
+  }
+
+}
@@ -0,0 +1,40 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import org.camunda.bpm.engine.impl.interceptor.Session;
+
+/**
+ * Holds the {@link HistoryEventBatch} of the current command context
+ * for the {@link AsyncDbHistoryEventHandler}.
+ */
+public class HistoryEventBuffer implements Session {
+
+  protected HistoryEventBatch batch;
+
+  public HistoryEventBatch getBatch() {
+    return batch;
+  }
+
+  public void setBatch(HistoryEventBatch batch) {
+    this.batch = batch;
+  }
+
+  public void flush() {
+    // the batch is handed over to the writer by transaction listeners
+  }
+
+  public void close() {
+  }
+
+}
@@ -0,0 +1,203 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.history.handler;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+
+/**
+ * <p>Local file in which the {@link AsyncDbHistoryEventHandler} records the batches
+ * of history events of committing transactions until they are written to the database.</p>
+ *
+ * <p>The file is a sequence of records: a batch with its sequence number and serialized
+ * events, or the sequence number of a batch which was written or whose transaction
+ * rolled back. On {@link #recover() recovery}, the batches without a written record are
+ * returned. The file is truncated whenever all recorded batches are written.</p>
+ *
+ * <p>A batch is recorded before its transaction commits. If the process crashes while
+ * the transaction completes, the batch is recovered even if the transaction rolled back;
+ * events are never lost, but may be written for such a transaction.</p>
+ *
+ * <p>Records are flushed to the operating system but not forced to disk, so the spool
+ * survives a crash of the process but not necessarily of the machine.</p>
+ */
+public class HistoryEventSpool {
+
+  private final static Logger log = Logger.getLogger(HistoryEventSpool.class.getName());
+
+  protected static final byte BATCH_RECORD = 1;
+  protected static final byte WRITTEN_RECORD = 2;
+
+  protected final File file;
+
+  protected DataOutputStream outputStream;
+
+  public HistoryEventSpool(File file) {
+    this.file = file;
+  }
+
+  public synchronized void close() {
+    if (outputStream != null) {
+      IoUtil.closeSilently(outputStream);
+      outputStream = null;
+    }
+  }
+
+  public synchronized void append(HistoryEventBatch batch) {
+    byte[] serializedEvents = serialize(batch.getEvents());
+    try {
+      outputStream.writeByte(BATCH_RECORD);
+      outputStream.writeLong(batch.getSequence());
+      outputStream.writeInt(serializedEvents.length);
+      outputStream.write(serializedEvents);
+      outputStream.flush();
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not append history events to spool file " + file, e);
+    }
+  }
+
+  public synchronized void markWritten(Collection<HistoryEventBatch> batches) {
+    try {
+      for (HistoryEventBatch batch : batches) {
+        outputStream.writeByte(WRITTEN_RECORD);
+        outputStream.writeLong(batch.getSequence());
+      }
+      outputStream.flush();
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not mark history events as written in spool file " + file, e);
+    }
+  }
+
+  /**
+   * Truncates the spool file and opens it for appending records.
+   */
+  public synchronized void clear() {
+    close();
+    outputStream = openOutputStream(false);
+  }
+
+  /**
+   * @return the events of all batches which are recorded but not written, in the order of their
+   *   sequence numbers. A truncated or corrupt record at the end of the file is ignored.
+   */
+  public synchronized List<List<HistoryEvent>> recover() {
+    Map<Long, List<HistoryEvent>> batches = new TreeMap<Long, List<HistoryEvent>>();
+
+    if (file.exists()) {
+      DataInputStream inputStream = null;
+      try {
+        inputStream = new DataInputStream(new BufferedInputStream(new FileInputStream(file)));
+        readRecords(inputStream, batches);
+      }
+      catch (IOException e) {
+        throw new ProcessEngineException("Could not read history events from spool file " + file, e);
+      }
+      finally {
+        IoUtil.closeSilently(inputStream);
+      }
+    }
+
+    return new ArrayList<List<HistoryEvent>>(batches.values());
+  }
+
+  protected void readRecords(DataInputStream inputStream, Map<Long, List<HistoryEvent>> batches) throws IOException {
+    try {
+      while (true) {
+        byte recordType = inputStream.readByte();
+        long sequence = inputStream.readLong();
+
+        if (recordType == BATCH_RECORD) {
+          byte[] serializedEvents = new byte[inputStream.readInt()];
+          inputStream.readFully(serializedEvents);
+          batches.put(sequence, deserialize(serializedEvents));
+        }
+        else if (recordType == WRITTEN_RECORD) {
+          batches.remove(sequence);
+        }
+        else {
+          log.warning("Ignoring corrupt end of history event spool file " + file);
+          return;
+        }
+      }
+    }
+    catch (EOFException e) {
+      // end of file or incomplete last record
+    }
+  }
+
+  protected DataOutputStream openOutputStream(boolean append) {
+    try {
+      return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file, append)));
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not open history event spool file " + file, e);
+    }
+  }
+
+  protected byte[] serialize(List<HistoryEvent> events) {
+    try {
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      ObjectOutputStream objectOutputStream = new ObjectOutputStream(bytes);
+      objectOutputStream.writeObject(new ArrayList<HistoryEvent>(events));
+      objectOutputStream.close();
+      return bytes.toByteArray();
+    }
+    catch (IOException e) {
+      throw new ProcessEngineException("Could not serialize history events", e);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  protected List<HistoryEvent> deserialize(byte[] serializedEvents) throws IOException {
+    ObjectInputStream objectInputStream = new ObjectInputStream(new ByteArrayInputStream(serializedEvents));
+    try {
+      return (List<HistoryEvent>) objectInputStream.readObject();
+    }
+    catch (ClassNotFoundException e) {
+      log.log(Level.WARNING, "Could not deserialize history events from spool file " + file, e);
+      return new ArrayList<HistoryEvent>();
+    }
+    finally {
+      objectInputStream.close();
+    }
+  }
+
+  public File getFile() {
+    return file;
+  }
+
+}
@@ -232,7 +232,13 @@ public class DefaultHistoryEventProducer implements HistoryEventProducer {
     evt.setLongValue(variableInstance.getLongValue());
     if (variableInstance.getByteArrayValueId() != null) {
       ByteArrayEntity byteArrayValue = variableInstance.getByteArrayValue();
-      evt.setByteValue(byteArrayValue.getBytes());
+      if (byteArrayValue.getContentSource() != null) {
+        // stream the value of the history as well
+        evt.setByteValueSource(byteArrayValue.getContentSource());
+      }
+      else {
+        evt.setByteValue(byteArrayValue.getBytes());
+      }
     }
   }
 
@@ -20,6 +20,8 @@ import java.util.logging.Logger;
 import org.camunda.bpm.engine.delegate.ProcessEngineServicesAware;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.management.Metrics;
 
 /**
  * <p>Interceptor used for opening the {@link CommandContext} and {@link CommandInvocationContext}.</p>
@@ -80,6 +82,9 @@ public class CommandContextInterceptor extends CommandInterceptor {
     CommandInvocationContext commandInvocationContext = new CommandInvocationContext(command);
     Context.setCommandInvocationContext(commandInvocationContext);
 
+    MetricsRegistry durationMetricsRegistry = openNew ? getDurationMetricsRegistry() : null;
+    long startTime = durationMetricsRegistry != null ? System.nanoTime() : 0;
+
     try {
       if(openNew) {
         LOGGER.log(Level.FINE, "Opening new command context.");
@@ -111,12 +116,41 @@ public class CommandContextInterceptor extends CommandInterceptor {
         Context.removeCommandInvocationContext();
         Context.removeCommandContext();
         Context.removeProcessEngineConfiguration();
+
+        if (durationMetricsRegistry != null) {
+          long durationInMillis = (System.nanoTime() - startTime) / 1000000;
+          durationMetricsRegistry.recordValue(Metrics.COMMAND_DURATION + "." + getCommandName(command), durationInMillis);
+        }
       }
     }
 
     return null;
   }
 
+  /**
+   * @return the class name of the command without package; unlike the simple name,
+   *   this is not empty for anonymous commands
+   */
+  protected String getCommandName(Command<?> command) {
+    String className = command.getClass().getName();
+    return className.substring(className.lastIndexOf('.') + 1);
+  }
+
+  /**
+   * @return the metrics registry if the durations of commands are recorded, null otherwise.
+   *   The registry is resolved on every command since it is initialized after the interceptors.
+   */
+  protected MetricsRegistry getDurationMetricsRegistry() {
+    if (processEngineConfiguration != null
+        && processEngineConfiguration.isMetricsEnabled()
+        && processEngineConfiguration.isDurationMetricsEnabled()) {
+      return processEngineConfiguration.getMetricsRegistry();
+    }
+    else {
+      return null;
+    }
+  }
+
   public CommandContextFactory getCommandContextFactory() {
     return commandContextFactory;
   }
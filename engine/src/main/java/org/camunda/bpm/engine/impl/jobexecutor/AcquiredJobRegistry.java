@@ -0,0 +1,103 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.camunda.bpm.engine.impl.cmd.ExecuteJobsCmd;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+
+/**
+ * <p>Hands the state of acquired jobs over from job acquisition to job execution,
+ * so that the {@link ExecuteJobsCmd} does not need to select the whole job again.</p>
+ *
+ * <p>The registry keeps detached copies of the acquired jobs, so that the entities of
+ * the acquisition are not shared with the threads which execute the jobs. The copies
+ * carry the revision written by the acquisition. If the job is changed or deleted
+ * before it is executed, the execution fails with an optimistic locking exception
+ * when it is flushed.</p>
+ *
+ * <p>Jobs which are not picked up before their lock expires are discarded. If the
+ * registry holds {@link #maxSize} jobs, further jobs are not registered and are
+ * selected again by their execution.</p>
+ */
+public class AcquiredJobRegistry {
+
+  public static final int DEFAULT_MAX_SIZE = 1000;
+
+  protected ConcurrentMap<String, JobEntity> acquiredJobs = new ConcurrentHashMap<String, JobEntity>();
+
+  protected int maxSize;
+
+  public AcquiredJobRegistry() {
+    this(DEFAULT_MAX_SIZE);
+  }
+
+  public AcquiredJobRegistry(int maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  public void register(AcquiredJobs jobs) {
+    removeExpiredJobs();
+
+    for (JobEntity job : jobs.getJobEntities()) {
+      if (acquiredJobs.size() >= maxSize) {
+        break;
+      }
+      acquiredJobs.put(job.getId(), job.createDetachedCopy());
+    }
+  }
+
+  /**
+   * Removes the acquired state of the job from the registry.
+   *
+   * @return the acquired job or null if the job is unknown or its lock has expired
+   */
+  public JobEntity take(String jobId) {
+    JobEntity job = acquiredJobs.remove(jobId);
+
+    if (job != null && isLockExpired(job, ClockUtil.getCurrentTime())) {
+      return null;
+    }
+    return job;
+  }
+
+  public int size() {
+    return acquiredJobs.size();
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  protected void removeExpiredJobs() {
+    Date now = ClockUtil.getCurrentTime();
+
+    Iterator<JobEntity> jobIterator = acquiredJobs.values().iterator();
+    while (jobIterator.hasNext()) {
+      if (isLockExpired(jobIterator.next(), now)) {
+        jobIterator.remove();
+      }
+    }
+  }
+
+  protected boolean isLockExpired(JobEntity job, Date now) {
+    Date lockExpirationTime = job.getLockExpirationTime();
+    return lockExpirationTime == null || lockExpirationTime.before(now);
+  }
+
+}
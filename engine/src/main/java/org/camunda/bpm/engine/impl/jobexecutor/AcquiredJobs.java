@@ -13,11 +13,16 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+
 
 /**
  * @author Tom Baeyens
@@ -27,6 +32,7 @@ public class AcquiredJobs {
 
   protected List<List<String>> acquiredJobBatches = new ArrayList<List<String>>();
   protected Set<String> acquiredJobs = new HashSet<String>();
+  protected Map<String, JobEntity> acquiredJobEntities = new HashMap<String, JobEntity>();
 
   protected int numberOfJobsFailedToLock = 0;
 
@@ -39,6 +45,14 @@ public class AcquiredJobs {
     acquiredJobs.addAll(jobIds);
   }
 
+  public void addJobEntity(JobEntity job) {
+    acquiredJobEntities.put(job.getId(), job);
+  }
+
+  public Collection<JobEntity> getJobEntities() {
+    return acquiredJobEntities.values();
+  }
+
   public boolean contains(String jobId) {
     return acquiredJobs.contains(jobId);
   }
@@ -51,6 +65,7 @@ public class AcquiredJobs {
     numberOfJobsFailedToLock++;
 
     acquiredJobs.remove(id);
+    acquiredJobEntities.remove(id);
 
     Iterator<List<String>> batchIterator = acquiredJobBatches.iterator();
     while (batchIterator.hasNext()) {
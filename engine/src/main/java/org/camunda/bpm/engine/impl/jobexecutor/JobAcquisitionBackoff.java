@@ -0,0 +1,124 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Random;
+
+/**
+ * <p>Exponential back-off of job acquisition in case of contention with other
+ * job executors on the same database.</p>
+ *
+ * <p>After every acquisition, the share of jobs which could not be locked is compared to the
+ * {@link JobExecutor#getBackoffFailureRatioThreshold() failure ratio threshold}. If it
+ * is exceeded, the back-off time is started at {@link JobExecutor#getBackoffTimeInMillis()}
+ * or multiplied by the {@link JobExecutor#getBackoffIncreaseFactor() increase factor},
+ * up to {@link JobExecutor#getMaxBackoff()}. Acquisitions without lock failures reduce
+ * the back-off time by the same factor until it drops to zero again.</p>
+ *
+ * <p>The wait time returned by {@link #getWaitTime()} is jittered between half and
+ * the full back-off time so that competing job executors do not retry in lockstep.</p>
+ *
+ * <p>Instances are not thread-safe; every acquisition thread uses its own instance.</p>
+ */
+public class JobAcquisitionBackoff {
+
+  protected final JobExecutor jobExecutor;
+  protected final Random random = new Random();
+
+  protected long currentBackoff = 0;
+
+  public JobAcquisitionBackoff(JobExecutor jobExecutor) {
+    this.jobExecutor = jobExecutor;
+  }
+
+  /**
+   * Adjusts the back-off time according to the outcome of an acquisition.
+   *
+   * @param numberOfJobsAcquired the number of jobs which were successfully locked
+   * @param numberOfJobsFailedToLock the number of jobs which could not be locked because
+   *   another job executor locked them first
+   */
+  public void acquisitionFinished(int numberOfJobsAcquired, int numberOfJobsFailedToLock) {
+    long initialBackoff = jobExecutor.getBackoffTimeInMillis();
+    if (initialBackoff <= 0) {
+      currentBackoff = 0;
+      return;
+    }
+
+    int numberOfJobsAttempted = numberOfJobsAcquired + numberOfJobsFailedToLock;
+    if (numberOfJobsAttempted == 0) {
+      // nothing to acquire: the regular idle wait applies
+      return;
+    }
+
+    float failureRatio = (float) numberOfJobsFailedToLock / numberOfJobsAttempted;
+
+    if (numberOfJobsFailedToLock > 0 && failureRatio >= jobExecutor.getBackoffFailureRatioThreshold()) {
+      increaseBackoff(initialBackoff);
+    }
+    else if (numberOfJobsFailedToLock == 0) {
+      decreaseBackoff(initialBackoff);
+    }
+  }
+
+  protected void increaseBackoff(long initialBackoff) {
+    if (currentBackoff == 0) {
+      currentBackoff = initialBackoff;
+    }
+    else {
+      currentBackoff = (long) (currentBackoff * jobExecutor.getBackoffIncreaseFactor());
+    }
+
+    long maxBackoff = jobExecutor.getMaxBackoff();
+    if (currentBackoff > maxBackoff) {
+      currentBackoff = maxBackoff;
+    }
+  }
+
+  protected void decreaseBackoff(long initialBackoff) {
+    if (currentBackoff > 0) {
+      currentBackoff = (long) (currentBackoff / jobExecutor.getBackoffIncreaseFactor());
+      if (currentBackoff < initialBackoff) {
+        currentBackoff = 0;
+      }
+    }
+  }
+
+  public void reset() {
+    currentBackoff = 0;
+  }
+
+  public boolean isBackingOff() {
+    return currentBackoff > 0;
+  }
+
+  /**
+   * @return the current back-off time without jitter
+   */
+  public long getBackoffTime() {
+    return currentBackoff;
+  }
+
+  /**
+   * @return the time to wait before the next acquisition, uniformly distributed between
+   *   half and the full back-off time; 0 if the acquisition does not back off
+   */
+  public long getWaitTime() {
+    if (currentBackoff <= 0) {
+      return 0;
+    }
+    long halfBackoff = currentBackoff / 2;
+    return halfBackoff + (long) (random.nextDouble() * (currentBackoff - halfBackoff + 1));
+  }
+
+}
@@ -13,8 +13,11 @@
 
 package org.camunda.bpm.engine.impl.jobexecutor;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -52,12 +55,29 @@ public abstract class JobExecutor {
 
   protected boolean isAutoActivate = false;
   protected boolean isActive = false;
+  protected boolean isShuttingDown = false;
 
   protected int maxJobsPerAcquisition = 3;
   protected int waitTimeInMillis = 5 * 1000;
   protected String lockOwner = UUID.randomUUID().toString();
   protected int lockTimeInMillis = 5 * 60 * 1000;
 
+  /** initial back-off time in case of lock failures during acquisition; 0 disables the back-off */
+  protected int backoffTimeInMillis = 0;
+  protected int maxBackoff = 10 * 1000;
+  protected float backoffIncreaseFactor = 2;
+  /** share of the acquired jobs which must fail to lock in order to increase the back-off */
+  protected float backoffFailureRatioThreshold = 0.5f;
+
+  /** time to wait before the next acquisition attempt if no more jobs can be executed right now */
+  protected int executionSaturationWaitTimeInMillis = 100;
+
+  /** if true, every registered process engine gets a dedicated acquisition thread */
+  protected boolean isAcquisitionThreadPerEngine = false;
+  protected boolean areEngineAcquisitionThreadsActive = false;
+  protected Map<ProcessEngineImpl, AcquireJobsRunnable> engineAcquireJobsRunnables = new ConcurrentHashMap<ProcessEngineImpl, AcquireJobsRunnable>();
+  protected Map<ProcessEngineImpl, Thread> engineAcquisitionThreads = new ConcurrentHashMap<ProcessEngineImpl, Thread>();
+
   public void start() {
     if (isActive) {
       return;
@@ -68,15 +88,24 @@ public abstract class JobExecutor {
     isActive = true;
   }
 
-  public synchronized void shutdown() {
-    if (!isActive) {
-      return;
+  public void shutdown() {
+    synchronized (this) {
+      if (!isActive || isShuttingDown) {
+        return;
+      }
+      log.info("Shutting down the JobExecutor["+getClass().getName()+"].");
+      isShuttingDown = true;
+      acquireJobsRunnable.stop();
     }
-    log.info("Shutting down the JobExecutor["+getClass().getName()+"].");
-    acquireJobsRunnable.stop();
+
+    // do not hold the monitor of the job executor while waiting for the acquisition threads and jobs
     stopExecutingJobs();
-    ensureCleanup();
-    isActive = false;
+
+    synchronized (this) {
+      ensureCleanup();
+      isActive = false;
+      isShuttingDown = false;
+    }
   }
 
   protected void ensureInitialization() {
@@ -92,6 +121,9 @@ public abstract class JobExecutor {
   public void jobWasAdded() {
     if(isActive) {
       acquireJobsRunnable.jobWasAdded();
+      for (AcquireJobsRunnable engineAcquireJobsRunnable : engineAcquireJobsRunnables.values()) {
+        engineAcquireJobsRunnable.jobWasAdded();
+      }
     }
   }
 
@@ -102,13 +134,30 @@ public abstract class JobExecutor {
     if(processEngines.size() == 1 && isAutoActivate) {
       start();
     }
+    else if (areEngineAcquisitionThreadsActive) {
+      startEngineAcquisitionThread(processEngine);
+    }
   }
 
-  public synchronized void unregisterProcessEngine(ProcessEngineImpl processEngine) {
-    processEngines.remove(processEngine);
+  public void unregisterProcessEngine(ProcessEngineImpl processEngine) {
+    Thread engineAcquisitionThread = null;
+    boolean isShutdownRequired = false;
+
+    synchronized (this) {
+      processEngines.remove(processEngine);
 
-    // if we unregister the last process engine, auto-shutdown the jobexecutor
-    if(processEngines.isEmpty() && isActive) {
+      if (areEngineAcquisitionThreadsActive) {
+        engineAcquisitionThread = stopEngineAcquisitionThread(processEngine);
+      }
+
+      // if we unregister the last process engine, auto-shutdown the jobexecutor
+      isShutdownRequired = processEngines.isEmpty() && isActive;
+    }
+
+    // do not hold the monitor of the job executor while waiting for the acquisition thread
+    joinEngineAcquisitionThread(processEngine, engineAcquisitionThread);
+
+    if (isShutdownRequired) {
       shutdown();
     }
   }
@@ -117,6 +166,23 @@ public abstract class JobExecutor {
   protected abstract void stopExecutingJobs();
   public abstract void executeJobs(List<String> jobIds, ProcessEngineImpl processEngine);
 
+  /**
+   * @return the number of job batches the job executor can currently accept for execution
+   *   without rejecting them; {@link Integer#MAX_VALUE} if the capacity is unknown.
+   *   Acquisition never locks more jobs than fit in, since rejected jobs remain locked
+   *   until their lock expires.
+   */
+  public int getFreeExecutionCapacity() {
+    return Integer.MAX_VALUE;
+  }
+
+  /**
+   * @return true if the job executor cannot currently accept more jobs for execution.
+   */
+  public boolean isExecutionSaturated() {
+    return getFreeExecutionCapacity() <= 0;
+  }
+
   /**
    * Deprecated: use {@link #executeJobs(List, ProcessEngineImpl)} instead
    * @param jobIds
@@ -231,6 +297,19 @@ public abstract class JobExecutor {
     return acquireJobsCmd;
   }
 
+  /**
+   * @return a command acquiring at most the given number of jobs. If a custom
+   *   acquisition command is {@link #setAcquireJobsCmd(Command) set}, it is returned as is.
+   */
+  public Command<AcquiredJobs> getAcquireJobsCmd(int numJobs) {
+    if (acquireJobsCmd instanceof AcquireJobsCmd) {
+      return new AcquireJobsCmd(this, numJobs);
+    }
+    else {
+      return acquireJobsCmd;
+    }
+  }
+
   public void setAcquireJobsCmd(Command<AcquiredJobs> acquireJobsCmd) {
     this.acquireJobsCmd = acquireJobsCmd;
   }
@@ -239,6 +318,54 @@ public abstract class JobExecutor {
     return isActive;
   }
 
+  public int getBackoffTimeInMillis() {
+    return backoffTimeInMillis;
+  }
+
+  public void setBackoffTimeInMillis(int backoffTimeInMillis) {
+    this.backoffTimeInMillis = backoffTimeInMillis;
+  }
+
+  public int getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  public void setMaxBackoff(int maxBackoff) {
+    this.maxBackoff = maxBackoff;
+  }
+
+  public float getBackoffIncreaseFactor() {
+    return backoffIncreaseFactor;
+  }
+
+  public void setBackoffIncreaseFactor(float backoffIncreaseFactor) {
+    this.backoffIncreaseFactor = backoffIncreaseFactor;
+  }
+
+  public float getBackoffFailureRatioThreshold() {
+    return backoffFailureRatioThreshold;
+  }
+
+  public void setBackoffFailureRatioThreshold(float backoffFailureRatioThreshold) {
+    this.backoffFailureRatioThreshold = backoffFailureRatioThreshold;
+  }
+
+  public int getExecutionSaturationWaitTimeInMillis() {
+    return executionSaturationWaitTimeInMillis;
+  }
+
+  public void setExecutionSaturationWaitTimeInMillis(int executionSaturationWaitTimeInMillis) {
+    this.executionSaturationWaitTimeInMillis = executionSaturationWaitTimeInMillis;
+  }
+
+  public boolean isAcquisitionThreadPerEngine() {
+    return isAcquisitionThreadPerEngine;
+  }
+
+  public void setAcquisitionThreadPerEngine(boolean isAcquisitionThreadPerEngine) {
+    this.isAcquisitionThreadPerEngine = isAcquisitionThreadPerEngine;
+  }
+
   public RejectedJobsHandler getRejectedJobsHandler() {
     return rejectedJobsHandler;
   }
@@ -248,26 +375,105 @@ public abstract class JobExecutor {
   }
 
   protected void startJobAcquisitionThread() {
-		if (jobAcquisitionThread == null) {
-			jobAcquisitionThread = new Thread(acquireJobsRunnable, getName());
-			jobAcquisitionThread.start();
-		}
-	}
-
-	protected void stopJobAcquisitionThread() {
-		try {
-			jobAcquisitionThread.join();
-		} catch (InterruptedException e) {
-			log.log(
-					Level.WARNING,
-					"Interrupted while waiting for the job Acquisition thread to terminate",
-					e);
-		}
-		jobAcquisitionThread = null;
-	}
+    if (isAcquisitionThreadPerEngine) {
+      startEngineAcquisitionThreads();
+    }
+    else if (jobAcquisitionThread == null) {
+      jobAcquisitionThread = new Thread(acquireJobsRunnable, getName());
+      jobAcquisitionThread.start();
+    }
+  }
+
+  protected void stopJobAcquisitionThread() {
+    if (areEngineAcquisitionThreadsActive) {
+      stopEngineAcquisitionThreads();
+      return;
+    }
+    try {
+      jobAcquisitionThread.join();
+    } catch (InterruptedException e) {
+      log.log(
+          Level.WARNING,
+          "Interrupted while waiting for the job Acquisition thread to terminate",
+          e);
+    }
+    jobAcquisitionThread = null;
+  }
+
+  protected synchronized void startEngineAcquisitionThreads() {
+    areEngineAcquisitionThreadsActive = true;
+    for (ProcessEngineImpl processEngine : processEngines) {
+      startEngineAcquisitionThread(processEngine);
+    }
+  }
+
+  protected void stopEngineAcquisitionThreads() {
+    Map<ProcessEngineImpl, Thread> stoppedThreads = new HashMap<ProcessEngineImpl, Thread>();
+
+    synchronized (this) {
+      // stop all threads first, so that they terminate concurrently
+      for (ProcessEngineImpl processEngine : engineAcquisitionThreads.keySet()) {
+        stoppedThreads.put(processEngine, stopEngineAcquisitionThread(processEngine));
+      }
+      areEngineAcquisitionThreadsActive = false;
+    }
+
+    for (Map.Entry<ProcessEngineImpl, Thread> stoppedThread : stoppedThreads.entrySet()) {
+      joinEngineAcquisitionThread(stoppedThread.getKey(), stoppedThread.getValue());
+    }
+  }
+
+  protected synchronized void startEngineAcquisitionThread(ProcessEngineImpl processEngine) {
+    if (!engineAcquisitionThreads.containsKey(processEngine)) {
+      AcquireJobsRunnable engineAcquireJobsRunnable = new SequentialJobAcquisitionRunnable(this, processEngine);
+      Thread engineAcquisitionThread = new Thread(engineAcquireJobsRunnable, getName() + "[" + processEngine.getName() + "]");
+
+      engineAcquireJobsRunnables.put(processEngine, engineAcquireJobsRunnable);
+      engineAcquisitionThreads.put(processEngine, engineAcquisitionThread);
+      engineAcquisitionThread.start();
+    }
+  }
+
+  /**
+   * Signals the acquisition thread of the process engine to stop. Callers must wait for the
+   * returned thread using {@link #joinEngineAcquisitionThread(ProcessEngineImpl, Thread)}
+   * after releasing the monitor of the job executor.
+   *
+   * @return the stopped thread or null if the process engine has no acquisition thread
+   */
+  protected synchronized Thread stopEngineAcquisitionThread(ProcessEngineImpl processEngine) {
+    AcquireJobsRunnable engineAcquireJobsRunnable = engineAcquireJobsRunnables.remove(processEngine);
+    Thread engineAcquisitionThread = engineAcquisitionThreads.remove(processEngine);
+
+    if (engineAcquireJobsRunnable != null) {
+      engineAcquireJobsRunnable.stop();
+    }
+    return engineAcquisitionThread;
+  }
+
+  protected void joinEngineAcquisitionThread(ProcessEngineImpl processEngine, Thread engineAcquisitionThread) {
+    if (engineAcquisitionThread != null) {
+      try {
+        engineAcquisitionThread.join();
+      } catch (InterruptedException e) {
+        log.log(
+            Level.WARNING,
+            "Interrupted while waiting for the job acquisition thread of process engine " + processEngine.getName() + " to terminate",
+            e);
+      }
+    }
+  }
 
   public AcquireJobsRunnable getAcquireJobsRunnable() {
     return acquireJobsRunnable;
   }
 
+  /**
+   * @return the acquisition runnables of the dedicated per-engine acquisition threads,
+   *   empty if {@link #isAcquisitionThreadPerEngine()} is false
+   */
+  public Map<ProcessEngineImpl, AcquireJobsRunnable> getEngineAcquireJobsRunnables() {
+    return engineAcquireJobsRunnables;
+  }
+
 }
@@ -1,6 +1,7 @@
 package org.camunda.bpm.engine.impl.jobexecutor;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 import java.util.logging.Level;
 import java.util.logging.Logger;
@@ -12,14 +13,35 @@ import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 /**
  * <p>{@link AcquireJobsRunnable} able to serve multiple process engines.</p>
  *
+ * <p>If constructed for a single process engine, the runnable only acquires jobs for
+ * that engine, so that multiple instances can run concurrently
+ * (see {@link JobExecutor#isAcquisitionThreadPerEngine()}).</p>
+ *
+ * <p>If other job executors compete for the same jobs, the acquisition backs off
+ * according to a {@link JobAcquisitionBackoff}. The runnable never acquires more jobs
+ * than the job executor can currently accept for execution
+ * (see {@link JobExecutor#getFreeExecutionCapacity()}).</p>
+ *
  * @author Daniel Meyer
  */
 public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
 
   private static Logger log = Logger.getLogger(AcquireJobsRunnable.class.getName());
 
+  /** the process engine served by this runnable; null if all registered engines are served */
+  protected final ProcessEngineImpl processEngine;
+  protected final JobAcquisitionBackoff backoff;
+
   public SequentialJobAcquisitionRunnable(JobExecutor jobExecutor) {
     super(jobExecutor);
+    this.processEngine = null;
+    this.backoff = new JobAcquisitionBackoff(jobExecutor);
+  }
+
+  public SequentialJobAcquisitionRunnable(JobExecutor jobExecutor, ProcessEngineImpl processEngine) {
+    super(jobExecutor);
+    this.processEngine = processEngine;
+    this.backoff = new JobAcquisitionBackoff(jobExecutor);
   }
 
   public synchronized void run() {
@@ -28,6 +50,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     int processEngineLoopCounter = 0;
     List<String> idleEngines = new ArrayList<String>();
     boolean jobExecutionFailed = false;
+    boolean executionSaturated = false;
 
     while (!isInterrupted) {
       ProcessEngineImpl currentProcessEngine = null;
@@ -35,7 +58,7 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
 
       try {
 
-        List<ProcessEngineImpl> registeredProcessEngines = jobExecutor.getProcessEngines();
+        List<ProcessEngineImpl> registeredProcessEngines = getProcessEngines();
 
         synchronized (registeredProcessEngines) {
           if (registeredProcessEngines.size() > 0) {
@@ -54,29 +77,39 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
       }
 
       jobExecutionFailed = false;
+      int freeExecutionCapacity = jobExecutor.getFreeExecutionCapacity();
+      executionSaturated = freeExecutionCapacity <= 0;
+      int numJobsToAcquire = Math.min(maxJobsPerAcquisition, freeExecutionCapacity);
 
-      if (currentProcessEngine != null) {
+      if (currentProcessEngine != null && !executionSaturated) {
 
         try {
           final CommandExecutor commandExecutor = currentProcessEngine.getProcessEngineConfiguration()
               .getCommandExecutorTxRequired();
 
           jobExecutor.logAcquisitionAttempt(currentProcessEngine);
-          AcquiredJobs acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd());
+          AcquiredJobs acquiredJobs = commandExecutor.execute(jobExecutor.getAcquireJobsCmd(numJobsToAcquire));
 
           jobExecutor.logAcquiredJobs(currentProcessEngine, acquiredJobs.size());
           jobExecutor.logAcquisitionFailureJobs(currentProcessEngine, acquiredJobs.getNumberOfJobsFailedToLock());
 
+          AcquiredJobRegistry acquiredJobRegistry = currentProcessEngine.getProcessEngineConfiguration().getAcquiredJobRegistry();
+          if (acquiredJobRegistry != null) {
+            acquiredJobRegistry.register(acquiredJobs);
+          }
+
           for (List<String> jobIds : acquiredJobs.getJobIdBatches()) {
             jobExecutor.executeJobs(jobIds, currentProcessEngine);
           }
 
           // add number of jobs which we attempted to acquire but could not obtain a lock for -> do not wait if we could not acquire jobs.
           int jobsAcquired = acquiredJobs.getJobIdBatches().size() + acquiredJobs.getNumberOfJobsFailedToLock();
-          if (jobsAcquired < maxJobsPerAcquisition) {
+          if (jobsAcquired < numJobsToAcquire) {
             idleEngines.add(currentProcessEngine.getName());
           }
 
+          backoff.acquisitionFinished(acquiredJobs.size(), acquiredJobs.getNumberOfJobsFailedToLock());
+
         } catch (Exception e) {
           log.log(Level.SEVERE, "exception during job acquisition: " + e.getMessage(), e);
 
@@ -94,17 +127,26 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
         }
       }
 
-      int numOfEngines = jobExecutor.getProcessEngines().size();
-      if(idleEngines.size() == numOfEngines) {
+      // waits caused by saturation or back-off are not cut short by newly added jobs
+      boolean isWaitMandatory = false;
+
+      int numOfEngines = getProcessEngines().size();
+      if (executionSaturated) {
+        // the acquired jobs could not be executed -> wait for running jobs to complete
+        millisToWait = jobExecutor.getExecutionSaturationWaitTimeInMillis();
+        isWaitMandatory = true;
+      } else if(idleEngines.size() == numOfEngines) {
         // if we have determined that none of the registered engines currently have jobs -> wait
         millisToWait = jobExecutor.getWaitTimeInMillis();
       } else {
         if(!jobExecutionFailed) {
-          millisToWait = 0;
+          // competing job executors locked the jobs we attempted to acquire -> back off
+          millisToWait = backoff.getWaitTime();
+          isWaitMandatory = millisToWait > 0;
         }
       }
 
-      if (millisToWait > 0 && (!isJobAdded)) {
+      if (millisToWait > 0 && (!isJobAdded || isWaitMandatory)) {
 
         try {
           log.fine("job acquisition thread sleeping for " + millisToWait + " millis");
@@ -115,7 +157,9 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
             }
           }
           log.fine("job acquisition thread woke up");
-          isJobAdded = false;
+          if (!isWaitMandatory) {
+            isJobAdded = false;
+          }
         } catch (InterruptedException e) {
           log.fine("job acquisition wait interrupted");
         } finally {
@@ -127,8 +171,25 @@ public class SequentialJobAcquisitionRunnable extends AcquireJobsRunnable {
     log.info(jobExecutor.getName() + " stopped job acquisition");
   }
 
+  protected List<ProcessEngineImpl> getProcessEngines() {
+    if (processEngine != null) {
+      return Collections.singletonList(processEngine);
+    }
+    else {
+      return jobExecutor.getProcessEngines();
+    }
+  }
+
   public boolean isJobAdded() {
     return isJobAdded;
   }
 
+  public ProcessEngineImpl getProcessEngine() {
+    return processEngine;
+  }
+
+  public JobAcquisitionBackoff getBackoff() {
+    return backoff;
+  }
+
 }
@@ -0,0 +1,120 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import java.util.Date;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.SignalEventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.impl.util.json.JSONObject;
+
+/**
+ * <p>Delivers a signal asynchronously to its subscriptions. Instead of triggering every
+ * receiver in the transaction of the thrower, a single job is created which triggers the
+ * first chunk of subscriptions (see {@link org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl#getSignalEventDeliveryChunkSize()}).
+ * If more subscriptions may exist, the job creates another job for the next chunk.</p>
+ *
+ * <p>Only subscriptions which exist when the signal is thrown receive the signal.
+ * The subscriptions are processed in the order of their ids.</p>
+ *
+ * <p>Some databases store the creation time of a subscription with a precision of
+ * seconds only and may round it up. The time of the throw is therefore rounded up
+ * to the next full second, so that a subscription created in the same second as the
+ * throw still receives the signal. A subscription created later in that second may
+ * receive the signal as well.</p>
+ */
+public class SignalEventDeliveryJobHandler implements JobHandler {
+
+  public final static String TYPE = "signal-event-delivery";
+
+  protected static final String JOB_HANDLER_CFG_SIGNAL_NAME = "signalName";
+  protected static final String JOB_HANDLER_CFG_CREATED_BEFORE = "createdBefore";
+  protected static final String JOB_HANDLER_CFG_AFTER_ID = "afterId";
+
+  public String getType() {
+    return TYPE;
+  }
+
+  /**
+   * Creates the job which delivers the signal with the given name to the subscriptions
+   * which exist at this time.
+   */
+  public static void scheduleDelivery(CommandContext commandContext, String signalName) {
+    long createdBefore = roundUpToFullSecond(ClockUtil.getCurrentTime().getTime());
+    scheduleDelivery(commandContext, signalName, createdBefore, null);
+  }
+
+  protected static long roundUpToFullSecond(long time) {
+    long remainder = time % 1000;
+    if (remainder == 0) {
+      return time;
+    }
+    else {
+      return time - remainder + 1000;
+    }
+  }
+
+  protected static void scheduleDelivery(CommandContext commandContext, String signalName, long createdBefore, String afterId) {
+    JSONObject json = new JSONObject();
+    json.put(JOB_HANDLER_CFG_SIGNAL_NAME, signalName);
+    json.put(JOB_HANDLER_CFG_CREATED_BEFORE, createdBefore);
+    if (afterId != null) {
+      json.put(JOB_HANDLER_CFG_AFTER_ID, afterId);
+    }
+
+    MessageEntity message = new MessageEntity();
+    message.setJobHandlerType(TYPE);
+    message.setJobHandlerConfiguration(json.toString());
+
+    commandContext.getJobManager().send(message);
+  }
+
+  public void execute(String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    JSONObject json = new JSONObject(configuration);
+    String signalName = json.getString(JOB_HANDLER_CFG_SIGNAL_NAME);
+    long createdBefore = json.getLong(JOB_HANDLER_CFG_CREATED_BEFORE);
+    String afterId = json.optString(JOB_HANDLER_CFG_AFTER_ID, null);
+
+    int chunkSize = Context.getProcessEngineConfiguration().getSignalEventDeliveryChunkSize();
+
+    List<SignalEventSubscriptionEntity> subscriptions = commandContext.getEventSubscriptionManager()
+      .findSignalEventSubscriptionsByEventName(signalName, new Date(createdBefore), afterId, chunkSize);
+
+    for (SignalEventSubscriptionEntity subscription : subscriptions) {
+      if (isActiveEventSubscription(subscription)) {
+        subscription.eventReceived(null, false);
+      }
+    }
+
+    if (subscriptions.size() == chunkSize) {
+      String lastId = subscriptions.get(subscriptions.size() - 1).getId();
+      scheduleDelivery(commandContext, signalName, createdBefore, lastId);
+    }
+  }
+
+  protected boolean isActiveEventSubscription(SignalEventSubscriptionEntity subscription) {
+    if (subscription.getExecutionId() == null) {
+      // start event subscription
+      return true;
+    }
+
+    ExecutionEntity subscriptionExecution = subscription.getExecution();
+    return subscriptionExecution != null && !subscriptionExecution.isEnded() && !subscriptionExecution.isCanceled();
+  }
+
+}
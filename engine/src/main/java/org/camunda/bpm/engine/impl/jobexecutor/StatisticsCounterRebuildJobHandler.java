@@ -0,0 +1,42 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.jobexecutor;
+
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
+
+/**
+ * Rebuilds the runtime statistics counters from the runtime tables,
+ * see {@link org.camunda.bpm.engine.impl.persistence.entity.StatisticsManager#rebuildCounters()}.
+ */
+public class StatisticsCounterRebuildJobHandler implements JobHandler {
+
+  public final static String TYPE = "statistics-counter-rebuild";
+
+  public String getType() {
+    return TYPE;
+  }
+
+  public static void scheduleRebuild(CommandContext commandContext) {
+    MessageEntity message = new MessageEntity();
+    message.setJobHandlerType(TYPE);
+
+    commandContext.getJobManager().send(message);
+  }
+
+  public void execute(String configuration, ExecutionEntity execution, CommandContext commandContext) {
+    commandContext.getStatisticsManager().rebuildCounters();
+  }
+
+}
@@ -43,6 +43,16 @@ public class ThreadPoolJobExecutor extends JobExecutor {
       
     }
   }
+
+  public int getFreeExecutionCapacity() {
+    if (threadPoolExecutor == null) {
+      return super.getFreeExecutionCapacity();
+    }
+    // further jobs are rejected once the queue is full and no more threads can be started
+    long idleThreads = Math.max(0, threadPoolExecutor.getMaximumPoolSize() - threadPoolExecutor.getActiveCount());
+    long remainingQueueCapacity = threadPoolExecutor.getQueue().remainingCapacity();
+    return (int) Math.min(Integer.MAX_VALUE, idleThreads + remainingQueueCapacity);
+  }
   
   // getters / setters
 
@@ -0,0 +1,185 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <p>A histogram of non-negative values, such as durations in milliseconds.</p>
+ *
+ * <p>Values are counted in exponential buckets: bucket <code>i</code> holds the values
+ * in the range <code>[2^(i-1), 2^i - 1]</code>, bucket 0 holds the value 0. Percentiles
+ * are therefore approximated by the upper bound of the bucket they fall into. Count and
+ * sum are kept in striped {@link Meter}s so that recording a value does not contend on a
+ * single counter.</p>
+ *
+ * <p>Recording and {@link #getAndClear() clearing} may happen concurrently; a value
+ * recorded while the histogram is cleared may be reported partially in the returned
+ * snapshot and partially in the next one.</p>
+ */
+public class Histogram {
+
+  protected static final int NUMBER_OF_BUCKETS = 64;
+
+  protected String name;
+
+  protected final Meter count;
+  protected final Meter sum;
+  protected final AtomicLong max = new AtomicLong(0);
+  protected final AtomicLongArray buckets = new AtomicLongArray(NUMBER_OF_BUCKETS);
+
+  /** the snapshot returned by the last invocation of {@link #getAndClear()} */
+  protected volatile Snapshot lastSnapshot;
+
+  public Histogram(String name) {
+    this.name = name;
+    this.count = new Meter(name);
+    this.sum = new Meter(name);
+  }
+
+  public void recordValue(long value) {
+    if (value < 0) {
+      value = 0;
+    }
+
+    count.mark();
+    sum.markTimes(value);
+    buckets.incrementAndGet(getBucketIndex(value));
+
+    long currentMax = max.get();
+    while (value > currentMax && !max.compareAndSet(currentMax, value)) {
+      currentMax = max.get();
+    }
+  }
+
+  /**
+   * @return a snapshot of the recorded values; the histogram is reset afterwards
+   */
+  public Snapshot getAndClear() {
+    long[] bucketCounts = new long[NUMBER_OF_BUCKETS];
+    for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+      bucketCounts[i] = buckets.getAndSet(i, 0);
+    }
+    Snapshot snapshot = new Snapshot(count.getAndClear(), sum.getAndClear(), max.getAndSet(0), bucketCounts);
+    lastSnapshot = snapshot;
+    return snapshot;
+  }
+
+  /**
+   * @return the snapshot of the values recorded in the last interval, i.e. before the last
+   *   invocation of {@link #getAndClear()}; null if the histogram was never cleared
+   */
+  public Snapshot getLastSnapshot() {
+    return lastSnapshot;
+  }
+
+  /**
+   * @return a snapshot of the recorded values without resetting the histogram
+   */
+  public Snapshot get() {
+    long[] bucketCounts = new long[NUMBER_OF_BUCKETS];
+    for (int i = 0; i < NUMBER_OF_BUCKETS; i++) {
+      bucketCounts[i] = buckets.get(i);
+    }
+    return new Snapshot(count.get(), sum.get(), max.get(), bucketCounts);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  protected static int getBucketIndex(long value) {
+    return 64 - Long.numberOfLeadingZeros(value);
+  }
+
+  protected static long getBucketUpperBound(int index) {
+    if (index == 0) {
+      return 0;
+    }
+    else if (index >= 63) {
+      return Long.MAX_VALUE;
+    }
+    else {
+      return (1L << index) - 1;
+    }
+  }
+
+  /**
+   * Immutable state of a {@link Histogram} at a point in time.
+   */
+  public static class Snapshot {
+
+    protected final long count;
+    protected final long sum;
+    protected final long max;
+    protected final long[] bucketCounts;
+
+    public Snapshot(long count, long sum, long max, long[] bucketCounts) {
+      this.count = count;
+      this.sum = sum;
+      this.max = max;
+      this.bucketCounts = bucketCounts;
+    }
+
+    public long getCount() {
+      return count;
+    }
+
+    public long getSum() {
+      return sum;
+    }
+
+    public long getMax() {
+      return max;
+    }
+
+    public long getMean() {
+      return count > 0 ? sum / count : 0;
+    }
+
+    /**
+     * @param quantile a value between 0 and 1, e.g. 0.95 for the 95th percentile
+     * @return an upper bound of the value below which the given share of recorded values
+     *   falls; never greater than the maximum recorded value
+     */
+    public long getPercentile(double quantile) {
+      long total = 0;
+      for (long bucketCount : bucketCounts) {
+        total += bucketCount;
+      }
+      if (total == 0) {
+        return 0;
+      }
+
+      long rank = (long) Math.ceil(quantile * total);
+      if (rank < 1) {
+        rank = 1;
+      }
+
+      long cumulativeCount = 0;
+      for (int i = 0; i < bucketCounts.length; i++) {
+        cumulativeCount += bucketCounts[i];
+        if (cumulativeCount >= rank) {
+          return Math.min(getBucketUpperBound(i), max);
+        }
+      }
+      return max;
+    }
+  }
+
+}
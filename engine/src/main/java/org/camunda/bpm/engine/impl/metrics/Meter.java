@@ -15,27 +15,41 @@ package org.camunda.bpm.engine.impl.metrics;
 import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * A Meter implementation based on AtomicLong
+ * <p>A Meter implementation based on striped AtomicLongs.</p>
+ *
+ * <p>Meters are marked concurrently by all threads executing commands and jobs. In order
+ * to avoid contention on a single counter, every thread updates one of several stripes
+ * selected by its thread id. The value of the meter is the sum of all stripes.</p>
  *
  * @author Daniel Meyer
  *
  */
 public class Meter {
 
-  protected AtomicLong counter = new AtomicLong(0);
+  protected static final int NUMBER_OF_STRIPES = numberOfStripes();
+
+  protected final AtomicLong[] stripes;
 
   protected String name;
 
   public Meter(String name) {
     this.name = name;
+    stripes = new AtomicLong[NUMBER_OF_STRIPES];
+    for (int i = 0; i < stripes.length; i++) {
+      stripes[i] = new AtomicLong(0);
+    }
   }
 
   public void mark() {
-    counter.incrementAndGet();
+    getStripe().incrementAndGet();
   }
 
   public void markTimes(int times) {
-    counter.addAndGet(times);
+    getStripe().addAndGet(times);
+  }
+
+  public void markTimes(long times) {
+    getStripe().addAndGet(times);
   }
 
   public String getName() {
@@ -46,12 +60,43 @@ public class Meter {
     this.name = name;
   }
 
+  /**
+   * Returns the current value and resets the meter. Occurrences marked concurrently
+   * are either contained in the returned value or remain in the meter.
+   */
   public long getAndClear() {
-    return counter.getAndSet(0);
+    long value = 0;
+    for (AtomicLong stripe : stripes) {
+      value += stripe.getAndSet(0);
+    }
+    return value;
   }
 
   public long get() {
-    return counter.get();
+    long value = 0;
+    for (AtomicLong stripe : stripes) {
+      value += stripe.get();
+    }
+    return value;
+  }
+
+  protected AtomicLong getStripe() {
+    long threadId = Thread.currentThread().getId();
+    int hash = (int) (threadId ^ (threadId >>> 32));
+    hash ^= (hash >>> 16);
+    return stripes[hash & (stripes.length - 1)];
+  }
+
+  /**
+   * @return the smallest power of two which is at least twice the number of processors, at most 64
+   */
+  protected static int numberOfStripes() {
+    int processors = Runtime.getRuntime().availableProcessors();
+    int stripes = 1;
+    while (stripes < 2 * processors && stripes < 64) {
+      stripes <<= 1;
+    }
+    return stripes;
   }
 
 }
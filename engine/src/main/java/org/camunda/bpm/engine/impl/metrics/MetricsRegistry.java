@@ -12,16 +12,37 @@
  */
 package org.camunda.bpm.engine.impl.metrics;
 
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.metrics.reporter.MetricsCollectionTask;
 
 /**
+ * <p>Holds the {@link Meter}s and {@link Histogram}s of a process engine.</p>
+ *
+ * <p>The registry is thread-safe: meters and histograms may be created while
+ * other threads mark occurrences or record values, e.g. when a histogram is
+ * registered on first use for a new command type.</p>
+ *
  * @author Daniel Meyer
  *
  */
 public class MetricsRegistry {
 
-  protected Map<String, Meter> meters = new HashMap<String, Meter>();
+  private static Logger log = Logger.getLogger(MetricsRegistry.class.getName());
+
+  protected ConcurrentMap<String, Meter> meters = new ConcurrentHashMap<String, Meter>();
+
+  protected ConcurrentMap<String, Histogram> histograms = new ConcurrentHashMap<String, Histogram>();
+
+  /** names of histograms which were not created because they are too long */
+  protected Set<String> rejectedHistogramNames = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
 
   public Meter getMeterByName(String name) {
     return meters.get(name);
@@ -43,10 +64,66 @@ public class MetricsRegistry {
     }
   }
 
+  /**
+   * Creates the meter with the given name if it does not exist yet.
+   *
+   * @return the meter registered under the given name
+   */
   public Meter createMeter(String name) {
     Meter meter = new Meter(name);
-    meters.put(name, meter);
-    return meter;
+    Meter existingMeter = meters.putIfAbsent(name, meter);
+    return existingMeter != null ? existingMeter : meter;
+  }
+
+  public Histogram getHistogramByName(String name) {
+    return histograms.get(name);
+  }
+
+  public Map<String, Histogram> getHistograms() {
+    return histograms;
+  }
+
+  /**
+   * Records a value in the histogram with the given name. The histogram
+   * is created if it does not exist yet. Values for histograms with names longer than
+   * {@link MetricsCollectionTask#MAX_HISTOGRAM_NAME_LENGTH} are not recorded.
+   */
+  public void recordValue(String name, long value) {
+    Histogram histogram = histograms.get(name);
+
+    if (histogram == null) {
+      if (!isValidHistogramName(name)) {
+        if (rejectedHistogramNames.add(name)) {
+          log.log(Level.WARNING, "Values of histogram '" + name + "' are not recorded, the name is longer than "
+              + MetricsCollectionTask.MAX_HISTOGRAM_NAME_LENGTH + " characters");
+        }
+        return;
+      }
+      histogram = createHistogram(name);
+    }
+
+    histogram.recordValue(value);
+  }
+
+  /**
+   * Creates the histogram with the given name if it does not exist yet.
+   *
+   * @return the histogram registered under the given name
+   * @throws ProcessEngineException if the name is longer than {@link MetricsCollectionTask#MAX_HISTOGRAM_NAME_LENGTH}
+   */
+  public Histogram createHistogram(String name) {
+    if (!isValidHistogramName(name)) {
+      throw new ProcessEngineException("The name of histogram '" + name + "' is longer than "
+          + MetricsCollectionTask.MAX_HISTOGRAM_NAME_LENGTH + " characters");
+    }
+
+    Histogram histogram = new Histogram(name);
+    Histogram existingHistogram = histograms.putIfAbsent(name, histogram);
+    return existingHistogram != null ? existingHistogram : histogram;
+  }
+
+  protected boolean isValidHistogramName(String name) {
+    return name.length() <= MetricsCollectionTask.MAX_HISTOGRAM_NAME_LENGTH;
   }
 
 }
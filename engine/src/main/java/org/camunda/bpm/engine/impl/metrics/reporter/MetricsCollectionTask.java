@@ -21,6 +21,7 @@ import java.util.logging.Logger;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
 import org.camunda.bpm.engine.impl.metrics.Meter;
 import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
 import org.camunda.bpm.engine.impl.persistence.entity.MeterLogEntity;
@@ -35,6 +36,15 @@ public class MetricsCollectionTask extends TimerTask {
 
   protected final static Logger log = Logger.getLogger(MetricsCollectionTask.class.getName());
 
+  /** the maximum length of a meter name in the meter log */
+  public final static int MAX_METER_NAME_LENGTH = 64;
+
+  public final static String HISTOGRAM_COUNT_SUFFIX = ".count";
+  public final static String HISTOGRAM_SUM_SUFFIX = ".sum";
+
+  /** the maximum length of a histogram name, so that the names of its meter log entries fit */
+  public final static int MAX_HISTOGRAM_NAME_LENGTH = MAX_METER_NAME_LENGTH - HISTOGRAM_COUNT_SUFFIX.length();
+
   protected MetricsRegistry metricsRegistry;
   protected CommandExecutor commandExecutor;
   protected String reporterId = null;
@@ -68,6 +78,10 @@ public class MetricsCollectionTask extends TimerTask {
 
     }
 
+    for (Histogram histogram : metricsRegistry.getHistograms().values()) {
+      collectHistogram(histogram, logs);
+    }
+
     commandExecutor.execute(new Command<Void>() {
 
       public Void execute(CommandContext commandContext) {
@@ -79,6 +93,28 @@ public class MetricsCollectionTask extends TimerTask {
     });
   }
 
+  /**
+   * A histogram is logged as two meter values named after the histogram with the
+   * suffixes for count and sum. The metrics query sums the values of multiple intervals,
+   * so max and percentiles are not logged; they are available for the last collected
+   * interval from {@link Histogram#getLastSnapshot()}. Histograms without values recorded
+   * since the last collection are not logged.
+   */
+  protected void collectHistogram(Histogram histogram, List<MeterLogEntity> logs) {
+    Histogram.Snapshot snapshot = histogram.getAndClear();
+    if (snapshot.getCount() == 0) {
+      return;
+    }
+
+    String name = histogram.getName();
+    logs.add(createMeterLog(name + HISTOGRAM_COUNT_SUFFIX, snapshot.getCount()));
+    logs.add(createMeterLog(name + HISTOGRAM_SUM_SUFFIX, snapshot.getSum()));
+  }
+
+  protected MeterLogEntity createMeterLog(String name, long value) {
+    return new MeterLogEntity(name, reporterId, value, ClockUtil.getCurrentTime());
+  }
+
   public String getReporter() {
     return reporterId;
   }
@@ -51,6 +51,7 @@ import org.camunda.bpm.engine.impl.persistence.entity.JobDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionManager;
 import org.camunda.bpm.engine.impl.persistence.entity.ResourceManager;
+import org.camunda.bpm.engine.impl.persistence.entity.StatisticsManager;
 import org.camunda.bpm.engine.impl.persistence.entity.TaskManager;
 import org.camunda.bpm.engine.impl.persistence.entity.UserOperationLogManager;
 import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceManager;
@@ -189,6 +190,10 @@ public abstract class AbstractManager implements Session {
     return getSession(AttachmentManager.class);
   }
 
+  protected StatisticsManager getStatisticsManager() {
+    return getSession(StatisticsManager.class);
+  }
+
   public void close() {
   }
 
@@ -16,7 +16,6 @@ package org.camunda.bpm.engine.impl.persistence.deploy;
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.io.InputStream;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.Callable;
@@ -34,8 +33,11 @@ import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionEntity;
 import org.camunda.bpm.engine.impl.dmn.entity.repository.DecisionDefinitionQueryImpl;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.DefaultCacheFactory;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.scripting.CompiledScriptCache;
 import org.camunda.bpm.engine.repository.CaseDefinition;
 import org.camunda.bpm.engine.repository.DecisionDefinition;
 import org.camunda.bpm.engine.repository.ProcessDefinition;
@@ -55,14 +57,33 @@ public class DeploymentCache {
 
   private Logger LOGGER = Logger.getLogger(DeploymentCache.class.getName());
 
-  protected Map<String, ProcessDefinitionEntity> processDefinitionCache = new HashMap<String, ProcessDefinitionEntity>();
-  protected Map<String, CaseDefinitionEntity> caseDefinitionCache = new HashMap<String, CaseDefinitionEntity>();
-  protected Map<String, DecisionDefinitionEntity> decisionDefinitionCache = new HashMap<String, DecisionDefinitionEntity>();
-  protected Map<String, BpmnModelInstance> bpmnModelInstanceCache = new HashMap<String, BpmnModelInstance>();
-  protected Map<String, CmmnModelInstance> cmmnModelInstanceCache = new HashMap<String, CmmnModelInstance>();
-  protected Map<String, DmnModelInstance> dmnModelInstanceCache = new HashMap<String, DmnModelInstance>();
+  protected Map<String, ProcessDefinitionEntity> processDefinitionCache;
+  protected Map<String, CaseDefinitionEntity> caseDefinitionCache;
+  protected Map<String, DecisionDefinitionEntity> decisionDefinitionCache;
+  protected Map<String, BpmnModelInstance> bpmnModelInstanceCache;
+  protected Map<String, CmmnModelInstance> cmmnModelInstanceCache;
+  protected Map<String, DmnModelInstance> dmnModelInstanceCache;
   protected List<Deployer> deployers;
 
+  public DeploymentCache() {
+    this(new DefaultCacheFactory(), CacheFactory.UNBOUNDED);
+  }
+
+  public DeploymentCache(CacheFactory cacheFactory, int capacity) {
+    this(cacheFactory, capacity, capacity, capacity, capacity, capacity, capacity);
+  }
+
+  public DeploymentCache(CacheFactory cacheFactory,
+      int processDefinitionCacheCapacity, int caseDefinitionCacheCapacity, int decisionDefinitionCacheCapacity,
+      int bpmnModelInstanceCacheCapacity, int cmmnModelInstanceCacheCapacity, int dmnModelInstanceCacheCapacity) {
+    processDefinitionCache = cacheFactory.createCache(processDefinitionCacheCapacity);
+    caseDefinitionCache = cacheFactory.createCache(caseDefinitionCacheCapacity);
+    decisionDefinitionCache = cacheFactory.createCache(decisionDefinitionCacheCapacity);
+    bpmnModelInstanceCache = cacheFactory.createCache(bpmnModelInstanceCacheCapacity);
+    cmmnModelInstanceCache = cacheFactory.createCache(cmmnModelInstanceCacheCapacity);
+    dmnModelInstanceCache = cacheFactory.createCache(dmnModelInstanceCacheCapacity);
+  }
+
   public void deploy(final DeploymentEntity deployment) {
     Context.getCommandContext().runWithoutAuthorization(new Callable<Void>() {
       public Void call() throws Exception {
@@ -156,12 +177,32 @@ public class DeploymentCache {
   public BpmnModelInstance findBpmnModelInstanceForProcessDefinition(String processDefinitionId) {
     BpmnModelInstance bpmnModelInstance = bpmnModelInstanceCache.get(processDefinitionId);
     if(bpmnModelInstance == null) {
-      ProcessDefinitionEntity processDefinition = findDeployedProcessDefinitionById(processDefinitionId);
+      // only the deployment and the resource name are needed to load the model,
+      // so the process definition is not parsed if it is not cached
+      ProcessDefinitionEntity processDefinition = findProcessDefinitionById(processDefinitionId);
       bpmnModelInstance = loadAndCacheBpmnModelInstance(processDefinition);
     }
     return bpmnModelInstance;
   }
 
+  /**
+   * Returns the cached process definition or the persistent process definition
+   * entity if it is not cached. In contrast to {@link #findDeployedProcessDefinitionById(String)}
+   * the deployment is not parsed if the process definition is not cached.
+   */
+  public ProcessDefinitionEntity findProcessDefinitionById(String processDefinitionId) {
+    ensureNotNull("Invalid process definition id", "processDefinitionId", processDefinitionId);
+    ProcessDefinitionEntity processDefinition = processDefinitionCache.get(processDefinitionId);
+    if (processDefinition == null) {
+      processDefinition = Context
+        .getCommandContext()
+        .getProcessDefinitionManager()
+        .findLatestProcessDefinitionById(processDefinitionId);
+    }
+    ensureNotNull("no deployed process definition found with id '" + processDefinitionId + "'", "processDefinition", processDefinition);
+    return processDefinition;
+  }
+
   protected BpmnModelInstance loadAndCacheBpmnModelInstance(final ProcessDefinitionEntity processDefinitionEntity) {
     final CommandContext commandContext = Context.getCommandContext();
     InputStream bpmnResourceInputStream = commandContext.runWithoutAuthorization(new Callable<InputStream>() {
@@ -517,6 +558,14 @@ public class DeploymentCache {
     removeAllProcessDefinitionsByDeploymentId(deploymentId);
     removeAllCaseDefinitionsByDeploymentId(deploymentId);
     removeAllDecisionDefinitionsByDeploymentId(deploymentId);
+    removeAllScriptsByDeploymentId(deploymentId);
+  }
+
+  protected void removeAllScriptsByDeploymentId(String deploymentId) {
+    CompiledScriptCache compiledScriptCache = Context.getProcessEngineConfiguration().getCompiledScriptCache();
+    if (compiledScriptCache != null) {
+      compiledScriptCache.removeScriptsByDeploymentId(deploymentId);
+    }
   }
 
   protected void removeAllProcessDefinitionsByDeploymentId(final String deploymentId) {
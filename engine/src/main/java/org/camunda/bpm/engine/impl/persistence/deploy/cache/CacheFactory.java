@@ -0,0 +1,33 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.Map;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+
+/**
+ * Creates the caches used by the {@link DeploymentCache}. Implementations must
+ * return maps which are safe for concurrent access.
+ */
+public interface CacheFactory {
+
+  /** indicates that a cache should not evict entries */
+  int UNBOUNDED = -1;
+
+  /**
+   * @param capacity the maximum number of entries kept by the cache or {@link #UNBOUNDED}
+   */
+  <T> Map<String, T> createCache(int capacity);
+
+}
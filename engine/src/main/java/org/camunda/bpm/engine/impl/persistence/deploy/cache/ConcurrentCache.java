@@ -0,0 +1,208 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.AbstractMap;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <p>A map which is safe for concurrent access and which keeps at most
+ * <code>capacity</code> entries. Once the capacity is exceeded, entries are
+ * removed as decided by the {@link EvictionPolicy}.</p>
+ *
+ * <p>Reads do not acquire a lock. Finding the eviction victim scans the
+ * entries, which is cheap since entries are only added when a definition is
+ * deployed or reloaded.</p>
+ *
+ * <p>The cache counts hits, misses and evictions.</p>
+ */
+public class ConcurrentCache<K, V> extends AbstractMap<K, V> {
+
+  protected final ConcurrentHashMap<K, CacheEntry<V>> entries = new ConcurrentHashMap<K, CacheEntry<V>>();
+
+  protected final int capacity;
+  protected final EvictionPolicy evictionPolicy;
+
+  protected final Object evictionLock = new Object();
+
+  protected final AtomicLong hitCount = new AtomicLong();
+  protected final AtomicLong missCount = new AtomicLong();
+  protected final AtomicLong evictionCount = new AtomicLong();
+
+  public ConcurrentCache(int capacity, EvictionPolicy evictionPolicy) {
+    this.capacity = capacity;
+    this.evictionPolicy = evictionPolicy;
+  }
+
+  public V get(Object key) {
+    if (key == null) {
+      return null;
+    }
+
+    CacheEntry<V> entry = entries.get(key);
+    if (entry == null) {
+      missCount.incrementAndGet();
+      return null;
+    }
+
+    hitCount.incrementAndGet();
+    entry.accessed();
+    return entry.getValue();
+  }
+
+  public V put(K key, V value) {
+    CacheEntry<V> previous = entries.put(key, new CacheEntry<V>(value));
+
+    if (previous == null) {
+      evictIfNecessary(key);
+      return null;
+    } else {
+      return previous.getValue();
+    }
+  }
+
+  public V remove(Object key) {
+    CacheEntry<V> entry = entries.remove(key);
+    if (entry != null) {
+      return entry.getValue();
+    } else {
+      return null;
+    }
+  }
+
+  public boolean containsKey(Object key) {
+    return key != null && entries.containsKey(key);
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  public boolean isEmpty() {
+    return entries.isEmpty();
+  }
+
+  public void clear() {
+    entries.clear();
+  }
+
+  public Set<K> keySet() {
+    return entries.keySet();
+  }
+
+  /**
+   * Returns a snapshot of the cached entries.
+   */
+  public Set<Map.Entry<K, V>> entrySet() {
+    Map<K, V> snapshot = new HashMap<K, V>();
+    for (Map.Entry<K, CacheEntry<V>> entry : entries.entrySet()) {
+      snapshot.put(entry.getKey(), entry.getValue().getValue());
+    }
+    return Collections.unmodifiableMap(snapshot).entrySet();
+  }
+
+  /**
+   * Evicts entries until the capacity is respected. The entry which was just added
+   * is never evicted, so that a caller can read a value right after putting it.
+   */
+  protected void evictIfNecessary(K addedKey) {
+    if (capacity < 0) {
+      return;
+    }
+
+    synchronized (evictionLock) {
+      while (entries.size() > capacity) {
+        K victimKey = null;
+        CacheEntry<V> victim = null;
+
+        for (Map.Entry<K, CacheEntry<V>> entry : entries.entrySet()) {
+          if (entry.getKey().equals(addedKey)) {
+            continue;
+          }
+          if (victim == null || evictionPolicy.isPreferredForEviction(entry.getValue(), victim)) {
+            victimKey = entry.getKey();
+            victim = entry.getValue();
+          }
+        }
+
+        if (victimKey == null) {
+          return;
+        }
+
+        if (entries.remove(victimKey, victim)) {
+          evictionCount.incrementAndGet();
+        }
+      }
+    }
+  }
+
+  // statistics ////////////////////////////////////////
+
+  public int getCapacity() {
+    return capacity;
+  }
+
+  public EvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+  public long getHitCount() {
+    return hitCount.get();
+  }
+
+  public long getMissCount() {
+    return missCount.get();
+  }
+
+  public long getEvictionCount() {
+    return evictionCount.get();
+  }
+
+  /**
+   * A cached value and its access statistics.
+   */
+  public static class CacheEntry<V> {
+
+    protected final V value;
+    protected volatile long lastAccess;
+    protected final AtomicLong accessCount = new AtomicLong();
+
+    public CacheEntry(V value) {
+      this.value = value;
+      this.lastAccess = System.nanoTime();
+    }
+
+    protected void accessed() {
+      lastAccess = System.nanoTime();
+      accessCount.incrementAndGet();
+    }
+
+    public V getValue() {
+      return value;
+    }
+
+    public long getLastAccess() {
+      return lastAccess;
+    }
+
+    public long getAccessCount() {
+      return accessCount.get();
+    }
+  }
+
+}
@@ -0,0 +1,41 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+import java.util.Map;
+
+/**
+ * Creates {@link ConcurrentCache concurrent caches} which evict entries
+ * according to the configured {@link EvictionPolicy} (LRU by default).
+ */
+public class DefaultCacheFactory implements CacheFactory {
+
+  protected EvictionPolicy evictionPolicy;
+
+  public DefaultCacheFactory() {
+    this(new LruEvictionPolicy());
+  }
+
+  public DefaultCacheFactory(EvictionPolicy evictionPolicy) {
+    this.evictionPolicy = evictionPolicy;
+  }
+
+  public <T> Map<String, T> createCache(int capacity) {
+    return new ConcurrentCache<String, T>(capacity, evictionPolicy);
+  }
+
+  public EvictionPolicy getEvictionPolicy() {
+    return evictionPolicy;
+  }
+
+}
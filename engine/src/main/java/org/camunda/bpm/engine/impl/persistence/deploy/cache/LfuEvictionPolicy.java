@@ -0,0 +1,31 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.deploy.cache;
+
+/**
+ * Evicts the least frequently used entry. Ties are resolved by evicting the
+ * least recently used one.
+ */
+public class LfuEvictionPolicy implements EvictionPolicy {
+
+  public boolean isPreferredForEviction(ConcurrentCache.CacheEntry<?> candidate, ConcurrentCache.CacheEntry<?> victim) {
+    long candidateHits = candidate.getAccessCount();
+    long victimHits = victim.getAccessCount();
+
+    if (candidateHits != victimHits) {
+      return candidateHits < victimHits;
+    }
+    return candidate.getLastAccess() < victim.getLastAccess();
+  }
+
+}
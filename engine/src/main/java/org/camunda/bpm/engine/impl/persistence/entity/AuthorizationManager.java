@@ -33,8 +33,10 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import org.camunda.bpm.engine.AuthorizationException;
 import org.camunda.bpm.engine.IdentityService;
@@ -70,6 +72,7 @@ import org.camunda.bpm.engine.impl.UserOperationLogQueryImpl;
 import org.camunda.bpm.engine.impl.VariableInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.AuthorizationCheck;
+import org.camunda.bpm.engine.impl.db.AuthorizationDecisionCache;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.PermissionCheck;
 import org.camunda.bpm.engine.impl.identity.Authentication;
@@ -86,6 +89,12 @@ public class AuthorizationManager extends AbstractManager {
 
   public static final String DEFAULT_AUTHORIZATION_CHECK = "defaultAuthorizationCheck";
 
+  /** the authorization revisions per resource type read by the current command, see {@link AuthorizationDecisionCache} */
+  protected Map<Integer, Long> authorizationRevisions = new HashMap<Integer, Long>();
+
+  /** the resource types of the authorizations modified by the current command */
+  protected Set<Integer> modifiedResourceTypes = new HashSet<Integer>();
+
   public Authorization createNewAuthorization(int type) {
     checkAuthorization(CREATE, AUTHORIZATION, null);
     return new AuthorizationEntity(type);
@@ -94,6 +103,7 @@ public class AuthorizationManager extends AbstractManager {
   public void insert(DbEntity authorization) {
     checkAuthorization(CREATE, AUTHORIZATION, null);
     getDbEntityManager().insert(authorization);
+    authorizationModified(((AuthorizationEntity) authorization).getResourceType());
   }
 
   public List<Authorization> selectAuthorizationByQueryCriteria(AuthorizationQueryImpl authorizationQuery) {
@@ -132,12 +142,22 @@ public class AuthorizationManager extends AbstractManager {
   public void update(AuthorizationEntity authorization) {
     checkAuthorization(UPDATE, AUTHORIZATION, authorization.getId());
     getDbEntityManager().merge(authorization);
+    authorizationModified(authorization.getResourceType());
+
+    if (isAuthorizationDecisionCacheEnabled()) {
+      // the update may move the authorization to another resource type
+      Integer previousResourceType = (Integer) getDbEntityManager().selectOne("selectAuthorizationResourceType", authorization.getId());
+      if (previousResourceType != null) {
+        authorizationModified(previousResourceType);
+      }
+    }
   }
 
   public void delete(DbEntity authorization) {
     checkAuthorization(DELETE, AUTHORIZATION, authorization.getId());
     deleteAuthorizationsByResourceId(AUTHORIZATION, authorization.getId());
     super.delete(authorization);
+    authorizationModified(((AuthorizationEntity) authorization).getResourceType());
   }
 
   // authorization checks ///////////////////////////////////////////
@@ -231,7 +251,95 @@ public class AuthorizationManager extends AbstractManager {
     authCheck.setAuthUserId(userId);
     authCheck.setAuthGroupIds(groupIds);
     authCheck.setPermissionChecks(permissionChecks);
-    return getDbEntityManager().selectBoolean("isUserAuthorizedForResource", authCheck);
+
+    AuthorizationDecisionCache decisionCache = getAuthorizationDecisionCache();
+    List<Long> revisions = null;
+    List<Object> decisionKey = null;
+
+    if (decisionCache != null) {
+      revisions = getAuthorizationRevisions(permissionChecks);
+      if (revisions != null) {
+        decisionKey = AuthorizationDecisionCache.createKey(userId, groupIds, permissionChecks);
+      }
+    }
+
+    if (decisionKey != null) {
+      Boolean cachedDecision = decisionCache.getDecision(revisions, decisionKey);
+      if (cachedDecision != null) {
+        return cachedDecision;
+      }
+    }
+
+    boolean isAuthorized = getDbEntityManager().selectBoolean("isUserAuthorizedForResource", authCheck);
+
+    if (decisionKey != null) {
+      decisionCache.putDecision(revisions, decisionKey, isAuthorized);
+    }
+
+    return isAuthorized;
+  }
+
+  // authorization decision cache ///////////////////////////////////
+
+  /**
+   * @return the cache for authorization decisions or null if decisions are not cached.
+   */
+  protected AuthorizationDecisionCache getAuthorizationDecisionCache() {
+    return Context.getProcessEngineConfiguration().getAuthorizationDecisionCache();
+  }
+
+  protected boolean isAuthorizationDecisionCacheEnabled() {
+    return Context.getProcessEngineConfiguration().isAuthorizationDecisionCacheEnabled();
+  }
+
+  /**
+   * @return the authorization revisions of the resource types of the given checks or null
+   * if the decision can not be cached by the current command. This is the case if a resource
+   * type has no revision or if the current command modified authorizations of a resource type,
+   * since the decision may depend on its own uncommitted modifications.
+   */
+  protected List<Long> getAuthorizationRevisions(List<PermissionCheck> permissionChecks) {
+    List<Long> revisions = new ArrayList<Long>();
+
+    for (PermissionCheck permissionCheck : permissionChecks) {
+      int resourceType = permissionCheck.getResourceType();
+      if (modifiedResourceTypes.contains(resourceType)) {
+        return null;
+      }
+
+      Long revision = getAuthorizationRevision(resourceType);
+      if (revision == null) {
+        return null;
+      }
+      revisions.add(revision);
+    }
+
+    return revisions;
+  }
+
+  /**
+   * @return the authorization revision of the given resource type stored in the database or
+   * null if the database does not contain a revision for the resource type.
+   */
+  protected Long getAuthorizationRevision(int resourceType) {
+    if (!authorizationRevisions.containsKey(resourceType)) {
+      String propertyName = AuthorizationDecisionCache.getRevisionPropertyName(resourceType);
+      Long revision = (Long) getDbEntityManager().selectOne("selectAuthorizationRevision", propertyName);
+      authorizationRevisions.put(resourceType, revision);
+    }
+    return authorizationRevisions.get(resourceType);
+  }
+
+  /**
+   * Changes the authorization revision of the given resource type with the flush of the
+   * current command, so that all process engines discard their cached authorization
+   * decisions for the resource type once the modification is committed.
+   */
+  protected void authorizationModified(int resourceType) {
+    if (modifiedResourceTypes.add(resourceType) && isAuthorizationDecisionCacheEnabled()) {
+      String propertyName = AuthorizationDecisionCache.getRevisionPropertyName(resourceType);
+      getDbEntityManager().update(PropertyEntity.class, "updateAuthorizationRevision", propertyName);
+    }
   }
 
   // authorization checks on queries ////////////////////////////////
@@ -297,6 +405,7 @@ public class AuthorizationManager extends AbstractManager {
       deleteParams.put("resourceType", resource.resourceType());
       deleteParams.put("resourceId", resourceId);
       getDbEntityManager().delete(AuthorizationEntity.class, "deleteAuthorizationsForResourceId", deleteParams);
+      authorizationModified(resource.resourceType());
     }
 
   }
@@ -12,10 +12,13 @@
  */
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.io.InputStream;
 import java.io.Serializable;
 
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.util.IoUtil;
 
 /**
  * @author Tom Baeyens
@@ -31,6 +34,8 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
   protected String name;
   protected byte[] bytes;
   protected String deploymentId;
+  /** if set, the bytes are streamed from this source when the byte array is inserted */
+  protected transient InputStreamSource contentSource;
 
   public ByteArrayEntity() {
   }
@@ -44,11 +49,33 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
     this.bytes = bytes;
   }
 
+  public ByteArrayEntity(String name, InputStreamSource contentSource) {
+    this.name = name;
+    this.contentSource = contentSource;
+  }
+
   public byte[] getBytes() {
+    if (bytes == null && contentSource != null) {
+      InputStream inputStream = contentSource.getInputStream();
+      try {
+        bytes = IoUtil.readInputStream(inputStream, name);
+      }
+      finally {
+        IoUtil.closeSilently(inputStream);
+      }
+    }
     return bytes;
   }
 
+  public InputStreamSource getContentSource() {
+    return contentSource;
+  }
+
   public Object getPersistentState() {
+    if (contentSource != null) {
+      // reading the content must not make the byte array dirty
+      return contentSource;
+    }
     return (bytes != null ? bytes : PERSISTENTSTATE_NULL);
   }
 
@@ -84,6 +111,7 @@ public class ByteArrayEntity implements Serializable, DbEntity, HasDbRevision {
 
   public void setBytes(byte[] bytes) {
     this.bytes = bytes;
+    this.contentSource = null;
   }
 
   public int getRevision() {
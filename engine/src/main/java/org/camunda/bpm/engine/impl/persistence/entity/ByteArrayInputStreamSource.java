@@ -0,0 +1,65 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.InputStream;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cmd.CopyByteArrayToTemporaryFileCmd;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+
+/**
+ * Reads the content of a {@link ByteArrayEntity} from the database when it is requested.
+ *
+ * <p>Inside of a command, the stream uses the connection of the command and is closed
+ * together with the command at the latest. Outside of a command, no connection may be
+ * held by the stream. The content is therefore copied into a temporary file by a separate
+ * command and the stream reads that file. The file is deleted when the stream is closed
+ * or read completely.</p>
+ */
+public class ByteArrayInputStreamSource implements InputStreamSource {
+
+  protected ProcessEngineConfigurationImpl processEngineConfiguration;
+  protected String byteArrayId;
+
+  public ByteArrayInputStreamSource(ProcessEngineConfigurationImpl processEngineConfiguration, String byteArrayId) {
+    this.processEngineConfiguration = processEngineConfiguration;
+    this.byteArrayId = byteArrayId;
+  }
+
+  public InputStream getInputStream() {
+    CommandContext commandContext = Context.getCommandContext();
+    if (commandContext != null && commandContext.getProcessEngineConfiguration() == processEngineConfiguration) {
+      return commandContext.getByteArrayManager().openByteArrayStream(byteArrayId);
+    }
+    else {
+      File file = processEngineConfiguration.getCommandExecutorTxRequired().execute(new CopyByteArrayToTemporaryFileCmd(byteArrayId));
+      try {
+        return new TemporaryFileInputStream(file);
+      } catch (FileNotFoundException e) {
+        file.delete();
+        throw new ProcessEngineException("Cannot read byte array with id '" + byteArrayId + "': " + e.getMessage(), e);
+      }
+    }
+  }
+
+  public String getByteArrayId() {
+    return byteArrayId;
+  }
+
+}
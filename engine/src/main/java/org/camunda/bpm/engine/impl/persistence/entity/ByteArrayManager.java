@@ -13,12 +13,39 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.cfg.TransactionContext;
+import org.camunda.bpm.engine.impl.cfg.TransactionListener;
+import org.camunda.bpm.engine.impl.cfg.TransactionState;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandContextListener;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.util.IoUtil;
 
 /**
  * @author Joram Barrez
  */
-public class ByteArrayManager extends AbstractManager {
+public class ByteArrayManager extends AbstractManager implements CommandContextListener {
+
+  /** the maximum number of byte arrays selected with a single query */
+  public static final int FETCH_BATCH_SIZE = 500;
+
+  /** streams opened on the connection of the current command */
+  protected List<InputStream> openStreams;
+
+  /** streams opened to write the content of byte arrays */
+  protected List<InputStream> contentStreams;
 
   /**
    * Deletes the {@link ByteArrayEntity} with the given id from the database.
@@ -30,4 +57,118 @@ public class ByteArrayManager extends AbstractManager {
     getDbEntityManager().delete(ByteArrayEntity.class, "deleteByteArrayNoRevisionCheck", byteArrayEntityId);
   }
 
+  /**
+   * Loads the byte arrays with the given ids into the entity cache using as few queries
+   * as possible. Byte arrays which are already cached are not selected again, subsequent
+   * lookups by id are served from the cache.
+   */
+  public void fetchByteArrays(Collection<String> byteArrayIds) {
+    DbEntityManager dbEntityManager = getDbEntityManager();
+
+    Set<String> idsToFetch = new LinkedHashSet<String>();
+    for (String byteArrayId : byteArrayIds) {
+      if (byteArrayId != null && dbEntityManager.getCachedEntity(ByteArrayEntity.class, byteArrayId) == null) {
+        idsToFetch.add(byteArrayId);
+      }
+    }
+
+    if (idsToFetch.size() > 1) {
+      List<String> ids = new ArrayList<String>(idsToFetch);
+      for (int i = 0; i < ids.size(); i += FETCH_BATCH_SIZE) {
+        List<String> batch = new ArrayList<String>(ids.subList(i, Math.min(i + FETCH_BATCH_SIZE, ids.size())));
+        dbEntityManager.selectList("selectByteArraysByIds", batch);
+      }
+    }
+    // a single byte array is selected by id when it is accessed
+  }
+
+  /**
+   * Opens a stream on the bytes of the {@link ByteArrayEntity} with the given id
+   * without loading them into memory. The stream uses the connection of the current
+   * command and is closed at the latest when the command context is closed.
+   */
+  public InputStream openByteArrayStream(String byteArrayId) {
+    ByteArrayEntity cachedByteArray = getDbEntityManager().getCachedEntity(ByteArrayEntity.class, byteArrayId);
+    if (cachedByteArray != null) {
+      // the byte array may not be flushed yet
+      if (cachedByteArray.getContentSource() != null) {
+        return cachedByteArray.getContentSource().getInputStream();
+      }
+      byte[] bytes = cachedByteArray.getBytes();
+      return new ByteArrayInputStream(bytes != null ? bytes : new byte[0]);
+    }
+
+    DbSqlSession dbSqlSession = getDbSqlSession();
+    Connection connection = dbSqlSession.getSqlSession().getConnection();
+    String tablePrefix = dbSqlSession.getDbSqlSessionFactory().getDatabaseTablePrefix();
+
+    InputStream stream = ByteArrayResultSetInputStream.open(connection, tablePrefix, byteArrayId);
+
+    if (openStreams == null) {
+      openStreams = new ArrayList<InputStream>();
+      getCommandContext().registerCommandContextListener(this);
+    }
+    openStreams.add(stream);
+
+    return stream;
+  }
+
+  /**
+   * Opens a stream on the given content source to write it to the database. The stream
+   * is closed when the transaction of the current command is committed or rolled back.
+   *
+   * <p>This is called while the command context is flushed. Byte arrays with a content
+   * source must therefore be inserted through this manager, so that it is opened before.</p>
+   */
+  public InputStream openContentStream(InputStreamSource contentSource) {
+    if (contentStreams == null) {
+      contentStreams = new ArrayList<InputStream>();
+
+      TransactionListener closeContentStreams = new TransactionListener() {
+        public void execute(CommandContext commandContext) {
+          closeContentStreams();
+        }
+      };
+      TransactionContext transactionContext = getCommandContext().getTransactionContext();
+      transactionContext.addTransactionListener(TransactionState.COMMITTED, closeContentStreams);
+      transactionContext.addTransactionListener(TransactionState.ROLLED_BACK, closeContentStreams);
+    }
+
+    InputStream stream = contentSource.getInputStream();
+    contentStreams.add(stream);
+    return stream;
+  }
+
+  protected void closeContentStreams() {
+    if (contentStreams != null) {
+      for (InputStream stream : contentStreams) {
+        IoUtil.closeSilently(stream);
+      }
+      contentStreams.clear();
+    }
+  }
+
+  protected void closeOpenStreams() {
+    if (openStreams != null) {
+      for (InputStream stream : openStreams) {
+        IoUtil.closeSilently(stream);
+      }
+      openStreams.clear();
+    }
+  }
+
+  public void onCommandContextClose(CommandContext commandContext) {
+    // close the streams before the session is flushed and the connection is released
+    closeOpenStreams();
+  }
+
+  public void onCommandFailed(CommandContext commandContext, Throwable t) {
+    closeOpenStreams();
+  }
+
+  public void close() {
+    closeOpenStreams();
+    closeContentStreams();
+  }
+
 }
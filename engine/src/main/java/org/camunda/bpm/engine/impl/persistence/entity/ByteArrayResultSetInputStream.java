@@ -0,0 +1,141 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+
+/**
+ * Streams the content of a row of the ACT_GE_BYTEARRAY table directly from a JDBC
+ * result set. The statement and result set stay open until the stream is closed or
+ * has been read completely. The connection is owned by the command which opened the
+ * stream and is not closed by the stream.
+ */
+public class ByteArrayResultSetInputStream extends FilterInputStream {
+
+  protected PreparedStatement statement;
+  protected ResultSet resultSet;
+  protected boolean closed = false;
+
+  protected ByteArrayResultSetInputStream(InputStream in, PreparedStatement statement, ResultSet resultSet) {
+    super(in);
+    this.statement = statement;
+    this.resultSet = resultSet;
+  }
+
+  /**
+   * Selects the bytes of the byte array with the given id.
+   *
+   * @param connection the connection to use
+   * @param tablePrefix the table prefix of the process engine
+   * @param byteArrayId the id of the byte array
+   */
+  public static ByteArrayResultSetInputStream open(Connection connection, String tablePrefix, String byteArrayId) {
+    PreparedStatement statement = null;
+    ResultSet resultSet = null;
+    try {
+      statement = connection.prepareStatement("select BYTES_ from " + (tablePrefix != null ? tablePrefix : "") + "ACT_GE_BYTEARRAY where ID_ = ?");
+      statement.setString(1, byteArrayId);
+      resultSet = statement.executeQuery();
+
+      if (!resultSet.next()) {
+        throw new ProcessEngineException("Byte array with id '" + byteArrayId + "' does not exist.");
+      }
+
+      InputStream bytes = resultSet.getBinaryStream(1);
+      if (bytes == null) {
+        bytes = new ByteArrayInputStream(new byte[0]);
+      }
+      return new ByteArrayResultSetInputStream(bytes, statement, resultSet);
+
+    } catch (SQLException e) {
+      closeResources(resultSet, statement);
+      throw new ProcessEngineException("Cannot read byte array with id '" + byteArrayId + "': " + e.getMessage(), e);
+
+    } catch (RuntimeException e) {
+      closeResources(resultSet, statement);
+      throw e;
+    }
+  }
+
+  public int read() throws IOException {
+    if (closed) {
+      return -1;
+    }
+    int b = super.read();
+    if (b == -1) {
+      close();
+    }
+    return b;
+  }
+
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (closed) {
+      return -1;
+    }
+    int bytesRead = super.read(b, off, len);
+    if (bytesRead == -1) {
+      close();
+    }
+    return bytesRead;
+  }
+
+  public int available() throws IOException {
+    if (closed) {
+      return 0;
+    }
+    return super.available();
+  }
+
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        super.close();
+      }
+      finally {
+        closeResources(resultSet, statement);
+      }
+    }
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+  protected static void closeResources(ResultSet resultSet, PreparedStatement statement) {
+    try {
+      if (resultSet != null) {
+        resultSet.close();
+      }
+    } catch (SQLException e) {
+      // ignore
+    }
+    try {
+      if (statement != null) {
+        statement.close();
+      }
+    } catch (SQLException e) {
+      // ignore
+    }
+  }
+
+}
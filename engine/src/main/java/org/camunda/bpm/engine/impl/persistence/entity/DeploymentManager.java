@@ -28,6 +28,7 @@ import org.camunda.bpm.engine.impl.event.SignalEventHandler;
 import org.camunda.bpm.engine.impl.jobexecutor.TimerStartEventJobHandler;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.engine.impl.scripting.CompiledScriptCache;
 import org.camunda.bpm.engine.repository.CaseDefinition;
 import org.camunda.bpm.engine.repository.DecisionDefinition;
 import org.camunda.bpm.engine.repository.Deployment;
@@ -142,6 +143,12 @@ public class DeploymentManager extends AbstractManager {
 
     deleteDecisionDeployment(deploymentId);
 
+    // remove the scripts loaded from the resources of the deployment from cache
+    CompiledScriptCache compiledScriptCache = Context.getProcessEngineConfiguration().getCompiledScriptCache();
+    if (compiledScriptCache != null) {
+      compiledScriptCache.removeScriptsByDeploymentId(deploymentId);
+    }
+
     getResourceManager().deleteResourcesByDeploymentId(deploymentId);
 
     deleteAuthorizations(Resources.DEPLOYMENT, deploymentId);
@@ -14,6 +14,7 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
@@ -90,6 +91,19 @@ public class EventSubscriptionManager extends AbstractManager {
     return new ArrayList<SignalEventSubscriptionEntity>(selectList);
   }
 
+  /**
+   * Finds the active subscriptions for the given signal which were created before the given date
+   * and have an id greater than the given one, ordered by id.
+   */
+  @SuppressWarnings("unchecked")
+  public List<SignalEventSubscriptionEntity> findSignalEventSubscriptionsByEventName(String eventName, Date createdBefore, String afterId, int maxResults) {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("eventName", eventName);
+    parameters.put("createdBefore", createdBefore);
+    parameters.put("afterId", afterId);
+    return getDbEntityManager().selectList("selectSignalEventSubscriptionsByEventNameAfterId", parameters, 0, maxResults);
+  }
+
   @SuppressWarnings("unchecked")
   public List<SignalEventSubscriptionEntity> findSignalEventSubscriptionsByExecution(String executionId) {
     final String query = "selectSignalEventSubscriptionsByExecution";
@@ -138,6 +152,11 @@ public class EventSubscriptionManager extends AbstractManager {
     return getDbEntityManager().selectList(query, executionId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<EventSubscriptionEntity> findEventSubscriptionsByProcessInstanceId(String processInstanceId) {
+    return getDbEntityManager().selectList("selectEventSubscriptionsByProcessInstanceId", processInstanceId);
+  }
+
   public List<EventSubscriptionEntity> findEventSubscriptions(String executionId, String type, String activityId) {
     final String query = "selectEventSubscriptionsByExecutionTypeAndActivity";
     Map<String,String> params = new HashMap<String, String>();
@@ -187,6 +206,19 @@ public class EventSubscriptionManager extends AbstractManager {
     }
   }
 
+  /**
+   * @return true if an execution waits for the given message with a subscription which has no
+   * {@link org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey correlation key} or a
+   * correlation key which does not match the given pattern
+   */
+  public boolean hasMessageEventSubscriptionsWithoutCorrelationKeyLike(String messageName, String correlationKeyPattern) {
+    Map<String, String> parameters = new HashMap<String, String>();
+    parameters.put("messageName", messageName);
+    parameters.put("correlationKeyPattern", correlationKeyPattern);
+    Long count = (Long) getDbEntityManager().selectOne("selectMessageEventSubscriptionCountWithoutCorrelationKeyLike", parameters);
+    return count > 0;
+  }
+
   public MessageEventSubscriptionEntity findMessageStartEventSubscriptionByName(String messageName) {
     MessageEventSubscriptionEntity entity = (MessageEventSubscriptionEntity) getDbEntityManager().selectOne("selectMessageStartEventSubscriptionByName", messageName);
     return entity;
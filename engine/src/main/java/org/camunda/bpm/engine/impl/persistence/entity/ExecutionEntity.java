@@ -16,9 +16,11 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -38,6 +40,8 @@ import org.camunda.bpm.engine.impl.core.operation.CoreAtomicOperation;
 import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
 import org.camunda.bpm.engine.impl.core.variable.scope.CoreVariableStore;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.DbEntityChangeTracker;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.HasDbReferences;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.event.CompensationEventHandler;
@@ -62,6 +66,7 @@ import org.camunda.bpm.engine.impl.pvm.runtime.ProcessInstanceStartContext;
 import org.camunda.bpm.engine.impl.pvm.runtime.PvmExecutionImpl;
 import org.camunda.bpm.engine.impl.pvm.runtime.operation.FoxAtomicOperationDeleteCascadeFireActivityEnd;
 import org.camunda.bpm.engine.impl.pvm.runtime.operation.PvmAtomicOperation;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey;
 import org.camunda.bpm.engine.impl.util.BitMaskUtil;
 import org.camunda.bpm.engine.impl.variable.VariableDeclaration;
 import org.camunda.bpm.engine.runtime.Execution;
@@ -78,7 +83,7 @@ import org.camunda.bpm.model.xml.type.ModelElementType;
  * @author Daniel Meyer
  * @author Falko Menge
  */
-public class ExecutionEntity extends PvmExecutionImpl implements Execution, ProcessInstance, DbEntity, HasDbRevision, HasDbReferences {
+public class ExecutionEntity extends PvmExecutionImpl implements Execution, ProcessInstance, DbEntity, HasDbRevision, HasDbReferences, HasDbChangeTracking {
 
   private static final long serialVersionUID = 1L;
 
@@ -147,6 +152,11 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
 
   protected int suspensionState = SuspensionState.ACTIVE.getStateCode();
 
+  /** tracks changes of the persistent state; null if changes are not tracked */
+  protected transient DbEntityChangeTracker changeTracker;
+  /** the cached entity state when change tracking was reset; it changes without setter invocations */
+  protected transient int trackedCachedEntityState;
+
   // Persistence //////////////////////////////////////////////////////////////
 
   protected int revision = 1;
@@ -327,6 +337,8 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     }
 
     if (isProcessInstanceExecution()) {
+      Context.getCommandContext().getStatisticsManager().processInstanceStarted(this);
+
       String initiatorVariableName = (String) processDefinition.getProperty(BpmnParse.PROPERTYNAME_INITIATOR_VARIABLE_NAME);
       if (initiatorVariableName != null) {
         String authenticatedUserId = Context.getCommandContext().getAuthenticatedUserId();
@@ -553,6 +565,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void inactivate() {
+    beforePersistentStateChange();
     this.isActive = false;
   }
 
@@ -605,6 +618,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setProcessDefinitionId(String processDefinitionId) {
+    beforePersistentStateChange();
     this.processDefinitionId = processDefinitionId;
   }
 
@@ -626,6 +640,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
 
   public void setProcessDefinition(ProcessDefinitionImpl processDefinition) {
     this.processDefinition = processDefinition;
+    beforePersistentStateChange();
     this.processDefinitionId = processDefinition.getId();
   }
 
@@ -683,6 +698,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   @Override
   public void setActivity(PvmActivity activity) {
     super.setActivity(activity);
+    beforePersistentStateChange();
     if (activity != null) {
       this.activityId = activity.getId();
       this.activityName = (String) activity.getProperty("name");
@@ -736,6 +752,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   public void setParentExecution(PvmExecutionImpl parent) {
     this.parent = (ExecutionEntity) parent;
 
+    beforePersistentStateChange();
     if (parent != null) {
       this.parentId = parent.getId();
     } else {
@@ -760,6 +777,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       superExecution.setSubProcessInstance(null);
     }
 
+    beforePersistentStateChange();
     if (superExecution != null) {
       this.superExecutionId = superExecution.getId();
     } else {
@@ -796,6 +814,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setSuperCaseExecutionId(String superCaseExecutionId) {
+    beforePersistentStateChange();
     this.superCaseExecutionId = superCaseExecutionId;
   }
 
@@ -807,6 +826,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   public void setSuperCaseExecution(CmmnExecution superCaseExecution) {
     this.superCaseExecution = (CaseExecutionEntity) superCaseExecution;
 
+    beforePersistentStateChange();
     if (superCaseExecution != null) {
       this.superCaseExecutionId = superCaseExecution.getId();
       this.caseInstanceId = superCaseExecution.getCaseInstanceId();
@@ -1004,6 +1024,43 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     return Context.getCommandContext().getVariableInstanceManager().findVariableInstancesByExecutionId(id);
   }
 
+  /**
+   * Rebuilds the correlation keys of the message event subscriptions of this process instance
+   * which contain the given variable, so that the keys match the current value of the variable.
+   *
+   * @see MessageCorrelationKey
+   */
+  @SuppressWarnings("unchecked")
+  public void updateMessageCorrelationKeys(String variableName) {
+    if (!isProcessInstanceExecution() || id == null) {
+      return;
+    }
+
+    Set<String> correlationVariables = (Set<String>) getProcessDefinition().getProperty(BpmnParse.PROPERTYNAME_CORRELATION_VARIABLES);
+    if (correlationVariables == null || !correlationVariables.contains(variableName)) {
+      return;
+    }
+
+    CommandContext commandContext = Context.getCommandContext();
+
+    // loads the persistent subscriptions into the cache which also contains the new ones
+    commandContext.getEventSubscriptionManager().findEventSubscriptionsByProcessInstanceId(id);
+
+    for (EventSubscriptionEntity eventSubscription : commandContext.getDbEntityManager().getCachedEntitiesByType(EventSubscriptionEntity.class)) {
+      if (eventSubscription instanceof MessageEventSubscriptionEntity && id.equals(eventSubscription.getProcessInstanceId())) {
+        MessageEventSubscriptionEntity messageEventSubscription = (MessageEventSubscriptionEntity) eventSubscription;
+        String correlationKey = messageEventSubscription.getCorrelationKey();
+
+        if (correlationKey != null) {
+          List<String> variableNames = MessageCorrelationKey.getVariableNames(correlationKey);
+          if (variableNames.contains(variableName)) {
+            messageEventSubscription.setCorrelationKey(MessageCorrelationKey.fromProcessInstance(variableNames, this));
+          }
+        }
+      }
+    }
+  }
+
   protected boolean isAutoFireHistoryEvents() {
     // as long as the process instance is starting (ie. before activity instance
     // of
@@ -1049,7 +1106,10 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
    *
    */
   protected void ensureExecutionTreeInitialized() {
-    List<ExecutionEntity> executions = Context.getCommandContext()
+    CommandContext commandContext = Context.getCommandContext();
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+
+    List<ExecutionEntity> executions = commandContext
       .getExecutionManager()
       .findChildExecutionsByProcessInstanceId(processInstanceId);
 
@@ -1063,7 +1123,23 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       }
     }
 
-    processInstance.restoreProcessInstance(executions, null, null);
+    // optionally fetch the entities referenced by the executions with one query per entity type
+    List<EventSubscriptionEntity> eventSubscriptions = null;
+    if (processEngineConfiguration.isExecutionTreePrefetchEventSubscriptionsEnabled()) {
+      eventSubscriptions = commandContext.getEventSubscriptionManager().findEventSubscriptionsByProcessInstanceId(processInstanceId);
+    }
+
+    List<VariableInstanceEntity> variables = null;
+    if (processEngineConfiguration.isExecutionTreePrefetchVariablesEnabled()) {
+      variables = commandContext.getVariableInstanceManager().findVariableInstancesByProcessInstanceId(processInstanceId);
+    }
+
+    List<JobEntity> jobs = null;
+    if (processEngineConfiguration.isExecutionTreePrefetchJobsEnabled()) {
+      jobs = commandContext.getJobManager().findJobsByProcessInstanceId(processInstanceId);
+    }
+
+    processInstance.restoreProcessInstance(executions, eventSubscriptions, variables, jobs);
   }
 
   /**
@@ -1083,6 +1159,25 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   public void restoreProcessInstance(Collection<ExecutionEntity> executions,
       Collection<EventSubscriptionEntity> eventSubscriptions,
       Collection<VariableInstanceEntity> variables) {
+    restoreProcessInstance(executions, eventSubscriptions, variables, null);
+  }
+
+  /**
+   * Restores a complete process instance tree including referenced entities.
+   * The referenced entities are only assigned to executions which did not
+   * initialize them yet; already initialized executions may hold changes which are
+   * not flushed.
+   *
+   * @param jobs
+   *   the list of all jobs that are linked to executions which are part of this process instance
+   *   If null, jobs are not initialized and are lazy loaded on demand
+   *
+   * @see #restoreProcessInstance(Collection, Collection, Collection)
+   */
+  public void restoreProcessInstance(Collection<ExecutionEntity> executions,
+      Collection<EventSubscriptionEntity> eventSubscriptions,
+      Collection<VariableInstanceEntity> variables,
+      Collection<JobEntity> jobs) {
 
     if(!isProcessInstanceExecution()) {
       throw new ProcessEngineException("Can only restore the process instance - method must be called on a process instance execution.");
@@ -1094,6 +1189,11 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       executionsMap.put(execution.getId(), execution);
     }
 
+    // the executions of which the referenced entities are restored
+    Set<String> eventSubscriptionsRestored = new HashSet<String>();
+    Set<String> variablesRestored = new HashSet<String>();
+    Set<String> jobsRestored = new HashSet<String>();
+
     // restore execution tree
     for (ExecutionEntity execution : executions) {
       if (execution.executions == null) {
@@ -1101,9 +1201,15 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       }
       if(execution.eventSubscriptions == null && eventSubscriptions != null) {
         execution.eventSubscriptions = new ArrayList<EventSubscriptionEntity>();
+        eventSubscriptionsRestored.add(execution.getId());
+      }
+      if(execution.variableStore.getVariableInstancesDirect() == null && variables != null) {
+        execution.variableStore.setVariableInstances(new HashMap<String, VariableInstanceEntity>());
+        variablesRestored.add(execution.getId());
       }
-      if(variableStore.getVariableInstancesDirect() == null && variables != null) {
-        variableStore.setVariableInstances(new HashMap<String, VariableInstanceEntity>());
+      if(execution.jobs == null && jobs != null) {
+        execution.jobs = new ArrayList<JobEntity>();
+        jobsRestored.add(execution.getId());
       }
       String parentId = execution.getParentId();
       ExecutionEntity parent = executionsMap.get(parentId);
@@ -1124,7 +1230,9 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
       for (EventSubscriptionEntity eventSubscription : eventSubscriptions) {
         ExecutionEntity executionEntity = executionsMap.get(eventSubscription.getExecutionId());
         if (executionEntity != null) {
-          executionEntity.addEventSubscription(eventSubscription);
+          if (eventSubscriptionsRestored.contains(executionEntity.getId())) {
+            executionEntity.addEventSubscription(eventSubscription);
+          }
         }
         else {
           throw new ProcessEngineException("Unable to find execution for id " + eventSubscription.getExecutionId());
@@ -1135,7 +1243,18 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     if(variables != null) {
       for (VariableInstanceEntity variable : variables) {
         ExecutionEntity executionEntity = executionsMap.get(variable.getExecutionId());
-        executionEntity.getVariableStore().getVariableInstances().put(variable.getName(), variable);
+        if (executionEntity != null && variablesRestored.contains(executionEntity.getId())) {
+          executionEntity.getVariableStore().getVariableInstances().put(variable.getName(), variable);
+        }
+      }
+    }
+
+    if(jobs != null) {
+      for (JobEntity job : jobs) {
+        ExecutionEntity executionEntity = executionsMap.get(job.getExecutionId());
+        if (executionEntity != null && jobsRestored.contains(executionEntity.getId())) {
+          executionEntity.addJob(job);
+        }
       }
     }
   }
@@ -1181,6 +1300,75 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
     Context.getCommandContext().getDbEntityManager().forceUpdate(this);
   }
 
+  // change tracking //////////////////////////////////////////////////////////
+
+  public void resetPersistentStateChanges() {
+    if (changeTracker == null) {
+      changeTracker = new DbEntityChangeTracker(this);
+    }
+    else {
+      changeTracker.reset();
+    }
+    trackedCachedEntityState = getCachedEntityState();
+  }
+
+  public boolean hasPersistentStateChanges() {
+    return changeTracker == null
+        || changeTracker.hasChanges()
+        || trackedCachedEntityState != getCachedEntityState();
+  }
+
+  protected void beforePersistentStateChange() {
+    if (changeTracker != null) {
+      changeTracker.beforeChange();
+    }
+  }
+
+  public void setBusinessKey(String businessKey) {
+    beforePersistentStateChange();
+    super.setBusinessKey(businessKey);
+  }
+
+  public void setActive(boolean isActive) {
+    beforePersistentStateChange();
+    super.setActive(isActive);
+  }
+
+  public void setActivityInstanceId(String activityInstanceId) {
+    beforePersistentStateChange();
+    super.setActivityInstanceId(activityInstanceId);
+  }
+
+  public void setConcurrent(boolean isConcurrent) {
+    beforePersistentStateChange();
+    super.setConcurrent(isConcurrent);
+  }
+
+  public void setScope(boolean isScope) {
+    beforePersistentStateChange();
+    super.setScope(isScope);
+  }
+
+  public void setEventScope(boolean isEventScope) {
+    beforePersistentStateChange();
+    super.setEventScope(isEventScope);
+  }
+
+  public void setCaseInstanceId(String caseInstanceId) {
+    beforePersistentStateChange();
+    super.setCaseInstanceId(caseInstanceId);
+  }
+
+  public void setSequenceCounter(long sequenceCounter) {
+    beforePersistentStateChange();
+    super.setSequenceCounter(sequenceCounter);
+  }
+
+  public void incrementSequenceCounter() {
+    beforePersistentStateChange();
+    super.incrementSequenceCounter();
+  }
+
   // toString /////////////////////////////////////////////////////////////////
 
   public String toString() {
@@ -1412,6 +1600,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setParentId(String parentId) {
+    beforePersistentStateChange();
     this.parentId = parentId;
   }
 
@@ -1424,10 +1613,12 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setActivityId(String activityId) {
+    beforePersistentStateChange();
     this.activityId = activityId;
   }
 
   public void setSuperExecutionId(String superExecutionId) {
+    beforePersistentStateChange();
     this.superExecutionId = superExecutionId;
   }
 
@@ -1456,6 +1647,7 @@ public class ExecutionEntity extends PvmExecutionImpl implements Execution, Proc
   }
 
   public void setSuspensionState(int suspensionState) {
+    beforePersistentStateChange();
     this.suspensionState = suspensionState;
   }
 
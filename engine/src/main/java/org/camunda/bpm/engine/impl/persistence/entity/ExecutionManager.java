@@ -43,6 +43,7 @@ public class ExecutionManager extends AbstractManager {
     getDbEntityManager().delete(execution);
     if (execution.isProcessInstanceExecution()) {
       deleteAuthorizations(Resources.PROCESS_INSTANCE, execution.getProcessInstanceId());
+      getStatisticsManager().processInstanceRemoved(execution);
     }
   }
 
@@ -99,6 +100,21 @@ public class ExecutionManager extends AbstractManager {
     return getDbEntityManager().selectList("selectExecutionsByProcessInstanceId", processInstanceId);
   }
 
+  /**
+   * Finds the active executions which have a subscription for the given message with the
+   * given {@link org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey correlation key}.
+   * Authorizations are not checked.
+   */
+  @SuppressWarnings("unchecked")
+  public List<ExecutionEntity> findExecutionsByMessageCorrelationKey(String messageName, String correlationKey, String businessKey, String processInstanceId) {
+    Map<String, String> parameters = new HashMap<String, String>();
+    parameters.put("messageName", messageName);
+    parameters.put("correlationKey", correlationKey);
+    parameters.put("businessKey", businessKey);
+    parameters.put("processInstanceId", processInstanceId);
+    return getDbEntityManager().selectList("selectExecutionsByMessageCorrelationKey", parameters);
+  }
+
   public ExecutionEntity findExecutionById(String executionId) {
     return getDbEntityManager().selectById(ExecutionEntity.class, executionId);
   }
@@ -26,8 +26,11 @@ import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.exception.NotValidException;
 import org.camunda.bpm.engine.filter.Filter;
 import org.camunda.bpm.engine.impl.AbstractQuery;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
+import org.camunda.bpm.engine.impl.filter.FilterQueryCache;
 import org.camunda.bpm.engine.impl.json.JsonObjectConverter;
 import org.camunda.bpm.engine.impl.json.JsonTaskQueryConverter;
 import org.camunda.bpm.engine.impl.util.JsonUtil;
@@ -121,8 +124,25 @@ public class FilterEntity implements Filter, Serializable, DbEntity, HasDbRevisi
 
   public void setQueryInternal(String query) {
     ensureNotNull(NotValidException.class, "query", query);
+    this.query = convertQuery(query);
+  }
+
+  protected AbstractQuery<?, ?> convertQuery(String query) {
     JsonObjectConverter<Object> converter = getConverter();
-    this.query = (AbstractQuery<?, ?>) converter.toObject(new JSONObject(query));
+
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    FilterQueryCache filterQueryCache = null;
+    if (processEngineConfiguration != null) {
+      filterQueryCache = processEngineConfiguration.getFilterQueryCache();
+    }
+
+    if (filterQueryCache != null && id != null) {
+      // the id is set before the query when a filter is loaded
+      return filterQueryCache.getQuery(id, query, converter);
+    }
+    else {
+      return (AbstractQuery<?, ?>) converter.toObject(new JSONObject(query));
+    }
   }
 
   public Map<String, Object> getProperties() {
@@ -199,11 +219,13 @@ public class FilterEntity implements Filter, Serializable, DbEntity, HasDbRevisi
     return persistentState;
   }
 
+  /**
+   * Copies the filter without its query, which is replaced by the extended query.
+   */
   protected FilterEntity copyFilter() {
     FilterEntity copy = new FilterEntity(getResourceType());
     copy.setName(getName());
     copy.setOwner(getOwner());
-    copy.setQueryInternal(getQueryInternal());
     copy.setPropertiesInternal(getPropertiesInternal());
     return copy;
   }
@@ -24,6 +24,8 @@ import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 import java.util.List;
 
 import org.camunda.bpm.engine.filter.Filter;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.filter.FilterQueryCache;
 import org.camunda.bpm.engine.impl.filter.FilterQueryImpl;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 
@@ -62,6 +64,11 @@ public class FilterManager extends AbstractManager {
     deleteAuthorizations(FILTER, filterId);
     // delete the filter itself
     getDbEntityManager().delete(filter);
+
+    FilterQueryCache filterQueryCache = Context.getProcessEngineConfiguration().getFilterQueryCache();
+    if (filterQueryCache != null) {
+      filterQueryCache.remove(filterId);
+    }
   }
 
   public Filter findFilterById(String filterId) {
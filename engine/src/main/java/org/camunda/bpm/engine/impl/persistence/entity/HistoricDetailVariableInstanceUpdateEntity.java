@@ -18,6 +18,7 @@ import java.util.Date;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.history.HistoricVariableUpdate;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.history.event.HistoricVariableUpdateEventEntity;
@@ -140,7 +141,14 @@ public class HistoricDetailVariableInstanceUpdateEntity extends HistoricVariable
   }
 
   public void setByteArrayValue(byte[] bytes) {
-    ByteArrayEntity byteArrayValue = null;
+    insertByteArrayValue(bytes != null ? new ByteArrayEntity(bytes) : null);
+  }
+
+  public void setByteArrayContent(InputStreamSource contentSource) {
+    insertByteArrayValue(contentSource != null ? new ByteArrayEntity(null, contentSource) : null);
+  }
+
+  protected void insertByteArrayValue(ByteArrayEntity byteArrayValue) {
     if (this.byteArrayId!=null) {
       getByteArrayValue();
       Context
@@ -148,11 +156,10 @@ public class HistoricDetailVariableInstanceUpdateEntity extends HistoricVariable
         .getByteArrayManager()
        .deleteByteArrayById(this.byteArrayId);
     }
-    if (bytes!=null) {
-      byteArrayValue = new ByteArrayEntity(bytes);
+    if (byteArrayValue!=null) {
       Context
         .getCommandContext()
-        .getDbEntityManager()
+        .getByteArrayManager()
         .insert(byteArrayValue);
     }
     this.byteArrayValue = byteArrayValue;
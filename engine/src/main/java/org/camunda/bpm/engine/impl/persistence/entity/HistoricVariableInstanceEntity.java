@@ -20,6 +20,7 @@ import java.util.List;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.history.HistoricVariableInstance;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
@@ -96,7 +97,10 @@ public class HistoricVariableInstanceEntity implements ValueFields, HistoricVari
     this.textValue2 = historyEvent.getTextValue2();
 
     deleteByteArrayValue();
-    if(historyEvent.getByteValue() != null) {
+    if(historyEvent.getByteValueSource() != null) {
+      setByteArrayContent(historyEvent.getByteValueSource());
+    }
+    else if(historyEvent.getByteValue() != null) {
       setByteArrayValue(historyEvent.getByteValue());
     }
 
@@ -208,13 +212,19 @@ public class HistoricVariableInstanceEntity implements ValueFields, HistoricVari
   }
 
   public void setByteArrayValue(byte[] bytes) {
-    ByteArrayEntity byteArrayValue = null;
+    insertByteArrayValue(bytes != null ? new ByteArrayEntity(name, bytes) : null);
+  }
+
+  public void setByteArrayContent(InputStreamSource contentSource) {
+    insertByteArrayValue(contentSource != null ? new ByteArrayEntity(name, contentSource) : null);
+  }
+
+  protected void insertByteArrayValue(ByteArrayEntity byteArrayValue) {
     deleteByteArrayValue();
-    if (bytes!=null) {
-      byteArrayValue = new ByteArrayEntity(name, bytes);
+    if (byteArrayValue!=null) {
       Context
         .getCommandContext()
-        .getDbEntityManager()
+        .getByteArrayManager()
         .insert(byteArrayValue);
     }
     this.byteArrayValue = byteArrayValue;
@@ -157,6 +157,11 @@ public class IncidentEntity implements Incident, DbEntity, HasDbRevision, HasDbR
       .getDbEntityManager()
       .insert(incident);
 
+    Context
+      .getCommandContext()
+      .getStatisticsManager()
+      .incidentCreated(incident);
+
     incident.fireHistoricIncidentEvent(HistoryEventTypes.INCIDENT_CREATE);
   }
 
@@ -201,6 +206,11 @@ public class IncidentEntity implements Incident, DbEntity, HasDbRevision, HasDbR
       .getDbEntityManager()
       .delete(this);
 
+    Context
+      .getCommandContext()
+      .getStatisticsManager()
+      .incidentRemoved(this);
+
     // update historic incident
     HistoryEventType eventType = resolved ? HistoryEventTypes.INCIDENT_RESOLVE : HistoryEventTypes.INCIDENT_DELETE;
     fireHistoricIncidentEvent(eventType);
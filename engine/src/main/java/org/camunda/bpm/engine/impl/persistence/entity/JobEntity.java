@@ -28,6 +28,8 @@ import java.util.logging.Logger;
 import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.DbEntityChangeTracker;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.incident.FailedJobIncidentHandler;
 import org.camunda.bpm.engine.impl.incident.IncidentHandler;
@@ -48,7 +50,7 @@ import org.camunda.bpm.engine.runtime.Job;
  * @author Dave Syer
  * @author Frederik Heremans
  */
-public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRevision {
+public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRevision, HasDbChangeTracking {
 
   private final static Logger LOG = Logger.getLogger(JobEntity.class.getName());
 
@@ -108,6 +110,9 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   // sequence counter //////////////////////////
   protected long sequenceCounter = 1;
 
+  /** tracks changes of the persistent state; null if changes are not tracked */
+  protected transient DbEntityChangeTracker changeTracker;
+
   public void execute(CommandContext commandContext) {
     if (executionId != null) {
       ExecutionEntity execution = getExecution();
@@ -148,6 +153,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
       execution.addJob(this);
 
       ProcessDefinitionImpl processDefinition = (ProcessDefinitionImpl) execution.getProcessDefinition();
+      beforePersistentStateChange();
       this.deploymentId = processDefinition.getDeploymentId();
     }
 
@@ -204,12 +210,63 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     return revision+1;
   }
 
+  /**
+   * @return a new job with the persistent state of this job which is not
+   * part of any entity cache yet
+   */
+  public abstract JobEntity createDetachedCopy();
+
+  protected void copyPersistentStateTo(JobEntity job) {
+    job.id = id;
+    job.revision = revision;
+    job.duedate = duedate;
+    job.lockOwner = lockOwner;
+    job.lockExpirationTime = lockExpirationTime;
+    job.executionId = executionId;
+    job.processInstanceId = processInstanceId;
+    job.processDefinitionId = processDefinitionId;
+    job.processDefinitionKey = processDefinitionKey;
+    job.isExclusive = isExclusive;
+    job.retries = retries;
+    job.suspensionState = suspensionState;
+    job.jobHandlerType = jobHandlerType;
+    job.jobHandlerConfiguration = jobHandlerConfiguration;
+    job.exceptionByteArrayId = exceptionByteArrayId;
+    job.exceptionMessage = exceptionMessage;
+    job.deploymentId = deploymentId;
+    job.jobDefinitionId = jobDefinitionId;
+    job.priority = priority;
+    job.sequenceCounter = sequenceCounter;
+  }
+
   public void setExecution(ExecutionEntity execution) {
+    beforePersistentStateChange();
     executionId = execution.getId();
     processInstanceId = execution.getProcessInstanceId();
     execution.addJob(this);
   }
 
+  // change tracking //////////////////////////////////////////////////////////
+
+  public void resetPersistentStateChanges() {
+    if (changeTracker == null) {
+      changeTracker = new DbEntityChangeTracker(this);
+    }
+    else {
+      changeTracker.reset();
+    }
+  }
+
+  public boolean hasPersistentStateChanges() {
+    return changeTracker == null || changeTracker.hasChanges();
+  }
+
+  protected void beforePersistentStateChange() {
+    if (changeTracker != null) {
+      changeTracker.beforeChange();
+    }
+  }
+
   // sequence counter /////////////////////////////////////////////////////////
 
   public long getSequenceCounter() {
@@ -231,6 +288,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setExecutionId(String executionId) {
+    beforePersistentStateChange();
     this.executionId = executionId;
   }
 
@@ -270,11 +328,13 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
     if(retries == 0 && this.retries > 0) {
       createFailedJobIncident();
     }
+    beforePersistentStateChange();
     this.retries = retries;
   }
 
   // special setter for MyBatis which does not influence incidents
   public void setRetriesFromPersistence(int retries) {
+    beforePersistentStateChange();
     this.retries = retries;
   }
 
@@ -331,6 +391,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setSuspensionState(int state) {
+    beforePersistentStateChange();
     this.suspensionState = state;
   }
 
@@ -347,6 +408,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setLockOwner(String claimedBy) {
+    beforePersistentStateChange();
     this.lockOwner = claimedBy;
   }
 
@@ -355,6 +417,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setLockExpirationTime(Date claimedUntil) {
+    beforePersistentStateChange();
     this.lockExpirationTime = claimedUntil;
   }
 
@@ -371,6 +434,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setProcessDefinitionId(String processDefinitionId) {
+    beforePersistentStateChange();
     this.processDefinitionId = processDefinitionId;
   }
 
@@ -402,6 +466,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setDuedate(Date duedate) {
+    beforePersistentStateChange();
     this.duedate = duedate;
   }
 
@@ -412,6 +477,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
 
     if(byteArray == null) {
       byteArray = createJobExceptionByteArray(exceptionBytes);
+      beforePersistentStateChange();
       exceptionByteArrayId = byteArray.getId();
       exceptionByteArray = byteArray;
     }
@@ -438,6 +504,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setJobHandlerConfiguration(String jobHandlerConfiguration) {
+    beforePersistentStateChange();
     this.jobHandlerConfiguration = jobHandlerConfiguration;
   }
 
@@ -458,6 +525,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setJobDefinitionId(String jobDefinitionId) {
+    beforePersistentStateChange();
     this.jobDefinitionId = jobDefinitionId;
   }
 
@@ -476,6 +544,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setExceptionMessage(String exceptionMessage) {
+    beforePersistentStateChange();
     if(exceptionMessage != null && exceptionMessage.length() > MAX_EXCEPTION_MESSAGE_LENGTH) {
       this.exceptionMessage = exceptionMessage.substring(0, MAX_EXCEPTION_MESSAGE_LENGTH);
     } else {
@@ -506,6 +575,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setDeploymentId(String deploymentId) {
+    beforePersistentStateChange();
     this.deploymentId = deploymentId;
   }
 
@@ -515,6 +585,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void resetLock() {
+    beforePersistentStateChange();
     this.lockOwner = null;
     this.lockExpirationTime = null;
   }
@@ -541,6 +612,7 @@ public abstract class JobEntity implements Serializable, Job, DbEntity, HasDbRev
   }
 
   public void setPriority(int priority) {
+    beforePersistentStateChange();
     this.priority = priority;
   }
 
@@ -18,6 +18,7 @@ import static org.camunda.bpm.engine.impl.jobexecutor.TimerEventJobHandler.JOB_H
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
@@ -55,6 +56,9 @@ public class JobManager extends AbstractManager {
   public static QueryOrderingProperty JOB_TYPE_ORDERING_PROPERTY = new QueryOrderingProperty(null, JobQueryProperty.TYPE);
   public static QueryOrderingProperty JOB_DUEDATE_ORDERING_PROPERTY = new QueryOrderingProperty(null, JobQueryProperty.DUEDATE);
 
+  /** maximum number of process instance ids in the IN list of a single exclusive job query */
+  public static final int MAX_PROCESS_INSTANCE_IDS_PER_STATEMENT = 500;
+
   static {
     JOB_PRIORITY_ORDERING_PROPERTY.setDirection(Direction.DESCENDING);
     JOB_TYPE_ORDERING_PROPERTY.setDirection(Direction.DESCENDING);
@@ -189,6 +193,30 @@ public class JobManager extends AbstractManager {
     return getDbEntityManager().selectList("selectExclusiveJobsToExecute", params);
   }
 
+  /**
+   * Selects the exclusive jobs to execute for a set of process instances.
+   * The process instance ids are passed in chunks of at most
+   * {@link #MAX_PROCESS_INSTANCE_IDS_PER_STATEMENT}, so that the IN list stays below
+   * the limits of the databases (e.g. 1000 elements on Oracle). Callers are responsible
+   * for grouping the result by {@link JobEntity#getProcessInstanceId() process instance}.
+   */
+  @SuppressWarnings("unchecked")
+  public List<JobEntity> findExclusiveJobsToExecute(Collection<String> processInstanceIds) {
+    List<String> processInstanceIdList = new ArrayList<String>(processInstanceIds);
+    Date now = ClockUtil.getCurrentTime();
+
+    List<JobEntity> exclusiveJobs = new ArrayList<JobEntity>();
+    for (int fromIndex = 0; fromIndex < processInstanceIdList.size(); fromIndex += MAX_PROCESS_INSTANCE_IDS_PER_STATEMENT) {
+      int toIndex = Math.min(fromIndex + MAX_PROCESS_INSTANCE_IDS_PER_STATEMENT, processInstanceIdList.size());
+
+      Map<String,Object> params = new HashMap<String, Object>();
+      params.put("processInstanceIds", processInstanceIdList.subList(fromIndex, toIndex));
+      params.put("now", now);
+      exclusiveJobs.addAll(getDbEntityManager().selectList("selectExclusiveJobsToExecuteForProcessInstances", params));
+    }
+    return exclusiveJobs;
+  }
+
 
   @SuppressWarnings("unchecked")
   public List<TimerEntity> findUnlockedTimersByDuedate(Date duedate, Page page) {
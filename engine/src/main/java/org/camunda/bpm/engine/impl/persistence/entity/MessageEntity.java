@@ -39,6 +39,13 @@ public class MessageEntity extends JobEntity {
     return TYPE;
   }
 
+  public MessageEntity createDetachedCopy() {
+    MessageEntity message = new MessageEntity();
+    copyPersistentStateTo(message);
+    message.repeat = repeat;
+    return message;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
@@ -13,6 +13,8 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.Map;
+
 
 /**
  * @author Daniel Meyer
@@ -20,7 +22,11 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 public class MessageEventSubscriptionEntity extends EventSubscriptionEntity {
 
   private static final long serialVersionUID = 1L;
-  
+
+  /** key of the declared correlation variables of the process instance,
+   * see {@link org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey} */
+  protected String correlationKey;
+
   public MessageEventSubscriptionEntity(ExecutionEntity executionEntity) {
     super(executionEntity);
     eventType = "message";
@@ -30,6 +36,21 @@ public class MessageEventSubscriptionEntity extends EventSubscriptionEntity {
     eventType = "message";
   }
 
+  @SuppressWarnings("unchecked")
+  public Object getPersistentState() {
+    Map<String, Object> persistentState = (Map<String, Object>) super.getPersistentState();
+    persistentState.put("correlationKey", correlationKey);
+    return persistentState;
+  }
+
+  public String getCorrelationKey() {
+    return correlationKey;
+  }
+
+  public void setCorrelationKey(String correlationKey) {
+    this.correlationKey = correlationKey;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
@@ -40,6 +61,7 @@ public class MessageEventSubscriptionEntity extends EventSubscriptionEntity {
            + ", processInstanceId=" + processInstanceId
            + ", activityId=" + activityId
            + ", configuration=" + configuration
+           + ", correlationKey=" + correlationKey
            + ", revision=" + revision
            + ", created=" + created
            + "]";
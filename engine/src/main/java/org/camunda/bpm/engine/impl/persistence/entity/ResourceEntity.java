@@ -14,7 +14,10 @@
 package org.camunda.bpm.engine.impl.persistence.entity;
 
 import java.io.Serializable;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 
+import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.db.DbEntity;
 import org.camunda.bpm.engine.repository.Resource;
 
@@ -26,11 +29,14 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
 
   private static final long serialVersionUID = 1L;
 
+  public static final String CHECKSUM_ALGORITHM = "SHA-256";
+
   protected String id;
   protected String name;
   protected byte[] bytes;
   protected String deploymentId;
   protected boolean generated = false;
+  protected String checksum;
 
   public String getId() {
     return id;
@@ -54,6 +60,23 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
 
   public void setBytes(byte[] bytes) {
     this.bytes = bytes;
+    this.checksum = null;
+  }
+
+  /**
+   * The checksum of the bytes of the resource. It is calculated when the resource
+   * is inserted and compared instead of the bytes to detect unchanged resources
+   * of a deployment.
+   */
+  public String getChecksum() {
+    if (checksum == null && bytes != null) {
+      checksum = calculateChecksum(bytes);
+    }
+    return checksum;
+  }
+
+  public void setChecksum(String checksum) {
+    this.checksum = checksum;
   }
 
   public String getDeploymentId() {
@@ -80,6 +103,23 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
     return generated;
   }
 
+  public static String calculateChecksum(byte[] bytes) {
+    MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance(CHECKSUM_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new ProcessEngineException("Cannot lookup " + CHECKSUM_ALGORITHM + " algorithm", e);
+    }
+
+    byte[] hash = digest.digest(bytes);
+    StringBuilder hexString = new StringBuilder(hash.length * 2);
+    for (byte b : hash) {
+      hexString.append(Character.forDigit((b >> 4) & 0xf, 16));
+      hexString.append(Character.forDigit(b & 0xf, 16));
+    }
+    return hexString.toString();
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
@@ -87,6 +127,7 @@ public class ResourceEntity implements Serializable, DbEntity, Resource {
            + ", name=" + name
            + ", deploymentId=" + deploymentId
            + ", generated=" + generated
+           + ", checksum=" + checksum
            + "]";
   }
 }
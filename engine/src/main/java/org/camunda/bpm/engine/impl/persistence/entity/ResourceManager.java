@@ -69,4 +69,32 @@ public class ResourceManager extends AbstractManager {
     return existingResourcesByName;
   }
 
+  /**
+   * Like {@link #findLatestResourcesByDeploymentName(String, Set)} but returns the resources
+   * with their checksums instead of their bytes. The returned resources are not
+   * managed by the entity manager.
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, ResourceEntity> findLatestResourceChecksumsByDeploymentName(String deploymentName, Set<String> resourcesToFind) {
+    Map<String, Object> params = new HashMap<String, Object>();
+    params.put("deploymentName", deploymentName);
+    params.put("resourcesToFind", resourcesToFind);
+
+    List<Map<String, Object>> results = getDbEntityManager().selectList("selectLatestResourceChecksumsByDeploymentName", params);
+
+    Map<String, ResourceEntity> existingResourcesByName = new HashMap<String, ResourceEntity>();
+    for (Map<String, Object> result : results) {
+      ResourceEntity existingResource = new ResourceEntity();
+      existingResource.setId((String) result.get("id"));
+      existingResource.setName((String) result.get("name"));
+      existingResource.setDeploymentId((String) result.get("deploymentId"));
+      existingResource.setGenerated(Boolean.TRUE.equals(result.get("generated")));
+      existingResource.setChecksum((String) result.get("checksum"));
+
+      existingResourcesByName.put(existingResource.getName(), existingResource);
+    }
+
+    return existingResourcesByName;
+  }
+
 }
@@ -0,0 +1,128 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.Serializable;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+
+/**
+ * A runtime statistics counter of a process definition. The counter is not updated
+ * with its value but incremented by the value delta, so that concurrent changes of
+ * the counter do not overwrite each other. There is one counter per process definition,
+ * type and incident type. Counters are ordered by their ids, which is the order in
+ * which they are locked.
+ */
+public class StatisticsCounterEntity implements DbEntity, Serializable, Comparable<StatisticsCounterEntity> {
+
+  private static final long serialVersionUID = 1L;
+
+  /** counts the running process instances of a process definition */
+  public static final String TYPE_INSTANCES = "instances";
+
+  /** counts the open incidents of a process definition per incident type */
+  public static final String TYPE_INCIDENTS = "incidents";
+
+  /** the incident type of counters which do not count incidents, it is part of the unique key of a counter */
+  public static final String NO_INCIDENT_TYPE = "none";
+
+  protected String id;
+
+  protected String processDefinitionId;
+
+  protected String type;
+
+  protected String incidentType;
+
+  protected long value;
+
+  protected long valueDelta;
+
+  public StatisticsCounterEntity() {
+  }
+
+  public StatisticsCounterEntity(String processDefinitionId, String type, String incidentType, long value) {
+    this.processDefinitionId = processDefinitionId;
+    this.type = type;
+    this.incidentType = incidentType != null ? incidentType : NO_INCIDENT_TYPE;
+    this.value = value;
+  }
+
+  public String getId() {
+    return id;
+  }
+
+  public void setId(String id) {
+    this.id = id;
+  }
+
+  public String getProcessDefinitionId() {
+    return processDefinitionId;
+  }
+
+  public void setProcessDefinitionId(String processDefinitionId) {
+    this.processDefinitionId = processDefinitionId;
+  }
+
+  public String getType() {
+    return type;
+  }
+
+  public void setType(String type) {
+    this.type = type;
+  }
+
+  public String getIncidentType() {
+    return incidentType;
+  }
+
+  public void setIncidentType(String incidentType) {
+    this.incidentType = incidentType;
+  }
+
+  public long getValue() {
+    return value;
+  }
+
+  public void setValue(long value) {
+    this.value = value;
+  }
+
+  public long getValueDelta() {
+    return valueDelta;
+  }
+
+  public void setValueDelta(long valueDelta) {
+    this.valueDelta = valueDelta;
+  }
+
+  public Object getPersistentState() {
+    // immutable
+    return StatisticsCounterEntity.class;
+  }
+
+  public int compareTo(StatisticsCounterEntity other) {
+    return id.compareTo(other.id);
+  }
+
+  public String toString() {
+    return this.getClass().getSimpleName()
+           + "[id=" + id
+           + ", processDefinitionId=" + processDefinitionId
+           + ", type=" + type
+           + ", incidentType=" + incidentType
+           + ", value=" + value
+           + "]";
+  }
+
+}
@@ -15,29 +15,64 @@ package org.camunda.bpm.engine.impl.persistence.entity;
 
 import static org.camunda.bpm.engine.impl.util.EnsureUtil.ensureNotNull;
 
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 
+import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.ActivityStatisticsQueryImpl;
 import org.camunda.bpm.engine.impl.DeploymentStatisticsQueryImpl;
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.ProcessDefinitionStatisticsQueryImpl;
+import org.camunda.bpm.engine.impl.cmd.CreateStatisticsCounterCmd;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandContextListener;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
 import org.camunda.bpm.engine.management.ActivityStatistics;
 import org.camunda.bpm.engine.management.DeploymentStatistics;
 import org.camunda.bpm.engine.management.ProcessDefinitionStatistics;
 
-public class StatisticsManager extends AbstractManager {
+public class StatisticsManager extends AbstractManager implements CommandContextListener {
+
+  /** the name of the property which is updated by every rebuild of the statistics counters */
+  public static final String COUNTER_REBUILD_PROPERTY_NAME = "statistics.counter.rebuild";
+
+  /** the changes of the statistics counters made by the current command */
+  protected Map<List<String>, Long> counterDeltas;
 
   @SuppressWarnings("unchecked")
   public List<ProcessDefinitionStatistics> getStatisticsGroupedByProcessDefinitionVersion(ProcessDefinitionStatisticsQueryImpl query, Page page) {
     getAuthorizationManager().configureProcessDefinitionStatisticsQuery(query);
-    return getDbEntityManager().selectList("selectProcessDefinitionStatistics", query, page);
+    if (isCounterQueryApplicable(query)) {
+      return getDbEntityManager().selectList("selectProcessDefinitionStatisticsFromCounters", query, page);
+    } else {
+      return getDbEntityManager().selectList("selectProcessDefinitionStatistics", query, page);
+    }
   }
 
   public long getStatisticsCountGroupedByProcessDefinitionVersion(ProcessDefinitionStatisticsQueryImpl query) {
     getAuthorizationManager().configureProcessDefinitionStatisticsQuery(query);
-    return (Long) getDbEntityManager().selectOne("selectProcessDefinitionStatisticsCount", query);
+    if (isCounterQueryApplicable(query)) {
+      return (Long) getDbEntityManager().selectOne("selectProcessDefinitionStatisticsCountFromCounters", query);
+    } else {
+      return (Long) getDbEntityManager().selectOne("selectProcessDefinitionStatisticsCount", query);
+    }
+  }
+
+  /**
+   * The counters do not contain failed jobs and can not be restricted to the process instances
+   * and incidents a user is authorized to read.
+   */
+  protected boolean isCounterQueryApplicable(ProcessDefinitionStatisticsQueryImpl query) {
+    return isStatisticsCounterEnabled()
+        && !query.isAuthorizationCheckEnabled()
+        && !query.isFailedJobsToInclude();
   }
 
   @SuppressWarnings("unchecked")
@@ -73,4 +108,161 @@ public class StatisticsManager extends AbstractManager {
       getAuthorizationManager().checkReadProcessDefinition(definition);
     }
   }
+
+  // statistics counters ////////////////////////////////////////////
+
+  public void processInstanceStarted(ExecutionEntity processInstance) {
+    updateCounter(processInstance.getProcessDefinitionId(), StatisticsCounterEntity.TYPE_INSTANCES, null, 1);
+  }
+
+  public void processInstanceRemoved(ExecutionEntity processInstance) {
+    updateCounter(processInstance.getProcessDefinitionId(), StatisticsCounterEntity.TYPE_INSTANCES, null, -1);
+  }
+
+  public void incidentCreated(IncidentEntity incident) {
+    updateCounter(incident.getProcessDefinitionId(), StatisticsCounterEntity.TYPE_INCIDENTS, incident.getIncidentType(), 1);
+  }
+
+  public void incidentRemoved(IncidentEntity incident) {
+    updateCounter(incident.getProcessDefinitionId(), StatisticsCounterEntity.TYPE_INCIDENTS, incident.getIncidentType(), -1);
+  }
+
+  /**
+   * Changes of the same counter made by one command are combined and applied when the
+   * command context is closed. Counters whose changes cancel each other out are not
+   * touched at all.
+   */
+  protected void updateCounter(String processDefinitionId, String type, String incidentType, long delta) {
+    if (!isStatisticsCounterEnabled() || processDefinitionId == null) {
+      return;
+    }
+
+    if (counterDeltas == null) {
+      counterDeltas = new HashMap<List<String>, Long>();
+      getCommandContext().registerCommandContextListener(this);
+    }
+
+    List<String> counterKey = getCounterKey(processDefinitionId, type, incidentType);
+    Long counterDelta = counterDeltas.get(counterKey);
+    counterDeltas.put(counterKey, counterDelta != null ? counterDelta + delta : delta);
+  }
+
+  /**
+   * Increments the changed counters in place when the command is flushed. The increments
+   * are flushed in the order of the counter ids, so that concurrent commands lock the
+   * counters in the same order. A counter which does not exist yet is inserted in a
+   * separate transaction, so that concurrent commands which change a new counter wait for
+   * the first insert instead of inserting the same counter twice.
+   */
+  public void onCommandContextClose(CommandContext commandContext) {
+    if (counterDeltas == null) {
+      return;
+    }
+
+    for (Entry<List<String>, Long> counterDelta : counterDeltas.entrySet()) {
+      long delta = counterDelta.getValue();
+      if (delta == 0) {
+        continue;
+      }
+
+      List<String> counterKey = counterDelta.getKey();
+      StatisticsCounterEntity counter = new StatisticsCounterEntity(counterKey.get(0), counterKey.get(1), counterKey.get(2), 0);
+
+      StatisticsCounterEntity existingCounter = findStatisticsCounter(counter.getProcessDefinitionId(), counter.getType(), counter.getIncidentType());
+      if (existingCounter != null) {
+        counter.setId(existingCounter.getId());
+      } else {
+        counter.setId(createStatisticsCounter(counter));
+      }
+
+      counter.setValueDelta(delta);
+      getDbEntityManager().update(StatisticsCounterEntity.class, "incrementStatisticsCounter", counter);
+    }
+
+    counterDeltas = null;
+  }
+
+  public void onCommandFailed(CommandContext commandContext, Throwable t) {
+    // the changes are rolled back
+  }
+
+  /**
+   * @return the id of the counter which is inserted with the value 0 by a new transaction
+   */
+  protected String createStatisticsCounter(StatisticsCounterEntity counter) {
+    CommandExecutor commandExecutor = Context.getProcessEngineConfiguration().getCommandExecutorTxRequiresNew();
+    CreateStatisticsCounterCmd command = new CreateStatisticsCounterCmd(counter.getProcessDefinitionId(), counter.getType(), counter.getIncidentType());
+
+    try {
+      return commandExecutor.execute(command);
+
+    } catch (ProcessEngineException e) {
+      // a concurrent command inserted the same counter, the unique constraint
+      // made the insert wait for it, so the counter is selected now
+      return commandExecutor.execute(command);
+    }
+  }
+
+  public StatisticsCounterEntity findStatisticsCounter(String processDefinitionId, String type, String incidentType) {
+    StatisticsCounterEntity parameter = new StatisticsCounterEntity(processDefinitionId, type, incidentType, 0);
+    return (StatisticsCounterEntity) getDbEntityManager().selectOne("selectStatisticsCounterByKey", parameter);
+  }
+
+  /**
+   * Sets the statistics counters to the current numbers of running process instances
+   * and open incidents. The existing counters are locked in the order of their ids
+   * before the numbers are selected, so that concurrent increments of these counters
+   * are applied after the rebuild. Counters which are inserted for the first time while
+   * the rebuild is running are not changed by the rebuild.
+   */
+  @SuppressWarnings("unchecked")
+  public void rebuildCounters() {
+    // concurrent rebuilds fail with an optimistic locking exception
+    PropertyEntity rebuildProperty = Context.getCommandContext()
+      .getPropertyManager()
+      .findPropertyById(COUNTER_REBUILD_PROPERTY_NAME);
+    ensureNotNull("Property '" + COUNTER_REBUILD_PROPERTY_NAME + "' does not exist, the database schema may not be up to date",
+        "rebuildProperty", rebuildProperty);
+    rebuildProperty.setValue(String.valueOf(ClockUtil.getCurrentTime().getTime()));
+
+    DbEntityManager dbEntityManager = getDbEntityManager();
+    dbEntityManager.lock("lockStatisticsCounters");
+
+    List<StatisticsCounterEntity> counters = dbEntityManager.selectList("selectStatisticsCounters");
+
+    Map<List<String>, Long> counts = new HashMap<List<String>, Long>();
+    addCounts(counts, dbEntityManager.selectList("selectProcessInstanceCountsForStatisticsCounters"), StatisticsCounterEntity.TYPE_INSTANCES);
+    addCounts(counts, dbEntityManager.selectList("selectIncidentCountsForStatisticsCounters"), StatisticsCounterEntity.TYPE_INCIDENTS);
+
+    for (StatisticsCounterEntity counter : counters) {
+      Long count = counts.remove(getCounterKey(counter.getProcessDefinitionId(), counter.getType(), counter.getIncidentType()));
+      counter.setValue(count != null ? count : 0);
+      dbEntityManager.update(StatisticsCounterEntity.class, "updateStatisticsCounterValue", counter);
+    }
+
+    // if a concurrent command inserts one of these counters, the rebuild fails on the unique constraint
+    for (Entry<List<String>, Long> count : counts.entrySet()) {
+      List<String> counterKey = count.getKey();
+      dbEntityManager.insert(new StatisticsCounterEntity(counterKey.get(0), counterKey.get(1), counterKey.get(2), count.getValue()));
+    }
+
+    // the counters of deleted process definitions are not incremented anymore
+    dbEntityManager.delete(StatisticsCounterEntity.class, "deleteStatisticsCountersOfDeletedProcessDefinitions", null);
+  }
+
+  protected void addCounts(Map<List<String>, Long> counts, List<Map<String, Object>> values, String type) {
+    for (Map<String, Object> value : values) {
+      List<String> counterKey = getCounterKey((String) value.get("processDefinitionId"), type, (String) value.get("incidentType"));
+      counts.put(counterKey, (Long) value.get("value"));
+    }
+  }
+
+  protected List<String> getCounterKey(String processDefinitionId, String type, String incidentType) {
+    return Arrays.asList(processDefinitionId, type, incidentType != null ? incidentType : StatisticsCounterEntity.NO_INCIDENT_TYPE);
+  }
+
+  protected boolean isStatisticsCounterEnabled() {
+    return Context.getProcessEngineConfiguration().isStatisticsCounterEnabled();
+  }
+
 }
@@ -45,6 +45,8 @@ import org.camunda.bpm.engine.impl.core.instance.CoreExecution;
 import org.camunda.bpm.engine.impl.core.variable.scope.AbstractVariableScope;
 import org.camunda.bpm.engine.impl.core.variable.scope.CoreVariableStore;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.DbEntityChangeTracker;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -68,7 +70,7 @@ import org.camunda.bpm.model.xml.type.ModelElementType;
  * @author Joram Barrez
  * @author Falko Menge
  */
-public class TaskEntity extends AbstractVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, CommandContextListener {
+public class TaskEntity extends AbstractVariableScope implements Task, DelegateTask, Serializable, DbEntity, HasDbRevision, HasDbChangeTracking, CommandContextListener {
 
   public static final String DELETE_REASON_COMPLETED = "completed";
   public static final String DELETE_REASON_DELETED = "deleted";
@@ -131,6 +133,9 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
    */
   protected transient Map<String, PropertyChange> propertyChanges = new HashMap<String, PropertyChange>();
 
+  /** tracks changes of the persistent state; null if changes are not tracked */
+  protected transient DbEntityChangeTracker changeTracker;
+
   // name references of tracked properties
   public static final String ASSIGNEE = "assignee";
   public static final String DELEGATION = "delegation";
@@ -190,6 +195,9 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     CommandContext commandContext = Context.getCommandContext();
     DbEntityManager dbEntityManger = commandContext.getDbEntityManager();
     dbEntityManger.merge(this);
+
+    // a saved task may have a new assignee
+    commandContext.getTaskManager().invalidateFilterCounts();
   }
 
   /** new task.  Embedded state and create time will be initialized.
@@ -338,6 +346,27 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     return revision+1;
   }
 
+  // change tracking //////////////////////////////////////////////////////////
+
+  public void resetPersistentStateChanges() {
+    if (changeTracker == null) {
+      changeTracker = new DbEntityChangeTracker(this);
+    }
+    else {
+      changeTracker.reset();
+    }
+  }
+
+  public boolean hasPersistentStateChanges() {
+    return changeTracker == null || changeTracker.hasChanges();
+  }
+
+  protected void beforePersistentStateChange() {
+    if (changeTracker != null) {
+      changeTracker.beforeChange();
+    }
+  }
+
   protected void ensureParentTaskActive() {
     if (parentTaskId != null) {
       TaskEntity parentTask = Context
@@ -445,6 +474,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     if (execution!=null) {
 
       this.execution = (ExecutionEntity) execution;
+      beforePersistentStateChange();
       this.executionId = this.execution.getId();
       this.processInstanceId = this.execution.getProcessInstanceId();
       this.processDefinitionId = this.execution.getProcessDefinitionId();
@@ -458,6 +488,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
     } else {
       this.execution = null;
+      beforePersistentStateChange();
       this.executionId = null;
       this.processInstanceId = null;
       this.processDefinitionId = null;
@@ -485,12 +516,14 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     if (caseExecution!=null) {
 
       this.caseExecution = (CaseExecutionEntity) caseExecution;
+      beforePersistentStateChange();
       this.caseExecutionId = this.caseExecution.getId();
       this.caseInstanceId = this.caseExecution.getCaseInstanceId();
       this.caseDefinitionId = this.caseExecution.getCaseDefinitionId();
 
     } else {
       this.caseExecution = null;
+      beforePersistentStateChange();
       this.caseExecutionId = null;
       this.caseInstanceId = null;
       this.caseDefinitionId = null;
@@ -502,6 +535,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setCaseExecutionId(String caseExecutionId) {
+    beforePersistentStateChange();
     this.caseExecutionId = caseExecutionId;
   }
 
@@ -512,11 +546,13 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setCaseInstanceId(String caseInstanceId) {
     registerCommandContextCloseListener();
     propertyChanged(CASE_INSTANCE_ID, this.caseInstanceId, caseInstanceId);
+    beforePersistentStateChange();
     this.caseInstanceId = caseInstanceId;
   }
 
   /* plain setter for persistence */
   public void setCaseInstanceIdWithoutCascade(String caseInstanceId) {
+    beforePersistentStateChange();
     this.caseInstanceId = caseInstanceId;
   }
 
@@ -535,6 +571,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setCaseDefinitionId(String caseDefinitionId) {
+    beforePersistentStateChange();
     this.caseDefinitionId = caseDefinitionId;
   }
 
@@ -667,22 +704,26 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setName(String taskName) {
     registerCommandContextCloseListener();
     propertyChanged(NAME, this.name, taskName);
+    beforePersistentStateChange();
     this.name = taskName;
   }
 
   /* plain setter for persistence */
   public void setNameWithoutCascade(String taskName) {
+    beforePersistentStateChange();
     this.name = taskName;
   }
 
   public void setDescription(String description) {
     registerCommandContextCloseListener();
     propertyChanged(DESCRIPTION, this.description, description);
+    beforePersistentStateChange();
     this.description = description;
   }
 
   /* plain setter for persistence */
   public void setDescriptionWithoutCascade(String description) {
+    beforePersistentStateChange();
     this.description = description;
   }
 
@@ -696,6 +737,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     }
 
     propertyChanged(ASSIGNEE, oldAssignee, assignee);
+    beforePersistentStateChange();
     this.assignee = assignee;
 
     CommandContext commandContext = Context.getCommandContext();
@@ -706,11 +748,13 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
       if (commandContext.getDbEntityManager().contains(this)) {
         fireAssigneeAuthorizationProvider(oldAssignee, assignee);
       }
+      commandContext.getTaskManager().invalidateFilterCounts();
     }
   }
 
   /* plain setter for persistence */
   public void setAssigneeWithoutCascade(String assignee) {
+    beforePersistentStateChange();
     this.assignee = assignee;
   }
 
@@ -724,6 +768,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     }
 
     propertyChanged(OWNER, oldOwner, owner);
+    beforePersistentStateChange();
     this.owner = owner;
 
     CommandContext commandContext = Context.getCommandContext();
@@ -737,36 +782,43 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
 
   /* plain setter for persistence */
   public void setOwnerWithoutCascade(String owner) {
+    beforePersistentStateChange();
     this.owner = owner;
   }
 
   public void setDueDate(Date dueDate) {
     registerCommandContextCloseListener();
     propertyChanged(DUE_DATE, this.dueDate, dueDate);
+    beforePersistentStateChange();
     this.dueDate = dueDate;
   }
 
   public void setDueDateWithoutCascade(Date dueDate) {
+    beforePersistentStateChange();
     this.dueDate = dueDate;
   }
 
   public void setPriority(int priority) {
     registerCommandContextCloseListener();
     propertyChanged(PRIORITY, this.priority, priority);
+    beforePersistentStateChange();
     this.priority = priority;
   }
 
   public void setPriorityWithoutCascade(int priority) {
+    beforePersistentStateChange();
     this.priority = priority;
   }
 
   public void setParentTaskId(String parentTaskId) {
     registerCommandContextCloseListener();
     propertyChanged(PARENT_TASK, this.parentTaskId, parentTaskId);
+    beforePersistentStateChange();
     this.parentTaskId = parentTaskId;
   }
 
   public void setParentTaskIdWithoutCascade(String parentTaskId) {
+    beforePersistentStateChange();
     this.parentTaskId = parentTaskId;
   }
 
@@ -1009,6 +1061,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setCreateTime(Date createTime) {
+    beforePersistentStateChange();
     this.createTime = createTime;
   }
 
@@ -1055,6 +1108,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
 
   public void setProcessDefinitionId(String processDefinitionId) {
+    beforePersistentStateChange();
     this.processDefinitionId = processDefinitionId;
   }
 
@@ -1077,6 +1131,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     this.eventName = eventName;
   }
   public void setExecutionId(String executionId) {
+    beforePersistentStateChange();
     this.executionId = executionId;
   }
   public ExecutionEntity getProcessInstance() {
@@ -1099,10 +1154,12 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   }
   public void setDelegationState(DelegationState delegationState) {
     propertyChanged(DELEGATION, this.delegationState, delegationState);
+    beforePersistentStateChange();
     this.delegationState = delegationState;
   }
 
   public void setDelegationStateWithoutCascade(DelegationState delegationState) {
+    beforePersistentStateChange();
     this.delegationState = delegationState;
   }
 
@@ -1143,6 +1200,7 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
     return suspensionState;
   }
   public void setSuspensionState(int suspensionState) {
+    beforePersistentStateChange();
     this.suspensionState = suspensionState;
   }
   public boolean isSuspended() {
@@ -1156,10 +1214,12 @@ public class TaskEntity extends AbstractVariableScope implements Task, DelegateT
   public void setFollowUpDate(Date followUpDate) {
     registerCommandContextCloseListener();
     propertyChanged(FOLLOW_UP_DATE, this.followUpDate, followUpDate);
+    beforePersistentStateChange();
     this.followUpDate = followUpDate;
   }
 
   public void setFollowUpDateWithoutCascade(Date followUpDate) {
+    beforePersistentStateChange();
     this.followUpDate = followUpDate;
   }
 
@@ -25,6 +25,7 @@ import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.TaskQueryImpl;
 import org.camunda.bpm.engine.impl.cfg.auth.ResourceAuthorizationProvider;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.task.Task;
@@ -38,6 +39,7 @@ public class TaskManager extends AbstractManager {
   public void insertTask(TaskEntity task) {
     getDbEntityManager().insert(task);
     createDefaultAuthorizations(task);
+    invalidateFilterCounts();
   }
 
   @SuppressWarnings({ "unchecked", "rawtypes" })
@@ -105,6 +107,17 @@ public class TaskManager extends AbstractManager {
 
       deleteAuthorizations(Resources.TASK, taskId);
       getDbEntityManager().delete(task);
+      invalidateFilterCounts();
+    }
+  }
+
+  /**
+   * Invalidates the cached filter counts after the current transaction is committed.
+   */
+  public void invalidateFilterCounts() {
+    FilterCountCache filterCountCache = Context.getProcessEngineConfiguration().getFilterCountCache();
+    if (filterCountCache != null) {
+      filterCountCache.invalidateOnCommit(Context.getCommandContext());
     }
   }
 
@@ -0,0 +1,84 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.persistence.entity;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Reads a temporary file and deletes it when the stream is closed or has been
+ * read completely. Like any {@link FileInputStream}, the stream is also closed
+ * when it is garbage collected.
+ */
+public class TemporaryFileInputStream extends FileInputStream {
+
+  protected File file;
+  protected boolean closed = false;
+
+  public TemporaryFileInputStream(File file) throws FileNotFoundException {
+    super(file);
+    this.file = file;
+  }
+
+  public int read() throws IOException {
+    if (closed) {
+      return -1;
+    }
+    int b = super.read();
+    if (b == -1) {
+      close();
+    }
+    return b;
+  }
+
+  public int read(byte[] b) throws IOException {
+    return read(b, 0, b.length);
+  }
+
+  public int read(byte[] b, int off, int len) throws IOException {
+    if (closed) {
+      return -1;
+    }
+    int bytesRead = super.read(b, off, len);
+    if (bytesRead == -1) {
+      close();
+    }
+    return bytesRead;
+  }
+
+  public int available() throws IOException {
+    if (closed) {
+      return 0;
+    }
+    return super.available();
+  }
+
+  public void close() throws IOException {
+    if (!closed) {
+      closed = true;
+      try {
+        super.close();
+      }
+      finally {
+        file.delete();
+      }
+    }
+  }
+
+  public boolean isClosed() {
+    return closed;
+  }
+
+}
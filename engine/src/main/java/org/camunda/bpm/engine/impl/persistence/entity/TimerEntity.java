@@ -118,6 +118,13 @@ public class TimerEntity extends JobEntity {
     return TYPE;
   }
 
+  public TimerEntity createDetachedCopy() {
+    TimerEntity timer = new TimerEntity();
+    copyPersistentStateTo(timer);
+    timer.repeat = repeat;
+    return timer;
+  }
+
   @Override
   public String toString() {
     return this.getClass().getSimpleName()
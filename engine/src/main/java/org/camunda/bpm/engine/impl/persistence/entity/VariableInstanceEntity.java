@@ -21,8 +21,11 @@ import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.cmmn.entity.runtime.CaseExecutionEntity;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
 import org.camunda.bpm.engine.impl.core.variable.value.UntypedValueImpl;
 import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.DbEntityChangeTracker;
+import org.camunda.bpm.engine.impl.db.HasDbChangeTracking;
 import org.camunda.bpm.engine.impl.db.DbEntityLifecycleAware;
 import org.camunda.bpm.engine.impl.db.HasDbRevision;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
@@ -39,7 +42,7 @@ import org.camunda.bpm.engine.variable.value.TypedValue;
 /**
  * @author Tom Baeyens
  */
-public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, ValueFields, DbEntity, DbEntityLifecycleAware, HasDbRevision, Serializable,
+public class VariableInstanceEntity implements VariableInstance, CoreVariableInstance, ValueFields, DbEntity, DbEntityLifecycleAware, HasDbRevision, HasDbChangeTracking, Serializable,
   CommandContextListener {
 
   private static final long serialVersionUID = 1L;
@@ -102,6 +105,9 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
    */
   protected boolean isConcurrentLocal = false;
 
+  /** tracks changes of the persistent state; null if changes are not tracked */
+  protected transient DbEntityChangeTracker changeTracker;
+
   // Default constructor for SQL mapping
   public VariableInstanceEntity() {
   }
@@ -203,6 +209,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setByteArrayValueId(String byteArrayValueId) {
+    beforePersistentStateChange();
     this.byteArrayValueId = byteArrayValueId;
     this.byteArrayValue = null;
   }
@@ -221,7 +228,14 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setByteArrayValue(byte[] bytes) {
-    ByteArrayEntity byteArrayValue = null;
+    insertByteArrayValue(bytes != null ? new ByteArrayEntity(bytes) : null);
+  }
+
+  public void setByteArrayContent(InputStreamSource contentSource) {
+    insertByteArrayValue(contentSource != null ? new ByteArrayEntity(null, contentSource) : null);
+  }
+
+  protected void insertByteArrayValue(ByteArrayEntity byteArrayValue) {
     if (this.byteArrayValueId!=null) {
       getByteArrayValue();
       Context
@@ -229,13 +243,13 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
         .getByteArrayManager()
         .deleteByteArrayById(byteArrayValueId);
     }
-    if (bytes!=null) {
-      byteArrayValue = new ByteArrayEntity(bytes);
+    if (byteArrayValue!=null) {
       Context
         .getCommandContext()
-        .getDbEntityManager()
+        .getByteArrayManager()
         .insert(byteArrayValue);
     }
+    beforePersistentStateChange();
     this.byteArrayValue = byteArrayValue;
     if (byteArrayValue != null) {
       this.byteArrayValueId = byteArrayValue.getId();
@@ -308,6 +322,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
 
     // determine serializer to use
     serializer = getSerializers().findSerializerForValue(value);
+    beforePersistentStateChange();
     serializerName = serializer.getName();
 
     if(value instanceof UntypedValueImpl) {
@@ -332,6 +347,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
 
 
   public void clearValueFields() {
+    beforePersistentStateChange();
     this.longValue = null;
     this.doubleValue = null;
     this.textValue = null;
@@ -386,6 +402,27 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
     ensureSerializerInitialized();
   }
 
+  // change tracking //////////////////////////////////////////////////////////
+
+  public void resetPersistentStateChanges() {
+    if (changeTracker == null) {
+      changeTracker = new DbEntityChangeTracker(this);
+    }
+    else {
+      changeTracker.reset();
+    }
+  }
+
+  public boolean hasPersistentStateChanges() {
+    return changeTracker == null || changeTracker.hasChanges();
+  }
+
+  protected void beforePersistentStateChange() {
+    if (changeTracker != null) {
+      changeTracker.beforeChange();
+    }
+  }
+
   // execution ////////////////////////////////////////////////////////////////
 
   public ExecutionEntity getExecution() {
@@ -399,6 +436,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setExecution(ExecutionEntity execution) {
+    beforePersistentStateChange();
     this.executionId = execution.getId();
     this.processInstanceId = execution.getProcessInstanceId();
     forcedUpdate = true;
@@ -451,6 +489,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setLongValue(Long longValue) {
+    beforePersistentStateChange();
     this.longValue = longValue;
   }
 
@@ -459,6 +498,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setDoubleValue(Double doubleValue) {
+    beforePersistentStateChange();
     this.doubleValue = doubleValue;
   }
 
@@ -467,6 +507,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setTextValue(String textValue) {
+    beforePersistentStateChange();
     this.textValue = textValue;
   }
 
@@ -483,10 +524,12 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setSerializer(TypedValueSerializer<?> serializer) {
+    beforePersistentStateChange();
     this.serializerName = serializer.getName();
   }
 
   public void setSerializerName(String type) {
+    beforePersistentStateChange();
     this.serializerName = type;
   }
 
@@ -518,6 +561,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setTextValue2(String textValue2) {
+    beforePersistentStateChange();
     this.textValue2 = textValue2;
   }
 
@@ -568,10 +612,12 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setSequenceCounter(long sequenceCounter) {
+    beforePersistentStateChange();
     this.sequenceCounter = sequenceCounter;
   }
 
    public void incrementSequenceCounter() {
+    beforePersistentStateChange();
     sequenceCounter++;
   }
 
@@ -581,6 +627,7 @@ public class VariableInstanceEntity implements VariableInstance, CoreVariableIns
   }
 
   public void setConcurrentLocal(boolean isConcurrentLocal) {
+    beforePersistentStateChange();
     this.isConcurrentLocal = isConcurrentLocal;
   }
 
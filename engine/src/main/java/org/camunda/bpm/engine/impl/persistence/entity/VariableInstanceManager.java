@@ -13,14 +13,19 @@
 
 package org.camunda.bpm.engine.impl.persistence.entity;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import org.camunda.bpm.engine.impl.Page;
 import org.camunda.bpm.engine.impl.VariableInstanceQueryImpl;
 import org.camunda.bpm.engine.impl.core.variable.CoreVariableInstance;
+import org.camunda.bpm.engine.impl.core.variable.scope.AbstractVariableScope;
 import org.camunda.bpm.engine.impl.persistence.AbstractManager;
 import org.camunda.bpm.engine.runtime.VariableInstance;
+import org.camunda.bpm.engine.variable.type.ValueType;
 
 
 /**
@@ -38,6 +43,11 @@ public class VariableInstanceManager extends AbstractManager {
     return getDbEntityManager().selectList("selectVariablesByExecutionId", executionId);
   }
 
+  @SuppressWarnings("unchecked")
+  public List<VariableInstanceEntity> findVariableInstancesByProcessInstanceId(String processInstanceId) {
+    return getDbEntityManager().selectList("selectVariablesByProcessInstanceId", processInstanceId);
+  }
+
   @SuppressWarnings("unchecked")
   public List<VariableInstanceEntity> findVariableInstancesByCaseExecutionId(String caseExecutionId) {
     return getDbEntityManager().selectList("selectVariablesByCaseExecutionId", caseExecutionId);
@@ -63,6 +73,43 @@ public class VariableInstanceManager extends AbstractManager {
     return getDbEntityManager().selectList("selectVariableInstanceByQueryCriteria", variableInstanceQuery, page);
   }
 
+  /**
+   * Loads the byte arrays of the variables which {@link AbstractVariableScope#collectVariables}
+   * reads for the given scope with a single query instead of one query per variable.
+   */
+  public void fetchByteArrayValues(AbstractVariableScope variableScope, Collection<String> variableNames, boolean isLocal) {
+    Map<String, CoreVariableInstance> variableInstances = new HashMap<String, CoreVariableInstance>();
+    variableScope.collectVariableInstances(variableInstances, variableNames, isLocal);
+    fetchByteArrayValues(variableInstances.values());
+  }
+
+  /**
+   * Loads the byte arrays of the given variables with a single query instead of
+   * one query per variable.
+   */
+  public void fetchByteArrayValues(Collection<? extends CoreVariableInstance> variableInstances) {
+    boolean isFileValueStreamingEnabled = getCommandContext().getProcessEngineConfiguration().isFileValueStreamingEnabled();
+
+    List<String> byteArrayIds = new ArrayList<String>();
+    for (CoreVariableInstance variableInstance : variableInstances) {
+      if (variableInstance instanceof VariableInstanceEntity) {
+        VariableInstanceEntity variableInstanceEntity = (VariableInstanceEntity) variableInstance;
+        String byteArrayId = variableInstanceEntity.getByteArrayValueId();
+
+        if (byteArrayId != null && !(isFileValueStreamingEnabled && isFileValue(variableInstanceEntity))) {
+          byteArrayIds.add(byteArrayId);
+        }
+      }
+    }
+
+    getByteArrayManager().fetchByteArrays(byteArrayIds);
+  }
+
+  protected boolean isFileValue(VariableInstanceEntity variableInstance) {
+    // streamed file values do not need the byte array
+    return ValueType.FILE.getName().equals(variableInstance.getSerializerName());
+  }
+
   protected void configureAuthorizationCheck(VariableInstanceQueryImpl query) {
     getAuthorizationManager().configureVariableInstanceQuery(query);
   }
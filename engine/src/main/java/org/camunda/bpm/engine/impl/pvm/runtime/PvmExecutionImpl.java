@@ -311,7 +311,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
     setCompleteScope(completeScope);
 
-    isActive = false;
+    setActive(false);
     isEnded = true;
 
     if (hasReplacedParent()) {
@@ -376,7 +376,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
     }
 
-    isActive = false;
+    setActive(false);
     isEnded = true;
 
     if (hasReplacedParent()) {
@@ -623,8 +623,8 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
    */
   public void replace(PvmExecutionImpl execution) {
     // activity instance id handling
-    this.activityInstanceId = execution.getActivityInstanceId();
-    this.isActive = execution.isActive;
+    setActivityInstanceId(execution.getActivityInstanceId());
+    setActive(execution.isActive);
 
     this.replacedBy = null;
     execution.replacedBy = this;
@@ -768,7 +768,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
     this.skipCustomListeners = skipCustomListeners;
     this.skipIoMapping = skipIoMappings;
-    this.activityInstanceId = null;
+    setActivityInstanceId(null);
     this.isEnded = false;
 
     if (!activityStack.isEmpty()) {
@@ -876,7 +876,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
 
   @Override
   public void inactivate() {
-    this.isActive = false;
+    setActive(false);
   }
 
   // executions ///////////////////////////////////////////////////////////////
@@ -1042,7 +1042,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
   public void enterActivityInstance() {
     ActivityImpl activity = getActivity();
 
-    activityInstanceId = generateActivityInstanceId(activity.getId());
+    setActivityInstanceId(generateActivityInstanceId(activity.getId()));
 
     if(log.isLoggable(Level.FINE)) {
       log.fine("[ENTER] "+this + ": "+activityInstanceId+", parent: "+getParentActivityInstanceId());
@@ -1071,7 +1071,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
       }
 
     }
-    activityInstanceId = getParentActivityInstanceId();
+    setActivityInstanceId(getParentActivityInstanceId());
 
     activityInstanceState = ActivityInstanceState.DEFAULT.getStateCode();
   }
@@ -1115,7 +1115,7 @@ public abstract class PvmExecutionImpl extends CoreExecution implements Activity
   }
 
   public void forceUpdateActivityInstance() {
-    activityInstanceId = generateActivityInstanceId(getActivity().getId());
+    setActivityInstanceId(generateActivityInstanceId(getActivity().getId()));
   }
 
   @Override
@@ -14,6 +14,8 @@
 package org.camunda.bpm.engine.impl.runtime;
 
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
@@ -74,6 +76,44 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
   protected List<MessageCorrelationResult> correlateMessageToExecutions(CommandContext commandContext, String messageName,
       CorrelationSet correlationSet) {
 
+    String correlationKey = null;
+    if (messageName != null && isCorrelationKeyLookupApplicable(commandContext)) {
+      correlationKey = MessageCorrelationKey.fromCorrelationKeys(correlationSet.getCorrelationKeys());
+    }
+
+    if (correlationKey == null) {
+      ExecutionQueryImpl query = createExecutionQuery(messageName, correlationSet, null);
+      return toCorrelationResults(query.evaluateExpressionsAndExecuteList(commandContext, null));
+
+    } else {
+      // subscriptions whose key is built from exactly the correlated variables are found by their key
+      List<ExecutionEntity> matchingExecutions = commandContext.getExecutionManager()
+        .findExecutionsByMessageCorrelationKey(messageName, correlationKey, correlationSet.getBusinessKey(), correlationSet.getProcessInstanceId());
+
+      Map<String, Execution> executions = new LinkedHashMap<String, Execution>();
+      for (ExecutionEntity matchingExecution : matchingExecutions) {
+        executions.put(matchingExecution.getId(), matchingExecution);
+      }
+
+      // all other subscriptions, without a key or with a key of other variables,
+      // are matched by the variables of their process instance
+      String otherCorrelationKeysPattern = MessageCorrelationKey.getVariableNamesPrefix(correlationKey) + "%";
+      if (commandContext.getEventSubscriptionManager().hasMessageEventSubscriptionsWithoutCorrelationKeyLike(messageName, otherCorrelationKeysPattern)) {
+        ExecutionQueryImpl query = createExecutionQuery(messageName, correlationSet, otherCorrelationKeysPattern);
+        for (Execution matchingExecution : query.evaluateExpressionsAndExecuteList(commandContext, null)) {
+          executions.put(matchingExecution.getId(), matchingExecution);
+        }
+      }
+
+      return toCorrelationResults(executions.values());
+    }
+  }
+
+  /**
+   * @param excludedCorrelationKeyPattern if not null, subscriptions whose correlation key matches
+   *   the pattern are not queried
+   */
+  protected ExecutionQueryImpl createExecutionQuery(String messageName, CorrelationSet correlationSet, String excludedCorrelationKeyPattern) {
     ExecutionQueryImpl query = new ExecutionQueryImpl();
 
     Map<String, Object> correlationKeys = correlationSet.getCorrelationKeys();
@@ -93,17 +133,21 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
       query.processInstanceId(processInstanceId);
     }
 
-    if (messageName != null) {
-      query.messageEventSubscriptionName(messageName);
-    } else {
+    if (messageName == null) {
       query.messageEventSubscription();
+    } else if (excludedCorrelationKeyPattern != null) {
+      query.messageEventSubscriptionNameWithoutCorrelationKeyLike(messageName, excludedCorrelationKeyPattern);
+    } else {
+      query.messageEventSubscriptionName(messageName);
     }
 
     // restrict to active executions
     query.active();
 
-    List<Execution> matchingExecutions = query.evaluateExpressionsAndExecuteList(commandContext, null);
+    return query;
+  }
 
+  protected List<MessageCorrelationResult> toCorrelationResults(Collection<? extends Execution> matchingExecutions) {
     List<MessageCorrelationResult> result = new ArrayList<MessageCorrelationResult>(matchingExecutions.size());
 
     for(Execution matchingExecution: matchingExecutions) {
@@ -113,6 +157,16 @@ public class DefaultCorrelationHandler implements CorrelationHandler {
     return result;
   }
 
+  /**
+   * The lookup by correlation key does not check authorizations. Whenever they apply,
+   * the executions are queried by their variables only.
+   */
+  protected boolean isCorrelationKeyLookupApplicable(CommandContext commandContext) {
+    return !Context.getProcessEngineConfiguration().isAuthorizationEnabled()
+        || commandContext.getAuthentication() == null
+        || !commandContext.isAuthorizationCheckEnabled();
+  }
+
   protected MessageCorrelationResult tryCorrelateMessageToProcessDefinition(CommandContext commandContext, String messageName, CorrelationSet correlationSet) {
     if (messageName == null) {
       return null;
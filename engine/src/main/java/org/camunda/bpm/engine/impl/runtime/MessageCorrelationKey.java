@@ -0,0 +1,221 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.runtime;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.camunda.bpm.engine.delegate.VariableScope;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+
+/**
+ * <p>Builds the correlation key which is stored with a message event subscription if the message
+ * declares its correlation variables (<code>camunda:correlationVariables</code>). Message
+ * correlation builds the same key from the correlation keys of a {@link CorrelationSet} and
+ * can then find matching subscriptions with a single indexed lookup instead of comparing the
+ * variables of every waiting process instance.</p>
+ *
+ * <p>The key is built from the variables of the process instance, like the variables compared
+ * by message correlation. It consists of the hex encoded variable names in natural order,
+ * followed by the type and the value of each variable. Two keys with the same
+ * {@link #getVariableNamesPrefix(String) prefix} are built from the same variable names. Only
+ * non-null values of concrete primitive types can be part of a key. If a variable is missing,
+ * null, not primitive or of an abstract type like number, or if the key exceeds
+ * {@link #MAX_LENGTH}, no key is built.</p>
+ *
+ * <p>The key of a subscription is rebuilt whenever one of its variables changes, see
+ * {@link org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity#updateMessageCorrelationKeys(String)}.</p>
+ */
+public class MessageCorrelationKey {
+
+  /** the length of the CORRELATION_KEY_ column */
+  public static final int MAX_LENGTH = 255;
+
+  protected static final Charset UTF_8 = Charset.forName("UTF-8");
+  protected static final char NAME_SEPARATOR = '.';
+  protected static final char NAMES_END = '#';
+  protected static final char VALUE_SEPARATOR = '&';
+
+  /**
+   * @return the correlation key for the given variables of the process instance or
+   * <code>null</code> if no key can be built
+   */
+  public static String fromProcessInstance(Collection<String> variableNames, VariableScope processInstance) {
+    if (variableNames == null || variableNames.isEmpty()) {
+      return null;
+    }
+
+    Map<String, TypedValue> values = new TreeMap<String, TypedValue>();
+    for (String variableName : variableNames) {
+      TypedValue value = processInstance.getVariableLocalTyped(variableName, false);
+      if (value == null) {
+        return null;
+      }
+      values.put(variableName, value);
+    }
+
+    return build(values);
+  }
+
+  /**
+   * @return the correlation key for the given correlation keys of a message correlation
+   * or <code>null</code> if no key can be built
+   */
+  public static String fromCorrelationKeys(Map<String, Object> correlationKeys) {
+    if (correlationKeys == null || correlationKeys.isEmpty()) {
+      return null;
+    }
+
+    Map<String, TypedValue> values = new TreeMap<String, TypedValue>();
+    for (Map.Entry<String, Object> correlationKey : correlationKeys.entrySet()) {
+      values.put(correlationKey.getKey(), resolveTypedValue(correlationKey.getValue()));
+    }
+
+    return build(values);
+  }
+
+  /**
+   * @return the part of the key which consists of the variable names. It only contains
+   * hex digits, '.' and '#' and can be used in a <code>like</code> pattern as it is.
+   */
+  public static String getVariableNamesPrefix(String correlationKey) {
+    return correlationKey.substring(0, correlationKey.indexOf(NAMES_END) + 1);
+  }
+
+  /**
+   * @return the names of the variables the key is built from
+   */
+  public static List<String> getVariableNames(String correlationKey) {
+    List<String> variableNames = new ArrayList<String>();
+
+    String prefix = getVariableNamesPrefix(correlationKey);
+    String encodedNames = prefix.substring(0, prefix.length() - 1);
+    for (String encodedName : encodedNames.split("\\" + NAME_SEPARATOR)) {
+      variableNames.add(decodeHex(encodedName));
+    }
+
+    return variableNames;
+  }
+
+  protected static TypedValue resolveTypedValue(Object value) {
+    TypedValue typedValue = Variables.untypedValue(value);
+    if (typedValue.getType() != null) {
+      return typedValue;
+    }
+
+    // resolve the type the same way as it is done when the variable is stored
+    ValueType type = Context.getProcessEngineConfiguration()
+      .getVariableSerializers()
+      .findSerializerForValue(typedValue)
+      .getType();
+
+    return new ResolvedValue(typedValue.getValue(), type);
+  }
+
+  protected static String build(Map<String, TypedValue> values) {
+    StringBuilder names = new StringBuilder();
+    StringBuilder typedValues = new StringBuilder();
+
+    for (Map.Entry<String, TypedValue> entry : values.entrySet()) {
+      TypedValue value = entry.getValue();
+      ValueType type = value.getType();
+      // a null value or a value of an abstract type like number matches variables of
+      // different types, so the executions have to be found by their variables
+      if (value.getValue() == null || type == null || type.isAbstract()
+          || !type.isPrimitiveValueType() || ValueType.BYTES.equals(type)) {
+        return null;
+      }
+
+      if (names.length() > 0) {
+        names.append(NAME_SEPARATOR);
+        typedValues.append(VALUE_SEPARATOR);
+      }
+      names.append(encodeHex(entry.getKey()));
+      typedValues.append(type.getName()).append(':');
+      appendEscaped(typedValues, valueToString(value.getValue()));
+
+      if (names.length() + typedValues.length() + 1 > MAX_LENGTH) {
+        return null;
+      }
+    }
+
+    return names.append(NAMES_END).append(typedValues).toString();
+  }
+
+  protected static String encodeHex(String string) {
+    StringBuilder hex = new StringBuilder();
+    for (byte b : string.getBytes(UTF_8)) {
+      hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+      hex.append(Character.forDigit(b & 0xF, 16));
+    }
+    return hex.toString();
+  }
+
+  protected static String decodeHex(String hex) {
+    byte[] bytes = new byte[hex.length() / 2];
+    for (int i = 0; i < bytes.length; i++) {
+      bytes[i] = (byte) Integer.parseInt(hex.substring(2 * i, 2 * i + 2), 16);
+    }
+    return new String(bytes, UTF_8);
+  }
+
+  protected static String valueToString(Object value) {
+    if (value == null) {
+      return "";
+    } else if (value instanceof Date) {
+      return String.valueOf(((Date) value).getTime());
+    } else {
+      return String.valueOf(value);
+    }
+  }
+
+  protected static void appendEscaped(StringBuilder key, String string) {
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c == '\\' || c == VALUE_SEPARATOR) {
+        key.append('\\');
+      }
+      key.append(c);
+    }
+  }
+
+  protected static class ResolvedValue implements TypedValue {
+
+    private static final long serialVersionUID = 1L;
+
+    protected Object value;
+    protected ValueType type;
+
+    public ResolvedValue(Object value, ValueType type) {
+      this.value = value;
+      this.type = type;
+    }
+
+    public Object getValue() {
+      return value;
+    }
+
+    public ValueType getType() {
+      return type;
+    }
+  }
+
+}
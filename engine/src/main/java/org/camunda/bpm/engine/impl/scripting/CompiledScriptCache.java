@@ -0,0 +1,73 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.impl.scripting;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ConcurrentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruEvictionPolicy;
+
+/**
+ * Caches the scripts which are loaded from resources whose path is determined
+ * during the execution, see {@link DynamicResourceExecutableScript}. A cached
+ * script is compiled on its first evaluation.
+ *
+ * <p>The scripts are cached by deployment, resource path and language. The
+ * scripts of a deployment are removed when the deployment is deleted or removed
+ * from the deployment cache.</p>
+ */
+public class CompiledScriptCache {
+
+  protected ConcurrentCache<List<String>, SourceExecutableScript> scripts;
+
+  public CompiledScriptCache(int capacity) {
+    scripts = new ConcurrentCache<List<String>, SourceExecutableScript>(capacity, new LruEvictionPolicy());
+  }
+
+  /**
+   * @return the cached script or null if the script is not cached
+   */
+  public SourceExecutableScript getScript(String deploymentId, String resourcePath, String language) {
+    return scripts.get(createKey(deploymentId, resourcePath, language));
+  }
+
+  public void putScript(String deploymentId, String resourcePath, SourceExecutableScript script) {
+    scripts.put(createKey(deploymentId, resourcePath, script.getLanguage()), script);
+  }
+
+  public void removeScriptsByDeploymentId(String deploymentId) {
+    for (List<String> key : scripts.keySet()) {
+      if (deploymentId.equals(key.get(0))) {
+        scripts.remove(key);
+      }
+    }
+  }
+
+  public void clear() {
+    scripts.clear();
+  }
+
+  public int size() {
+    return scripts.size();
+  }
+
+  public int getCapacity() {
+    return scripts.getCapacity();
+  }
+
+  protected List<String> createKey(String deploymentId, String resourcePath, String language) {
+    return Arrays.asList(deploymentId, resourcePath, language);
+  }
+
+}
@@ -13,8 +13,12 @@
 
 package org.camunda.bpm.engine.impl.scripting;
 
+import javax.script.Bindings;
+import javax.script.ScriptEngine;
+
 import org.camunda.bpm.engine.delegate.Expression;
 import org.camunda.bpm.engine.delegate.VariableScope;
+import org.camunda.bpm.engine.impl.context.BpmnExecutionContext;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.persistence.entity.DeploymentEntity;
 import org.camunda.bpm.engine.impl.util.ResourceUtil;
@@ -31,6 +35,27 @@ public class DynamicResourceExecutableScript extends DynamicExecutableScript {
     super(scriptResourceExpression, language);
   }
 
+  @Override
+  public Object evaluate(ScriptEngine scriptEngine, VariableScope variableScope, Bindings bindings) {
+    CompiledScriptCache compiledScriptCache = Context.getProcessEngineConfiguration().getCompiledScriptCache();
+    String deploymentId = getDeploymentId();
+    if (compiledScriptCache == null || deploymentId == null) {
+      return super.evaluate(scriptEngine, variableScope, bindings);
+    }
+
+    String scriptPath = evaluateExpression(variableScope);
+
+    SourceExecutableScript script = compiledScriptCache.getScript(deploymentId, scriptPath, language);
+    if (script == null) {
+      String source = ResourceUtil.loadResourceContent(scriptPath, getDeployment());
+      // the script is compiled on its first evaluation
+      script = new SourceExecutableScript(language, source);
+      compiledScriptCache.putScript(deploymentId, scriptPath, script);
+    }
+
+    return script.evaluate(scriptEngine, variableScope, bindings);
+  }
+
   public String getScriptSource(VariableScope variableScope) {
     String scriptPath = evaluateExpression(variableScope);
     return ResourceUtil.loadResourceContent(scriptPath, getDeployment());
@@ -40,4 +65,12 @@ public class DynamicResourceExecutableScript extends DynamicExecutableScript {
     return Context.getBpmnExecutionContext().getDeployment();
   }
 
+  protected String getDeploymentId() {
+    BpmnExecutionContext executionContext = Context.getBpmnExecutionContext();
+    if (executionContext != null) {
+      return executionContext.getProcessDefinition().getDeploymentId();
+    }
+    return null;
+  }
+
 }
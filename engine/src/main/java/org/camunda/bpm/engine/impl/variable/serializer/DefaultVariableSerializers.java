@@ -17,10 +17,12 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.variable.type.ValueType;
+import org.camunda.bpm.engine.variable.value.SerializableValue;
 import org.camunda.bpm.engine.variable.value.TypedValue;
 
 /**
@@ -31,9 +33,15 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
 
   private static final long serialVersionUID = 1L;
 
+  /** upper bound for the number of cached serializer resolutions */
+  public static final int MAX_CACHED_RESOLUTIONS = 1000;
+
   protected List<TypedValueSerializer<?>> serializerList = new ArrayList<TypedValueSerializer<?>>();
   protected Map<String, TypedValueSerializer<?>> serializerMap = new HashMap<String, TypedValueSerializer<?>>();
 
+  /** caches the serializer resolved for a value shape; cleared whenever the serializers change */
+  protected transient volatile Map<SerializerResolutionKey, TypedValueSerializer<?>> resolutionCache;
+
   public TypedValueSerializer<?> getSerializerByName(String serializerName) {
     return serializerMap.get(serializerName);
   }
@@ -42,13 +50,34 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
 
     String defaultSerializationFormat = Context.getProcessEngineConfiguration().getDefaultSerializationFormat();
 
-    List<TypedValueSerializer<?>> matchedSerializers = new ArrayList<TypedValueSerializer<?>>();
-
     ValueType type = value.getType();
     if (type != null && type.isAbstract()) {
       throw new ProcessEngineException("Cannot serialize value of abstract type " + type.getName());
     }
 
+    Map<SerializerResolutionKey, TypedValueSerializer<?>> cache = getResolutionCache();
+    SerializerResolutionKey key = new SerializerResolutionKey(value, defaultSerializationFormat);
+
+    TypedValueSerializer<?> serializer = cache.get(key);
+    // the key only captures the shape of the value => still make sure the serializer accepts this particular value
+    if (serializer == null || !serializer.canHandle(value)) {
+      serializer = resolveSerializer(value, defaultSerializationFormat);
+
+      if (cache.size() >= MAX_CACHED_RESOLUTIONS) {
+        cache.clear();
+      }
+      cache.put(key, serializer);
+    }
+
+    return serializer;
+  }
+
+  protected TypedValueSerializer<?> resolveSerializer(TypedValue value, String defaultSerializationFormat) {
+
+    List<TypedValueSerializer<?>> matchedSerializers = new ArrayList<TypedValueSerializer<?>>();
+
+    ValueType type = value.getType();
+
     for (TypedValueSerializer<?> serializer : serializerList) {
       if(type == null || serializer.getType().equals(type)) {
 
@@ -93,6 +122,7 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
   public DefaultVariableSerializers addSerializer(TypedValueSerializer<?> serializer, int index) {
     serializerList.add(index, serializer);
     serializerMap.put(serializer.getName(), serializer);
+    clearResolutionCache();
     return this;
   }
 
@@ -103,6 +133,7 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
     for (TypedValueSerializer<?> serializer : serializerList) {
       serializerMap.put(serializer.getName(), serializer);
     }
+    clearResolutionCache();
   }
 
   public int getSerializerIndex(TypedValueSerializer<?> serializer) {
@@ -121,8 +152,104 @@ public class DefaultVariableSerializers implements Serializable, VariableSeriali
   public VariableSerializers removeSerializer(TypedValueSerializer<?> serializer) {
     serializerList.remove(serializer);
     serializerMap.remove(serializer.getName());
+    clearResolutionCache();
     return this;
   }
 
+  protected Map<SerializerResolutionKey, TypedValueSerializer<?>> getResolutionCache() {
+    Map<SerializerResolutionKey, TypedValueSerializer<?>> cache = resolutionCache;
+    if (cache == null) {
+      cache = new ConcurrentHashMap<SerializerResolutionKey, TypedValueSerializer<?>>();
+      resolutionCache = cache;
+    }
+    return cache;
+  }
+
+  public void clearResolutionCache() {
+    Map<SerializerResolutionKey, TypedValueSerializer<?>> cache = resolutionCache;
+    if (cache != null) {
+      cache.clear();
+    }
+  }
+
+  public int getResolutionCacheSize() {
+    Map<SerializerResolutionKey, TypedValueSerializer<?>> cache = resolutionCache;
+    return cache != null ? cache.size() : 0;
+  }
+
+  /**
+   * Describes everything the serializer resolution depends on: the value type, the
+   * class of the typed value and of the wrapped object, the requested serialization
+   * format and the configured default format. Classes are referenced by name so that
+   * the cache does not keep process application class loaders alive.
+   */
+  protected static class SerializerResolutionKey {
+
+    protected final ValueType type;
+    protected final String typedValueClassName;
+    protected final String valueClassName;
+    protected final String serializationDataFormat;
+    protected final boolean deserialized;
+    protected final String defaultSerializationFormat;
+    protected final int hashCode;
+
+    public SerializerResolutionKey(TypedValue value, String defaultSerializationFormat) {
+      this.type = value.getType();
+      this.typedValueClassName = value.getClass().getName();
+      this.defaultSerializationFormat = defaultSerializationFormat;
+
+      if (value instanceof SerializableValue) {
+        SerializableValue serializableValue = (SerializableValue) value;
+        this.serializationDataFormat = serializableValue.getSerializationDataFormat();
+        this.deserialized = serializableValue.isDeserialized();
+      }
+      else {
+        this.serializationDataFormat = null;
+        this.deserialized = true;
+      }
+
+      Object object = deserialized ? value.getValue() : null;
+      this.valueClassName = object != null ? object.getClass().getName() : null;
+
+      this.hashCode = computeHashCode();
+    }
+
+    protected int computeHashCode() {
+      final int prime = 31;
+      int result = 1;
+      result = prime * result + (type == null ? 0 : type.hashCode());
+      result = prime * result + typedValueClassName.hashCode();
+      result = prime * result + (valueClassName == null ? 0 : valueClassName.hashCode());
+      result = prime * result + (serializationDataFormat == null ? 0 : serializationDataFormat.hashCode());
+      result = prime * result + (deserialized ? 1231 : 1237);
+      result = prime * result + (defaultSerializationFormat == null ? 0 : defaultSerializationFormat.hashCode());
+      return result;
+    }
+
+    public int hashCode() {
+      return hashCode;
+    }
+
+    public boolean equals(Object obj) {
+      if (this == obj) {
+        return true;
+      }
+      if (!(obj instanceof SerializerResolutionKey)) {
+        return false;
+      }
+      SerializerResolutionKey other = (SerializerResolutionKey) obj;
+      return hashCode == other.hashCode
+          && deserialized == other.deserialized
+          && equal(type, other.type)
+          && typedValueClassName.equals(other.typedValueClassName)
+          && equal(valueClassName, other.valueClassName)
+          && equal(serializationDataFormat, other.serializationDataFormat)
+          && equal(defaultSerializationFormat, other.defaultSerializationFormat);
+    }
+
+    protected static boolean equal(Object a, Object b) {
+      return a == null ? b == null : a.equals(b);
+    }
+  }
 
 }
@@ -14,8 +14,11 @@ package org.camunda.bpm.engine.impl.variable.serializer;
 
 import java.util.Arrays;
 
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.context.Context;
 import org.camunda.bpm.engine.impl.core.variable.value.FileValueImpl;
 import org.camunda.bpm.engine.impl.core.variable.value.UntypedValueImpl;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayInputStreamSource;
 import org.camunda.bpm.engine.variable.Variables;
 import org.camunda.bpm.engine.variable.type.ValueType;
 import org.camunda.bpm.engine.variable.value.FileValue;
@@ -46,8 +49,14 @@ public class FileValueSerializer extends AbstractTypedValueSerializer<FileValue>
 
   @Override
   public void writeValue(FileValue value, ValueFields valueFields) {
-    byte[] data = ((FileValueImpl) value).getByteArray();
-    valueFields.setByteArrayValue(data);
+    FileValueImpl fileValue = (FileValueImpl) value;
+    if (fileValue.getContentSource() != null) {
+      // stream the content into the database instead of loading it
+      valueFields.setByteArrayContent(fileValue.getContentSource());
+    }
+    else {
+      valueFields.setByteArrayValue(fileValue.getByteArray());
+    }
     valueFields.setTextValue(value.getFilename());
     if (value.getMimeType() == null && value.getEncoding() != null) {
       valueFields.setTextValue2(MIMETYPE_ENCODING_SEPARATOR + value.getEncoding());
@@ -66,7 +75,8 @@ public class FileValueSerializer extends AbstractTypedValueSerializer<FileValue>
   @Override
   public FileValue readValue(ValueFields valueFields, boolean deserializeValue) {
     FileValueBuilder builder = Variables.fileValue(valueFields.getTextValue());
-    if (valueFields.getByteArrayValue() != null) {
+    boolean isStreamed = isStreamingEnabled() && valueFields.getByteArrayValueId() != null;
+    if (!isStreamed && valueFields.getByteArrayValue() != null) {
       builder.file(valueFields.getByteArrayValue().getBytes());
     }
     // to ensure the same array size all the time
@@ -79,7 +89,18 @@ public class FileValueSerializer extends AbstractTypedValueSerializer<FileValue>
       builder.mimeType(mimeType);
       builder.encoding(encoding);
     }
-    return builder.create();
+    FileValue fileValue = builder.create();
+    if (isStreamed) {
+      // do not load the content now but stream it from the database when it is read
+      ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+      ((FileValueImpl) fileValue).setContentSource(new ByteArrayInputStreamSource(processEngineConfiguration, valueFields.getByteArrayValueId()));
+    }
+    return fileValue;
+  }
+
+  protected boolean isStreamingEnabled() {
+    ProcessEngineConfigurationImpl processEngineConfiguration = Context.getProcessEngineConfiguration();
+    return processEngineConfiguration != null && processEngineConfiguration.isFileValueStreamingEnabled();
   }
 
   protected String returnNullIfEmptyString(String s) {
@@ -13,6 +13,7 @@
 
 package org.camunda.bpm.engine.impl.variable.serializer;
 
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 
 
@@ -40,4 +41,10 @@ public interface ValueFields {
   ByteArrayEntity getByteArrayValue();
   void setByteArrayValue(byte[] bytes);
 
+  /**
+   * Like {@link #setByteArrayValue(byte[])} but the bytes are streamed from
+   * the given source when the byte array is inserted.
+   */
+  void setByteArrayContent(InputStreamSource contentSource);
+
 }
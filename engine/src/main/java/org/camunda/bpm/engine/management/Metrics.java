@@ -43,4 +43,18 @@ public class Metrics {
    */
   public final static String JOB_LOCKED_EXCLUSIVE = "job-locked-exclusive";
 
+  /**
+   * Prefix of the histograms of command durations in milliseconds. The simple class
+   * name of the command is appended, e.g. <code>command-duration.StartProcessInstanceCmd</code>.
+   * Only recorded if duration metrics are enabled.
+   */
+  public final static String COMMAND_DURATION = "command-duration";
+
+  /**
+   * Prefix of the histograms of job execution durations in milliseconds. The job handler
+   * type is appended, e.g. <code>job-execution-duration.async-continuation</code>.
+   * Only recorded if duration metrics are enabled.
+   */
+  public final static String JOB_EXECUTION_DURATION = "job-execution-duration";
+
 }
@@ -17,6 +17,39 @@ values ('next.dbid', '1', 1);
 insert into ACT_GE_PROPERTY
 values ('deployment.lock', '0', 1);
 
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.0', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.1', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.2', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.3', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.4', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.5', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.6', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.7', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.8', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('authorization.revision.9', '0', 1);
+
+insert into ACT_GE_PROPERTY
+values ('statistics.counter.rebuild', '0', 1);
+
 create table ACT_GE_BYTEARRAY (
     ID_ varchar(64),
     REV_ integer,
@@ -24,6 +57,7 @@ create table ACT_GE_BYTEARRAY (
     DEPLOYMENT_ID_ varchar(64),
     BYTES_ LONGBLOB,
     GENERATED_ TINYINT,
+    CHECKSUM_ varchar(64),
     primary key (ID_)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
 
@@ -176,6 +210,7 @@ create table ACT_RU_EVENT_SUBSCR (
     ACTIVITY_ID_ varchar(64),
     CONFIGURATION_ varchar(255),
     CREATED_ timestamp not null,
+    CORRELATION_KEY_ varchar(255),
     primary key (ID_)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
 
@@ -227,17 +262,29 @@ create table ACT_RU_METER_LOG (
   primary key (ID_)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
 
+create table ACT_RU_STATS_COUNTER (
+  ID_ varchar(64) not null,
+  PROC_DEF_ID_ varchar(64) not null,
+  TYPE_ varchar(64) not null,
+  INCIDENT_TYPE_ varchar(255) not null,
+  VALUE_ bigint,
+  primary key (ID_)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8 COLLATE utf8_bin;
+
 create index ACT_IDX_EXEC_BUSKEY on ACT_RU_EXECUTION(BUSINESS_KEY_);
 create index ACT_IDX_TASK_CREATE on ACT_RU_TASK(CREATE_TIME_);
 create index ACT_IDX_TASK_ASSIGNEE on ACT_RU_TASK(ASSIGNEE_);
 create index ACT_IDX_IDENT_LNK_USER on ACT_RU_IDENTITYLINK(USER_ID_);
 create index ACT_IDX_IDENT_LNK_GROUP on ACT_RU_IDENTITYLINK(GROUP_ID_);
 create index ACT_IDX_EVENT_SUBSCR_CONFIG_ on ACT_RU_EVENT_SUBSCR(CONFIGURATION_);
+create index ACT_IDX_EVENT_SUBSCR_EVT_NAME on ACT_RU_EVENT_SUBSCR(EVENT_NAME_);
+create index ACT_IDX_EVENT_SUBSCR_CORR_KEY on ACT_RU_EVENT_SUBSCR(CORRELATION_KEY_);
 create index ACT_IDX_VARIABLE_TASK_ID on ACT_RU_VARIABLE(TASK_ID_);
 create index ACT_IDX_ATHRZ_PROCEDEF on ACT_RU_IDENTITYLINK(PROC_DEF_ID_);
 create index ACT_IDX_INC_CONFIGURATION on ACT_RU_INCIDENT(CONFIGURATION_);
 create index ACT_IDX_JOB_PROCINST on ACT_RU_JOB(PROCESS_INSTANCE_ID_);
 create index ACT_IDX_METER_LOG on ACT_RU_METER_LOG(NAME_,TIMESTAMP_);
+create unique index ACT_UNIQ_STATS_COUNTER on ACT_RU_STATS_COUNTER(PROC_DEF_ID_,TYPE_,INCIDENT_TYPE_);
 
 alter table ACT_GE_BYTEARRAY
     add constraint ACT_FK_BYTEARR_DEPL
@@ -71,6 +71,8 @@ alter table ACT_RU_INCIDENT
     drop foreign key ACT_FK_INC_RCAUSE;
 
 drop index ACT_IDX_EVENT_SUBSCR_CONFIG_;
+drop index ACT_IDX_EVENT_SUBSCR_EVT_NAME;
+drop index ACT_IDX_EVENT_SUBSCR_CORR_KEY;
 drop index ACT_IDX_ATHRZ_PROCEDEF;
 
 -- indexes for concurrency problems - https://app.camunda.com/jira/browse/CAM-1646 --
@@ -94,6 +96,7 @@ drop index ACT_IDX_TASK_EXEC;
 drop index ACT_IDX_TASK_PROCINST;
 drop index ACT_IDX_TASK_PROC_DEF_ID;
 drop index ACT_IDX_METER_LOG;
+drop index ACT_UNIQ_STATS_COUNTER;
 
 drop table ACT_GE_PROPERTY;
 drop table ACT_GE_BYTEARRAY;
@@ -110,4 +113,5 @@ drop table ACT_RU_INCIDENT;
 drop table ACT_RU_AUTHORIZATION;
 drop table ACT_RU_FILTER;
 drop table ACT_RU_METER_LOG;
+drop table ACT_RU_STATS_COUNTER;
 
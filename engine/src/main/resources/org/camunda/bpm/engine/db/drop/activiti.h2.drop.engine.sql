@@ -80,6 +80,8 @@ alter table ACT_RU_VARIABLE
     drop constraint ACT_UNIQ_VARIABLE;
 
 drop index ACT_IDX_EVENT_SUBSCR_CONFIG_;
+drop index ACT_IDX_EVENT_SUBSCR_EVT_NAME;
+drop index ACT_IDX_EVENT_SUBSCR_CORR_KEY;
 drop index ACT_IDX_ATHRZ_PROCEDEF;
 
 -- indexes for deadlock problems - https://app.camunda.com/jira/browse/CAM-2567
@@ -90,6 +92,7 @@ drop index ACT_IDX_INC_PROCINSTID;
 drop index ACT_IDX_INC_ROOTCAUSEINCID;
 
 drop index ACT_IDX_METER_LOG;
+drop index ACT_UNIQ_STATS_COUNTER;
 
 drop table ACT_GE_PROPERTY if exists;
 drop table ACT_GE_BYTEARRAY if exists;
@@ -106,4 +109,5 @@ drop table ACT_RU_INCIDENT if exists;
 drop table ACT_RU_AUTHORIZATION if exists;
 drop table ACT_RU_FILTER if exists;
 drop table ACT_RU_METER_LOG if exists;
+drop table ACT_RU_STATS_COUNTER if exists;
 
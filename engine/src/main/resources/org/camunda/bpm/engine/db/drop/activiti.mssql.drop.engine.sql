@@ -5,6 +5,8 @@ drop index ACT_RU_IDENTITYLINK.ACT_IDX_IDENT_LNK_USER;
 drop index ACT_RU_IDENTITYLINK.ACT_IDX_IDENT_LNK_GROUP;
 drop index ACT_RU_VARIABLE.ACT_IDX_VARIABLE_TASK_ID;
 drop index ACT_RU_EVENT_SUBSCR.ACT_IDX_EVENT_SUBSCR_CONFIG_;
+drop index ACT_RU_EVENT_SUBSCR.ACT_IDX_EVENT_SUBSCR_EVT_NAME;
+drop index ACT_RU_EVENT_SUBSCR.ACT_IDX_EVENT_SUBSCR_CORR_KEY;
 drop index ACT_RU_INCIDENT.ACT_IDX_INC_CONFIGURATION;
 drop index ACT_RU_JOB.ACT_IDX_JOB_PROCINST;
 drop index ACT_RU_AUTHORIZATION.ACT_UNIQ_AUTH_GROUP;
@@ -12,6 +14,7 @@ drop index ACT_RU_AUTHORIZATION.ACT_UNIQ_AUTH_USER;
 drop index ACT_RU_VARIABLE.ACT_UNIQ_VARIABLE;
 
 drop index ACT_RU_METER_LOG.ACT_IDX_METER_LOG;
+drop index ACT_RU_STATS_COUNTER.ACT_UNIQ_STATS_COUNTER;
 
 -- indexes for concurrency problems - https://app.camunda.com/jira/browse/CAM-1646 --
 drop index ACT_RU_EXECUTION.ACT_IDX_EXECUTION_PROC;
@@ -108,3 +111,4 @@ if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = '
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_AUTHORIZATION') drop table ACT_RU_AUTHORIZATION;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_FILTER') drop table ACT_RU_FILTER;
 if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_METER_LOG') drop table ACT_RU_METER_LOG;
+if exists (select TABLE_NAME from INFORMATION_SCHEMA.TABLES where TABLE_NAME = 'ACT_RU_STATS_COUNTER') drop table ACT_RU_STATS_COUNTER;
@@ -8,6 +8,7 @@ drop index ACT_IDX_INC_CONFIGURATION on ACT_RU_INCIDENT;
 drop index ACT_IDX_JOB_PROCINST on ACT_RU_JOB;
 
 drop index ACT_IDX_METER_LOG on ACT_RU_METER_LOG;
+drop index ACT_UNIQ_STATS_COUNTER on ACT_RU_STATS_COUNTER;
 
 alter table ACT_GE_BYTEARRAY 
     drop FOREIGN KEY ACT_FK_BYTEARR_DEPL;
@@ -71,6 +72,8 @@ alter table ACT_RU_INCIDENT
     
 drop index ACT_IDX_ATHRZ_PROCEDEF on ACT_RU_IDENTITYLINK;
 drop index ACT_IDX_EVENT_SUBSCR_CONFIG_ on ACT_RU_EVENT_SUBSCR;
+drop index ACT_IDX_EVENT_SUBSCR_EVT_NAME on ACT_RU_EVENT_SUBSCR;
+drop index ACT_IDX_EVENT_SUBSCR_CORR_KEY on ACT_RU_EVENT_SUBSCR;
 
 -- indexes for deadlock problems - https://app.camunda.com/jira/browse/CAM-2567
 drop index ACT_IDX_INC_CAUSEINCID on ACT_RU_INCIDENT;
@@ -94,3 +97,4 @@ drop table if exists ACT_RU_INCIDENT;
 drop table if exists ACT_RU_AUTHORIZATION;
 drop table if exists ACT_RU_FILTER;
 drop table if exists ACT_RU_METER_LOG;
+drop table if exists ACT_RU_STATS_COUNTER;
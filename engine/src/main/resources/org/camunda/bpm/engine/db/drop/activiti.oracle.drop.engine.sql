@@ -21,6 +21,7 @@ drop index ACT_IDX_IDENT_LNK_GROUP;
 drop index ACT_IDX_VARIABLE_TASK_ID;
 
 drop index ACT_IDX_METER_LOG;
+drop index ACT_UNIQ_STATS_COUNTER;
 
 alter table ACT_GE_BYTEARRAY
     drop CONSTRAINT ACT_FK_BYTEARR_DEPL;
@@ -89,6 +90,8 @@ alter table ACT_RU_VARIABLE
     drop CONSTRAINT ACT_UNIQ_VARIABLE;
 
 drop index ACT_IDX_EVENT_SUBSCR_CONFIG_;
+drop index ACT_IDX_EVENT_SUBSCR_EVT_NAME;
+drop index ACT_IDX_EVENT_SUBSCR_CORR_KEY;
 drop index ACT_IDX_EVENT_SUBSCR;
 drop index ACT_IDX_ATHRZ_PROCEDEF;
 
@@ -114,3 +117,4 @@ drop table  ACT_RU_INCIDENT;
 drop table  ACT_RU_AUTHORIZATION;
 drop table  ACT_RU_FILTER;
 drop table  ACT_RU_METER_LOG;
+drop table  ACT_RU_STATS_COUNTER;
@@ -0,0 +1,237 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.container.impl.deployment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.ObjectName;
+
+import org.camunda.bpm.application.impl.EmbeddedProcessApplication;
+import org.camunda.bpm.application.impl.metadata.ProcessArchiveXmlImpl;
+import org.camunda.bpm.application.impl.metadata.ProcessesXmlImpl;
+import org.camunda.bpm.application.impl.metadata.spi.ProcessArchiveXml;
+import org.camunda.bpm.application.impl.metadata.spi.ProcessesXml;
+import org.camunda.bpm.container.impl.RuntimeContainerDelegateImpl;
+import org.camunda.bpm.container.impl.jmx.MBeanServiceContainer;
+import org.camunda.bpm.container.impl.jmx.services.JmxManagedThreadPool;
+import org.camunda.bpm.container.impl.metadata.spi.ProcessEngineXml;
+import org.camunda.bpm.container.impl.spi.DeploymentOperation;
+import org.camunda.bpm.container.impl.spi.DeploymentOperationStep;
+import org.camunda.bpm.container.impl.spi.ServiceTypes;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests that the resources of the process archives are read on the executor
+ * service of the container.
+ */
+public class DeployProcessArchivesStepTest {
+
+  private MBeanServiceContainer container = new MBeanServiceContainer();
+
+  private DeploymentOperation deploymentOperation;
+
+  private ThreadPoolExecutor threadPoolExecutor;
+
+  private TestDeployProcessArchivesStep step;
+
+  @Before
+  public void setUp() throws Exception {
+    deploymentOperation = new DeploymentOperation("name", container, new ArrayList<DeploymentOperationStep>());
+    deploymentOperation.addAttachment(Attachments.PROCESS_APPLICATION, new EmbeddedProcessApplication());
+
+    List<ProcessArchiveXml> processArchives = new ArrayList<ProcessArchiveXml>();
+    processArchives.add(createProcessArchive("pa1"));
+    processArchives.add(createProcessArchive("pa2"));
+    ProcessesXml processesXml = new ProcessesXmlImpl(Collections.<ProcessEngineXml> emptyList(), processArchives);
+
+    Map<URL, ProcessesXml> processesXmls = new HashMap<URL, ProcessesXml>();
+    processesXmls.put(new URL("file:/META-INF/processes.xml"), processesXml);
+    deploymentOperation.addAttachment(Attachments.PROCESSES_XML_RESOURCES, processesXmls);
+
+    LinkedBlockingQueue<Runnable> queue = new LinkedBlockingQueue<Runnable>();
+    threadPoolExecutor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, queue);
+
+    step = new TestDeployProcessArchivesStep();
+  }
+
+  @After
+  public void tearDown() {
+    if (container.getService(getObjectNameForExecutor()) != null) {
+      container.stopService(ServiceTypes.BPM_PLATFORM, RuntimeContainerDelegateImpl.SERVICE_NAME_EXECUTOR);
+    }
+    threadPoolExecutor.shutdownNow();
+  }
+
+  @Test
+  public void testResourcesAreReadOnExecutorService() {
+    startExecutorService();
+
+    step.performOperationStep(deploymentOperation);
+
+    assertEquals(2, step.deploymentSteps.size());
+    for (TestDeployProcessArchiveStep deploymentStep : step.deploymentSteps) {
+      assertNotNull(deploymentStep.getDeploymentResources());
+      assertTrue(deploymentStep.getDeploymentResources().containsKey(deploymentStep.getProcessArchive().getName()));
+
+      assertNotNull(deploymentStep.readingThread);
+      assertFalse(Thread.currentThread().equals(deploymentStep.readingThread));
+    }
+  }
+
+  @Test
+  public void testResourcesAreReadByCallingThreadIfExecutorServiceIsBusy() throws Exception {
+    startExecutorService();
+
+    // occupy all threads of the executor service
+    final CountDownLatch busyLatch = new CountDownLatch(1);
+    for (int i = 0; i < threadPoolExecutor.getMaximumPoolSize(); i++) {
+      threadPoolExecutor.execute(new Runnable() {
+        public void run() {
+          try {
+            busyLatch.await();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      });
+    }
+
+    try {
+      step.performOperationStep(deploymentOperation);
+    }
+    finally {
+      busyLatch.countDown();
+    }
+
+    assertEquals(2, step.deploymentSteps.size());
+    for (TestDeployProcessArchiveStep deploymentStep : step.deploymentSteps) {
+      assertNotNull(deploymentStep.getDeploymentResources());
+      assertEquals(Thread.currentThread(), deploymentStep.readingThread);
+    }
+  }
+
+  @Test
+  public void testResourcesAreReadByDeploymentStepIfReadingFails() {
+    startExecutorService();
+    step.failingProcessArchive = "pa1";
+
+    step.performOperationStep(deploymentOperation);
+
+    assertEquals(2, step.deploymentSteps.size());
+    for (TestDeployProcessArchiveStep deploymentStep : step.deploymentSteps) {
+      if ("pa1".equals(deploymentStep.getProcessArchive().getName())) {
+        // the step reads the resources again when it is performed
+        assertNull(deploymentStep.getDeploymentResources());
+      } else {
+        assertNotNull(deploymentStep.getDeploymentResources());
+      }
+    }
+  }
+
+  @Test
+  public void testResourcesAreReadByDeploymentStepIfExecutorServiceRejectsReading() {
+    startExecutorService();
+    threadPoolExecutor.shutdown();
+
+    step.performOperationStep(deploymentOperation);
+
+    assertEquals(2, step.deploymentSteps.size());
+    for (TestDeployProcessArchiveStep deploymentStep : step.deploymentSteps) {
+      assertNull(deploymentStep.getDeploymentResources());
+      assertNull(deploymentStep.readingThread);
+    }
+  }
+
+  @Test
+  public void testResourcesAreReadByDeploymentStepWithoutExecutorService() {
+    step.performOperationStep(deploymentOperation);
+
+    assertEquals(2, step.deploymentSteps.size());
+    for (TestDeployProcessArchiveStep deploymentStep : step.deploymentSteps) {
+      assertNull(deploymentStep.getDeploymentResources());
+      assertNull(deploymentStep.readingThread);
+    }
+  }
+
+  private void startExecutorService() {
+    JmxManagedThreadPool executorService = new JmxManagedThreadPool((LinkedBlockingQueue<Runnable>) threadPoolExecutor.getQueue(), threadPoolExecutor);
+    container.startService(ServiceTypes.BPM_PLATFORM, RuntimeContainerDelegateImpl.SERVICE_NAME_EXECUTOR, executorService);
+  }
+
+  private ProcessArchiveXml createProcessArchive(String name) {
+    ProcessArchiveXmlImpl processArchive = new ProcessArchiveXmlImpl();
+    processArchive.setName(name);
+    processArchive.setProcessResourceNames(Collections.<String> emptyList());
+    processArchive.setProperties(new HashMap<String, String>());
+    return processArchive;
+  }
+
+  private ObjectName getObjectNameForExecutor() {
+    String localName = MBeanServiceContainer.composeLocalName(ServiceTypes.BPM_PLATFORM, RuntimeContainerDelegateImpl.SERVICE_NAME_EXECUTOR);
+    return MBeanServiceContainer.getObjectName(localName);
+  }
+
+  private static class TestDeployProcessArchivesStep extends DeployProcessArchivesStep {
+
+    private List<TestDeployProcessArchiveStep> deploymentSteps = new ArrayList<TestDeployProcessArchiveStep>();
+
+    private String failingProcessArchive;
+
+    protected DeployProcessArchiveStep createDeployProcessArchiveStep(ProcessArchiveXml parsedProcessArchive, URL url) {
+      TestDeployProcessArchiveStep deploymentStep = new TestDeployProcessArchiveStep(parsedProcessArchive, url,
+          parsedProcessArchive.getName().equals(failingProcessArchive));
+      deploymentSteps.add(deploymentStep);
+      return deploymentStep;
+    }
+
+  }
+
+  private static class TestDeployProcessArchiveStep extends DeployProcessArchiveStep {
+
+    private final boolean failReading;
+
+    private volatile Thread readingThread;
+
+    public TestDeployProcessArchiveStep(ProcessArchiveXml parsedProcessArchive, URL url, boolean failReading) {
+      super(parsedProcessArchive, url);
+      this.failReading = failReading;
+    }
+
+    public Map<String, byte[]> findDeploymentResources(ClassLoader processApplicationClassloader) {
+      readingThread = Thread.currentThread();
+      if (failReading) {
+        throw new IllegalStateException("cannot read resources");
+      }
+      return Collections.singletonMap(processArchive.getName(), new byte[0]);
+    }
+
+  }
+
+}
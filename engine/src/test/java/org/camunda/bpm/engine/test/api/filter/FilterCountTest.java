@@ -0,0 +1,170 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.filter;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Map;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.filter.Filter;
+import org.camunda.bpm.engine.impl.filter.FilterCountCache;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.task.TaskQuery;
+
+/**
+ * Tests counting the results of multiple filters with a single command.
+ */
+public class FilterCountTest extends PluggableProcessEngineTestCase {
+
+  protected Filter allTasksFilter;
+  protected Filter sameQueryFilter;
+  protected Filter assignedTasksFilter;
+
+  public void setUp() {
+    allTasksFilter = createFilter("all", taskService.createTaskQuery());
+    sameQueryFilter = createFilter("same", taskService.createTaskQuery());
+    assignedTasksFilter = createFilter("assigned", taskService.createTaskQuery().taskAssignee("kermit"));
+
+    createTask("task1", "kermit");
+    createTask("task2", null);
+  }
+
+  public void tearDown() {
+    processEngineConfiguration.setFilterCountCache(null);
+    ClockUtil.reset();
+
+    for (Filter filter : filterService.createTaskFilterQuery().list()) {
+      filterService.deleteFilter(filter.getId());
+    }
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.deleteTask(task.getId(), true);
+    }
+  }
+
+  public void testCountAll() {
+    Map<String, Long> counts = filterService.countAll(Arrays.asList(assignedTasksFilter.getId(), allTasksFilter.getId(), sameQueryFilter.getId()));
+
+    assertEquals(Arrays.asList(assignedTasksFilter.getId(), allTasksFilter.getId(), sameQueryFilter.getId()), Arrays.asList(counts.keySet().toArray()));
+    assertEquals(1, (long) counts.get(assignedTasksFilter.getId()));
+    assertEquals(2, (long) counts.get(allTasksFilter.getId()));
+    assertEquals(2, (long) counts.get(sameQueryFilter.getId()));
+  }
+
+  public void testCountAllEmpty() {
+    assertTrue(filterService.countAll(Collections.<String>emptyList()).isEmpty());
+  }
+
+  public void testCountAllInvalidFilterId() {
+    try {
+      filterService.countAll(Arrays.asList(allTasksFilter.getId(), "invalid"));
+      fail("Exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    try {
+      filterService.countAll(null);
+      fail("Exception expected");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+  }
+
+  public void testCachedCountsAreInvalidatedByTaskChanges() {
+    FilterCountCache filterCountCache = new FilterCountCache(60000);
+    processEngineConfiguration.setFilterCountCache(filterCountCache);
+
+    assertCounts(1, 2);
+    // filters with the same query share a cached count
+    assertEquals(2, filterCountCache.size());
+
+    Task task = createTask("task3", null);
+    assertEquals(0, filterCountCache.size());
+    assertCounts(1, 3);
+
+    taskService.setAssignee(task.getId(), "kermit");
+    assertEquals(0, filterCountCache.size());
+    assertCounts(2, 3);
+
+    taskService.complete(task.getId());
+    assertEquals(0, filterCountCache.size());
+    assertCounts(1, 2);
+  }
+
+  public void testCachedCountsExpire() {
+    FilterCountCache filterCountCache = new FilterCountCache(60000);
+
+    Date now = new Date();
+    ClockUtil.setCurrentTime(now);
+    filterCountCache.put("key", 42L, filterCountCache.getGeneration());
+    assertEquals(42L, (long) filterCountCache.get("key"));
+
+    ClockUtil.setCurrentTime(new Date(now.getTime() + 60000));
+    assertNull(filterCountCache.get("key"));
+    assertEquals(0, filterCountCache.size());
+  }
+
+  public void testCountIsNotCachedAfterConcurrentInvalidation() {
+    FilterCountCache filterCountCache = new FilterCountCache(60000);
+
+    long generation = filterCountCache.getGeneration();
+    filterCountCache.invalidate();
+    filterCountCache.put("key", 42L, generation);
+
+    assertNull(filterCountCache.get("key"));
+  }
+
+  public void testCachedCountsArePerUser() {
+    FilterCountCache filterCountCache = new FilterCountCache(60000);
+    processEngineConfiguration.setFilterCountCache(filterCountCache);
+
+    assertCounts(1, 2);
+
+    identityService.setAuthenticatedUserId("kermit");
+    try {
+      assertCounts(1, 2);
+    }
+    finally {
+      identityService.clearAuthentication();
+    }
+
+    assertEquals(4, filterCountCache.size());
+  }
+
+  protected void assertCounts(long assignedCount, long allCount) {
+    Map<String, Long> counts = filterService.countAll(Arrays.asList(allTasksFilter.getId(), sameQueryFilter.getId(), assignedTasksFilter.getId()));
+    assertEquals(assignedCount, (long) counts.get(assignedTasksFilter.getId()));
+    assertEquals(allCount, (long) counts.get(allTasksFilter.getId()));
+    assertEquals(allCount, (long) counts.get(sameQueryFilter.getId()));
+  }
+
+  protected Filter createFilter(String name, TaskQuery query) {
+    Filter filter = filterService.newTaskFilter(name).setQuery(query);
+    return filterService.saveFilter(filter);
+  }
+
+  protected Task createTask(String name, String assignee) {
+    Task task = taskService.newTask();
+    task.setName(name);
+    task.setAssignee(assignee);
+    taskService.saveTask(task);
+    return task;
+  }
+
+}
@@ -18,6 +18,7 @@ import java.util.HashMap;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.filter.Filter;
 import org.camunda.bpm.engine.impl.TaskQueryImpl;
+import org.camunda.bpm.engine.impl.filter.FilterQueryCache;
 import org.camunda.bpm.engine.impl.persistence.entity.FilterEntity;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.query.Query;
@@ -108,6 +109,58 @@ public class FilterServiceTest extends PluggableProcessEngineTestCase {
     assertEquals("newOwner", filterQuery.getOwner());
   }
 
+  public void testExtendFilterDoesNotChangeFilterQuery() {
+    filter.setQuery(taskService.createTaskQuery().orderByTaskName().asc());
+
+    TaskQuery extendingQuery = taskService.createTaskQuery().orderByTaskPriority().desc();
+    Filter newFilter = filter.extend(extendingQuery);
+
+    assertEquals(2, ((TaskQueryImpl) newFilter.getQuery()).getOrderingProperties().size());
+    assertEquals(1, ((TaskQueryImpl) filter.getQuery()).getOrderingProperties().size());
+  }
+
+  public void testLoadedFiltersDoNotShareQuery() {
+    Filter filter1 = filterService.getFilter(filter.getId());
+    Filter filter2 = filterService.getFilter(filter.getId());
+
+    TaskQuery query1 = filter1.getQuery();
+    TaskQuery query2 = filter2.getQuery();
+    assertNotSame(query1, query2);
+    compareFilter(filter1, filter2);
+  }
+
+  public void testLoadedFiltersDoNotShareQueryVariables() {
+    filter.setQuery(taskService.createTaskQuery().taskName("name").taskVariableValueEquals("var", "value"));
+    filterService.saveFilter(filter);
+
+    TaskQueryImpl query1 = filterService.getFilter(filter.getId()).getQuery();
+    TaskQueryImpl query2 = filterService.getFilter(filter.getId()).getQuery();
+
+    assertNotSame(query1, query2);
+    assertEquals("name", query2.getName());
+    assertEquals(1, query2.getVariables().size());
+    assertNotSame(query1.getVariables().get(0), query2.getVariables().get(0));
+    assertEquals("value", query2.getVariables().get(0).getValue());
+  }
+
+  public void testUpdatedFilterQueryIsLoaded() {
+    FilterQueryCache filterQueryCache = processEngineConfiguration.getFilterQueryCache();
+    int cachedQueries = filterQueryCache.size();
+
+    filterService.getFilter(filter.getId());
+    assertEquals(cachedQueries + 1, filterQueryCache.size());
+
+    filter = filterService.getFilter(filter.getId());
+    filter.setQuery(taskService.createTaskQuery().taskName("newName"));
+    filterService.saveFilter(filter);
+
+    TaskQueryImpl query = filterService.getFilter(filter.getId()).getQuery();
+    assertEquals("newName", query.getName());
+
+    filterService.deleteFilter(filter.getId());
+    assertEquals(cachedQueries, filterQueryCache.size());
+  }
+
   public void testQueryFilter() {
 
     Filter filter2 = filterService.createTaskFilterQuery()
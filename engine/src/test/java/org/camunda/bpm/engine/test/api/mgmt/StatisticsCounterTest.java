@@ -0,0 +1,259 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.camunda.bpm.engine.test.api.mgmt;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbBulkOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationManager;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.incident.FailedJobIncidentHandler;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.StatisticsCounterEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.management.IncidentStatistics;
+import org.camunda.bpm.engine.management.ProcessDefinitionStatistics;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+/**
+ * Tests the process definition statistics which are based on the statistics counters.
+ */
+public class StatisticsCounterTest extends PluggableProcessEngineTestCase {
+
+  protected static final String COUNTER_TABLE_NAME = "ACT_RU_STATS_COUNTER";
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    processEngineConfiguration.setStatisticsCounterEnabled(true);
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setStatisticsCounterEnabled(false);
+    deleteAllCounters();
+    super.tearDown();
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/StatisticsTest.testStatisticsQueryWithFailedJobs.bpmn20.xml")
+  public void testInstanceCount() {
+    runtimeService.startProcessInstanceByKey("ExampleProcess");
+    runtimeService.startProcessInstanceByKey("ExampleProcess");
+    executeAvailableJobs();
+
+    assertEquals(2, getSingleStatistics().getInstances());
+
+    Task task = taskService.createTaskQuery().listPage(0, 1).get(0);
+    taskService.complete(task.getId());
+
+    assertEquals(1, getSingleStatistics().getInstances());
+    assertEquals(1, managementService.createProcessDefinitionStatisticsQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/api/mgmt/StatisticsTest.testStatisticsQueryWithFailedJobs.bpmn20.xml")
+  public void testIncidentCount() {
+    Map<String, Object> parameters = new HashMap<String, Object>();
+    parameters.put("fail", true);
+    runtimeService.startProcessInstanceByKey("ExampleProcess", parameters);
+    executeAvailableJobs();
+
+    ProcessDefinitionStatistics statistics = managementService
+        .createProcessDefinitionStatisticsQuery()
+        .includeIncidents()
+        .singleResult();
+
+    assertEquals(1, statistics.getInstances());
+    assertEquals(1, statistics.getIncidentStatistics().size());
+
+    IncidentStatistics incidentStatistics = statistics.getIncidentStatistics().get(0);
+    assertEquals(FailedJobIncidentHandler.INCIDENT_HANDLER_TYPE, incidentStatistics.getIncidentType());
+    assertEquals(1, incidentStatistics.getIncidentCount());
+
+    // resolve the incident
+    Job job = managementService.createJobQuery().singleResult();
+    managementService.setJobRetries(job.getId(), 1);
+
+    statistics = managementService
+        .createProcessDefinitionStatisticsQuery()
+        .includeIncidentsForType(FailedJobIncidentHandler.INCIDENT_HANDLER_TYPE)
+        .singleResult();
+
+    assertEquals(1, statistics.getInstances());
+    assertTrue(statistics.getIncidentStatistics().isEmpty());
+  }
+
+  public void testProcessInstanceEndedInSameCommandAddsNoEntry() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .endEvent()
+      .done());
+
+    runtimeService.startProcessInstanceByKey("testProcess");
+
+    assertEquals(0, getCounterEntryCount());
+    assertEquals(0, getSingleStatistics().getInstances());
+  }
+
+  public void testCounterIsIncrementedInPlace() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done());
+
+    runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.startProcessInstanceByKey("testProcess");
+
+    assertEquals(1, getCounterEntryCount());
+    assertEquals(3, getSingleStatistics().getInstances());
+  }
+
+  public void testRebuildCounters() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done());
+
+    runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.startProcessInstanceByKey("testProcess");
+    assertEquals(1, getCounterEntryCount());
+
+    // the counters got lost
+    deleteAllCounters();
+    assertEquals(0, getSingleStatistics().getInstances());
+
+    managementService.rebuildStatisticsCounters();
+    executeAvailableJobs();
+
+    assertEquals(2, getSingleStatistics().getInstances());
+    assertEquals(1, getCounterEntryCount());
+
+    // the rebuilt counter is incremented
+    runtimeService.startProcessInstanceByKey("testProcess");
+
+    assertEquals(3, getSingleStatistics().getInstances());
+    assertEquals(1, getCounterEntryCount());
+  }
+
+  public void testCounterKeyIsUnique() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+
+    try {
+      // a counter of the same key inserted by a concurrent command
+      insertCounter(processInstance.getProcessDefinitionId(), 5);
+      fail("expected exception");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    assertEquals(1, getCounterEntryCount());
+    assertEquals(1, getSingleStatistics().getInstances());
+  }
+
+  public void testIncrementsAreFlushedInOrderOfCounterIds() {
+    StatisticsCounterEntity firstCounter = new StatisticsCounterEntity("aProcess:1:1", StatisticsCounterEntity.TYPE_INSTANCES, null, 0);
+    firstCounter.setId("1");
+    StatisticsCounterEntity secondCounter = new StatisticsCounterEntity("aProcess:1:1", StatisticsCounterEntity.TYPE_INCIDENTS, "failedJob", 0);
+    secondCounter.setId("2");
+
+    SortedSet<DbBulkOperation> operations = new TreeSet<DbBulkOperation>(DbOperationManager.BULK_OPERATION_COMPARATOR);
+    operations.add(createIncrement(secondCounter));
+    operations.add(createIncrement(firstCounter));
+
+    assertSame(firstCounter, operations.first().getParameter());
+    assertSame(secondCounter, operations.last().getParameter());
+  }
+
+  public void testRebuildCountersDeletesCountersOfDeletedProcessDefinitions() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done());
+
+    insertCounter("deletedProcess:1:1", 1);
+    assertEquals(1, getCounterEntryCount());
+
+    managementService.rebuildStatisticsCounters();
+    executeAvailableJobs();
+
+    assertEquals(0, getCounterEntryCount());
+  }
+
+  protected ProcessDefinitionStatistics getSingleStatistics() {
+    List<ProcessDefinitionStatistics> statistics = managementService
+        .createProcessDefinitionStatisticsQuery()
+        .list();
+
+    assertEquals(1, statistics.size());
+    return statistics.get(0);
+  }
+
+  protected DbBulkOperation createIncrement(StatisticsCounterEntity counter) {
+    DbBulkOperation operation = new DbBulkOperation();
+    operation.setOperationType(DbOperationType.UPDATE_BULK);
+    operation.setEntityType(StatisticsCounterEntity.class);
+    operation.setStatement("incrementStatisticsCounter");
+    operation.setParameter(counter);
+    return operation;
+  }
+
+  protected long getCounterEntryCount() {
+    return managementService.getTableCount().get(COUNTER_TABLE_NAME);
+  }
+
+  protected void insertCounter(final String processDefinitionId, final long value) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        commandContext.getDbEntityManager()
+          .insert(new StatisticsCounterEntity(processDefinitionId, StatisticsCounterEntity.TYPE_INSTANCES, null, value));
+        return null;
+      }
+    });
+  }
+
+  @SuppressWarnings("unchecked")
+  protected void deleteAllCounters() {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+        List<StatisticsCounterEntity> counters = dbEntityManager.selectList("selectStatisticsCounters");
+        for (StatisticsCounterEntity counter : counters) {
+          dbEntityManager.delete(counter);
+        }
+        return null;
+      }
+    });
+  }
+
+}
@@ -29,6 +29,7 @@ package org.camunda.bpm.engine.test.api.repository;
 
 import java.util.Collection;
 
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.test.Deployment;
 import org.camunda.bpm.model.bpmn.BpmnModelInstance;
@@ -61,4 +62,19 @@ public class BpmnModelInstanceCmdTest extends PluggableProcessEngineTestCase {
     assertNotNull(startEvent);
   }
 
+  @Deployment(resources = "org/camunda/bpm/engine/test/repository/one.bpmn20.xml")
+  public void testModelInstanceIsLoadedWithoutDeployingProcessDefinition() {
+    String processDefinitionId = repositoryService.createProcessDefinitionQuery().processDefinitionKey(PROCESS_KEY).singleResult().getId();
+
+    DeploymentCache deploymentCache = processEngineConfiguration.getDeploymentCache();
+    deploymentCache.discardProcessDefinitionCache();
+
+    BpmnModelInstance modelInstance = repositoryService.getBpmnModelInstance(processDefinitionId);
+    assertNotNull(modelInstance);
+
+    // the process definition is not parsed to load the model instance
+    assertNull(deploymentCache.getProcessDefinitionCache().get(processDefinitionId));
+    assertSame(modelInstance, deploymentCache.getBpmnModelInstanceCache().get(processDefinitionId));
+  }
+
 }
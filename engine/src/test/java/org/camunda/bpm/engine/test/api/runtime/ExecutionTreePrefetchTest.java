@@ -0,0 +1,91 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.db.entitymanager.DbEntityManager;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.EventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.Execution;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+/**
+ * Tests prefetching the variables, event subscriptions and jobs of an execution tree.
+ */
+public class ExecutionTreePrefetchTest extends ResourceProcessEngineTestCase {
+
+  public ExecutionTreePrefetchTest() {
+    super("org/camunda/bpm/engine/test/api/runtime/ExecutionTreePrefetchTest.camunda.cfg.xml");
+  }
+
+  @Deployment
+  public void testParallelBranches() {
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process");
+    runtimeService.setVariable(processInstance.getId(), "globalVariable", "globalValue");
+
+    List<Execution> concurrentExecutions = runtimeService.createExecutionQuery()
+        .processInstanceId(processInstance.getId())
+        .list();
+    for (Execution execution : concurrentExecutions) {
+      if (!execution.getId().equals(processInstance.getId())) {
+        runtimeService.setVariableLocal(execution.getId(), "localVariable", execution.getId());
+      }
+    }
+
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        ExecutionEntity processInstanceExecution = commandContext.getExecutionManager().findExecutionById(processInstance.getId());
+
+        // initializes the execution tree
+        List<ExecutionEntity> childExecutions = processInstanceExecution.getExecutions();
+        assertEquals(4, childExecutions.size());
+
+        // the referenced entities of all executions are fetched with the tree
+        DbEntityManager dbEntityManager = commandContext.getDbEntityManager();
+        assertEquals(5, dbEntityManager.getCachedEntitiesByType(VariableInstanceEntity.class).size());
+        assertEquals(1, dbEntityManager.getCachedEntitiesByType(EventSubscriptionEntity.class).size());
+        assertEquals(1, dbEntityManager.getCachedEntitiesByType(JobEntity.class).size());
+
+        assertEquals("globalValue", processInstanceExecution.getVariableLocal("globalVariable"));
+        for (ExecutionEntity childExecution : childExecutions) {
+          assertEquals(childExecution.getId(), childExecution.getVariableLocal("localVariable"));
+          assertEquals("globalValue", childExecution.getVariable("globalVariable"));
+        }
+
+        return null;
+      }
+    });
+
+    // the prefetched event subscriptions and jobs are used to continue the process
+    runtimeService.correlateMessage("newMessage");
+
+    Job timerJob = managementService.createJobQuery().singleResult();
+    managementService.executeJob(timerJob.getId());
+
+    for (Task task : taskService.createTaskQuery().list()) {
+      taskService.complete(task.getId());
+    }
+
+    assertProcessEnded(processInstance.getId());
+  }
+
+}
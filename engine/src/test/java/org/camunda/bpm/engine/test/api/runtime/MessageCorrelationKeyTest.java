@@ -0,0 +1,278 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.camunda.bpm.engine.MismatchingMessageCorrelationException;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.MessageEventSubscriptionEntity;
+import org.camunda.bpm.engine.impl.runtime.MessageCorrelationKey;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.test.Deployment;
+import org.camunda.bpm.engine.variable.Variables;
+
+/**
+ * Tests message correlation to subscriptions of messages which declare their correlation variables.
+ */
+public class MessageCorrelationKeyTest extends PluggableProcessEngineTestCase {
+
+  protected static final String RESOURCE = "org/camunda/bpm/engine/test/api/runtime/MessageCorrelationKeyTest.bpmn20.xml";
+  protected static final String MESSAGE_NAME = "orderShippedMessage";
+
+  @Deployment(resources = RESOURCE)
+  public void testSubscriptionStoresCorrelationKey() {
+    final Map<String, Object> variables = orderVariables("anOrder", 42);
+    runtimeService.startProcessInstanceByKey("process", variables);
+
+    MessageEventSubscriptionEntity subscription = (MessageEventSubscriptionEntity) runtimeService
+        .createEventSubscriptionQuery()
+        .singleResult();
+
+    String expectedKey = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<String>() {
+      public String execute(CommandContext commandContext) {
+        return MessageCorrelationKey.fromCorrelationKeys(variables);
+      }
+    });
+
+    assertNotNull(subscription.getCorrelationKey());
+    assertEquals(expectedKey, subscription.getCorrelationKey());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelateByCorrelationKey() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+    ProcessInstance otherProcessInstance = runtimeService.startProcessInstanceByKey("process", orderVariables("anotherOrder", 42));
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", 42)
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+    assertEquals(0, taskService.createTaskQuery().processInstanceId(otherProcessInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelateAllByCorrelationKey() {
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 43));
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", 42)
+      .correlateAll();
+
+    assertEquals(2, taskService.createTaskQuery().count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelationKeyRespectsValueType() {
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+
+    try {
+      // a string value does not match the integer variable
+      runtimeService.createMessageCorrelation(MESSAGE_NAME)
+        .processInstanceVariableEquals("orderId", "anOrder")
+        .processInstanceVariableEquals("customerId", "42")
+        .correlate();
+      fail("exception expected");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", Variables.integerValue(42))
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelateByCorrelationKeyAndBusinessKey() {
+    runtimeService.startProcessInstanceByKey("process", "aBusinessKey", orderVariables("anOrder", 42));
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", "anotherBusinessKey", orderVariables("anOrder", 42));
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceBusinessKey("anotherBusinessKey")
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", 42)
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testSubscriptionWithoutCorrelationKeyIsCorrelatedByVariables() {
+    // the customer id is missing when the subscription is created
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("orderId", "anOrder");
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anotherOrder", 42));
+
+    MessageEventSubscriptionEntity subscription = (MessageEventSubscriptionEntity) runtimeService
+        .createEventSubscriptionQuery()
+        .processInstanceId(processInstance.getId())
+        .singleResult();
+    assertNull(subscription.getCorrelationKey());
+
+    runtimeService.setVariable(processInstance.getId(), "customerId", 42);
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", 42)
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testSuspendedProcessInstanceIsNotCorrelated() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+    runtimeService.suspendProcessInstanceById(processInstance.getId());
+
+    try {
+      runtimeService.createMessageCorrelation(MESSAGE_NAME)
+        .processInstanceVariableEquals("orderId", "anOrder")
+        .processInstanceVariableEquals("customerId", 42)
+        .correlate();
+      fail("exception expected");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelationKeyIsUpdatedWithVariable() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+
+    runtimeService.setVariable(processInstance.getId(), "orderId", "changedOrder");
+
+    try {
+      runtimeService.createMessageCorrelation(MESSAGE_NAME)
+        .processInstanceVariableEquals("orderId", "anOrder")
+        .processInstanceVariableEquals("customerId", 42)
+        .correlate();
+      fail("exception expected");
+    } catch (MismatchingMessageCorrelationException e) {
+      // expected
+    }
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "changedOrder")
+      .processInstanceVariableEquals("customerId", 42)
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelationKeyIsRemovedWithVariable() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+
+    runtimeService.removeVariable(processInstance.getId(), "customerId");
+
+    MessageEventSubscriptionEntity subscription = (MessageEventSubscriptionEntity) runtimeService
+        .createEventSubscriptionQuery()
+        .singleResult();
+    assertNull(subscription.getCorrelationKey());
+
+    runtimeService.setVariable(processInstance.getId(), "customerId", 43);
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", 43)
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelateBySubsetOfCorrelationVariables() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anotherOrder", 42));
+
+    // the correlated variables differ from the variables of the key
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelateBySupersetOfCorrelationVariables() {
+    Map<String, Object> variables = orderVariables("anOrder", 42);
+    variables.put("region", "north");
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", 42)
+      .processInstanceVariableEquals("region", "north")
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelateByNumberValue() {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 43));
+
+    // the abstract number type matches the integer variable
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", "anOrder")
+      .processInstanceVariableEquals("customerId", Variables.numberValue(42))
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  @Deployment(resources = RESOURCE)
+  public void testCorrelateByNullValue() {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("orderId", Variables.stringValue(null));
+    variables.put("customerId", 42);
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+    runtimeService.startProcessInstanceByKey("process", orderVariables("anOrder", 42));
+
+    // a null value matches the string variable holding null
+    runtimeService.createMessageCorrelation(MESSAGE_NAME)
+      .processInstanceVariableEquals("orderId", null)
+      .processInstanceVariableEquals("customerId", 42)
+      .correlate();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+    assertEquals(1, taskService.createTaskQuery().processInstanceId(processInstance.getId()).count());
+  }
+
+  protected Map<String, Object> orderVariables(String orderId, int customerId) {
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("orderId", orderId);
+    variables.put("customerId", customerId);
+    return variables;
+  }
+
+}
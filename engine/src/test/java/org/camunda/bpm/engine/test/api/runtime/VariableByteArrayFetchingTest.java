@@ -0,0 +1,179 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.api.runtime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.camunda.bpm.engine.impl.db.DbEntity;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.runtime.VariableInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.variable.VariableMap;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+/**
+ * Tests that the byte arrays of variables are fetched together when several variables are read.
+ */
+public class VariableByteArrayFetchingTest extends PluggableProcessEngineTestCase {
+
+  protected static final int NUMBER_OF_VARIABLES = 5;
+
+  protected ProcessInstance processInstance;
+
+  protected SessionFactory originalDbSqlSessionFactory;
+  protected int batchedByteArraySelects;
+  protected int singleByteArraySelects;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done());
+
+    VariableMap variables = Variables.createVariables();
+    for (int i = 0; i < NUMBER_OF_VARIABLES; i++) {
+      variables.putValue("bytes" + i, ("value" + i).getBytes());
+      variables.putValue("object" + i, new ArrayList<String>(Arrays.asList("value" + i)));
+    }
+    variables.putValue("string", "aString");
+
+    processInstance = runtimeService.startProcessInstanceByKey("testProcess", variables);
+
+    countByteArraySelects();
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.getSessionFactories().put(DbSqlSession.class, originalDbSqlSessionFactory);
+    super.tearDown();
+  }
+
+  /**
+   * Opens database sessions which count the statements selecting byte arrays.
+   */
+  protected void countByteArraySelects() {
+    originalDbSqlSessionFactory = processEngineConfiguration.getSessionFactories().get(DbSqlSession.class);
+    final DbSqlSessionFactory dbSqlSessionFactory = (DbSqlSessionFactory) originalDbSqlSessionFactory;
+
+    processEngineConfiguration.getSessionFactories().put(DbSqlSession.class, new SessionFactory() {
+      public Class<?> getSessionType() {
+        return DbSqlSession.class;
+      }
+      public Session openSession() {
+        return new DbSqlSession(dbSqlSessionFactory) {
+          public List<?> selectList(String statement, Object parameter) {
+            if ("selectByteArraysByIds".equals(statement)) {
+              batchedByteArraySelects++;
+            }
+            return super.selectList(statement, parameter);
+          }
+          public <T extends DbEntity> T selectById(Class<T> type, String id) {
+            if (ByteArrayEntity.class.equals(type)) {
+              singleByteArraySelects++;
+            }
+            return super.selectById(type, id);
+          }
+        };
+      }
+    });
+  }
+
+  protected void assertByteArraysSelectedInOneStatement() {
+    assertEquals(1, batchedByteArraySelects);
+    assertEquals(0, singleByteArraySelects);
+  }
+
+  public void testFetchByteArrayValuesOfExecution() {
+    final String processInstanceId = processInstance.getId();
+
+    int cachedByteArrays = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        commandContext.getVariableInstanceManager().fetchByteArrayValues(execution, null, false);
+
+        return commandContext.getDbEntityManager().getCachedEntitiesByType(ByteArrayEntity.class).size();
+      }
+    });
+
+    assertEquals(2 * NUMBER_OF_VARIABLES, cachedByteArrays);
+  }
+
+  public void testFetchByteArrayValuesOfSelectedVariables() {
+    final String processInstanceId = processInstance.getId();
+
+    int cachedByteArrays = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Integer>() {
+      public Integer execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+
+        commandContext.getVariableInstanceManager().fetchByteArrayValues(execution, Arrays.asList("bytes0", "object1", "string"), false);
+
+        return commandContext.getDbEntityManager().getCachedEntitiesByType(ByteArrayEntity.class).size();
+      }
+    });
+
+    assertEquals(2, cachedByteArrays);
+  }
+
+  public void testGetVariables() {
+    VariableMap variables = runtimeService.getVariablesTyped(processInstance.getId());
+
+    assertEquals(2 * NUMBER_OF_VARIABLES + 1, variables.size());
+    for (int i = 0; i < NUMBER_OF_VARIABLES; i++) {
+      assertTrue(Arrays.equals(("value" + i).getBytes(), (byte[]) variables.get("bytes" + i)));
+      assertEquals(Arrays.asList("value" + i), variables.get("object" + i));
+    }
+
+    assertByteArraysSelectedInOneStatement();
+  }
+
+  public void testGetTaskVariables() {
+    Task task = taskService.createTaskQuery().singleResult();
+
+    VariableMap variables = taskService.getVariablesTyped(task.getId(), false);
+
+    assertEquals(2 * NUMBER_OF_VARIABLES + 1, variables.size());
+    assertNotNull(variables.getValueTyped("object0"));
+
+    assertByteArraysSelectedInOneStatement();
+  }
+
+  public void testVariableInstanceQuery() {
+    List<VariableInstance> variableInstances = runtimeService.createVariableInstanceQuery()
+      .processInstanceIdIn(processInstance.getId())
+      .list();
+
+    assertEquals(2 * NUMBER_OF_VARIABLES + 1, variableInstances.size());
+    for (VariableInstance variableInstance : variableInstances) {
+      assertNull(variableInstance.getErrorMessage());
+      assertNotNull(variableInstance.getValue());
+    }
+
+    assertByteArraysSelectedInOneStatement();
+  }
+
+}
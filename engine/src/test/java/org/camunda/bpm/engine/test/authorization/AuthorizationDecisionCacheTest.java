@@ -0,0 +1,157 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.authorization;
+
+import static org.camunda.bpm.engine.authorization.Authorization.AUTH_TYPE_GRANT;
+import static org.camunda.bpm.engine.authorization.Permissions.READ;
+import static org.camunda.bpm.engine.authorization.Resources.PROCESS_DEFINITION;
+import static org.camunda.bpm.engine.authorization.Resources.TASK;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import org.camunda.bpm.engine.authorization.Resources;
+import org.camunda.bpm.engine.impl.db.AuthorizationDecisionCache;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.AuthorizationEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+
+/**
+ * Tests the caching of authorization decisions and its invalidation.
+ */
+public class AuthorizationDecisionCacheTest extends AuthorizationTest {
+
+  protected static final String OTHER_USER_ID = "demo";
+  protected static final String DEFINITION_KEY = "aProcessDefinitionKey";
+
+  protected AuthorizationDecisionCache decisionCache;
+
+  protected void setUp() throws Exception {
+    decisionCache = new AuthorizationDecisionCache(100);
+    processEngineConfiguration.setAuthorizationDecisionCache(decisionCache);
+    processEngineConfiguration.setAuthorizationDecisionCacheEnabled(true);
+    super.setUp();
+  }
+
+  public void tearDown() {
+    super.tearDown();
+    processEngineConfiguration.setAuthorizationDecisionCacheEnabled(false);
+    processEngineConfiguration.setAuthorizationDecisionCache(null);
+  }
+
+  public void testRevisionPropertiesExist() {
+    Map<String, String> properties = managementService.getProperties();
+    for (Resources resource : Resources.values()) {
+      assertTrue(properties.containsKey(AuthorizationDecisionCache.getRevisionPropertyName(resource.resourceType())));
+    }
+  }
+
+  public void testDecisionIsCached() {
+    assertFalse(isOtherUserAuthorized());
+    assertEquals(1, decisionCache.size());
+
+    // an authorization created without changing the revision is not seen
+    insertAuthorizationOfOtherUser(false);
+    assertFalse(isOtherUserAuthorized());
+    assertEquals(1, decisionCache.size());
+  }
+
+  public void testGroupOrderDoesNotMatter() {
+    authorizationService.isUserAuthorized(OTHER_USER_ID, Arrays.asList("a", "b"), READ, PROCESS_DEFINITION, DEFINITION_KEY);
+    authorizationService.isUserAuthorized(OTHER_USER_ID, Arrays.asList("b", "a"), READ, PROCESS_DEFINITION, DEFINITION_KEY);
+
+    assertEquals(1, decisionCache.size());
+  }
+
+  public void testSavedAuthorizationInvalidatesDecisions() {
+    assertFalse(isOtherUserAuthorized());
+
+    createGrantAuthorization(PROCESS_DEFINITION, DEFINITION_KEY, OTHER_USER_ID, READ);
+
+    assertTrue(isOtherUserAuthorized());
+  }
+
+  public void testDeletedAuthorizationInvalidatesDecisions() {
+    createGrantAuthorization(PROCESS_DEFINITION, DEFINITION_KEY, OTHER_USER_ID, READ);
+    assertTrue(isOtherUserAuthorized());
+
+    String authorizationId = authorizationService.createAuthorizationQuery()
+        .userIdIn(OTHER_USER_ID)
+        .singleResult()
+        .getId();
+    authorizationService.deleteAuthorization(authorizationId);
+
+    assertFalse(isOtherUserAuthorized());
+  }
+
+  public void testAuthorizationOfOtherResourceTypeKeepsDecisions() {
+    assertFalse(isOtherUserAuthorized());
+
+    // an authorization created without changing the revision is not seen
+    insertAuthorizationOfOtherUser(false);
+    createGrantAuthorization(TASK, "aTaskId", OTHER_USER_ID, READ);
+
+    assertFalse(isOtherUserAuthorized());
+  }
+
+  public void testRevisionChangedByOtherProcessEngineInvalidatesDecisions() {
+    assertFalse(isOtherUserAuthorized());
+
+    // simulates a modification by a process engine sharing the database
+    insertAuthorizationOfOtherUser(true);
+
+    assertTrue(isOtherUserAuthorized());
+  }
+
+  public void testStaleRevisionDoesNotResetCache() {
+    List<Object> key = Arrays.<Object>asList(OTHER_USER_ID);
+    List<Long> revisions = Arrays.asList(2L, 1L);
+    List<Long> staleRevisions = Arrays.asList(1L, 1L);
+
+    assertNull(decisionCache.getDecision(revisions, key));
+    decisionCache.putDecision(revisions, key, true);
+
+    // a command which read the revision before it was incremented
+    assertNull(decisionCache.getDecision(staleRevisions, key));
+    decisionCache.putDecision(staleRevisions, key, false);
+
+    assertEquals(Boolean.TRUE, decisionCache.getDecision(revisions, key));
+    assertEquals(1, decisionCache.size());
+  }
+
+  protected boolean isOtherUserAuthorized() {
+    return authorizationService.isUserAuthorized(OTHER_USER_ID, null, READ, PROCESS_DEFINITION, DEFINITION_KEY);
+  }
+
+  protected void insertAuthorizationOfOtherUser(final boolean changeRevision) {
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        AuthorizationEntity authorization = new AuthorizationEntity(AUTH_TYPE_GRANT);
+        authorization.setUserId(OTHER_USER_ID);
+        authorization.setResource(PROCESS_DEFINITION);
+        authorization.setResourceId(DEFINITION_KEY);
+        authorization.addPermission(READ);
+        commandContext.getDbEntityManager().insert(authorization);
+
+        if (changeRevision) {
+          String propertyName = AuthorizationDecisionCache.getRevisionPropertyName(PROCESS_DEFINITION.resourceType());
+          commandContext.getDbEntityManager().update(PropertyEntity.class, "updateAuthorizationRevision", propertyName);
+        }
+        return null;
+      }
+    });
+  }
+
+}
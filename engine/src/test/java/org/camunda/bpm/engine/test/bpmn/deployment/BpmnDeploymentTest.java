@@ -14,15 +14,22 @@
 package org.camunda.bpm.engine.test.bpmn.deployment;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.impl.RepositoryServiceImpl;
 import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
 import org.camunda.bpm.engine.impl.interceptor.Command;
 import org.camunda.bpm.engine.impl.interceptor.CommandContext;
 import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.interceptor.Session;
+import org.camunda.bpm.engine.impl.interceptor.SessionFactory;
 import org.camunda.bpm.engine.impl.persistence.entity.ProcessDefinitionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ResourceEntity;
 import org.camunda.bpm.engine.impl.pvm.ReadOnlyProcessDefinition;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.impl.util.IoUtil;
@@ -106,6 +113,74 @@ public class BpmnDeploymentTest extends PluggableProcessEngineTestCase {
     repositoryService.deleteDeployment(deploymentId);
   }
 
+  public void testDeployedResourcesHaveChecksum() {
+    final String bpmnResourceName = "org/camunda/bpm/engine/test/bpmn/deployment/BpmnDeploymentTest.testGetBpmnXmlFileThroughService.bpmn20.xml";
+    String deploymentId = repositoryService.createDeployment().addClasspathResource(bpmnResourceName).name("checksum").deploy().getId();
+
+    // the checksum is selected without the bytes, so it is not calculated on access
+    ResourceEntity resource = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<ResourceEntity>() {
+      public ResourceEntity execute(CommandContext commandContext) {
+        return commandContext
+            .getResourceManager()
+            .findLatestResourceChecksumsByDeploymentName("checksum", Collections.singleton(bpmnResourceName))
+            .get(bpmnResourceName);
+      }
+    });
+
+    assertNotNull(resource);
+    assertNull(resource.getBytes());
+
+    InputStream inputStream = ReflectUtil.getResourceAsStream(bpmnResourceName);
+    byte[] bytes = IoUtil.readInputStream(inputStream, bpmnResourceName);
+    IoUtil.closeSilently(inputStream);
+
+    assertEquals(ResourceEntity.calculateChecksum(bytes), resource.getChecksum());
+
+    repositoryService.deleteDeployment(deploymentId);
+  }
+
+  public void testDuplicateFilteringDoesNotLoadResourceBytes() {
+    String bpmnResourceName = "org/camunda/bpm/engine/test/bpmn/deployment/BpmnDeploymentTest.testGetBpmnXmlFileThroughService.bpmn20.xml";
+    String deploymentId = repositoryService.createDeployment().enableDuplicateFiltering().addClasspathResource(bpmnResourceName).name("twice").deploy().getId();
+
+    SessionFactory originalDbSqlSessionFactory = processEngineConfiguration.getSessionFactories().get(DbSqlSession.class);
+    final DbSqlSessionFactory dbSqlSessionFactory = (DbSqlSessionFactory) originalDbSqlSessionFactory;
+    final List<String> executedStatements = new ArrayList<String>();
+
+    processEngineConfiguration.getSessionFactories().put(DbSqlSession.class, new SessionFactory() {
+      public Class<?> getSessionType() {
+        return DbSqlSession.class;
+      }
+      public Session openSession() {
+        return new DbSqlSession(dbSqlSessionFactory) {
+          public List<?> selectList(String statement, Object parameter) {
+            executedStatements.add(statement);
+            return super.selectList(statement, parameter);
+          }
+          public Object selectOne(String statement, Object parameter) {
+            executedStatements.add(statement);
+            return super.selectOne(statement, parameter);
+          }
+        };
+      }
+    });
+
+    try {
+      repositoryService.createDeployment().enableDuplicateFiltering().addClasspathResource(bpmnResourceName).name("twice").deploy();
+    } finally {
+      processEngineConfiguration.getSessionFactories().put(DbSqlSession.class, originalDbSqlSessionFactory);
+    }
+
+    assertEquals(1, repositoryService.createDeploymentQuery().count());
+
+    // only the checksums of the deployed resources are selected
+    assertTrue(executedStatements.contains("selectLatestResourceChecksumsByDeploymentName"));
+    assertFalse(executedStatements.contains("selectLatestResourcesByDeploymentName"));
+    assertFalse(executedStatements.contains("selectResourceByDeploymentIdAndResourceId"));
+
+    repositoryService.deleteDeployment(deploymentId);
+  }
+
   public void testPartialChangesDeployAll() {
     BpmnModelInstance model1 = Bpmn.createExecutableProcess("process1").done();
     BpmnModelInstance model2 = Bpmn.createExecutableProcess("process2").done();
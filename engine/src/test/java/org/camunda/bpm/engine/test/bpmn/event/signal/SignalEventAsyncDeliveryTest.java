@@ -0,0 +1,156 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.bpmn.event.signal;
+
+import java.util.Collections;
+import java.util.Date;
+
+import org.camunda.bpm.engine.BadUserRequestException;
+import org.camunda.bpm.engine.impl.cmd.SignalEventReceivedCmd;
+import org.camunda.bpm.engine.impl.jobexecutor.SignalEventDeliveryJobHandler;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.test.Deployment;
+
+/**
+ * Tests the asynchronous delivery of signals by jobs.
+ */
+public class SignalEventAsyncDeliveryTest extends PluggableProcessEngineTestCase {
+
+  protected int chunkSize;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    chunkSize = processEngineConfiguration.getSignalEventDeliveryChunkSize();
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setSignalEventDeliveryChunkSize(chunkSize);
+    ClockUtil.reset();
+    super.tearDown();
+  }
+
+  @Deployment(resources = {
+      "org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTests.catchAlertSignal.bpmn20.xml",
+      "org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTests.throwAlertSignalAsyncDelivery.bpmn20.xml"})
+  public void testAsyncDeliveryOfThrownSignal() {
+    startCatchingProcessInstances(3);
+
+    runtimeService.startProcessInstanceByKey("throwSignal");
+
+    // the throwing process instance has ended but the signal is not delivered yet
+    assertEquals(0, runtimeService.createProcessInstanceQuery().processDefinitionKey("throwSignal").count());
+    assertEquals(3, runtimeService.createProcessInstanceQuery().processDefinitionKey("catchSignal").count());
+
+    Job job = managementService.createJobQuery().singleResult();
+    assertEquals(SignalEventDeliveryJobHandler.TYPE, ((JobEntity) job).getJobHandlerType());
+
+    executeAvailableJobs();
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery().processDefinitionKey("catchSignal").count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTests.catchAlertSignal.bpmn20.xml")
+  public void testAsyncDeliveryInChunks() {
+    processEngineConfiguration.setSignalEventDeliveryChunkSize(2);
+    startCatchingProcessInstances(5);
+
+    runtimeService.signalEventReceivedAsync("alert");
+    assertEquals(5, runtimeService.createProcessInstanceQuery().count());
+
+    executeDeliveryJob();
+    assertEquals(3, runtimeService.createProcessInstanceQuery().count());
+
+    executeDeliveryJob();
+    assertEquals(1, runtimeService.createProcessInstanceQuery().count());
+
+    executeDeliveryJob();
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+
+    // the last chunk was not full, so no further job is created
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTests.catchAlertSignal.bpmn20.xml")
+  public void testSubscriptionsCreatedAfterThrowAreNotNotified() {
+    long fullSecond = getFullSecond();
+    ClockUtil.setCurrentTime(new Date(fullSecond + 200));
+    startCatchingProcessInstances(2);
+
+    runtimeService.signalEventReceivedAsync("alert");
+
+    ClockUtil.setCurrentTime(new Date(fullSecond + 2200));
+    startCatchingProcessInstances(1);
+
+    executeAvailableJobs();
+
+    assertEquals(1, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTests.catchAlertSignal.bpmn20.xml")
+  public void testSubscriptionCreatedInSameSecondIsNotified() {
+    long fullSecond = getFullSecond();
+
+    // a database which stores seconds only may round the creation time of this
+    // subscription up to the next second, i.e. after the time of the throw
+    ClockUtil.setCurrentTime(new Date(fullSecond + 800));
+    startCatchingProcessInstances(1);
+
+    ClockUtil.setCurrentTime(new Date(fullSecond + 200));
+    runtimeService.signalEventReceivedAsync("alert");
+
+    executeAvailableJobs();
+
+    assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+  }
+
+  @Deployment(resources = "org/camunda/bpm/engine/test/bpmn/event/signal/SignalEventTest.signalStartEvent.bpmn20.xml")
+  public void testAsyncDeliveryToSignalStartEvent() {
+    runtimeService.signalEventReceivedAsync("alert");
+    assertEquals(0, taskService.createTaskQuery().count());
+
+    executeAvailableJobs();
+
+    assertEquals(1, taskService.createTaskQuery().count());
+  }
+
+  public void testAsyncDeliveryWithVariablesFails() {
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(
+          new SignalEventReceivedCmd("alert", null, Collections.<String, Object>singletonMap("aVariable", "aValue"), true));
+      fail("exception expected");
+    } catch (BadUserRequestException e) {
+      assertTextPresent("Cannot deliver a signal asynchronously with variables", e.getMessage());
+    }
+  }
+
+  protected void startCatchingProcessInstances(int count) {
+    for (int i = 0; i < count; i++) {
+      runtimeService.startProcessInstanceByKey("catchSignal");
+    }
+  }
+
+  protected long getFullSecond() {
+    long now = new Date().getTime();
+    return now - now % 1000;
+  }
+
+  protected void executeDeliveryJob() {
+    Job job = managementService.createJobQuery().singleResult();
+    assertNotNull(job);
+    managementService.executeJob(job.getId());
+  }
+
+}
@@ -19,6 +19,8 @@ import java.util.Map;
 import org.camunda.bpm.engine.ProcessEngineException;
 import org.camunda.bpm.engine.ScriptCompilationException;
 import org.camunda.bpm.engine.exception.NotFoundException;
+import org.camunda.bpm.engine.impl.scripting.CompiledScriptCache;
+import org.camunda.bpm.engine.impl.scripting.SourceExecutableScript;
 import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
 import org.camunda.bpm.engine.runtime.ProcessInstance;
 import org.camunda.bpm.engine.test.Deployment;
@@ -138,6 +140,35 @@ public class ExternalScriptTaskTest extends PluggableProcessEngineTestCase {
     assertEquals("Greetings camunda BPM speaking", greeting);
   }
 
+  public void testScriptInDeploymentAsVariableIsCached() {
+    CompiledScriptCache compiledScriptCache = processEngineConfiguration.getCompiledScriptCache();
+    compiledScriptCache.clear();
+
+    String deploymentId = repositoryService.createDeployment()
+      .addClasspathResource("org/camunda/bpm/engine/test/bpmn/scripttask/ExternalScriptTaskTest.testScriptInDeploymentAsVariable.bpmn20.xml")
+      .addClasspathResource("org/camunda/bpm/engine/test/bpmn/scripttask/greeting.py")
+      .deploy()
+      .getId();
+
+    Map<String, Object> variables = new HashMap<String, Object>();
+    variables.put("scriptPath", "deployment://org/camunda/bpm/engine/test/bpmn/scripttask/greeting.py");
+    runtimeService.startProcessInstanceByKey("process", variables);
+
+    assertEquals(1, compiledScriptCache.size());
+    SourceExecutableScript script = compiledScriptCache.getScript(deploymentId, "deployment://org/camunda/bpm/engine/test/bpmn/scripttask/greeting.py", "python");
+    assertNotNull(script);
+
+    // the cached script is reused
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("process", variables);
+    assertEquals("Greetings camunda BPM speaking", runtimeService.getVariable(processInstance.getId(), "greeting"));
+    assertEquals(1, compiledScriptCache.size());
+    assertSame(script, compiledScriptCache.getScript(deploymentId, "deployment://org/camunda/bpm/engine/test/bpmn/scripttask/greeting.py", "python"));
+
+    // the scripts of a deleted deployment are removed
+    repositoryService.deleteDeployment(deploymentId, true);
+    assertEquals(0, compiledScriptCache.size());
+  }
+
   @Deployment(resources = {
     "org/camunda/bpm/engine/test/bpmn/scripttask/ExternalScriptTaskTest.testScriptInDeploymentAsBean.bpmn20.xml",
     "org/camunda/bpm/engine/test/bpmn/scripttask/greeting.py"
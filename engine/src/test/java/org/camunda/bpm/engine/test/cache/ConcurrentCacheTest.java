@@ -0,0 +1,95 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.cache;
+
+import junit.framework.TestCase;
+
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.CacheFactory;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.ConcurrentCache;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LfuEvictionPolicy;
+import org.camunda.bpm.engine.impl.persistence.deploy.cache.LruEvictionPolicy;
+
+public class ConcurrentCacheTest extends TestCase {
+
+  public void testUnboundedCacheDoesNotEvict() {
+    ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(CacheFactory.UNBOUNDED, new LruEvictionPolicy());
+
+    for (int i = 0; i < 100; i++) {
+      cache.put("key" + i, "value" + i);
+    }
+
+    assertEquals(100, cache.size());
+    assertEquals(0, cache.getEvictionCount());
+  }
+
+  public void testLruEviction() throws Exception {
+    ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(2, new LruEvictionPolicy());
+
+    cache.put("a", "1");
+    Thread.sleep(1);
+    cache.put("b", "2");
+    Thread.sleep(1);
+
+    // a is now more recently used than b
+    cache.get("a");
+    cache.put("c", "3");
+
+    assertEquals(2, cache.size());
+    assertTrue(cache.containsKey("a"));
+    assertFalse(cache.containsKey("b"));
+    assertTrue(cache.containsKey("c"));
+    assertEquals(1, cache.getEvictionCount());
+  }
+
+  public void testLfuEviction() {
+    ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(2, new LfuEvictionPolicy());
+
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    cache.get("a");
+    cache.get("a");
+    cache.get("b");
+    cache.put("c", "3");
+
+    assertTrue(cache.containsKey("a"));
+    assertFalse(cache.containsKey("b"));
+    assertTrue(cache.containsKey("c"));
+  }
+
+  public void testHitAndMissCounts() {
+    ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(10, new LruEvictionPolicy());
+    cache.put("a", "1");
+
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertNull(cache.get("c"));
+
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  public void testRemoveAndClear() {
+    ConcurrentCache<String, String> cache = new ConcurrentCache<String, String>(10, new LruEvictionPolicy());
+    cache.put("a", "1");
+    cache.put("b", "2");
+
+    assertEquals("1", cache.remove("a"));
+    assertFalse(cache.containsKey("a"));
+    assertEquals(1, cache.entrySet().size());
+
+    cache.clear();
+    assertTrue(cache.isEmpty());
+  }
+
+}
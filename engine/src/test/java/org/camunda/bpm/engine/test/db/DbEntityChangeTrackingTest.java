@@ -0,0 +1,138 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TaskEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+
+public class DbEntityChangeTrackingTest extends ResourceProcessEngineTestCase {
+
+  public DbEntityChangeTrackingTest() {
+    super("org/camunda/bpm/engine/test/db/DbEntityChangeTrackingTest.camunda.cfg.xml");
+  }
+
+  public void testCompleteUserTask() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "aValue");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "anotherValue");
+
+    assertEquals("anotherValue", runtimeService.getVariable(processInstance.getId(), "aVariable"));
+
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+
+    assertProcessEnded(processInstance.getId());
+    assertEquals(1, historyService.createHistoricVariableInstanceQuery().count());
+    assertEquals(1, historyService.createHistoricTaskInstanceQuery().finished().count());
+  }
+
+  public void testReadEntitiesAreNotUpdated() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done());
+
+    final ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "aValue");
+
+    int executionRevision = getExecutionRevision(processInstance.getId());
+    int taskRevision = getTaskRevision();
+
+    // reading the entities does not update them
+    runtimeService.getVariables(processInstance.getId());
+    taskService.getVariables(taskService.createTaskQuery().singleResult().getId());
+
+    // setting a property to its current value does not update the entity
+    processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+      public Void execute(CommandContext commandContext) {
+        TaskEntity task = commandContext.getTaskManager().findTasksByProcessInstanceId(processInstance.getId()).get(0);
+        String name = task.getName();
+        task.setNameWithoutCascade("changed");
+        task.setNameWithoutCascade(name);
+        return null;
+      }
+    });
+
+    assertEquals(executionRevision, getExecutionRevision(processInstance.getId()));
+    assertEquals(taskRevision, getTaskRevision());
+  }
+
+  public void testModifiedEntitiesAreUpdated() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+
+    runtimeService.suspendProcessInstanceById(processInstance.getId());
+    assertTrue(runtimeService.createProcessInstanceQuery().singleResult().isSuspended());
+
+    runtimeService.activateProcessInstanceById(processInstance.getId());
+
+    Task task = taskService.createTaskQuery().singleResult();
+    task.setName("a new name");
+    taskService.saveTask(task);
+
+    assertEquals("a new name", taskService.createTaskQuery().singleResult().getName());
+  }
+
+  public void testModifiedJobIsUpdated() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done());
+
+    runtimeService.startProcessInstanceByKey("testProcess");
+    Job job = managementService.createJobQuery().singleResult();
+    int jobRevision = ((JobEntity) job).getRevision();
+
+    managementService.setJobRetries(job.getId(), 5);
+
+    JobEntity updatedJob = (JobEntity) managementService.createJobQuery().singleResult();
+    assertEquals(5, updatedJob.getRetries());
+    assertEquals(jobRevision + 1, updatedJob.getRevision());
+
+    managementService.executeJob(job.getId());
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+
+  protected int getExecutionRevision(String executionId) {
+    return ((ExecutionEntity) runtimeService.createExecutionQuery().executionId(executionId).singleResult()).getRevision();
+  }
+
+  protected int getTaskRevision() {
+    return ((TaskEntity) taskService.createTaskQuery().singleResult()).getRevision();
+  }
+
+}
@@ -0,0 +1,209 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.executor.BatchResult;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbEntityOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperation;
+import org.camunda.bpm.engine.impl.db.entitymanager.operation.DbOperationType;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSession;
+import org.camunda.bpm.engine.impl.db.sql.DbSqlSessionFactory;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.PropertyEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+
+public class JdbcBatchProcessingTest extends ResourceProcessEngineTestCase {
+
+  public JdbcBatchProcessingTest() {
+    super("org/camunda/bpm/engine/test/db/JdbcBatchProcessingTest.camunda.cfg.xml");
+  }
+
+  public void testCompleteUserTask() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask("task")
+      .endEvent()
+      .done());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.setVariable(processInstance.getId(), "aVariable", "aValue");
+
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+
+    assertProcessEnded(processInstance.getId());
+    assertEquals(1, historyService.createHistoricVariableInstanceQuery().count());
+    assertEquals(1, historyService.createHistoricTaskInstanceQuery().finished().count());
+  }
+
+  public void testOptimisticLockingFailureIsDetected() {
+    Task newTask = taskService.newTask();
+    taskService.saveTask(newTask);
+    String taskId = newTask.getId();
+
+    Task task1 = taskService.createTaskQuery().taskId(taskId).singleResult();
+    Task task2 = taskService.createTaskQuery().taskId(taskId).singleResult();
+
+    task1.setName("first");
+    taskService.saveTask(task1);
+
+    try {
+      task2.setName("second");
+      taskService.saveTask(task2);
+      fail("expected optimistic locking exception");
+    }
+    catch (OptimisticLockingException e) {
+      // expected
+    }
+
+    assertEquals("first", taskService.createTaskQuery().taskId(taskId).singleResult().getName());
+
+    taskService.deleteTask(taskId, true);
+  }
+
+  public void testFailedOperationIsReportedAfterImplicitBatchExecution() {
+    List<DbOperation> failedOperations = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<DbOperation>>() {
+      public List<DbOperation> execute(CommandContext commandContext) {
+        DbSqlSession dbSqlSession = commandContext.getDbSqlSession();
+        assertTrue(dbSqlSession.isBatchProcessing());
+
+        PropertyEntity property = new PropertyEntity("nonExisting", "aValue");
+        property.setRevision(1);
+
+        DbEntityOperation updateOperation = new DbEntityOperation();
+        updateOperation.setOperationType(DbOperationType.UPDATE);
+        updateOperation.setEntityType(PropertyEntity.class);
+        updateOperation.setEntity(property);
+        dbSqlSession.executeDbOperation(updateOperation);
+
+        // the select executes the batch
+        dbSqlSession.selectById(PropertyEntity.class, "schema.version");
+
+        return dbSqlSession.flushOperations();
+      }
+    });
+
+    assertEquals(1, failedOperations.size());
+    assertTrue(failedOperations.get(0).isFailed());
+  }
+
+  public void testSessionWithConnectionIsNotBatched() throws Exception {
+    Connection connection = processEngineConfiguration.getDataSource().getConnection();
+    try {
+      DbSqlSession dbSqlSession = new DbSqlSession(processEngineConfiguration.getDbSqlSessionFactory(), connection, null, null);
+      assertFalse(dbSqlSession.isBatchProcessing());
+      dbSqlSession.close();
+    }
+    finally {
+      connection.close();
+    }
+  }
+
+  public void testRevisionCheckFailsIfDriverReportsNoUpdateCounts() {
+    final DbSqlSessionFactory dbSqlSessionFactory = processEngineConfiguration.getDbSqlSessionFactory();
+
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          DbSqlSession dbSqlSession = new SuccessNoInfoDbSqlSession(dbSqlSessionFactory);
+          try {
+            PropertyEntity property = new PropertyEntity("nonExisting", "aValue");
+            property.setRevision(1);
+
+            DbEntityOperation updateOperation = new DbEntityOperation();
+            updateOperation.setOperationType(DbOperationType.UPDATE);
+            updateOperation.setEntityType(PropertyEntity.class);
+            updateOperation.setEntity(property);
+            dbSqlSession.executeDbOperation(updateOperation);
+
+            // the update affects no rows, but the driver does not report it
+            dbSqlSession.flushOperations();
+            fail("expected exception");
+          }
+          catch (ProcessEngineException e) {
+            assertTextPresent("optimistic locking cannot be checked", e.getMessage());
+          }
+          finally {
+            dbSqlSession.rollback();
+            dbSqlSession.close();
+          }
+          return null;
+        }
+      });
+
+      // subsequent sessions are not batched
+      assertFalse(dbSqlSessionFactory.isJdbcBatchProcessing());
+    }
+    finally {
+      dbSqlSessionFactory.setJdbcBatchProcessing(true);
+    }
+  }
+
+  public void testInsertSucceedsIfDriverReportsNoUpdateCounts() {
+    final DbSqlSessionFactory dbSqlSessionFactory = processEngineConfiguration.getDbSqlSessionFactory();
+
+    List<DbOperation> failedOperations = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<DbOperation>>() {
+      public List<DbOperation> execute(CommandContext commandContext) {
+        DbSqlSession dbSqlSession = new SuccessNoInfoDbSqlSession(dbSqlSessionFactory);
+        try {
+          DbEntityOperation insertOperation = new DbEntityOperation();
+          insertOperation.setOperationType(DbOperationType.INSERT);
+          insertOperation.setEntityType(PropertyEntity.class);
+          insertOperation.setEntity(new PropertyEntity("aProperty", "aValue"));
+          dbSqlSession.executeDbOperation(insertOperation);
+
+          return dbSqlSession.flushOperations();
+        }
+        finally {
+          // do not keep the property
+          dbSqlSession.rollback();
+          dbSqlSession.close();
+        }
+      }
+    });
+
+    assertTrue(failedOperations.isEmpty());
+    assertTrue(dbSqlSessionFactory.isJdbcBatchProcessing());
+  }
+
+  /**
+   * Behaves like a JDBC driver which reports {@link Statement#SUCCESS_NO_INFO} for all batched statements.
+   */
+  protected static class SuccessNoInfoDbSqlSession extends DbSqlSession {
+
+    public SuccessNoInfoDbSqlSession(DbSqlSessionFactory dbSqlSessionFactory) {
+      super(dbSqlSessionFactory);
+    }
+
+    protected List<BatchResult> flushStatements() {
+      List<BatchResult> batchResults = super.flushStatements();
+      for (BatchResult batchResult : batchResults) {
+        Arrays.fill(batchResult.getUpdateCounts(), Statement.SUCCESS_NO_INFO);
+      }
+      return batchResults;
+    }
+  }
+
+}
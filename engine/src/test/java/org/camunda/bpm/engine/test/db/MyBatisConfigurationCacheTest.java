@@ -0,0 +1,155 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.net.URL;
+import java.net.URLClassLoader;
+
+import junit.framework.TestCase;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+
+/**
+ * Tests that the parsed MyBatis mappings are shared between process engines.
+ */
+public class MyBatisConfigurationCacheTest extends TestCase {
+
+  protected ProcessEngine engine1;
+  protected ProcessEngine engine2;
+
+  protected void tearDown() throws Exception {
+    if (engine1 != null) {
+      engine1.close();
+    }
+    if (engine2 != null) {
+      engine2.close();
+    }
+  }
+
+  public void testMappedStatementsAreShared() {
+    engine1 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine1").buildProcessEngine();
+    engine2 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine2").buildProcessEngine();
+
+    Configuration configuration1 = getMyBatisConfiguration(engine1);
+    Configuration configuration2 = getMyBatisConfiguration(engine2);
+
+    // every engine keeps its own environment
+    assertNotSame(configuration1, configuration2);
+    assertSame(getConfiguration(engine1).getDataSource(), configuration1.getEnvironment().getDataSource());
+    assertSame(getConfiguration(engine2).getDataSource(), configuration2.getEnvironment().getDataSource());
+
+    // but the mapped statements are parsed only once
+    MappedStatement statement = configuration1.getMappedStatement("selectTask");
+    assertSame(statement.getSqlSource(), configuration2.getMappedStatement("selectTask").getSqlSource());
+    assertSame(statement.getSqlSource(), configuration2.getMappedStatement("org.camunda.bpm.engine.impl.persistence.entity.TaskEntity.selectTask").getSqlSource());
+
+    // and belong to the configuration of their engine
+    assertSame(configuration1, statement.getConfiguration());
+    assertSame(configuration2, configuration2.getMappedStatement("selectTask").getConfiguration());
+
+    // and both engines can use them
+    assertEquals(0, engine1.getTaskService().createTaskQuery().count());
+    assertEquals(0, engine2.getTaskService().createTaskQuery().count());
+  }
+
+  public void testMappedStatementsAreNotSharedIfCacheIsDisabled() {
+    engine1 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine1").buildProcessEngine();
+    engine2 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine2")
+      .setMyBatisConfigurationCacheEnabled(false)
+      .buildProcessEngine();
+
+    MappedStatement statement = getMyBatisConfiguration(engine1).getMappedStatement("selectTask");
+    assertNotSame(statement.getSqlSource(), getMyBatisConfiguration(engine2).getMappedStatement("selectTask").getSqlSource());
+
+    assertEquals(0, engine2.getTaskService().createTaskQuery().count());
+  }
+
+  public void testResultMapsAreCopied() {
+    engine1 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine1").buildProcessEngine();
+    engine2 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine2").buildProcessEngine();
+
+    String resultMapName = "org.camunda.bpm.engine.impl.persistence.entity.TaskEntity.taskResultMap";
+    assertSame(getMyBatisConfiguration(engine1).getResultMap(resultMapName), getMyBatisConfiguration(engine2).getResultMap(resultMapName));
+    assertFalse(getMyBatisConfiguration(engine2).isLazyLoadingEnabled());
+
+    // nested result maps are looked up in the configuration while the result is mapped
+    assertTrue(engine2.getManagementService().createProcessDefinitionStatisticsQuery().includeIncidents().list().isEmpty());
+  }
+
+  public void testStatementTimeoutIsNotPartOfTheCacheKey() {
+    engine1 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine1").buildProcessEngine();
+
+    ProcessEngineConfigurationImpl configuration = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine2");
+    configuration.setJdbcStatementTimeout(30);
+    engine2 = configuration.buildProcessEngine();
+
+    MappedStatement statement1 = getMyBatisConfiguration(engine1).getMappedStatement("selectTask");
+    MappedStatement statement2 = getMyBatisConfiguration(engine2).getMappedStatement("selectTask");
+    assertSame(statement1.getSqlSource(), statement2.getSqlSource());
+
+    // the statements have no timeout of their own, so the statement handlers apply
+    // the default timeout of the configuration the statement belongs to
+    assertNull(statement2.getTimeout());
+    assertNull(statement1.getConfiguration().getDefaultStatementTimeout());
+    assertEquals(Integer.valueOf(30), statement2.getConfiguration().getDefaultStatementTimeout());
+
+    assertEquals(0, engine2.getTaskService().createTaskQuery().count());
+  }
+
+  public void testMappedStatementsAreNotSharedBetweenClassLoaders() {
+    engine1 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine1").buildProcessEngine();
+
+    ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+    try {
+      Thread.currentThread().setContextClassLoader(new URLClassLoader(new URL[0], contextClassLoader));
+      engine2 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine2").buildProcessEngine();
+    } finally {
+      Thread.currentThread().setContextClassLoader(contextClassLoader);
+    }
+
+    MappedStatement statement = getMyBatisConfiguration(engine1).getMappedStatement("selectTask");
+    assertNotSame(statement.getSqlSource(), getMyBatisConfiguration(engine2).getMappedStatement("selectTask").getSqlSource());
+  }
+
+  public void testMappedStatementsAreReusedAfterEngineIsClosed() {
+    engine1 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine1").buildProcessEngine();
+    MappedStatement statement = getMyBatisConfiguration(engine1).getMappedStatement("selectTask");
+    engine1.close();
+    engine1 = null;
+
+    // engines which are started one after another use the same mappings
+    engine2 = createProcessEngineConfiguration("MyBatisConfigurationCacheTest-engine2").buildProcessEngine();
+    assertSame(statement.getSqlSource(), getMyBatisConfiguration(engine2).getMappedStatement("selectTask").getSqlSource());
+  }
+
+  protected ProcessEngineConfigurationImpl createProcessEngineConfiguration(String name) {
+    ProcessEngineConfigurationImpl configuration = new StandaloneInMemProcessEngineConfiguration();
+    configuration.setProcessEngineName(name);
+    configuration.setJdbcUrl("jdbc:h2:mem:" + name);
+    configuration.setMyBatisConfigurationCacheEnabled(true);
+    return configuration;
+  }
+
+  protected ProcessEngineConfigurationImpl getConfiguration(ProcessEngine engine) {
+    return (ProcessEngineConfigurationImpl) engine.getProcessEngineConfiguration();
+  }
+
+  protected Configuration getMyBatisConfiguration(ProcessEngine engine) {
+    return getConfiguration(engine).getSqlSessionFactory().getConfiguration();
+  }
+
+}
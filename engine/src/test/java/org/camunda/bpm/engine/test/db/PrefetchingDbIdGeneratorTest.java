@@ -0,0 +1,112 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.db;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import junit.framework.TestCase;
+
+import org.camunda.bpm.engine.impl.db.IdBlock;
+import org.camunda.bpm.engine.impl.db.PrefetchingDbIdGenerator;
+
+public class PrefetchingDbIdGeneratorTest extends TestCase {
+
+  public void testIdsAreUniqueAcrossThreads() throws Exception {
+    final TestIdGenerator idGenerator = new TestIdGenerator();
+    idGenerator.setIdBlockSize(10);
+
+    final Set<String> ids = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+    final AtomicInteger duplicates = new AtomicInteger();
+
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int i = 0; i < 10; i++) {
+      Thread thread = new Thread() {
+        public void run() {
+          for (int j = 0; j < 1000; j++) {
+            if (!ids.add(idGenerator.getNextId())) {
+              duplicates.incrementAndGet();
+            }
+          }
+        }
+      };
+      thread.start();
+      threads.add(thread);
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertEquals(0, duplicates.get());
+    assertEquals(10000, ids.size());
+  }
+
+  public void testNextBlockIsPrefetched() {
+    TestIdGenerator idGenerator = new TestIdGenerator();
+    idGenerator.setIdBlockSize(10);
+    idGenerator.setPrefetchThreshold(0.5);
+    idGenerator.setTargetBlockDurationMillis(0);
+
+    // fetches the first block
+    idGenerator.getNextId();
+    assertEquals(1, idGenerator.fetchedBlocks.get());
+
+    for (int i = 0; i < 5; i++) {
+      idGenerator.getNextId();
+    }
+
+    // threshold was crossed
+    assertEquals(2, idGenerator.fetchedBlocks.get());
+
+    // the remaining ids of the first block and the prefetched block do not require a fetch
+    for (int i = 0; i < 9; i++) {
+      idGenerator.getNextId();
+    }
+    assertEquals(2, idGenerator.fetchedBlocks.get());
+  }
+
+  public void testBlockSizeGrowsWithConsumptionRate() {
+    TestIdGenerator idGenerator = new TestIdGenerator();
+    idGenerator.setIdBlockSize(10);
+    idGenerator.setMaxIdBlockSize(40);
+    idGenerator.setPrefetchThreshold(1.0);
+    idGenerator.setTargetBlockDurationMillis(Long.MAX_VALUE / 8);
+
+    for (int i = 0; i < 200; i++) {
+      idGenerator.getNextId();
+    }
+
+    assertEquals(40, idGenerator.lastBlockSize);
+  }
+
+  protected static class TestIdGenerator extends PrefetchingDbIdGenerator {
+
+    protected AtomicLong nextDbId = new AtomicLong(1);
+    protected AtomicInteger fetchedBlocks = new AtomicInteger();
+    protected volatile int lastBlockSize;
+
+    protected IdBlock fetchBlock(int blockSize) {
+      fetchedBlocks.incrementAndGet();
+      lastBlockSize = blockSize;
+      long start = nextDbId.getAndAdd(blockSize);
+      return new IdBlock(start, start + blockSize - 1);
+    }
+  }
+
+}
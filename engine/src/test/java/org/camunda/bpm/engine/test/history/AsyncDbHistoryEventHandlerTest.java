@@ -0,0 +1,282 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.history;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.camunda.bpm.container.ExecutorService;
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.history.HistoricActivityInstance;
+import org.camunda.bpm.engine.history.HistoricProcessInstance;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.history.HistoryLevel;
+import org.camunda.bpm.engine.impl.history.event.HistoricProcessInstanceEventEntity;
+import org.camunda.bpm.engine.impl.history.event.HistoryEvent;
+import org.camunda.bpm.engine.impl.history.handler.AsyncDbHistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventBatch;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventHandler;
+import org.camunda.bpm.engine.impl.history.handler.HistoryEventSpool;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.interceptor.CommandExecutor;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.task.Task;
+import org.camunda.bpm.engine.test.Deployment;
+
+/**
+ * Tests writing history events in the background with the {@link AsyncDbHistoryEventHandler}.
+ */
+public class AsyncDbHistoryEventHandlerTest extends PluggableProcessEngineTestCase {
+
+  protected HistoryEventHandler originalHistoryEventHandler;
+  protected AsyncDbHistoryEventHandler asyncHistoryEventHandler;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    originalHistoryEventHandler = processEngineConfiguration.getHistoryEventHandler();
+
+    asyncHistoryEventHandler = new AsyncDbHistoryEventHandler();
+    asyncHistoryEventHandler.setMaxBatchSize(5);
+    asyncHistoryEventHandler.start(processEngineConfiguration.getCommandExecutorTxRequiresNew());
+    processEngineConfiguration.setHistoryEventHandler(asyncHistoryEventHandler);
+  }
+
+  protected void tearDown() throws Exception {
+    asyncHistoryEventHandler.stop();
+    processEngineConfiguration.setHistoryEventHandler(originalHistoryEventHandler);
+    super.tearDown();
+  }
+
+  @Deployment(resources = {"org/camunda/bpm/engine/test/history/HistoryLevelTest.bpmn20.xml"})
+  public void testHistoryIsWrittenAsynchronously() throws Exception {
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("HistoryLevelTest");
+    Task task = taskService.createTaskQuery().singleResult();
+    taskService.complete(task.getId());
+
+    asyncHistoryEventHandler.flush();
+    assertEquals(0, asyncHistoryEventHandler.getNumberOfBufferedEvents());
+
+    if (isHistoryLevelAtLeast(HistoryLevel.HISTORY_LEVEL_ACTIVITY)) {
+      HistoricProcessInstance historicProcessInstance = historyService.createHistoricProcessInstanceQuery()
+          .processInstanceId(processInstance.getId())
+          .singleResult();
+      assertNotNull(historicProcessInstance.getStartTime());
+      assertNotNull(historicProcessInstance.getEndTime());
+
+      // start and end events of the activities are written in different batches
+      List<HistoricActivityInstance> activityInstances = historyService.createHistoricActivityInstanceQuery().list();
+      assertEquals(5, activityInstances.size());
+      for (HistoricActivityInstance activityInstance : activityInstances) {
+        assertNotNull(activityInstance.getStartTime());
+        assertNotNull(activityInstance.getEndTime());
+      }
+    }
+
+    if (isHistoryLevelAtLeast(HistoryLevel.HISTORY_LEVEL_FULL)) {
+      assertEquals(2, historyService.createHistoricDetailQuery().count());
+    }
+  }
+
+  @Deployment(resources = {"org/camunda/bpm/engine/test/history/HistoryLevelTest.bpmn20.xml"})
+  public void testEventsOfRolledBackTransactionAreDropped() throws Exception {
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          runtimeService.startProcessInstanceByKey("HistoryLevelTest");
+          throw new RuntimeException("rollback");
+        }
+      });
+      fail("exception expected");
+    } catch (RuntimeException e) {
+      assertTextPresent("rollback", e.getMessage());
+    }
+
+    asyncHistoryEventHandler.flush();
+
+    assertEquals(0, asyncHistoryEventHandler.getNumberOfBufferedEvents());
+    assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+    assertEquals(0, historyService.createHistoricActivityInstanceQuery().count());
+  }
+
+  public void testSpoolRecoversUnwrittenBatches() throws Exception {
+    File spoolFile = File.createTempFile("history-event-spool", ".dat");
+    try {
+      HistoryEventSpool spool = new HistoryEventSpool(spoolFile);
+      spool.clear();
+
+      HistoryEventBatch writtenBatch = createBatch(0, "writtenInstance");
+      HistoryEventBatch unwrittenBatch = createBatch(1, "unwrittenInstance");
+      spool.append(writtenBatch);
+      spool.append(unwrittenBatch);
+      spool.markWritten(Arrays.asList(writtenBatch));
+      spool.close();
+
+      List<List<HistoryEvent>> recoveredBatches = new HistoryEventSpool(spoolFile).recover();
+
+      assertEquals(1, recoveredBatches.size());
+      assertEquals(1, recoveredBatches.get(0).size());
+      assertEquals("unwrittenInstance", recoveredBatches.get(0).get(0).getId());
+    }
+    finally {
+      spoolFile.delete();
+    }
+  }
+
+  @Deployment(resources = {"org/camunda/bpm/engine/test/history/HistoryLevelTest.bpmn20.xml"})
+  public void testHistoryIsWrittenOnExecutorService() throws Exception {
+    if (!isHistoryLevelAtLeast(HistoryLevel.HISTORY_LEVEL_ACTIVITY)) {
+      return;
+    }
+
+    final List<Runnable> scheduledRunnables = new ArrayList<Runnable>();
+    ExecutorService executorService = new ExecutorService() {
+      public boolean schedule(Runnable runnable, boolean isLongRunning) {
+        scheduledRunnables.add(runnable);
+        return true;
+      }
+      public Runnable getExecuteJobsRunnable(List<String> jobIds, ProcessEngineImpl processEngine) {
+        return null;
+      }
+    };
+
+    File spoolFile = File.createTempFile("history-event-spool", ".dat");
+    try {
+      AsyncDbHistoryEventHandler handler = new AsyncDbHistoryEventHandler();
+      handler.setExecutorService(executorService);
+      handler.setSpoolFilePath(spoolFile.getPath());
+      replaceHandler(handler);
+
+      runtimeService.startProcessInstanceByKey("HistoryLevelTest");
+
+      // the committed batch is recorded in the spool file but not written yet
+      assertEquals(1, scheduledRunnables.size());
+      assertEquals(1, new HistoryEventSpool(spoolFile).recover().size());
+      assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+
+      scheduledRunnables.get(0).run();
+      handler.flush();
+
+      assertEquals(0, handler.getNumberOfBufferedEvents());
+      assertEquals(0, new HistoryEventSpool(spoolFile).recover().size());
+      assertEquals(1, historyService.createHistoricProcessInstanceQuery().count());
+    }
+    finally {
+      asyncHistoryEventHandler.stop();
+      spoolFile.delete();
+    }
+  }
+
+  @Deployment(resources = {"org/camunda/bpm/engine/test/history/HistoryLevelTest.bpmn20.xml"})
+  public void testFailedBatchesRemainInSpool() throws Exception {
+    if (!isHistoryLevelAtLeast(HistoryLevel.HISTORY_LEVEL_ACTIVITY)) {
+      return;
+    }
+
+    File spoolFile = File.createTempFile("history-event-spool", ".dat");
+    try {
+      AsyncDbHistoryEventHandler handler = new AsyncDbHistoryEventHandler() {
+        protected List<HistoryEventBatch> write(List<HistoryEventBatch> batches) {
+          // every write fails
+          return Collections.emptyList();
+        }
+      };
+      handler.setSpoolFilePath(spoolFile.getPath());
+      replaceHandler(handler);
+
+      runtimeService.startProcessInstanceByKey("HistoryLevelTest");
+      handler.flush();
+
+      assertEquals(0, handler.getNumberOfBufferedEvents());
+      assertEquals(0, historyService.createHistoricProcessInstanceQuery().count());
+      handler.stop();
+
+      // the events are written when the handler is started again
+      AsyncDbHistoryEventHandler restartedHandler = new AsyncDbHistoryEventHandler();
+      restartedHandler.setSpoolFilePath(spoolFile.getPath());
+      replaceHandler(restartedHandler);
+      restartedHandler.flush();
+
+      assertEquals(0, new HistoryEventSpool(spoolFile).recover().size());
+      assertEquals(1, historyService.createHistoricProcessInstanceQuery().count());
+    }
+    finally {
+      asyncHistoryEventHandler.stop();
+      spoolFile.delete();
+    }
+  }
+
+  @Deployment(resources = {"org/camunda/bpm/engine/test/history/HistoryLevelTest.bpmn20.xml"})
+  public void testTransactionFailsIfSpoolCannotBeWritten() throws Exception {
+    if (!isHistoryLevelAtLeast(HistoryLevel.HISTORY_LEVEL_ACTIVITY)) {
+      return;
+    }
+
+    final File spoolFile = File.createTempFile("history-event-spool", ".dat");
+    try {
+      AsyncDbHistoryEventHandler handler = new AsyncDbHistoryEventHandler() {
+        public void start(CommandExecutor commandExecutor) {
+          super.start(commandExecutor);
+          spool = new HistoryEventSpool(spoolFile) {
+            public synchronized void append(HistoryEventBatch batch) {
+              throw new ProcessEngineException("spool file not writable");
+            }
+          };
+        }
+      };
+      handler.setSpoolFilePath(spoolFile.getPath());
+      replaceHandler(handler);
+
+      try {
+        runtimeService.startProcessInstanceByKey("HistoryLevelTest");
+        fail("exception expected");
+      } catch (ProcessEngineException e) {
+        assertTextPresent("spool file not writable", e.getMessage());
+      }
+
+      assertEquals(0, handler.getNumberOfBufferedEvents());
+      assertEquals(0, runtimeService.createProcessInstanceQuery().count());
+    }
+    finally {
+      asyncHistoryEventHandler.stop();
+      spoolFile.delete();
+    }
+  }
+
+  protected void replaceHandler(AsyncDbHistoryEventHandler handler) {
+    asyncHistoryEventHandler.stop();
+    asyncHistoryEventHandler = handler;
+    asyncHistoryEventHandler.start(processEngineConfiguration.getCommandExecutorTxRequiresNew());
+    processEngineConfiguration.setHistoryEventHandler(asyncHistoryEventHandler);
+  }
+
+  protected HistoryEventBatch createBatch(long sequence, String processInstanceId) {
+    HistoricProcessInstanceEventEntity historyEvent = new HistoricProcessInstanceEventEntity();
+    historyEvent.setId(processInstanceId);
+    historyEvent.setProcessInstanceId(processInstanceId);
+
+    HistoryEventBatch batch = new HistoryEventBatch();
+    batch.add(historyEvent);
+    batch.setSequence(sequence);
+    return batch;
+  }
+
+  protected boolean isHistoryLevelAtLeast(HistoryLevel historyLevel) {
+    return processEngineConfiguration.getHistoryLevel().getId() >= historyLevel.getId();
+  }
+
+}
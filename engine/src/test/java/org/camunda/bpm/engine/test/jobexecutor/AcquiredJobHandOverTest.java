@@ -0,0 +1,204 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import java.util.Date;
+
+import org.camunda.bpm.engine.OptimisticLockingException;
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.cmd.ExecuteJobsCmd;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobRegistry;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutorContext;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+public class AcquiredJobHandOverTest extends PluggableProcessEngineTestCase {
+
+  protected AcquiredJobRegistry acquiredJobRegistry;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    acquiredJobRegistry = processEngineConfiguration.getAcquiredJobRegistry();
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setAcquiredJobRegistry(acquiredJobRegistry);
+    ClockUtil.reset();
+    super.tearDown();
+  }
+
+  public void testExecuteHandedOverJobs() {
+    processEngineConfiguration.setAcquiredJobRegistry(new AcquiredJobRegistry());
+
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+        .camundaAsyncBefore()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done());
+
+    ProcessInstance processInstance = runtimeService.startProcessInstanceByKey("testProcess");
+
+    waitForJobExecutorToProcessAllJobs(6000);
+
+    assertProcessEnded(processInstance.getId());
+    assertEquals(0, processEngineConfiguration.getAcquiredJobRegistry().size());
+  }
+
+  public void testDeletedJobIsNotExecuted() {
+    AcquiredJobRegistry registry = new AcquiredJobRegistry();
+    processEngineConfiguration.setAcquiredJobRegistry(registry);
+
+    ProcessInstance processInstance = startProcessWithAsyncServiceTask();
+    String jobId = acquireJobs(registry);
+
+    runtimeService.deleteProcessInstance(processInstance.getId(), null);
+
+    // the acquired state of the deleted job is not used
+    executeJob(jobId);
+
+    assertEquals(0, managementService.createJobQuery().count());
+  }
+
+  public void testChangedJobFailsOnFlush() {
+    AcquiredJobRegistry registry = new AcquiredJobRegistry();
+    processEngineConfiguration.setAcquiredJobRegistry(registry);
+
+    ProcessInstance processInstance = startProcessWithAsyncServiceTask();
+    String jobId = acquireJobs(registry);
+
+    // increments the revision of the job
+    managementService.setJobRetries(jobId, 5);
+
+    try {
+      executeJob(jobId);
+      fail("expected optimistic locking exception");
+    }
+    catch (OptimisticLockingException e) {
+      // expected
+    }
+
+    // the job is selected again by its next execution
+    managementService.executeJob(jobId);
+    assertProcessEnded(processInstance.getId());
+  }
+
+  public void testTakeAcquiredJob() {
+    AcquiredJobRegistry registry = new AcquiredJobRegistry();
+
+    MessageEntity job = createLockedJob("aJobId", 1000);
+    job.setRevision(2);
+    AcquiredJobs acquiredJobs = new AcquiredJobs();
+    acquiredJobs.addJobEntity(job);
+
+    registry.register(acquiredJobs);
+
+    // the registry hands out a copy which is not shared with the acquisition
+    JobEntity acquiredJob = registry.take("aJobId");
+    assertNotSame(job, acquiredJob);
+    assertTrue(acquiredJob instanceof MessageEntity);
+    assertEquals("aJobId", acquiredJob.getId());
+    assertEquals(2, acquiredJob.getRevision());
+    assertEquals(job.getLockExpirationTime(), acquiredJob.getLockExpirationTime());
+
+    assertNull(registry.take("aJobId"));
+  }
+
+  public void testRegistryIsBounded() {
+    AcquiredJobRegistry registry = new AcquiredJobRegistry(2);
+
+    AcquiredJobs acquiredJobs = new AcquiredJobs();
+    acquiredJobs.addJobEntity(createLockedJob("aJobId", 1000));
+    acquiredJobs.addJobEntity(createLockedJob("anotherJobId", 1000));
+    acquiredJobs.addJobEntity(createLockedJob("aThirdJobId", 1000));
+    registry.register(acquiredJobs);
+
+    assertEquals(2, registry.size());
+  }
+
+  public void testExpiredJobsAreRemovedOnRegistration() {
+    AcquiredJobRegistry registry = new AcquiredJobRegistry();
+
+    AcquiredJobs acquiredJobs = new AcquiredJobs();
+    acquiredJobs.addJobEntity(createLockedJob("aJobId", 1000));
+    registry.register(acquiredJobs);
+
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + 2000));
+
+    acquiredJobs = new AcquiredJobs();
+    acquiredJobs.addJobEntity(createLockedJob("anotherJobId", 1000));
+    registry.register(acquiredJobs);
+
+    assertEquals(1, registry.size());
+    assertNotNull(registry.take("anotherJobId"));
+  }
+
+  public void testDiscardJobWithExpiredLock() {
+    AcquiredJobRegistry registry = new AcquiredJobRegistry();
+
+    AcquiredJobs acquiredJobs = new AcquiredJobs();
+    acquiredJobs.addJobEntity(createLockedJob("aJobId", 1000));
+    registry.register(acquiredJobs);
+
+    ClockUtil.setCurrentTime(new Date(ClockUtil.getCurrentTime().getTime() + 2000));
+
+    assertNull(registry.take("aJobId"));
+  }
+
+  protected ProcessInstance startProcessWithAsyncServiceTask() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done());
+
+    return runtimeService.startProcessInstanceByKey("testProcess");
+  }
+
+  protected String acquireJobs(AcquiredJobRegistry registry) {
+    AcquiredJobs acquiredJobs = processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new AcquireJobsCmd(processEngineConfiguration.getJobExecutor()));
+    registry.register(acquiredJobs);
+
+    assertEquals(1, registry.size());
+    return acquiredJobs.getJobEntities().iterator().next().getId();
+  }
+
+  protected void executeJob(String jobId) {
+    Context.setJobExecutorContext(new JobExecutorContext());
+    try {
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new ExecuteJobsCmd(jobId));
+    }
+    finally {
+      Context.removeJobExecutorContext();
+    }
+  }
+
+  protected MessageEntity createLockedJob(String id, long lockTimeInMillis) {
+    MessageEntity job = new MessageEntity();
+    job.setId(id);
+    job.setLockExpirationTime(new Date(ClockUtil.getCurrentTime().getTime() + lockTimeInMillis));
+    return job;
+  }
+
+}
@@ -0,0 +1,125 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.camunda.bpm.engine.impl.cmd.AcquireJobsCmd;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.jobexecutor.AcquiredJobs;
+import org.camunda.bpm.engine.impl.persistence.entity.JobEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.JobManager;
+import org.camunda.bpm.engine.impl.test.PluggableProcessEngineTestCase;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+/**
+ * Checks that exclusive jobs are acquired in per-process-instance batches,
+ * regardless of whether they are fetched per job or for the whole page.
+ */
+public class ExclusiveJobAcquisitionTest extends PluggableProcessEngineTestCase {
+
+  protected boolean batchAcquisitionEnabled;
+
+  protected void setUp() throws Exception {
+    super.setUp();
+    batchAcquisitionEnabled = processEngineConfiguration.isJobExecutorBatchExclusiveJobAcquisitionEnabled();
+
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .parallelGateway("fork")
+        .serviceTask()
+          .camundaAsyncBefore()
+          .camundaExpression("${true}")
+        .parallelGateway("join")
+        .endEvent()
+        .moveToNode("fork")
+          .serviceTask()
+          .camundaAsyncBefore()
+          .camundaExpression("${true}")
+          .connectTo("join")
+          .done());
+  }
+
+  protected void tearDown() throws Exception {
+    processEngineConfiguration.setJobExecutorBatchExclusiveJobAcquisitionEnabled(batchAcquisitionEnabled);
+    super.tearDown();
+  }
+
+  public void testAcquireExclusiveJobsInBatch() {
+    processEngineConfiguration.setJobExecutorBatchExclusiveJobAcquisitionEnabled(true);
+    assertExclusiveJobsGroupedByProcessInstance();
+  }
+
+  public void testAcquireExclusiveJobsPerProcessInstance() {
+    processEngineConfiguration.setJobExecutorBatchExclusiveJobAcquisitionEnabled(false);
+    assertExclusiveJobsGroupedByProcessInstance();
+  }
+
+  public void testFindExclusiveJobsForManyProcessInstances() {
+    final String processInstanceId = runtimeService.startProcessInstanceByKey("testProcess").getId();
+
+    // more process instance ids than fit into the IN list of a single statement
+    final List<String> processInstanceIds = new ArrayList<String>();
+    for (int i = 0; i < 2 * JobManager.MAX_PROCESS_INSTANCE_IDS_PER_STATEMENT; i++) {
+      processInstanceIds.add("nonExisting" + i);
+    }
+    processInstanceIds.add(processInstanceId);
+
+    List<JobEntity> jobs = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<List<JobEntity>>() {
+      public List<JobEntity> execute(CommandContext commandContext) {
+        return commandContext.getJobManager().findExclusiveJobsToExecute(processInstanceIds);
+      }
+    });
+
+    assertEquals(2, jobs.size());
+    for (JobEntity job : jobs) {
+      assertEquals(processInstanceId, job.getProcessInstanceId());
+    }
+  }
+
+  protected void assertExclusiveJobsGroupedByProcessInstance() {
+    runtimeService.startProcessInstanceByKey("testProcess");
+    runtimeService.startProcessInstanceByKey("testProcess");
+
+    AcquiredJobs acquiredJobs = processEngineConfiguration.getCommandExecutorTxRequired()
+      .execute(new AcquireJobsCmd(processEngineConfiguration.getJobExecutor()));
+
+    List<List<String>> batches = new ArrayList<List<String>>();
+    for (List<String> batch : acquiredJobs.getJobIdBatches()) {
+      if (!batch.isEmpty()) {
+        batches.add(batch);
+      }
+    }
+
+    // all exclusive jobs of a process instance end up in the same batch
+    assertEquals(2, batches.size());
+    assertEquals(4, acquiredJobs.size());
+
+    for (List<String> batch : batches) {
+      assertEquals(2, batch.size());
+
+      Set<String> processInstanceIds = new HashSet<String>();
+      for (String jobId : batch) {
+        Job job = managementService.createJobQuery().jobId(jobId).singleResult();
+        processInstanceIds.add(job.getProcessInstanceId());
+      }
+      assertEquals(1, processInstanceIds.size());
+    }
+  }
+
+}
@@ -0,0 +1,110 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import junit.framework.TestCase;
+
+import org.camunda.bpm.engine.impl.jobexecutor.DefaultJobExecutor;
+import org.camunda.bpm.engine.impl.jobexecutor.JobAcquisitionBackoff;
+import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
+
+/**
+ * Tests the back-off of the job acquisition in case of lock failures.
+ */
+public class JobAcquisitionBackoffTest extends TestCase {
+
+  protected JobExecutor jobExecutor;
+  protected JobAcquisitionBackoff backoff;
+
+  protected void setUp() throws Exception {
+    jobExecutor = new DefaultJobExecutor();
+    jobExecutor.setBackoffTimeInMillis(100);
+    jobExecutor.setMaxBackoff(1000);
+    jobExecutor.setBackoffIncreaseFactor(2);
+    jobExecutor.setBackoffFailureRatioThreshold(0.5f);
+
+    backoff = new JobAcquisitionBackoff(jobExecutor);
+  }
+
+  public void testNoBackoffWithoutLockFailures() {
+    backoff.acquisitionFinished(3, 0);
+
+    assertFalse(backoff.isBackingOff());
+    assertEquals(0, backoff.getWaitTime());
+  }
+
+  public void testNoBackoffBelowFailureRatioThreshold() {
+    backoff.acquisitionFinished(3, 1);
+
+    assertFalse(backoff.isBackingOff());
+  }
+
+  public void testExponentialBackoffOnLockFailures() {
+    backoff.acquisitionFinished(1, 2);
+    assertEquals(100, backoff.getBackoffTime());
+
+    backoff.acquisitionFinished(0, 3);
+    assertEquals(200, backoff.getBackoffTime());
+
+    backoff.acquisitionFinished(0, 3);
+    assertEquals(400, backoff.getBackoffTime());
+  }
+
+  public void testBackoffIsCappedAtMaxBackoff() {
+    for (int i = 0; i < 10; i++) {
+      backoff.acquisitionFinished(0, 3);
+    }
+
+    assertEquals(1000, backoff.getBackoffTime());
+  }
+
+  public void testBackoffDecreasesOnSuccessfulAcquisition() {
+    backoff.acquisitionFinished(0, 3);
+    backoff.acquisitionFinished(0, 3);
+    assertEquals(200, backoff.getBackoffTime());
+
+    backoff.acquisitionFinished(3, 0);
+    assertEquals(100, backoff.getBackoffTime());
+
+    backoff.acquisitionFinished(3, 0);
+    assertFalse(backoff.isBackingOff());
+  }
+
+  public void testEmptyAcquisitionDoesNotChangeBackoff() {
+    backoff.acquisitionFinished(0, 3);
+    backoff.acquisitionFinished(0, 0);
+
+    assertEquals(100, backoff.getBackoffTime());
+  }
+
+  public void testWaitTimeIsJittered() {
+    backoff.acquisitionFinished(0, 3);
+    backoff.acquisitionFinished(0, 3);
+    backoff.acquisitionFinished(0, 3);
+
+    for (int i = 0; i < 100; i++) {
+      long waitTime = backoff.getWaitTime();
+      assertTrue(waitTime >= 200);
+      assertTrue(waitTime <= 400);
+    }
+  }
+
+  public void testBackoffDisabledByDefault() {
+    JobAcquisitionBackoff defaultBackoff = new JobAcquisitionBackoff(new DefaultJobExecutor());
+
+    defaultBackoff.acquisitionFinished(0, 3);
+
+    assertFalse(defaultBackoff.isBackingOff());
+  }
+
+}
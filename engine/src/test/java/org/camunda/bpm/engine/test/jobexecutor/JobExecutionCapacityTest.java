@@ -0,0 +1,92 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.jobexecutor;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+import org.camunda.bpm.engine.impl.jobexecutor.ThreadPoolJobExecutor;
+
+/**
+ * Tests that the thread pool job executor reports its free execution capacity.
+ */
+public class JobExecutionCapacityTest extends TestCase {
+
+  protected ThreadPoolExecutor threadPoolExecutor;
+  protected ThreadPoolJobExecutor jobExecutor;
+  protected CountDownLatch blockingLatch;
+
+  protected void setUp() throws Exception {
+    threadPoolExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(2));
+    jobExecutor = new ThreadPoolJobExecutor();
+    jobExecutor.setThreadPoolExecutor(threadPoolExecutor);
+    blockingLatch = new CountDownLatch(1);
+  }
+
+  protected void tearDown() throws Exception {
+    blockingLatch.countDown();
+    threadPoolExecutor.shutdown();
+    threadPoolExecutor.awaitTermination(10, TimeUnit.SECONDS);
+  }
+
+  public void testFreeCapacityOfIdleExecutor() {
+    assertEquals(3, jobExecutor.getFreeExecutionCapacity());
+    assertFalse(jobExecutor.isExecutionSaturated());
+  }
+
+  public void testFreeCapacityDecreasesWithSubmittedWork() throws Exception {
+    final CountDownLatch startedLatch = new CountDownLatch(1);
+    threadPoolExecutor.execute(new Runnable() {
+      public void run() {
+        startedLatch.countDown();
+        awaitLatch(blockingLatch);
+      }
+    });
+    startedLatch.await(10, TimeUnit.SECONDS);
+
+    assertEquals(2, jobExecutor.getFreeExecutionCapacity());
+
+    threadPoolExecutor.execute(new BlockingRunnable());
+    assertEquals(1, jobExecutor.getFreeExecutionCapacity());
+
+    threadPoolExecutor.execute(new BlockingRunnable());
+    assertEquals(0, jobExecutor.getFreeExecutionCapacity());
+    assertTrue(jobExecutor.isExecutionSaturated());
+  }
+
+  public void testUnknownCapacityWithoutThreadPool() {
+    ThreadPoolJobExecutor jobExecutorWithoutThreadPool = new ThreadPoolJobExecutor();
+
+    assertEquals(Integer.MAX_VALUE, jobExecutorWithoutThreadPool.getFreeExecutionCapacity());
+    assertFalse(jobExecutorWithoutThreadPool.isExecutionSaturated());
+  }
+
+  protected void awaitLatch(CountDownLatch latch) {
+    try {
+      latch.await(10, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  protected class BlockingRunnable implements Runnable {
+    public void run() {
+      awaitLatch(blockingLatch);
+    }
+  }
+
+}
@@ -27,6 +27,7 @@ import org.camunda.bpm.engine.impl.jobexecutor.JobExecutor;
 import org.camunda.bpm.engine.impl.persistence.entity.MessageEntity;
 import org.camunda.bpm.engine.impl.persistence.entity.TimerEntity;
 import org.camunda.bpm.engine.impl.util.ClockUtil;
+import org.camunda.bpm.engine.runtime.Job;
 
 /**
  * @author Tom Baeyens
@@ -111,6 +112,34 @@ public class JobExecutorCmdHappyTest extends JobExecutorTestCase {
     clearDatabase();
   }
 
+  public void testAcquireJobsCmdRespectsNumberOfJobsToAcquire() {
+    CommandExecutor commandExecutor = processEngineConfiguration.getCommandExecutorTxRequired();
+    JobExecutor jobExecutor = processEngineConfiguration.getJobExecutor();
+
+    commandExecutor.execute(new Command<Void>() {
+
+      public Void execute(CommandContext commandContext) {
+        for (int i = 0; i < 3; i++) {
+          commandContext.getJobManager().send(createTweetMessage("message " + i));
+        }
+        return null;
+      }
+    });
+
+    AcquiredJobs acquiredJobs = commandExecutor.execute(new AcquireJobsCmd(jobExecutor, 2));
+    assertEquals(2, acquiredJobs.getJobIdBatches().size());
+
+    acquiredJobs = commandExecutor.execute(new AcquireJobsCmd(jobExecutor, 2));
+    assertEquals(1, acquiredJobs.getJobIdBatches().size());
+
+    for (Job job : managementService.createJobQuery().list()) {
+      commandExecutor.execute(new ExecuteJobsCmd(job.getId()));
+    }
+    assertEquals(3, tweetHandler.getMessages().size());
+
+    clearDatabase();
+  }
+
   protected void clearDatabase() {
     processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
       public Void execute(CommandContext commandContext) {
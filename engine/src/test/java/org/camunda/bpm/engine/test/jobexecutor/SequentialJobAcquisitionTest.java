@@ -215,6 +215,63 @@ public class SequentialJobAcquisitionTest {
   }
   
   
+  @Test
+  public void testExecuteJobsForTwoEnginesWithAcquisitionThreadPerEngine() {
+    jobExecutor.setAcquisitionThreadPerEngine(true);
+
+    StandaloneProcessEngineConfiguration engineConfiguration1 = new StandaloneInMemProcessEngineConfiguration();
+    engineConfiguration1.setProcessEngineName(getClass().getName() + "-engine1");
+    engineConfiguration1.setJdbcUrl("jdbc:h2:mem:activiti1");
+    engineConfiguration1.setJobExecutorActivate(false);
+    engineConfiguration1.setJobExecutor(jobExecutor);
+    ProcessEngine engine1 = engineConfiguration1.buildProcessEngine();
+
+    StandaloneProcessEngineConfiguration engineConfiguration2 = new StandaloneInMemProcessEngineConfiguration();
+    engineConfiguration2.setProcessEngineName(getClass().getName() + "engine2");
+    engineConfiguration2.setJdbcUrl("jdbc:h2:mem:activiti2");
+    engineConfiguration2.setJobExecutorActivate(false);
+    engineConfiguration2.setJobExecutor(jobExecutor);
+    ProcessEngine engine2 = engineConfiguration2.buildProcessEngine();
+
+    jobExecutor.registerProcessEngine((ProcessEngineImpl) engine1);
+    jobExecutor.registerProcessEngine((ProcessEngineImpl) engine2);
+
+    jobExecutor.shutdown();
+
+    engine1.getRepositoryService().createDeployment()
+      .addClasspathResource(PROCESS_RESOURCE)
+      .deploy();
+
+    engine2.getRepositoryService().createDeployment()
+     .addClasspathResource(PROCESS_RESOURCE)
+     .deploy();
+
+    engine1.getRuntimeService().startProcessInstanceByKey("intermediateTimerEventExample");
+    engine2.getRuntimeService().startProcessInstanceByKey("intermediateTimerEventExample");
+
+    try {
+      Calendar calendar = Calendar.getInstance();
+      calendar.add(Field.DAY_OF_YEAR.getCalendarField(), 6);
+      ClockUtil.setCurrentTime(calendar.getTime());
+
+      jobExecutor.start();
+      Assert.assertEquals(2, jobExecutor.getEngineAcquireJobsRunnables().size());
+
+      waitForJobExecutorToProcessAllJobs(10000, 100, jobExecutor, engine1.getManagementService(), false);
+      waitForJobExecutorToProcessAllJobs(10000, 100, jobExecutor, engine2.getManagementService(), true);
+
+      Assert.assertEquals(0, engine1.getManagementService().createJobQuery().count());
+      Assert.assertEquals(0, engine2.getManagementService().createJobQuery().count());
+      Assert.assertTrue(jobExecutor.getEngineAcquireJobsRunnables().isEmpty());
+
+    }finally {
+      ClockUtil.reset();
+      engine1.close();
+      engine2.close();
+    }
+  }
+
+
   ////////// helper methods ////////////////////////////
   
 
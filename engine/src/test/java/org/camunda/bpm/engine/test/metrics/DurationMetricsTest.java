@@ -0,0 +1,80 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.metrics;
+
+import org.camunda.bpm.engine.impl.jobexecutor.AsyncContinuationJobHandler;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.reporter.MetricsCollectionTask;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.management.Metrics;
+import org.camunda.bpm.engine.runtime.Job;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+/**
+ * Tests the histograms of command and job execution durations.
+ */
+public class DurationMetricsTest extends ResourceProcessEngineTestCase {
+
+  public DurationMetricsTest() {
+    super("org/camunda/bpm/engine/test/metrics/durationMetricsTest.cfg.xml");
+  }
+
+  protected void tearDown() throws Exception {
+    for (Histogram histogram : processEngineConfiguration.getMetricsRegistry().getHistograms().values()) {
+      histogram.getAndClear();
+    }
+    managementService.deleteMetrics(null);
+    super.tearDown();
+  }
+
+  public void testCommandAndJobExecutionDurations() {
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .serviceTask()
+        .camundaAsyncBefore()
+        .camundaExpression("${true}")
+      .endEvent()
+      .done());
+
+    runtimeService.startProcessInstanceByKey("testProcess");
+    Job job = managementService.createJobQuery().singleResult();
+    managementService.executeJob(job.getId());
+
+    MetricsRegistry metricsRegistry = processEngineConfiguration.getMetricsRegistry();
+
+    Histogram startDuration = metricsRegistry.getHistogramByName(Metrics.COMMAND_DURATION + ".StartProcessInstanceCmd");
+    assertNotNull(startDuration);
+    assertEquals(1, startDuration.get().getCount());
+
+    String jobDurationName = Metrics.JOB_EXECUTION_DURATION + "." + AsyncContinuationJobHandler.TYPE;
+    Histogram jobDuration = metricsRegistry.getHistogramByName(jobDurationName);
+    assertNotNull(jobDuration);
+    assertEquals(1, jobDuration.get().getCount());
+
+    // the histograms are logged by the reporter
+    processEngineConfiguration.getDbMetricsReporter().reportNow();
+
+    assertEquals(1l, managementService.createMetricsQuery()
+        .name(jobDurationName + MetricsCollectionTask.HISTOGRAM_COUNT_SUFFIX)
+        .sum());
+    assertEquals(0, jobDuration.get().getCount());
+
+    // max and percentiles are not logged since the metrics query sums the logged values
+    assertEquals(0l, managementService.createMetricsQuery()
+        .name(jobDurationName + ".max")
+        .sum());
+    assertEquals(1, jobDuration.getLastSnapshot().getCount());
+  }
+
+}
@@ -0,0 +1,183 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import junit.framework.TestCase;
+
+import org.camunda.bpm.engine.ProcessEngineException;
+import org.camunda.bpm.engine.impl.metrics.Histogram;
+import org.camunda.bpm.engine.impl.metrics.Meter;
+import org.camunda.bpm.engine.impl.metrics.MetricsRegistry;
+import org.camunda.bpm.engine.impl.metrics.reporter.MetricsCollectionTask;
+
+/**
+ * Tests the concurrent recording of meters and histograms.
+ */
+public class MetricsRegistryTest extends TestCase {
+
+  protected static final int NUMBER_OF_THREADS = 8;
+  protected static final int NUMBER_OF_ITERATIONS = 10000;
+
+  protected MetricsRegistry metricsRegistry;
+
+  protected void setUp() throws Exception {
+    metricsRegistry = new MetricsRegistry();
+  }
+
+  public void testCreateMeterReturnsExistingMeter() {
+    Meter meter = metricsRegistry.createMeter("aMeter");
+    meter.mark();
+
+    assertSame(meter, metricsRegistry.createMeter("aMeter"));
+    assertEquals(1, metricsRegistry.getMeterByName("aMeter").get());
+  }
+
+  public void testConcurrentMarking() throws Exception {
+    final Meter meter = metricsRegistry.createMeter("aMeter");
+
+    runConcurrently(new Runnable() {
+      public void run() {
+        for (int i = 0; i < NUMBER_OF_ITERATIONS; i++) {
+          meter.mark();
+        }
+      }
+    });
+
+    assertEquals(NUMBER_OF_THREADS * NUMBER_OF_ITERATIONS, meter.getAndClear());
+    assertEquals(0, meter.get());
+  }
+
+  public void testConcurrentRecordingInNewHistograms() throws Exception {
+    runConcurrently(new Runnable() {
+      public void run() {
+        for (int i = 0; i < NUMBER_OF_ITERATIONS; i++) {
+          metricsRegistry.recordValue("histogram" + (i % 10), i % 100);
+        }
+      }
+    });
+
+    assertEquals(10, metricsRegistry.getHistograms().size());
+
+    long count = 0;
+    for (Histogram histogram : metricsRegistry.getHistograms().values()) {
+      Histogram.Snapshot snapshot = histogram.getAndClear();
+      count += snapshot.getCount();
+      assertTrue(snapshot.getMax() <= 99);
+    }
+    assertEquals(NUMBER_OF_THREADS * NUMBER_OF_ITERATIONS, count);
+  }
+
+  public void testHistogramSnapshot() {
+    Histogram histogram = metricsRegistry.createHistogram("aHistogram");
+    for (int i = 1; i <= 100; i++) {
+      histogram.recordValue(i);
+    }
+
+    Histogram.Snapshot snapshot = histogram.getAndClear();
+    assertEquals(100, snapshot.getCount());
+    assertEquals(5050, snapshot.getSum());
+    assertEquals(100, snapshot.getMax());
+    assertEquals(50, snapshot.getMean());
+
+    // percentiles are approximated by the upper bound of their exponential bucket
+    assertEquals(63, snapshot.getPercentile(0.5));
+    assertEquals(100, snapshot.getPercentile(0.95));
+    assertEquals(1, snapshot.getPercentile(0.0));
+
+    // the histogram is cleared
+    Histogram.Snapshot emptySnapshot = histogram.get();
+    assertEquals(0, emptySnapshot.getCount());
+    assertEquals(0, emptySnapshot.getMax());
+    assertEquals(0, emptySnapshot.getPercentile(0.5));
+  }
+
+  public void testLastSnapshotIsKept() {
+    Histogram histogram = metricsRegistry.createHistogram("aHistogram");
+    assertNull(histogram.getLastSnapshot());
+
+    histogram.recordValue(10);
+    Histogram.Snapshot snapshot = histogram.getAndClear();
+    histogram.recordValue(20);
+
+    assertSame(snapshot, histogram.getLastSnapshot());
+    assertEquals(10, histogram.getLastSnapshot().getMax());
+  }
+
+  public void testHistogramNameLengthIsValidated() {
+    String tooLongName = createName(MetricsCollectionTask.MAX_HISTOGRAM_NAME_LENGTH + 1);
+
+    try {
+      metricsRegistry.createHistogram(tooLongName);
+      fail("expected exception");
+    }
+    catch (ProcessEngineException e) {
+      // expected
+    }
+
+    // values of histograms with too long names are not recorded
+    metricsRegistry.recordValue(tooLongName, 1);
+    assertNull(metricsRegistry.getHistogramByName(tooLongName));
+
+    String maxLengthName = createName(MetricsCollectionTask.MAX_HISTOGRAM_NAME_LENGTH);
+    metricsRegistry.recordValue(maxLengthName, 1);
+    assertEquals(1, metricsRegistry.getHistogramByName(maxLengthName).get().getCount());
+  }
+
+  public void testNegativeValuesAreRecordedAsZero() {
+    Histogram histogram = metricsRegistry.createHistogram("aHistogram");
+    histogram.recordValue(-5);
+
+    Histogram.Snapshot snapshot = histogram.get();
+    assertEquals(1, snapshot.getCount());
+    assertEquals(0, snapshot.getSum());
+    assertEquals(0, snapshot.getPercentile(1.0));
+  }
+
+  protected String createName(int length) {
+    StringBuilder name = new StringBuilder();
+    for (int i = 0; i < length; i++) {
+      name.append('a');
+    }
+    return name.toString();
+  }
+
+  protected void runConcurrently(final Runnable runnable) throws Exception {
+    final CountDownLatch startLatch = new CountDownLatch(1);
+    List<Thread> threads = new ArrayList<Thread>();
+
+    for (int i = 0; i < NUMBER_OF_THREADS; i++) {
+      Thread thread = new Thread() {
+        public void run() {
+          try {
+            startLatch.await();
+          } catch (InterruptedException e) {
+            return;
+          }
+          runnable.run();
+        }
+      };
+      threads.add(thread);
+      thread.start();
+    }
+
+    startLatch.countDown();
+    for (Thread thread : threads) {
+      thread.join();
+    }
+  }
+
+}
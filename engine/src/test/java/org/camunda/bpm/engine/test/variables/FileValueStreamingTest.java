@@ -0,0 +1,204 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.variables;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+
+import org.camunda.bpm.engine.history.HistoricVariableInstance;
+import org.camunda.bpm.engine.impl.core.variable.value.FileValueImpl;
+import org.camunda.bpm.engine.impl.interceptor.Command;
+import org.camunda.bpm.engine.impl.interceptor.CommandContext;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayResultSetInputStream;
+import org.camunda.bpm.engine.impl.persistence.entity.ExecutionEntity;
+import org.camunda.bpm.engine.impl.persistence.entity.TemporaryFileInputStream;
+import org.camunda.bpm.engine.impl.persistence.entity.VariableInstanceEntity;
+import org.camunda.bpm.engine.impl.test.ResourceProcessEngineTestCase;
+import org.camunda.bpm.engine.impl.util.IoUtil;
+import org.camunda.bpm.engine.runtime.ProcessInstance;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.FileValue;
+import org.camunda.bpm.model.bpmn.Bpmn;
+
+/**
+ * Tests reading file variables with streaming enabled.
+ */
+public class FileValueStreamingTest extends ResourceProcessEngineTestCase {
+
+  protected byte[] content;
+  protected ProcessInstance processInstance;
+
+  public FileValueStreamingTest() {
+    super("org/camunda/bpm/engine/test/variables/FileValueStreamingTest.camunda.cfg.xml");
+  }
+
+  protected void setUp() throws Exception {
+    super.setUp();
+
+    deployment(Bpmn.createExecutableProcess("testProcess")
+      .startEvent()
+      .userTask()
+      .endEvent()
+      .done());
+
+    content = new byte[256 * 1024];
+    for (int i = 0; i < content.length; i++) {
+      content[i] = (byte) i;
+    }
+
+    FileValue fileValue = Variables.fileValue("data.bin").file(content).mimeType("application/octet-stream").create();
+    processInstance = runtimeService.startProcessInstanceByKey("testProcess", Variables.createVariables().putValueTyped("file", fileValue));
+  }
+
+  public void testFileValueIsStreamed() {
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    assertEquals("data.bin", fileValue.getFilename());
+    assertEquals("application/octet-stream", fileValue.getMimeType());
+    assertNotNull(((FileValueImpl) fileValue).getContentSource());
+
+    // the content is read from the database outside of a command
+    assertTrue(Arrays.equals(content, readFully(fileValue.getValue())));
+    // and can be read repeatedly
+    assertTrue(Arrays.equals(content, readFully(fileValue.getValue())));
+  }
+
+  public void testFileValueIsCopiedToTemporaryFileOutsideCommand() {
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    // the stream does not hold a connection
+    InputStream stream = fileValue.getValue();
+    assertTrue(stream instanceof TemporaryFileInputStream);
+
+    assertTrue(Arrays.equals(content, readFully(stream)));
+    assertTrue(((TemporaryFileInputStream) stream).isClosed());
+  }
+
+  public void testFileValueIsStreamedInsideCommand() {
+    final String processInstanceId = processInstance.getId();
+
+    InputStream unfinishedStream = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<InputStream>() {
+      public InputStream execute(CommandContext commandContext) {
+        ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+        FileValue fileValue = execution.getVariableTyped("file");
+
+        assertTrue(Arrays.equals(content, readFully(fileValue.getValue())));
+
+        // leave a stream open
+        InputStream stream = fileValue.getValue();
+        assertTrue(stream instanceof ByteArrayResultSetInputStream);
+        return stream;
+      }
+    });
+
+    // the stream was closed together with the command
+    assertTrue(((ByteArrayResultSetInputStream) unfinishedStream).isClosed());
+  }
+
+  public void testUnflushedByteArrayIsStreamedFromCache() {
+    final byte[] bytes = "not flushed yet".getBytes();
+
+    byte[] result = processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<byte[]>() {
+      public byte[] execute(CommandContext commandContext) {
+        ByteArrayEntity byteArray = new ByteArrayEntity(bytes);
+        commandContext.getDbEntityManager().insert(byteArray);
+
+        byte[] result = readFully(commandContext.getByteArrayManager().openByteArrayStream(byteArray.getId()));
+
+        commandContext.getDbEntityManager().delete(byteArray);
+        return result;
+      }
+    });
+
+    assertTrue(Arrays.equals(bytes, result));
+  }
+
+  public void testCopyStreamedFileValue() {
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    runtimeService.setVariable(processInstance.getId(), "copy", fileValue);
+
+    FileValue copy = runtimeService.getVariableTyped(processInstance.getId(), "copy");
+    assertEquals("data.bin", copy.getFilename());
+    assertTrue(Arrays.equals(content, readFully(copy.getValue())));
+
+    HistoricVariableInstance historicCopy = historyService.createHistoricVariableInstanceQuery().variableName("copy").singleResult();
+    assertTrue(Arrays.equals(content, readFully(((FileValue) historicCopy.getTypedValue()).getValue())));
+  }
+
+  public void testFileIsStreamedIntoDatabase() throws Exception {
+    final File file = File.createTempFile("FileValueStreamingTest", ".bin");
+    try {
+      FileOutputStream outputStream = new FileOutputStream(file);
+      try {
+        outputStream.write(content);
+      }
+      finally {
+        outputStream.close();
+      }
+
+      final String processInstanceId = processInstance.getId();
+      processEngineConfiguration.getCommandExecutorTxRequired().execute(new Command<Void>() {
+        public Void execute(CommandContext commandContext) {
+          ExecutionEntity execution = commandContext.getExecutionManager().findExecutionById(processInstanceId);
+          execution.setVariable("fromFile", Variables.fileValue(file));
+
+          // the content is not loaded but streamed when the byte array is inserted
+          VariableInstanceEntity variable = (VariableInstanceEntity) execution.getVariableInstanceLocal("fromFile");
+          assertNotNull(variable.getByteArrayValue().getContentSource());
+          return null;
+        }
+      });
+    }
+    finally {
+      file.delete();
+    }
+
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "fromFile");
+    assertEquals(file.getName(), fileValue.getFilename());
+    assertTrue(Arrays.equals(content, readFully(fileValue.getValue())));
+  }
+
+  public void testSerializeStreamedFileValue() throws Exception {
+    FileValue fileValue = runtimeService.getVariableTyped(processInstance.getId(), "file");
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    ObjectOutputStream out = new ObjectOutputStream(bytes);
+    out.writeObject(fileValue);
+    out.close();
+
+    ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+    FileValue deserialized = (FileValue) in.readObject();
+    in.close();
+
+    assertEquals("data.bin", deserialized.getFilename());
+    assertTrue(Arrays.equals(content, readFully(deserialized.getValue())));
+  }
+
+  protected static byte[] readFully(InputStream stream) {
+    try {
+      return IoUtil.readInputStream(stream, "file");
+    }
+    finally {
+      IoUtil.closeSilently(stream);
+    }
+  }
+
+}
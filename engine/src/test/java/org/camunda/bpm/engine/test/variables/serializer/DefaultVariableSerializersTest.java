@@ -0,0 +1,120 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.engine.test.variables.serializer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import org.camunda.bpm.engine.impl.cfg.StandaloneInMemProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.context.Context;
+import org.camunda.bpm.engine.impl.variable.serializer.DefaultVariableSerializers;
+import org.camunda.bpm.engine.impl.variable.serializer.IntegerValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.NullValueSerializer;
+import org.camunda.bpm.engine.impl.variable.serializer.StringValueSerializer;
+import org.camunda.bpm.engine.variable.Variables;
+import org.camunda.bpm.engine.variable.value.TypedValue;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests the caching of serializer resolutions in {@link DefaultVariableSerializers}.
+ */
+public class DefaultVariableSerializersTest {
+
+  protected DefaultVariableSerializers serializers;
+  protected CountingIntegerValueSerializer integerSerializer;
+  protected StringValueSerializer stringSerializer;
+  protected NullValueSerializer nullSerializer;
+
+  @Before
+  public void setUp() {
+    Context.setProcessEngineConfiguration(new StandaloneInMemProcessEngineConfiguration());
+
+    integerSerializer = new CountingIntegerValueSerializer();
+    stringSerializer = new StringValueSerializer();
+    nullSerializer = new NullValueSerializer();
+
+    serializers = new DefaultVariableSerializers();
+    serializers.addSerializer(nullSerializer);
+    serializers.addSerializer(integerSerializer);
+    serializers.addSerializer(stringSerializer);
+  }
+
+  @After
+  public void tearDown() {
+    Context.removeProcessEngineConfiguration();
+  }
+
+  @Test
+  public void testRepeatedResolutionIsCached() {
+    TypedValue value = Variables.untypedValue("aString");
+
+    assertSame(stringSerializer, serializers.findSerializerForValue(value));
+    assertEquals(1, integerSerializer.getCanHandleInvocations());
+
+    assertSame(stringSerializer, serializers.findSerializerForValue(Variables.untypedValue("anotherString")));
+    // the cached serializer is used without asking the other serializers again
+    assertEquals(1, integerSerializer.getCanHandleInvocations());
+    assertEquals(1, serializers.getResolutionCacheSize());
+  }
+
+  @Test
+  public void testDifferentValueClassesAreResolvedSeparately() {
+    assertSame(stringSerializer, serializers.findSerializerForValue(Variables.untypedValue("aString")));
+    assertSame(integerSerializer, serializers.findSerializerForValue(Variables.untypedValue(42)));
+    assertSame(stringSerializer, serializers.findSerializerForValue(Variables.stringValue("aString")));
+    assertSame(nullSerializer, serializers.findSerializerForValue(Variables.untypedNullValue()));
+
+    assertEquals(4, serializers.getResolutionCacheSize());
+  }
+
+  @Test
+  public void testCacheIsClearedWhenSerializerIsAdded() {
+    serializers.findSerializerForValue(Variables.untypedValue("aString"));
+
+    StringValueSerializer otherStringSerializer = new StringValueSerializer();
+    serializers.addSerializer(otherStringSerializer, 0);
+
+    assertEquals(0, serializers.getResolutionCacheSize());
+    assertSame(otherStringSerializer, serializers.findSerializerForValue(Variables.untypedValue("aString")));
+  }
+
+  @Test
+  public void testCacheIsClearedWhenSerializerIsRemoved() {
+    assertSame(integerSerializer, serializers.findSerializerForValue(Variables.untypedValue(42)));
+
+    IntegerValueSerializer otherIntegerSerializer = new IntegerValueSerializer();
+    serializers.addSerializer(otherIntegerSerializer);
+    serializers.findSerializerForValue(Variables.untypedValue(42));
+    serializers.removeSerializer(integerSerializer);
+
+    assertEquals(0, serializers.getResolutionCacheSize());
+    assertSame(otherIntegerSerializer, serializers.findSerializerForValue(Variables.untypedValue(42)));
+  }
+
+  protected static class CountingIntegerValueSerializer extends IntegerValueSerializer {
+
+    protected int canHandleInvocations = 0;
+
+    public boolean canHandle(TypedValue value) {
+      canHandleInvocations++;
+      return super.canHandle(value);
+    }
+
+    public int getCanHandleInvocations() {
+      return canHandleInvocations;
+    }
+  }
+
+}
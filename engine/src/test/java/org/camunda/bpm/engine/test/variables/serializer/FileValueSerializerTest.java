@@ -28,6 +28,7 @@ import java.util.Scanner;
 
 import org.camunda.bpm.engine.exception.NullValueException;
 import org.camunda.bpm.engine.impl.core.variable.type.FileValueTypeImpl;
+import org.camunda.bpm.engine.impl.core.variable.value.InputStreamSource;
 import org.camunda.bpm.engine.impl.core.variable.value.UntypedValueImpl;
 import org.camunda.bpm.engine.impl.persistence.entity.ByteArrayEntity;
 import org.camunda.bpm.engine.impl.variable.serializer.FileValueSerializer;
@@ -331,5 +332,10 @@ public class FileValueSerializerTest {
       this.byteArrayValue = new ByteArrayEntity(bytes);
     }
 
+    @Override
+    public void setByteArrayContent(InputStreamSource contentSource) {
+      this.byteArrayValue = new ByteArrayEntity(null, contentSource);
+    }
+
   }
 }
@@ -0,0 +1,55 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.RUN_ID;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.ProcessEngineConfiguration;
+import org.camunda.bpm.engine.impl.cfg.ProcessEngineConfigurationImpl;
+import org.camunda.bpm.engine.impl.cfg.StandaloneProcessEngineConfiguration;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Builds and closes an additional process engine which uses the data source
+ * of the given process engine.
+ */
+public class BuildProcessEngineStep extends ProcessEngineAwareStep {
+
+  protected boolean isMyBatisConfigurationCacheEnabled;
+
+  public BuildProcessEngineStep(ProcessEngine processEngine, boolean isMyBatisConfigurationCacheEnabled) {
+    super(processEngine);
+    this.isMyBatisConfigurationCacheEnabled = isMyBatisConfigurationCacheEnabled;
+  }
+
+  public void execute(PerfTestRunContext context) {
+    String runId = context.getVariable(RUN_ID);
+    buildAndCloseProcessEngine("startup-" + runId);
+  }
+
+  public void buildAndCloseProcessEngine(String processEngineName) {
+    ProcessEngineConfiguration configuration = processEngine.getProcessEngineConfiguration();
+
+    ProcessEngineConfigurationImpl engineConfiguration = new StandaloneProcessEngineConfiguration();
+    engineConfiguration.setProcessEngineName(processEngineName);
+    engineConfiguration.setDataSource(configuration.getDataSource());
+    engineConfiguration.setDatabaseSchemaUpdate(ProcessEngineConfiguration.DB_SCHEMA_UPDATE_FALSE);
+    engineConfiguration.setHistory(configuration.getHistory());
+    engineConfiguration.setMetricsEnabled(false);
+    engineConfiguration.setMyBatisConfigurationCacheEnabled(isMyBatisConfigurationCacheEnabled);
+
+    engineConfiguration.buildProcessEngine().close();
+  }
+
+}
@@ -0,0 +1,52 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.DEPLOYMENT_ID;
+import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.RUN_ID;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Deploys a BPMN model in a new deployment which is named after the run.
+ */
+public class DeployModelStep extends ProcessEngineAwareStep {
+
+  protected String deploymentName;
+  protected String resourceName;
+  protected String modelXml;
+
+  public DeployModelStep(ProcessEngine processEngine, String deploymentName, String resourceName, BpmnModelInstance modelInstance) {
+    super(processEngine);
+    this.deploymentName = deploymentName;
+    this.resourceName = resourceName;
+    // the model is converted once so that only the deployment is measured
+    this.modelXml = Bpmn.convertToString(modelInstance);
+  }
+
+  public void execute(PerfTestRunContext context) {
+    String runId = context.getVariable(RUN_ID);
+
+    String deploymentId = repositoryService.createDeployment()
+      .name(deploymentName + "-" + runId)
+      .addString(resourceName, modelXml)
+      .deploy()
+      .getId();
+
+    context.setVariable(DEPLOYMENT_ID, deploymentId);
+  }
+
+}
@@ -0,0 +1,43 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.steps;
+
+import org.camunda.bpm.engine.ProcessEngine;
+import org.camunda.bpm.engine.impl.ProcessEngineImpl;
+import org.camunda.bpm.engine.impl.RepositoryServiceImpl;
+import org.camunda.bpm.engine.impl.persistence.deploy.DeploymentCache;
+import org.camunda.bpm.qa.performance.engine.framework.PerfTestRunContext;
+
+/**
+ * Removes a process definition from the deployment cache and loads it again,
+ * together with its BPMN model instance.
+ */
+public class LoadProcessDefinitionStep extends ProcessEngineAwareStep {
+
+  protected String processDefinitionId;
+  protected DeploymentCache deploymentCache;
+
+  public LoadProcessDefinitionStep(ProcessEngine processEngine, String processDefinitionId) {
+    super(processEngine);
+    this.processDefinitionId = processDefinitionId;
+    this.deploymentCache = ((ProcessEngineImpl) processEngine).getProcessEngineConfiguration().getDeploymentCache();
+  }
+
+  public void execute(PerfTestRunContext context) {
+    deploymentCache.removeProcessDefinition(processDefinitionId);
+
+    ((RepositoryServiceImpl) repositoryService).getDeployedProcessDefinition(processDefinitionId);
+    repositoryService.getBpmnModelInstance(processDefinitionId);
+  }
+
+}
@@ -23,6 +23,7 @@ public final class PerfTestConstants {
   public static final String PROCESS_INSTANCE_ID = "processInstanceId";
   public static final String EXECUTION_ID = "executionId";
   public static final String TASK_ID = "taskId";
+  public static final String DEPLOYMENT_ID = "deploymentId";
 
   public static final String VARIABLE1 = "variable1";
   public static final String VARIABLE2 = "variable2";
@@ -0,0 +1,79 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.bpmn;
+
+import org.camunda.bpm.engine.RepositoryService;
+import org.camunda.bpm.engine.repository.Deployment;
+import org.camunda.bpm.model.bpmn.Bpmn;
+import org.camunda.bpm.model.bpmn.BpmnModelInstance;
+import org.camunda.bpm.model.bpmn.builder.AbstractFlowNodeBuilder;
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.DeployModelStep;
+import org.camunda.bpm.qa.performance.engine.steps.LoadProcessDefinitionStep;
+import org.junit.After;
+import org.junit.Test;
+
+/**
+ * Measures deploying a large process model and reloading it into the deployment cache.
+ */
+public class DeploymentPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  protected static final String DEPLOYMENT_NAME = "largeModel";
+  protected static final String RESOURCE_NAME = "largeModel.bpmn";
+
+  @After
+  public void deleteDeployments() {
+    RepositoryService repositoryService = engine.getRepositoryService();
+    for (Deployment deployment : repositoryService.createDeploymentQuery().deploymentNameLike(DEPLOYMENT_NAME + "%").list()) {
+      repositoryService.deleteDeployment(deployment.getId(), true);
+    }
+  }
+
+  @Test
+  public void largeModelDeployment() {
+    performanceTest()
+      .step(new DeployModelStep(engine, DEPLOYMENT_NAME, RESOURCE_NAME, createLargeModel(250)))
+    .run();
+  }
+
+  @Test
+  public void largeModelReload() {
+    RepositoryService repositoryService = engine.getRepositoryService();
+    String deploymentId = repositoryService.createDeployment()
+      .name(DEPLOYMENT_NAME)
+      .addModelInstance(RESOURCE_NAME, createLargeModel(250))
+      .deploy()
+      .getId();
+    String processDefinitionId = repositoryService.createProcessDefinitionQuery()
+      .deploymentId(deploymentId)
+      .singleResult()
+      .getId();
+
+    performanceTest()
+      .step(new LoadProcessDefinitionStep(engine, processDefinitionId))
+    .run();
+  }
+
+  /**
+   * Creates a sequence of user tasks, the model contains more than twice as
+   * many flow elements as user tasks.
+   */
+  protected BpmnModelInstance createLargeModel(int numberOfTasks) {
+    AbstractFlowNodeBuilder<?, ?> builder = Bpmn.createExecutableProcess("largeProcess").startEvent();
+    for (int i = 0; i < numberOfTasks; i++) {
+      builder = builder.userTask("task" + i);
+    }
+    return builder.endEvent().done();
+  }
+
+}
@@ -23,6 +23,7 @@ import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARI
 import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE8;
 import static org.camunda.bpm.qa.performance.engine.steps.PerfTestConstants.VARIABLE9;
 
+import java.util.Date;
 import java.util.HashMap;
 import org.camunda.bpm.engine.test.Deployment;
 import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
@@ -139,4 +140,51 @@ public class VariablesPerformanceTest extends ProcessEnginePerformanceTestCase {
     .run();
   }
 
+  @Test
+  @Deployment(resources =
+    {"org/camunda/bpm/qa/performance/engine/bpmn/StartEventPerformanceTest.noneStartEvent.bpmn"})
+  public void noneStartEvent10MixedVars() {
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process", createMixedVariables(10)))
+    .run();
+  }
+
+  @Test
+  @Deployment(resources =
+    {"org/camunda/bpm/qa/performance/engine/bpmn/StartEventPerformanceTest.noneStartEvent.bpmn"})
+  public void noneStartEvent100MixedVars() {
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process", createMixedVariables(100)))
+    .run();
+  }
+
+  @Test
+  @Deployment(resources =
+    {"org/camunda/bpm/qa/performance/engine/bpmn/StartEventPerformanceTest.noneStartEvent.bpmn"})
+  public void noneStartEvent1000MixedVars() {
+    performanceTest()
+      .step(new StartProcessInstanceStep(engine, "process", createMixedVariables(1000)))
+    .run();
+  }
+
+  /**
+   * Creates variables of alternating types so that each variable requires
+   * a serializer lookup for a different kind of value.
+   */
+  protected HashMap<String, Object> createMixedVariables(int numberOfVariables) {
+    HashMap<String, Object> variables = new HashMap<String, Object>();
+    for (int i = 0; i < numberOfVariables; i++) {
+      String name = "mixedVar" + i;
+      switch (i % 6) {
+        case 0: variables.put(name, "someValue"); break;
+        case 1: variables.put(name, i); break;
+        case 2: variables.put(name, (long) i); break;
+        case 3: variables.put(name, (double) i); break;
+        case 4: variables.put(name, new Date()); break;
+        default: variables.put(name, null); break;
+      }
+    }
+    return variables;
+  }
+
 }
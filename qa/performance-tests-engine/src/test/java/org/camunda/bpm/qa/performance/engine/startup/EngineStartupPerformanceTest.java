@@ -0,0 +1,43 @@
+/* Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.camunda.bpm.qa.performance.engine.startup;
+
+import org.camunda.bpm.qa.performance.engine.junit.ProcessEnginePerformanceTestCase;
+import org.camunda.bpm.qa.performance.engine.steps.BuildProcessEngineStep;
+import org.junit.Test;
+
+/**
+ * Measures building a process engine with and without reusing the parsed MyBatis mappings.
+ */
+public class EngineStartupPerformanceTest extends ProcessEnginePerformanceTestCase {
+
+  @Test
+  public void engineStartupWithCachedMappings() {
+    BuildProcessEngineStep buildProcessEngineStep = new BuildProcessEngineStep(engine, true);
+
+    // parse the mappings before the measurement, so that every run uses the warm cache
+    buildProcessEngineStep.buildAndCloseProcessEngine("startup-warmup");
+
+    performanceTest()
+      .step(buildProcessEngineStep)
+    .run();
+  }
+
+  @Test
+  public void engineStartupWithoutCachedMappings() {
+    performanceTest()
+      .step(new BuildProcessEngineStep(engine, false))
+    .run();
+  }
+
+}